@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cbioportal.cdd.model.ClinicalAttributeCompletion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * getCompletionsByPrefix() for prefixes of 1, 3 and 8 characters of sampled column headers,
+ * one prefix per invocation.  Short prefixes match the most keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    private static final int PREFIX_COUNT = 100;
+    private static final int LIMIT = 10;
+
+    @Param({"1", "3", "8"})
+    public int prefixLength;
+
+    private List<String> prefixes;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp(ServiceState serviceState) {
+        prefixes = new ArrayList<String>();
+        for (String columnHeader : serviceState.dictionary.sampleColumnHeaders(PREFIX_COUNT)) {
+            prefixes.add(columnHeader.substring(0, Math.min(prefixLength, columnHeader.length())));
+        }
+    }
+
+    @Benchmark
+    public List<ClinicalAttributeCompletion> getCompletionsByPrefix(ServiceState serviceState) {
+        String prefix = prefixes.get(next);
+        next = (next + 1) % prefixes.size();
+        return serviceState.service.getCompletionsByPrefix(prefix, LIMIT);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import javax.cache.spi.CachingProvider;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.repository.topbraid.KnowledgeSystemsRepository;
+import org.cbioportal.cdd.repository.topbraid.MskVocabularyRepository;
+import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataCache;
+import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataPersistentCache;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * The service layer of the application (everything under org.cbioportal.cdd.service)
+ * on top of a SyntheticDictionary.
+ *
+ * There is no web layer, no TopBraid and no EHCache: the persistent cache is replaced
+ * with one which returns copies of the synthetic dictionary, so resetCache() does
+ * everything except the network and disk i/o, and a benchmark run never touches the
+ * configured EHCache stores.
+ */
+@Configuration
+@ComponentScan(basePackages = "org.cbioportal.cdd.service",
+    excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ClinicalAttributeMetadataPersistentCache.class))
+public class BenchmarkConfig {
+
+    private static SyntheticDictionary dictionary;
+
+    /**
+    * Starts the service layer and fills the clinical attribute cache.
+    */
+    public static synchronized AnnotationConfigApplicationContext start(SyntheticDictionary syntheticDictionary) {
+        dictionary = syntheticDictionary;
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put("mskVocabulary.studyIdList", "");
+        // measure searching, not the memoized search results
+        properties.put("cdd.search.cache.maximumSize", "0");
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", properties));
+        context.register(BenchmarkConfig.class);
+        context.refresh();
+        context.getBean(ClinicalAttributeMetadataCache.class).resetCache();
+        return context;
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public ClinicalAttributeMetadataPersistentCache clinicalAttributeMetadataPersistentCache() {
+        return new SyntheticPersistentCache(dictionary);
+    }
+
+    // never called, but autowired by the real persistent cache and the services
+    @Bean
+    public CachingProvider cachingProvider() {
+        return new EhcacheCachingProvider();
+    }
+
+    @Bean
+    public KnowledgeSystemsRepository knowledgeSystemsRepository() {
+        return new KnowledgeSystemsRepository(null, "", "");
+    }
+
+    @Bean
+    public MskVocabularyRepository mskVocabularyRepository() {
+        return new MskVocabularyRepository(null);
+    }
+
+    /**
+    * Each read returns a new copy of the dictionary, as a TopBraid response or an
+    * EHCache read would.  Backups are discarded.
+    */
+    static class SyntheticPersistentCache extends ClinicalAttributeMetadataPersistentCache {
+
+        private final SyntheticDictionary dictionary;
+
+        SyntheticPersistentCache(SyntheticDictionary dictionary) {
+            this.dictionary = dictionary;
+        }
+
+        @Override
+        public ArrayList<ClinicalAttributeMetadata> getClinicalAttributeMetadataFromPersistentCache() {
+            return dictionary.copyAttributes();
+        }
+
+        @Override
+        public Map<String, ArrayList<ClinicalAttributeMetadata>> getClinicalAttributeMetadataOverridesFromPersistentCache() {
+            return dictionary.copyOverrides();
+        }
+
+        @Override
+        public ArrayList<ClinicalAttributeMetadata> getClinicalAttributeMetadataFromPersistentCacheBackup() {
+            return dictionary.copyAttributes();
+        }
+
+        @Override
+        public Map<String, ArrayList<ClinicalAttributeMetadata>> getClinicalAttributeMetadataOverridesFromPersistentCacheBackup() {
+            return dictionary.copyOverrides();
+        }
+
+        @Override
+        public ArrayList<ClinicalAttributeMetadata> updateClinicalAttributeMetadataInPersistentCache() {
+            return dictionary.copyAttributes();
+        }
+
+        @Override
+        public Map<String, ArrayList<ClinicalAttributeMetadata>> updateClinicalAttributeMetadataOverridesInPersistentCache() {
+            return dictionary.copyOverrides();
+        }
+
+        @Override
+        public void backupClinicalAttributeMetadataPersistentCache(ArrayList<ClinicalAttributeMetadata> clinicalAttributeMetadata) {
+        }
+
+        @Override
+        public void backupClinicalAttributeMetadataOverridesPersistentCache(Map<String, ArrayList<ClinicalAttributeMetadata>> clinicalAttributeMetadataOverrides) {
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * getMetadataByColumnHeaders() for a study without overrides (no study), a study with
+ * overrides and a study with altered default metadata (mskimpact).  5000 column headers
+ * reaches the default cdd.columnHeaders.parallelThreshold, so that size measures the
+ * parallel resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnHeaderLookupBenchmark {
+
+    @Param({"default", "override", "altered"})
+    public String study;
+
+    @Param({"10", "100", "1000", "5000"})
+    public int columnHeaderCount;
+
+    private String cancerStudy;
+    private List<String> columnHeaders;
+
+    @Setup(Level.Trial)
+    public void setUp(ServiceState serviceState) {
+        switch (study) {
+            case "override":
+                cancerStudy = SyntheticDictionary.OVERRIDE_STUDY;
+                break;
+            case "altered":
+                cancerStudy = SyntheticDictionary.ALTERED_STUDY;
+                break;
+            default:
+                cancerStudy = null;
+        }
+        columnHeaders = serviceState.dictionary.sampleColumnHeaders(columnHeaderCount);
+    }
+
+    @Benchmark
+    public List<ClinicalAttributeMetadata> getMetadataByColumnHeaders(ServiceState serviceState) {
+        return serviceState.service.getMetadataByColumnHeaders(cancerStudy, columnHeaders);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * getClinicalAttributeMetadata() of the visible PATIENT attributes, without a cancer study, for
+ * a study with overrides and for a study with altered default metadata, in the default order
+ * and sorted by priority and by display name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListingBenchmark {
+
+    @Param({"", SyntheticDictionary.OVERRIDE_STUDY, SyntheticDictionary.ALTERED_STUDY})
+    public String cancerStudy;
+
+    @Param({"", "priority", "display_name"})
+    public String sort;
+
+    @Benchmark
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadata(ServiceState serviceState) {
+        return serviceState.service.getClinicalAttributeMetadata(cancerStudy.isEmpty() ? null : cancerStudy, "PATIENT", null, null, true,
+            ClinicalAttributeSort.fromValueIgnoreCase(sort));
+    }
+}
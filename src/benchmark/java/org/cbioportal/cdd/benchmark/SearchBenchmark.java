@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.SearchRanking;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * getMetadataBySearchTerms() with 1 to 5 terms, inclusive (any term matches) and
+ * exclusive (every term matches).  The terms are words of one column header, so
+ * every search finds at least one attribute.  Each search is ranked by levenshtein
+ * distance and by BM25 relevance.  The memoized search results are disabled (see
+ * BenchmarkConfig), so every invocation runs the search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"true", "false"})
+    public boolean inclusive;
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int termCount;
+
+    @Param({"LEVENSHTEIN", "BM25"})
+    public SearchRanking ranking;
+
+    private List<String> searchTerms;
+
+    @Setup(Level.Trial)
+    public void setUp(ServiceState serviceState) {
+        searchTerms = serviceState.dictionary.sampleSearchTerms(termCount);
+    }
+
+    @Benchmark
+    public List<ClinicalAttributeMetadata> getMetadataBySearchTerms(ServiceState serviceState) {
+        return serviceState.service.getMetadataBySearchTerms(null, searchTerms, null, inclusive, false, ranking);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.benchmark;
+
+import java.io.IOException;
+import org.cbioportal.cdd.service.KnowledgeSystemsDataDictionaryService;
+import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataCache;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+/**
+ * The service layer on top of the synthetic dictionary, started once per fork and
+ * shared by all benchmark threads.
+ */
+@State(Scope.Benchmark)
+public class ServiceState {
+
+    SyntheticDictionary dictionary;
+    KnowledgeSystemsDataDictionaryService service;
+    ClinicalAttributeMetadataCache clinicalAttributesCache;
+    private AnnotationConfigApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        dictionary = SyntheticDictionary.load();
+        context = BenchmarkConfig.start(dictionary);
+        // the same service the controller uses
+        service = BeanFactoryAnnotationUtils.qualifiedBeanOfType(context.getBeanFactory(), KnowledgeSystemsDataDictionaryService.class, "servicerouter");
+        clinicalAttributesCache = context.getBean(ClinicalAttributeMetadataCache.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+
+/**
+ * A realistically sized clinical attribute dictionary for the benchmarks.
+ *
+ * The column headers are read from docs/resource_uri_to_clinical_attribute_mapping.txt
+ * (about 4,600 real headers), and numbered variants are added until there are
+ * ATTRIBUTE_COUNT attributes.  There are OVERRIDE_STUDY_COUNT studies with overrides,
+ * one of them mskimpact, which also gets altered default metadata.  The same seed
+ * always produces the same dictionary, so results from different runs can be compared.
+ */
+public class SyntheticDictionary {
+
+    public static final String HEADERS_FILE_PROPERTY = "cdd.benchmark.headersFile";
+    public static final String DEFAULT_HEADERS_FILE = "docs/resource_uri_to_clinical_attribute_mapping.txt";
+    public static final int ATTRIBUTE_COUNT = 5000;
+    public static final int OVERRIDE_STUDY_COUNT = 200;
+    public static final int OVERRIDES_PER_STUDY = 25;
+    public static final String OVERRIDE_STUDY = "synthetic_study_000";
+    public static final String ALTERED_STUDY = "mskimpact";
+
+    private static final long SEED = 2026L;
+    private static final String[] DATATYPES = {"STRING", "STRING", "NUMBER", "BOOLEAN"};
+    private static final String[] ATTRIBUTE_TYPES = {"PATIENT", "SAMPLE"};
+
+    private final List<ClinicalAttributeMetadata> attributes = new ArrayList<ClinicalAttributeMetadata>();
+    private final Map<String, List<ClinicalAttributeMetadata>> overrides = new HashMap<String, List<ClinicalAttributeMetadata>>();
+
+    /**
+    * Reads the column headers from the file named by the cdd.benchmark.headersFile system
+    * property, docs/resource_uri_to_clinical_attribute_mapping.txt (relative to the working
+    * directory) by default.
+    */
+    public static SyntheticDictionary load() throws IOException {
+        String headersFile = System.getProperty(HEADERS_FILE_PROPERTY, DEFAULT_HEADERS_FILE);
+        List<String> columnHeaders = new ArrayList<String>();
+        for (String line : Files.readAllLines(Paths.get(headersFile), StandardCharsets.UTF_8)) {
+            // each line is: resource uri <tab> column header
+            String[] fields = line.split("\t");
+            if (fields.length == 2 && !fields[1].trim().isEmpty()) {
+                columnHeaders.add(fields[1].trim());
+            }
+        }
+        return new SyntheticDictionary(columnHeaders, ATTRIBUTE_COUNT, OVERRIDE_STUDY_COUNT, OVERRIDES_PER_STUDY);
+    }
+
+    public SyntheticDictionary(List<String> columnHeaders, int attributeCount, int overrideStudyCount, int overridesPerStudy) {
+        Random random = new Random(SEED);
+        Set<String> usedColumnHeaders = new HashSet<String>();
+        for (int i = 0; attributes.size() < attributeCount; i++) {
+            String baseColumnHeader = columnHeaders.get(i % columnHeaders.size());
+            int variant = i / columnHeaders.size();
+            String columnHeader = variant == 0 ? baseColumnHeader : baseColumnHeader + "_" + (variant + 1);
+            // skip duplicates in the headers file and variants which happen to be real headers
+            if (!usedColumnHeaders.add(columnHeader.toUpperCase())) {
+                continue;
+            }
+            String displayName = makeDisplayName(baseColumnHeader);
+            attributes.add(new ClinicalAttributeMetadata(columnHeader, displayName, displayName + " (synthetic attribute " + attributes.size() + ")",
+                DATATYPES[random.nextInt(DATATYPES.length)], ATTRIBUTE_TYPES[random.nextInt(ATTRIBUTE_TYPES.length)], "1"));
+        }
+        for (int i = 0; i < overrideStudyCount; i++) {
+            String cancerStudy = i == overrideStudyCount - 1 ? ALTERED_STUDY : String.format("synthetic_study_%03d", i);
+            List<ClinicalAttributeMetadata> studyOverrides = new ArrayList<ClinicalAttributeMetadata>();
+            for (int j = 0; j < overridesPerStudy; j++) {
+                ClinicalAttributeMetadata defaultAttribute = attributes.get(random.nextInt(attributes.size()));
+                // most overrides only set some fields, the rest are filled in from the default when the cache is refilled
+                String displayName = random.nextBoolean() ? defaultAttribute.getDisplayName() + " (" + cancerStudy + ")" : null;
+                studyOverrides.add(new ClinicalAttributeMetadata(defaultAttribute.getColumnHeader(), displayName, null, null,
+                    ATTRIBUTE_TYPES[random.nextInt(ATTRIBUTE_TYPES.length)], String.valueOf(random.nextInt(100))));
+            }
+            overrides.put(cancerStudy, studyOverrides);
+        }
+    }
+
+    private static String makeDisplayName(String columnHeader) {
+        StringBuilder displayName = new StringBuilder();
+        for (String word : columnHeader.toLowerCase().split("_")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (displayName.length() > 0) {
+                displayName.append(' ');
+            }
+            displayName.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return displayName.toString();
+    }
+
+    public List<String> getColumnHeaders() {
+        List<String> columnHeaders = new ArrayList<String>(attributes.size());
+        for (ClinicalAttributeMetadata attribute : attributes) {
+            columnHeaders.add(attribute.getColumnHeader());
+        }
+        return columnHeaders;
+    }
+
+    /**
+    *
+    * @return
+    * count column headers chosen at random, always the same for the same count
+    */
+    public List<String> sampleColumnHeaders(int count) {
+        List<String> columnHeaders = getColumnHeaders();
+        Collections.shuffle(columnHeaders, new Random(SEED + count));
+        return new ArrayList<String>(columnHeaders.subList(0, Math.min(count, columnHeaders.size())));
+    }
+
+    /**
+    * The terms are words of a single column header, so an exclusive search for all
+    * of them still finds something.
+    *
+    * @return
+    * up to count search terms, always the same for the same count
+    */
+    public List<String> sampleSearchTerms(int count) {
+        List<ClinicalAttributeMetadata> shuffledAttributes = new ArrayList<ClinicalAttributeMetadata>(attributes);
+        Collections.shuffle(shuffledAttributes, new Random(SEED + count));
+        List<String> longestTerms = new ArrayList<String>();
+        for (ClinicalAttributeMetadata attribute : shuffledAttributes) {
+            Set<String> terms = new LinkedHashSet<String>();
+            for (String word : attribute.getColumnHeader().toLowerCase().split("_")) {
+                // skip short words and the numbers of the generated variants
+                if (word.length() > 2 && !Character.isDigit(word.charAt(0))) {
+                    terms.add(word);
+                }
+            }
+            if (terms.size() >= count) {
+                return new ArrayList<String>(terms).subList(0, count);
+            }
+            if (terms.size() > longestTerms.size()) {
+                longestTerms = new ArrayList<String>(terms);
+            }
+        }
+        return longestTerms;
+    }
+
+    /**
+    *
+    * @return
+    * a fresh copy of the default attributes, as the repository would return them
+    */
+    public ArrayList<ClinicalAttributeMetadata> copyAttributes() {
+        ArrayList<ClinicalAttributeMetadata> copy = new ArrayList<ClinicalAttributeMetadata>(attributes.size());
+        for (ClinicalAttributeMetadata attribute : attributes) {
+            copy.add(new ClinicalAttributeMetadata(attribute));
+        }
+        return copy;
+    }
+
+    /**
+    *
+    * @return
+    * a fresh copy of the overrides, as the repository would return them
+    */
+    public HashMap<String, ArrayList<ClinicalAttributeMetadata>> copyOverrides() {
+        HashMap<String, ArrayList<ClinicalAttributeMetadata>> copy = new HashMap<String, ArrayList<ClinicalAttributeMetadata>>();
+        for (Map.Entry<String, List<ClinicalAttributeMetadata>> entry : overrides.entrySet()) {
+            ArrayList<ClinicalAttributeMetadata> studyOverrides = new ArrayList<ClinicalAttributeMetadata>(entry.getValue().size());
+            for (ClinicalAttributeMetadata override : entry.getValue()) {
+                studyOverrides.add(new ClinicalAttributeMetadata(override));
+            }
+            copy.put(entry.getKey(), studyOverrides);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.client;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.util.List;
+import org.cbioportal.cdd.model.CancerStudy;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ColumnHeaderLookupResult;
+
+/**
+ * Minimal java client for the clinical data dictionary web service.
+ *
+ * Responses are requested in the binary Smile format, which is smaller and
+ * cheaper to parse than the JSON served to browsers. This class and the
+ * org.cbioportal.cdd.model package are packaged as cdd-client.jar.
+ *
+ * Example:
+ *   ClinicalDataDictionaryClient client = new ClinicalDataDictionaryClient("http://localhost:8080/cdd");
+ *   List&lt;ClinicalAttributeMetadata&gt; attributes = client.getClinicalAttributeMetadata("mskimpact");
+ */
+public class ClinicalDataDictionaryClient {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    private static final TypeReference<List<ClinicalAttributeMetadata>> CLINICAL_ATTRIBUTE_METADATA_LIST_TYPE = new TypeReference<List<ClinicalAttributeMetadata>>(){};
+    private static final TypeReference<List<CancerStudy>> CANCER_STUDY_LIST_TYPE = new TypeReference<List<CancerStudy>>(){};
+
+    private final String apiURL;
+    private final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private int connectTimeoutMillis = 10000;
+    private int readTimeoutMillis = 60000;
+
+    /**
+    *
+    * @param baseURL
+    * The url the service is deployed at, e.g. http://localhost:8080/cdd
+    */
+    public ClinicalDataDictionaryClient(String baseURL) {
+        this.apiURL = (baseURL.endsWith("/") ? baseURL : baseURL + "/") + "api/";
+    }
+
+    public void setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    public void setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadata(String cancerStudy) throws IOException {
+        HttpURLConnection connection = openConnection(cancerStudyParameter(cancerStudy), "GET");
+        return readResponse(connection, CLINICAL_ATTRIBUTE_METADATA_LIST_TYPE);
+    }
+
+    public List<ClinicalAttributeMetadata> getMetadataByColumnHeaders(String cancerStudy, List<String> columnHeaders) throws IOException {
+        HttpURLConnection connection = openConnection(cancerStudyParameter(cancerStudy), "POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            jsonMapper.writeValue(outputStream, columnHeaders);
+        }
+        return readResponse(connection, CLINICAL_ATTRIBUTE_METADATA_LIST_TYPE);
+    }
+
+    /**
+    * Like getMetadataByColumnHeaders(), but column headers which are not found are
+    * listed in the result instead of failing the whole request.
+    */
+    public ColumnHeaderLookupResult getMetadataByColumnHeadersPartial(String cancerStudy, List<String> columnHeaders, boolean includeSuggestions) throws IOException {
+        String query = "?partial=true&suggestions=" + includeSuggestions + (cancerStudy == null ? "" : "&cancerStudy=" + encode(cancerStudy));
+        HttpURLConnection connection = openConnection(query, "POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream outputStream = connection.getOutputStream()) {
+            jsonMapper.writeValue(outputStream, columnHeaders);
+        }
+        return readResponse(connection, new TypeReference<ColumnHeaderLookupResult>(){});
+    }
+
+    public ClinicalAttributeMetadata getMetadataByColumnHeader(String cancerStudy, String columnHeader) throws IOException {
+        HttpURLConnection connection = openConnection(encode(columnHeader) + cancerStudyParameter(cancerStudy), "GET");
+        return readResponse(connection, new TypeReference<ClinicalAttributeMetadata>(){});
+    }
+
+    public List<CancerStudy> getCancerStudies() throws IOException {
+        HttpURLConnection connection = openConnection("cancerStudies", "GET");
+        return readResponse(connection, CANCER_STUDY_LIST_TYPE);
+    }
+
+    private HttpURLConnection openConnection(String path, String method) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(apiURL + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(connectTimeoutMillis);
+        connection.setReadTimeout(readTimeoutMillis);
+        connection.setRequestProperty("Accept", APPLICATION_SMILE_VALUE);
+        return connection;
+    }
+
+    private <T> T readResponse(HttpURLConnection connection, TypeReference<T> responseType) throws IOException {
+        try {
+            int status = connection.getResponseCode();
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Clinical data dictionary returned HTTP " + status + " for " + connection.getURL());
+            }
+            try (InputStream inputStream = connection.getInputStream()) {
+                return smileMapper.readValue(inputStream, responseType);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private String cancerStudyParameter(String cancerStudy) throws UnsupportedEncodingException {
+        return cancerStudy == null ? "" : "?cancerStudy=" + encode(cancerStudy);
+    }
+
+    private String encode(String value) throws UnsupportedEncodingException {
+        return URLEncoder.encode(value, "UTF-8");
+    }
+}
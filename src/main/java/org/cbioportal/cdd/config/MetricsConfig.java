@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF
+ * MERCHANTABILITY OR FITNESS FOR A PARTICULAR PURPOSE.  The software and
+ * documentation provided hereunder is on an "as is" basis, and
+ * Memorial Sloan-Kettering Cancer Center
+ * has no obligations to provide maintenance, support,
+ * updates, enhancements or modifications.  In no event shall
+ * Memorial Sloan-Kettering Cancer Center
+ * be liable to any party for direct, indirect, special,
+ * incidental or consequential damages, including lost profits, arising
+ * out of the use of this software and its documentation, even if
+ * Memorial Sloan-Kettering Cancer Center
+ * has been advised of the possibility of such damage.
+*/
+
+
+package org.cbioportal.cdd.config;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmMemoryMetrics;
+import io.micrometer.core.instrument.binder.jvm.JvmThreadMetrics;
+import io.micrometer.core.instrument.binder.system.ProcessorMetrics;
+import io.micrometer.core.instrument.binder.system.UptimeMetrics;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import javax.annotation.PreDestroy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The application's single meter registry, scraped by prometheus from /prometheus
+ * (see PrometheusScrapeController).  Spring beans get it injected as a MeterRegistry.
+ * It is also added to Metrics.globalRegistry for classes which are not Spring beans,
+ * e.g. the ehcache CacheEventLogger.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Bean
+    public PrometheusMeterRegistry prometheusMeterRegistry() {
+        prometheusMeterRegistry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        new JvmMemoryMetrics().bindTo(prometheusMeterRegistry);
+        new JvmGcMetrics().bindTo(prometheusMeterRegistry);
+        new JvmThreadMetrics().bindTo(prometheusMeterRegistry);
+        new ProcessorMetrics().bindTo(prometheusMeterRegistry);
+        new UptimeMetrics().bindTo(prometheusMeterRegistry);
+        Metrics.addRegistry(prometheusMeterRegistry);
+        return prometheusMeterRegistry;
+    }
+
+    @PreDestroy
+    private void removeFromGlobalRegistry() {
+        if (prometheusMeterRegistry != null) {
+            Metrics.removeRegistry(prometheusMeterRegistry);
+        }
+    }
+}
@@ -18,10 +18,12 @@
 
 package org.cbioportal.cdd.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.cbioportal.cdd.repository.topbraid.KnowledgeSystemsRepository;
 import org.cbioportal.cdd.repository.topbraid.MskVocabularyRepository;
 import org.cbioportal.cdd.repository.topbraid.TopBraidSessionConfiguration;
 import org.cbioportal.cdd.repository.topbraid.TopBraidSessionManager;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -51,6 +53,9 @@ public class RepositoryConfig {
     @Value("${topbraid.knowledgeSystems.cddGraphId:}")
     private String topBraidCddGraphId;
 
+    @Value("${topbraid.knowledgeSystems.modifiedProperty:}")
+    private String topBraidModifiedProperty;
+
     @Value("${topbraid.mskVocabulary.loginUrl:}")
     private String mskVocabularyLoginUrl;
 
@@ -60,6 +65,9 @@ public class RepositoryConfig {
     @Value("${topbraid.mskVocabulary.password:}")
     private String mskVocabularyPassword;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     @Qualifier("knowledgeSystemsSessionConfiguration")
     public TopBraidSessionConfiguration knowledgeSystemsSessionConfiguration() {
@@ -97,12 +105,17 @@ public class RepositoryConfig {
     @Bean
     @Qualifier("knowledgeSystemsRepository")
     public KnowledgeSystemsRepository knowledgeSystemsRepository() {
-        return new KnowledgeSystemsRepository(knowledgeSystemsSessionManager(), topBraidCddNamespacePrefix, topBraidCddGraphId);
+        KnowledgeSystemsRepository knowledgeSystemsRepository = new KnowledgeSystemsRepository(knowledgeSystemsSessionManager(), topBraidCddNamespacePrefix, topBraidCddGraphId);
+        knowledgeSystemsRepository.setMeterRegistry(meterRegistry);
+        knowledgeSystemsRepository.setModifiedProperty(topBraidModifiedProperty);
+        return knowledgeSystemsRepository;
     }
 
     @Bean
     @Qualifier("mskVocabularyRepository")
     public MskVocabularyRepository mskVocabularyRepository() {
-        return new MskVocabularyRepository(mskVocabularySessionManager());
+        MskVocabularyRepository mskVocabularyRepository = new MskVocabularyRepository(mskVocabularySessionManager());
+        mskVocabularyRepository.setMeterRegistry(meterRegistry);
+        return mskVocabularyRepository;
     }
 }
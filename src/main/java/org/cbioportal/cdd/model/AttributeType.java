@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.model;
+
+/**
+ * The attribute_type values used by cBioPortal.
+ */
+public enum AttributeType {
+    PATIENT,
+    SAMPLE;
+
+    private static final AttributeType[] VALUES = values();
+
+    /**
+    *
+    * @param value
+    * an attribute_type value exactly as stored in TopBraid
+    * @return the matching AttributeType, or null if value is null or not a known attribute type
+    */
+    public static AttributeType fromValue(String value) {
+        if (value != null) {
+            for (AttributeType attributeType : VALUES) {
+                if (attributeType.name().equals(value)) {
+                    return attributeType;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+    *
+    * @param value
+    * an attribute_type value in any case, e.g. a request parameter
+    * @return the matching AttributeType, or null if value is null or not a known attribute type
+    */
+    public static AttributeType fromValueIgnoreCase(String value) {
+        if (value != null) {
+            for (AttributeType attributeType : VALUES) {
+                if (attributeType.name().equalsIgnoreCase(value)) {
+                    return attributeType;
+                }
+            }
+        }
+        return null;
+    }
+}
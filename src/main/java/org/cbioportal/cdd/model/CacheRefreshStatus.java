@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Response of GET /api/refreshCache and GET /api/refreshCache/{jobId}: the state
+ * and timing of a cache refresh job.  Times are ISO-8601 instants, started and
+ * finished are missing until the job has started or finished.
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({
+    "job_id",
+    "state",
+    "trigger",
+    "requested",
+    "started",
+    "finished",
+    "duration_millis",
+    "attached_requests",
+    "message"
+})
+public class CacheRefreshStatus {
+
+    public static final String STATE_QUEUED = "QUEUED";
+    public static final String STATE_RUNNING = "RUNNING";
+    public static final String STATE_SUCCEEDED = "SUCCEEDED";
+    public static final String STATE_FAILED = "FAILED";
+
+    @JsonProperty("job_id")
+    private String jobId;
+    @JsonProperty("state")
+    private String state;
+    @JsonProperty("trigger")
+    private String trigger;
+    @JsonProperty("requested")
+    private String requested;
+    @JsonProperty("started")
+    private String started;
+    @JsonProperty("finished")
+    private String finished;
+    @JsonProperty("duration_millis")
+    private Long durationMillis;
+    @JsonProperty("attached_requests")
+    private int attachedRequests;
+    @JsonProperty("message")
+    private String message;
+
+    /**
+    * No args constructor for use in serialization
+    *
+    */
+    private CacheRefreshStatus() {}
+
+    public CacheRefreshStatus(String jobId, String state, String trigger, String requested, String started, String finished,
+        Long durationMillis, int attachedRequests, String message) {
+        this.jobId = jobId;
+        this.state = state;
+        this.trigger = trigger;
+        this.requested = requested;
+        this.started = started;
+        this.finished = finished;
+        this.durationMillis = durationMillis;
+        this.attachedRequests = attachedRequests;
+        this.message = message;
+    }
+
+    /**
+    *
+    * @return the id to poll GET /api/refreshCache/{jobId} with
+    */
+    @JsonProperty("job_id")
+    public String getJobId() {
+        return jobId;
+    }
+
+    /**
+    *
+    * @return QUEUED, RUNNING, SUCCEEDED or FAILED
+    */
+    @JsonProperty("state")
+    public String getState() {
+        return state;
+    }
+
+    /**
+    *
+    * @return what started the job: manual, scheduled or startup
+    */
+    @JsonProperty("trigger")
+    public String getTrigger() {
+        return trigger;
+    }
+
+    @JsonProperty("requested")
+    public String getRequested() {
+        return requested;
+    }
+
+    @JsonProperty("started")
+    public String getStarted() {
+        return started;
+    }
+
+    @JsonProperty("finished")
+    public String getFinished() {
+        return finished;
+    }
+
+    /**
+    *
+    * @return the time the job has been running for, or ran for if it has finished
+    */
+    @JsonProperty("duration_millis")
+    public Long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+    *
+    * @return the number of refresh requests which arrived while the job was in flight and were given this job instead of a new one
+    */
+    @JsonProperty("attached_requests")
+    public int getAttachedRequests() {
+        return attachedRequests;
+    }
+
+    /**
+    *
+    * @return why the job failed, null unless it failed
+    */
+    @JsonProperty("message")
+    public String getMessage() {
+        return message;
+    }
+
+    @JsonIgnore
+    public boolean isFinished() {
+        return STATE_SUCCEEDED.equals(state) || STATE_FAILED.equals(state);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.annotations.ApiModelProperty;
+import java.util.Map;
+
+/**
+ * One cancer study overriding a clinical attribute, with the fields the study sets
+ * itself (by their JSON names) and their values.  Fields the override leaves empty,
+ * and which are filled in from the default attribute, are not included.
+ */
+@JsonPropertyOrder({
+    "cancer_study",
+    "overridden_fields"
+})
+public class CancerStudyOverride {
+
+    @ApiModelProperty(value = "The cancer study")
+    @JsonProperty("cancer_study")
+    private String cancerStudy;
+    @ApiModelProperty(value = "The fields the cancer study overrides and their values")
+    @JsonProperty("overridden_fields")
+    private Map<String, String> overriddenFields;
+
+    /**
+    * No args constructor for use in serialization
+    *
+    */
+    private CancerStudyOverride() {}
+
+    public CancerStudyOverride(String cancerStudy, Map<String, String> overriddenFields) {
+        this.cancerStudy = cancerStudy;
+        this.overriddenFields = overriddenFields;
+    }
+
+    @JsonProperty("cancer_study")
+    public String getCancerStudy() {
+        return cancerStudy;
+    }
+
+    @JsonProperty("overridden_fields")
+    public Map<String, String> getOverriddenFields() {
+        return overriddenFields;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.annotations.ApiModelProperty;
+
+/**
+ * One result of GET /api/autocomplete: just enough of a clinical attribute to show it
+ * in a list of completions.
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({
+    "column_header",
+    "display_name"
+})
+public class ClinicalAttributeCompletion {
+
+    @ApiModelProperty(value = "The column header")
+    @JsonProperty("column_header")
+    private String columnHeader;
+    @ApiModelProperty(value = "The name to be displayed in the cBio Portal")
+    @JsonProperty("display_name")
+    private String displayName;
+
+    /**
+    * No args constructor for use in serialization
+    *
+    */
+    private ClinicalAttributeCompletion() {}
+
+    /**
+    *
+    * @param columnHeader
+    * @param displayName
+    */
+    public ClinicalAttributeCompletion(String columnHeader, String displayName) {
+        this.columnHeader = columnHeader;
+        this.displayName = displayName;
+    }
+
+    @JsonProperty("column_header")
+    public String getColumnHeader() {
+        return columnHeader;
+    }
+
+    @JsonProperty("column_header")
+    public void setColumnHeader(String columnHeader) {
+        this.columnHeader = columnHeader;
+    }
+
+    @JsonProperty("display_name")
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @JsonProperty("display_name")
+    public void setDisplayName(String displayName) {
+        this.displayName = displayName;
+    }
+}
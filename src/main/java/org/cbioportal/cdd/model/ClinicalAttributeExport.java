@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.model;
+
+import java.nio.file.Path;
+
+/**
+ * The bulk export of one cache snapshot (GET /api/export): a zip file on disk with the
+ * default attributes, each cancer study's overrides and a manifest.
+ *
+ * The checksum is over the contents of the export, not over the zip file, so it only
+ * changes when the clinical attributes or overrides do and can be used as an ETag.
+ */
+public class ClinicalAttributeExport {
+
+    private final Path file;
+    private final String checksum;
+    private final long size;
+
+    public ClinicalAttributeExport(Path file, String checksum, long size) {
+        this.file = file;
+        this.checksum = checksum;
+        this.size = size;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+    *
+    * @return
+    * the hex encoded SHA-256 of the export's contents
+    */
+    public String getChecksum() {
+        return checksum;
+    }
+
+    /**
+    *
+    * @return
+    * the size of the zip file in bytes
+    */
+    public long getSize() {
+        return size;
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import io.swagger.annotations.ApiModelProperty;
+import java.util.Map;
+
+/**
+ * The result of GET /api/facets: the number of clinical attributes by attribute type,
+ * datatype, priority and number of overriding cancer studies, for the default attributes
+ * or as a cancer study sees them.
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({
+    "cancer_study",
+    "attribute_count",
+    "overridden_attribute_count",
+    "attribute_type",
+    "datatype",
+    "priority",
+    "overriding_studies"
+})
+public class ClinicalAttributeFacets {
+
+    @ApiModelProperty(value = "The cancer study the counts are for, missing for the default attributes")
+    @JsonProperty("cancer_study")
+    private String cancerStudy;
+    @ApiModelProperty(value = "The number of clinical attributes")
+    @JsonProperty("attribute_count")
+    private int attributeCount;
+    @ApiModelProperty(value = "The number of clinical attributes the cancer study overrides, or without a cancer study which any cancer study overrides")
+    @JsonProperty("overridden_attribute_count")
+    private int overriddenAttributeCount;
+    @ApiModelProperty(value = "The number of clinical attributes by attribute type")
+    @JsonProperty("attribute_type")
+    private Map<String, Integer> attributeTypes;
+    @ApiModelProperty(value = "The number of clinical attributes by datatype")
+    @JsonProperty("datatype")
+    private Map<String, Integer> datatypes;
+    @ApiModelProperty(value = "The number of clinical attributes by priority: 0 (hidden), 1, 2-9, 10-99 and 100+")
+    @JsonProperty("priority")
+    private Map<String, Integer> priorities;
+    @ApiModelProperty(value = "The number of clinical attributes by the number of cancer studies overriding them: 0, 1, 2-9 and 10+")
+    @JsonProperty("overriding_studies")
+    private Map<String, Integer> overridingStudies;
+
+    /**
+    * No args constructor for use in serialization
+    *
+    */
+    private ClinicalAttributeFacets() {}
+
+    public ClinicalAttributeFacets(String cancerStudy, int attributeCount, int overriddenAttributeCount, Map<String, Integer> attributeTypes,
+        Map<String, Integer> datatypes, Map<String, Integer> priorities, Map<String, Integer> overridingStudies) {
+        this.cancerStudy = cancerStudy;
+        this.attributeCount = attributeCount;
+        this.overriddenAttributeCount = overriddenAttributeCount;
+        this.attributeTypes = attributeTypes;
+        this.datatypes = datatypes;
+        this.priorities = priorities;
+        this.overridingStudies = overridingStudies;
+    }
+
+    @JsonProperty("cancer_study")
+    public String getCancerStudy() {
+        return cancerStudy;
+    }
+
+    @JsonProperty("attribute_count")
+    public int getAttributeCount() {
+        return attributeCount;
+    }
+
+    @JsonProperty("overridden_attribute_count")
+    public int getOverriddenAttributeCount() {
+        return overriddenAttributeCount;
+    }
+
+    @JsonProperty("attribute_type")
+    public Map<String, Integer> getAttributeTypes() {
+        return attributeTypes;
+    }
+
+    @JsonProperty("datatype")
+    public Map<String, Integer> getDatatypes() {
+        return datatypes;
+    }
+
+    @JsonProperty("priority")
+    public Map<String, Integer> getPriorities() {
+        return priorities;
+    }
+
+    @JsonProperty("overriding_studies")
+    public Map<String, Integer> getOverridingStudies() {
+        return overridingStudies;
+    }
+}
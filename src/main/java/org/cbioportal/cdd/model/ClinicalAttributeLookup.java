@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Result of looking up one column header (GET /api/{columnHeader}): the metadata, or
+ * why there is none.  Not finding a column header or cancer study is an ordinary result,
+ * not an exception.
+ *
+ * Lookups are memoized for the lifetime of a cache snapshot, so the serialized forms of
+ * the metadata are kept here too and each is only written once per snapshot.
+ */
+public class ClinicalAttributeLookup {
+
+    public static final String FOUND = "FOUND";
+    public static final String CLINICAL_ATTRIBUTE_NOT_FOUND = "CLINICAL_ATTRIBUTE_NOT_FOUND";
+    public static final String CANCER_STUDY_NOT_FOUND = "CANCER_STUDY_NOT_FOUND";
+    // the same reason the other endpoints give with CancerStudyNotFoundException
+    public static final ClinicalAttributeLookup CANCER_STUDY_NOT_FOUND_LOOKUP = new ClinicalAttributeLookup(CANCER_STUDY_NOT_FOUND, null, "Cancer study not found");
+
+    private final String status;
+    private final ClinicalAttributeMetadata clinicalAttributeMetadata;
+    private final String message;
+    // media type to serialized clinicalAttributeMetadata, allocated on first use
+    private volatile ConcurrentMap<String, byte[]> serializedForms;
+
+    private ClinicalAttributeLookup(String status, ClinicalAttributeMetadata clinicalAttributeMetadata, String message) {
+        this.status = status;
+        this.clinicalAttributeMetadata = clinicalAttributeMetadata;
+        this.message = message;
+    }
+
+    public static ClinicalAttributeLookup found(ClinicalAttributeMetadata clinicalAttributeMetadata) {
+        return new ClinicalAttributeLookup(FOUND, clinicalAttributeMetadata, null);
+    }
+
+    public static ClinicalAttributeLookup clinicalAttributeNotFound(String columnHeader) {
+        return new ClinicalAttributeLookup(CLINICAL_ATTRIBUTE_NOT_FOUND, null, "Could not find clinical attribute(s): " + columnHeader);
+    }
+
+    /**
+    *
+    * @return FOUND, CLINICAL_ATTRIBUTE_NOT_FOUND or CANCER_STUDY_NOT_FOUND
+    */
+    public String getStatus() {
+        return status;
+    }
+
+    public boolean isFound() {
+        return clinicalAttributeMetadata != null;
+    }
+
+    /**
+    *
+    * @return the metadata, null unless the status is FOUND
+    */
+    public ClinicalAttributeMetadata getClinicalAttributeMetadata() {
+        return clinicalAttributeMetadata;
+    }
+
+    /**
+    *
+    * @return why nothing was found, null if the status is FOUND
+    */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+    * Returns the metadata serialized for the media type, serializing it the first time.
+    *
+    * @param mediaType the media type the serializer writes, e.g. application/json
+    */
+    public byte[] getSerialized(String mediaType, Function<ClinicalAttributeMetadata, byte[]> serializer) {
+        ConcurrentMap<String, byte[]> forms = serializedForms;
+        if (forms == null) {
+            synchronized (this) {
+                forms = serializedForms;
+                if (forms == null) {
+                    forms = new ConcurrentHashMap<String, byte[]>(2);
+                    serializedForms = forms;
+                }
+            }
+        }
+        return forms.computeIfAbsent(mediaType, key -> serializer.apply(clinicalAttributeMetadata));
+    }
+}
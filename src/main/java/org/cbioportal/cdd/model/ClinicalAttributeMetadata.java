@@ -23,11 +23,19 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.swagger.annotations.ApiModelProperty;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.*;
 import org.apache.commons.lang3.StringUtils;
 
 /**
+ * The string fields below are the JSON (and EHCache) representation. The small
+ * vocabularies (datatype, attribute_type, priority) and column headers are interned
+ * so the default attributes and the per-study override copies share one instance of
+ * each value, and typed copies of datatype, attribute_type and priority are kept so
+ * filtering and sorting do not have to reparse the strings.
+ *
  * @author Avery Wang, Manda Wilson
  */
 @JsonInclude(Include.NON_NULL)
@@ -41,6 +49,11 @@ import org.apache.commons.lang3.StringUtils;
 })
 public class ClinicalAttributeMetadata implements Serializable {
 
+    /**
+    * Priority used for sorting when the priority string is missing or is not a number.
+    */
+    public static final int DEFAULT_PRIORITY = 1;
+
     private String studyId;
     @ApiModelProperty(value = "The column header")
     @JsonProperty("column_header")
@@ -61,7 +74,10 @@ public class ClinicalAttributeMetadata implements Serializable {
     @JsonProperty("priority")
     private String priority;
     @JsonIgnore
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties; // allocated on first use, almost always empty
+    private transient Datatype datatypeValue;
+    private transient AttributeType attributeTypeValue;
+    private transient int priorityValue = DEFAULT_PRIORITY;
 
     /**
     * No args constructor for use in serialization
@@ -79,12 +95,12 @@ public class ClinicalAttributeMetadata implements Serializable {
     * @param description
     */
     public ClinicalAttributeMetadata(String columnHeader, String displayName, String description, String datatype, String attributeType, String priority) {
-        this.columnHeader = columnHeader;
+        this.columnHeader = intern(columnHeader);
         this.displayName = displayName;
         this.description = description;
-        this.datatype = datatype;
-        this.attributeType = attributeType;
-        this.priority = priority;
+        setDatatype(datatype);
+        setAttributeType(attributeType);
+        setPriority(priority);
     }
 
     /** Copy Constructor
@@ -97,10 +113,13 @@ public class ClinicalAttributeMetadata implements Serializable {
         this.displayName = otherObject.getDisplayName();
         this.description = otherObject.getDescription();
         this.datatype = otherObject.getDatatype();
+        this.datatypeValue = otherObject.getDatatypeValue();
         this.attributeType = otherObject.getAttributeType();
+        this.attributeTypeValue = otherObject.getAttributeTypeValue();
         this.priority = otherObject.getPriority();
+        this.priorityValue = otherObject.getPriorityValue();
         Map<String, Object> otherObjectAdditionalProperties = otherObject.getAdditionalProperties();
-        if (otherObjectAdditionalProperties != null) {
+        if (!otherObjectAdditionalProperties.isEmpty()) {
             for (String key : otherObjectAdditionalProperties.keySet()) {
                 Object value = otherObjectAdditionalProperties.get(key);
                 this.setAdditionalProperty(key, value);
@@ -125,7 +144,7 @@ public class ClinicalAttributeMetadata implements Serializable {
     */
     @JsonProperty("study_id")
     public void setStudyId(String studyId) {
-        this.studyId = studyId;
+        this.studyId = intern(studyId);
     }
 
     /**
@@ -138,6 +157,16 @@ public class ClinicalAttributeMetadata implements Serializable {
         return columnHeader;
     }
 
+    /**
+    *
+    * @param columnHeader
+    * The column_header
+    */
+    @JsonProperty("column_header")
+    public void setColumnHeader(String columnHeader) {
+        this.columnHeader = intern(columnHeader);
+    }
+
     /**
     *
     * @param normalizedColumnHeader
@@ -145,7 +174,7 @@ public class ClinicalAttributeMetadata implements Serializable {
     */
     @JsonProperty("normalized_column_header")
     public void setNormalizedColumnHeader(String normalizedColumnHeader) {
-        this.columnHeader = normalizedColumnHeader;
+        this.columnHeader = intern(normalizedColumnHeader);
     }
 
     /**
@@ -205,7 +234,18 @@ public class ClinicalAttributeMetadata implements Serializable {
     */
     @JsonProperty("datatype")
     public void setDatatype(String datatype) {
-        this.datatype = datatype;
+        this.datatype = intern(datatype);
+        this.datatypeValue = Datatype.fromValue(datatype);
+    }
+
+    /**
+    *
+    * @return
+    * The datatype, or null if the datatype is missing or not a known datatype
+    */
+    @JsonIgnore
+    public Datatype getDatatypeValue() {
+        return datatypeValue;
     }
 
     /**
@@ -225,7 +265,18 @@ public class ClinicalAttributeMetadata implements Serializable {
     */
     @JsonProperty("attribute_type")
     public void setAttributeType(String attributeType) {
-        this.attributeType = attributeType;
+        this.attributeType = intern(attributeType);
+        this.attributeTypeValue = AttributeType.fromValue(attributeType);
+    }
+
+    /**
+    *
+    * @return
+    * The attributeType, or null if the attribute type is missing or not a known attribute type
+    */
+    @JsonIgnore
+    public AttributeType getAttributeTypeValue() {
+        return attributeTypeValue;
     }
 
     /**
@@ -245,16 +296,33 @@ public class ClinicalAttributeMetadata implements Serializable {
     */
     @JsonProperty("priority")
     public void setPriority(String priority) {
-        this.priority = priority;
+        this.priority = intern(priority);
+        this.priorityValue = parsePriority(priority);
+    }
+
+    /**
+    *
+    * @return
+    * The priority as an int, DEFAULT_PRIORITY if the priority is missing or not a number
+    */
+    @JsonIgnore
+    public int getPriorityValue() {
+        return priorityValue;
     }
 
     @JsonAnyGetter
     public Map<String, Object> getAdditionalProperties() {
+        if (this.additionalProperties == null) {
+            return Collections.emptyMap();
+        }
         return this.additionalProperties;
     }
 
     @JsonAnySetter
     public void setAdditionalProperty(String name, Object value) {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<String, Object>(4);
+        }
         this.additionalProperties.put(name, value);
     }
 
@@ -287,7 +355,54 @@ public class ClinicalAttributeMetadata implements Serializable {
         return levenshteinDistance;
     }
 
-    public boolean matchesAttributeType(String attributeType) {
-        return attributeType == null || attributeType.toUpperCase().equals(this.attributeType);
+    /**
+    * For a search term which only nearly matches (with typos) the column header or display name.
+    */
+    public Integer levenshteinDistanceFromNearMatch(String searchTerm) {
+        Integer levenshteinDistance = Integer.MAX_VALUE;
+        if (this.columnHeader != null) {
+            levenshteinDistance = Math.min(levenshteinDistance, StringUtils.getLevenshteinDistance(searchTerm, this.columnHeader));
+        }
+        if (this.displayName != null) {
+            levenshteinDistance = Math.min(levenshteinDistance, StringUtils.getLevenshteinDistance(searchTerm, this.displayName));
+        }
+        return levenshteinDistance;
+    }
+
+    /**
+    *
+    * @param attributeType
+    * the attribute type to match, null matches every attribute
+    */
+    public boolean matchesAttributeType(AttributeType attributeType) {
+        return attributeType == null || attributeType == this.attributeTypeValue;
+    }
+
+    private static String intern(String value) {
+        return value == null ? null : value.intern();
+    }
+
+    private static int parsePriority(String priority) {
+        if (priority == null || priority.isEmpty()) {
+            return DEFAULT_PRIORITY;
+        }
+        try {
+            return Integer.parseInt(priority.trim());
+        } catch (NumberFormatException e) {
+            return DEFAULT_PRIORITY;
+        }
+    }
+
+    // objects read back from EHCache are deserialized, not built with the setters
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.studyId = intern(studyId);
+        this.columnHeader = intern(columnHeader);
+        setDatatype(datatype);
+        setAttributeType(attributeType);
+        setPriority(priority);
+        if (additionalProperties != null && additionalProperties.isEmpty()) {
+            additionalProperties = null;
+        }
     }
 }
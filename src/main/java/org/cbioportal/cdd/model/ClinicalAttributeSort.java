@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.model;
+
+/**
+ * The orders in which a listing of clinical attributes can be sorted.
+ */
+public enum ClinicalAttributeSort {
+    // highest priority first, then by column header
+    PRIORITY,
+    COLUMN_HEADER,
+    // by display name ignoring case, then by column header
+    DISPLAY_NAME;
+
+    private static final ClinicalAttributeSort[] VALUES = values();
+
+    /**
+    *
+    * @param value
+    * a sort in any case, e.g. a request parameter
+    * @return the matching ClinicalAttributeSort, or null if value is null or not a known sort
+    */
+    public static ClinicalAttributeSort fromValueIgnoreCase(String value) {
+        if (value != null) {
+            for (ClinicalAttributeSort clinicalAttributeSort : VALUES) {
+                if (clinicalAttributeSort.name().equalsIgnoreCase(value)) {
+                    return clinicalAttributeSort;
+                }
+            }
+        }
+        return null;
+    }
+}
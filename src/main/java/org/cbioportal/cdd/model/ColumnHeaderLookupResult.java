@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import java.util.*;
+
+/**
+ * Response of POST /api/?partial=true: the metadata for every column header which
+ * was found (in request order), the column headers which were not found (in request
+ * order) and, when requested, suggested column headers for each missing one.
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonPropertyOrder({
+    "attributes",
+    "missing",
+    "suggestions"
+})
+public class ColumnHeaderLookupResult {
+
+    @JsonProperty("attributes")
+    private List<ClinicalAttributeMetadata> attributes;
+    @JsonProperty("missing")
+    private List<String> missing;
+    @JsonProperty("suggestions")
+    private Map<String, List<String>> suggestions;
+
+    /**
+    * No args constructor for use in serialization
+    *
+    */
+    private ColumnHeaderLookupResult() {}
+
+    /**
+    *
+    * @param attributes
+    * @param missing
+    */
+    public ColumnHeaderLookupResult(List<ClinicalAttributeMetadata> attributes, List<String> missing) {
+        this.attributes = attributes;
+        this.missing = missing;
+    }
+
+    /**
+    *
+    * @return the metadata for the column headers which were found
+    */
+    @JsonProperty("attributes")
+    public List<ClinicalAttributeMetadata> getAttributes() {
+        return attributes;
+    }
+
+    /**
+    *
+    * @param attributes
+    */
+    @JsonProperty("attributes")
+    public void setAttributes(List<ClinicalAttributeMetadata> attributes) {
+        this.attributes = attributes;
+    }
+
+    /**
+    *
+    * @return the column headers which were not found
+    */
+    @JsonProperty("missing")
+    public List<String> getMissing() {
+        return missing;
+    }
+
+    /**
+    *
+    * @param missing
+    */
+    @JsonProperty("missing")
+    public void setMissing(List<String> missing) {
+        this.missing = missing;
+    }
+
+    /**
+    *
+    * @return map of missing column header to suggested column headers, null unless suggestions were requested
+    */
+    @JsonProperty("suggestions")
+    public Map<String, List<String>> getSuggestions() {
+        return suggestions;
+    }
+
+    /**
+    *
+    * @param suggestions
+    */
+    @JsonProperty("suggestions")
+    public void setSuggestions(Map<String, List<String>> suggestions) {
+        this.suggestions = suggestions;
+    }
+
+    public boolean hasMissing() {
+        return missing != null && !missing.isEmpty();
+    }
+}
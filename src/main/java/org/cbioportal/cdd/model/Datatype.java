@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.model;
+
+/**
+ * The datatype values used by cBioPortal.
+ */
+public enum Datatype {
+    STRING,
+    NUMBER,
+    BOOLEAN;
+
+    private static final Datatype[] VALUES = values();
+
+    /**
+    *
+    * @param value
+    * a datatype value exactly as stored in TopBraid
+    * @return the matching Datatype, or null if value is null or not a known datatype
+    */
+    public static Datatype fromValue(String value) {
+        if (value != null) {
+            for (Datatype datatype : VALUES) {
+                if (datatype.name().equals(value)) {
+                    return datatype;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+    *
+    * @param value
+    * a datatype value in any case, e.g. a request parameter
+    * @return the matching Datatype, or null if value is null or not a known datatype
+    */
+    public static Datatype fromValueIgnoreCase(String value) {
+        if (value != null) {
+            for (Datatype datatype : VALUES) {
+                if (datatype.name().equalsIgnoreCase(value)) {
+                    return datatype;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.model;
+
+/**
+ * The orders in which search results can be ranked.
+ */
+public enum SearchRanking {
+    // the smallest levenshtein distance between a search term and a whole field
+    LEVENSHTEIN,
+    // field weighted BM25 relevance of the words of the search terms
+    BM25;
+
+    private static final SearchRanking[] VALUES = values();
+
+    /**
+    *
+    * @param value
+    * a ranking in any case, e.g. a request parameter
+    * @return the matching SearchRanking, or null if value is null or not a known ranking
+    */
+    public static SearchRanking fromValueIgnoreCase(String value) {
+        if (value != null) {
+            for (SearchRanking searchRanking : VALUES) {
+                if (searchRanking.name().equalsIgnoreCase(value)) {
+                    return searchRanking;
+                }
+            }
+        }
+        return null;
+    }
+}
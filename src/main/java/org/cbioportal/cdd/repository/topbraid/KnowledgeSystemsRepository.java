@@ -38,11 +38,14 @@ public class KnowledgeSystemsRepository extends TopBraidRepository<ClinicalAttri
 
     private String topBraidCddNamespacePrefix;
     private String topBraidCddGraphId;
+    private String modifiedProperty;
 
     private MultiValueMap<String, String> overridesRequestParameters = null;
     private MultiValueMap<String, String> attributesRequestParameters = null;
+    private MultiValueMap<String, String> fingerprintRequestParameters = null;
 
     private final ParameterizedTypeReference<List<ClinicalAttributeMetadata>> clinicalAttributeMetaDataListType = new ParameterizedTypeReference<List<ClinicalAttributeMetadata>>(){};
+    private final ParameterizedTypeReference<List<Map<String, Object>>> fingerprintListType = new ParameterizedTypeReference<List<Map<String, Object>>>(){};
 
     public KnowledgeSystemsRepository(TopBraidSessionManager topBraidSessionManager, String topBraidCddNamespacePrefix, String topBraidCddGraphId) {
         super.setTopBraidSessionManager(topBraidSessionManager);
@@ -50,6 +53,16 @@ public class KnowledgeSystemsRepository extends TopBraidRepository<ClinicalAttri
         this.topBraidCddGraphId = topBraidCddGraphId;
     }
 
+    /**
+    * @param modifiedProperty
+    * IRI of a property TopBraid updates whenever a resource in the cdd graph is edited, e.g.
+    * http://purl.org/dc/terms/modified; if empty the fingerprint hashes the whole graph
+    */
+    public void setModifiedProperty(String modifiedProperty) {
+        this.modifiedProperty = modifiedProperty;
+        this.fingerprintRequestParameters = null;
+    }
+
     private String getOverridesQuery() {
         return
                 "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#> " +
@@ -92,6 +105,56 @@ public class KnowledgeSystemsRepository extends TopBraidRepository<ClinicalAttri
                 "}";
     }
 
+    /**
+    * Counts the triples in the cdd graph and finds the latest value of the modified property.
+    * Both are aggregates TopBraid computes in one pass without sorting or holding the graph,
+    * so the cost of the check does not depend much on the size of the values in the graph.
+    * An edit which changes neither the number of triples nor the modified property is missed
+    * until the cache goes stale.
+    */
+    private String getModifiedFingerprintQuery() {
+        return
+                "SELECT ?triple_count ?fingerprint " +
+                "WHERE { " +
+                "    { " +
+                "        SELECT (COUNT(*) AS ?triple_count) " +
+                "        WHERE { GRAPH <" + topBraidCddGraphId + "> { ?subject ?predicate ?object. } } " +
+                "    } " +
+                "    { " +
+                "        SELECT (MAX(STR(?modified)) AS ?fingerprint) " +
+                "        WHERE { GRAPH <" + topBraidCddGraphId + "> { ?subject <" + modifiedProperty + "> ?modified. } } " +
+                "    } " +
+                "}";
+    }
+
+    /**
+    * Counts and hashes every triple in the cdd graph, so any edit to an attribute or override
+    * changes the result.  TopBraid has to sort and concatenate the whole graph to do this, so
+    * it is only used when no modified property is configured, and change detection is off by
+    * default.  If TopBraid ever concatenates the triples in another order the only cost is an
+    * unneeded refresh.
+    */
+    private String getHashFingerprintQuery() {
+        return
+                "SELECT (COUNT(?triple) AS ?triple_count) (SHA1(GROUP_CONCAT(?triple; separator=\"|\")) AS ?fingerprint) " +
+                "WHERE { " +
+                "    { " +
+                "        SELECT ?triple " +
+                "        WHERE { " +
+                "            GRAPH <" + topBraidCddGraphId + "> { " +
+                "                ?subject ?predicate ?object. " +
+                "            } " +
+                "            BIND(CONCAT(STR(?subject), \" \", STR(?predicate), \" \", STR(?object)) AS ?triple) " +
+                "        } " +
+                "        ORDER BY ?triple " +
+                "    } " +
+                "}";
+    }
+
+    private String getFingerprintQuery() {
+        return (modifiedProperty == null || modifiedProperty.isEmpty()) ? getHashFingerprintQuery() : getModifiedFingerprintQuery();
+    }
+
     private MultiValueMap<String, String> getOverridesRequestParameters() {
         if (overridesRequestParameters == null) {
             overridesRequestParameters = new LinkedMultiValueMap<String, String>();
@@ -110,10 +173,40 @@ public class KnowledgeSystemsRepository extends TopBraidRepository<ClinicalAttri
         return attributesRequestParameters;
     }
 
+    private MultiValueMap<String, String> getFingerprintRequestParameters() {
+        if (fingerprintRequestParameters == null) {
+            fingerprintRequestParameters = new LinkedMultiValueMap<String, String>();
+            fingerprintRequestParameters.add("format", "json-simple");
+            fingerprintRequestParameters.add("query", getFingerprintQuery());
+        }
+        return fingerprintRequestParameters;
+    }
+
+    /**
+    * A cheap check for changes: the fingerprint changes whenever the attributes or overrides do.
+    *
+    * @return
+    * the number of triples in the cdd graph and either the latest modified value or a hash of
+    * the triples, e.g. "48211:2026-10-19T09:12:44" or "48211:5f2c..."
+    */
+    public String getFingerprint() {
+        logger.debug("Fetching clinical attribute metadata fingerprint from TopBraid...");
+        try {
+            List<Map<String, Object>> response = super.getSparqlResponse("fingerprint", getFingerprintRequestParameters(), fingerprintListType);
+            if (response == null || response.isEmpty()) {
+                throw new TopBraidException("TopBraid returned no fingerprint", null);
+            }
+            return response.get(0).get("triple_count") + ":" + response.get(0).get("fingerprint");
+        } catch (TopBraidException e) {
+            logger.error("Problem connecting to TopBraid");
+            throw new RuntimeException(e);
+        }
+    }
+
     public ArrayList<ClinicalAttributeMetadata> getClinicalAttributeMetadata() {
         logger.info("Fetching clinical attribute metadata from TopBraid...");
         try {
-            List<ClinicalAttributeMetadata> responseList = super.getSparqlResponse(getAttributesRequestParameters(), clinicalAttributeMetaDataListType);
+            List<ClinicalAttributeMetadata> responseList = super.getSparqlResponse("attributes", getAttributesRequestParameters(), clinicalAttributeMetaDataListType);
             return new ArrayList<ClinicalAttributeMetadata>(responseList);
         } catch (TopBraidException e) {
             logger.error("Problem connecting to TopBraid");
@@ -124,7 +217,7 @@ public class KnowledgeSystemsRepository extends TopBraidRepository<ClinicalAttri
     public HashMap<String, ArrayList<ClinicalAttributeMetadata>> getClinicalAttributeMetadataOverrides() {
         logger.info("Fetch clinical attribute metadata overrides from TopBraid...");
         try {
-            List<ClinicalAttributeMetadata> overridesList = super.getSparqlResponse(getOverridesRequestParameters(), clinicalAttributeMetaDataListType);
+            List<ClinicalAttributeMetadata> overridesList = super.getSparqlResponse("overrides", getOverridesRequestParameters(), clinicalAttributeMetaDataListType);
             HashMap<String, ArrayList<ClinicalAttributeMetadata>> overridesStudyMap = new HashMap<>();
             for (ClinicalAttributeMetadata clinicalAttributeMetadata : overridesList) {
                 if (!overridesStudyMap.containsKey(clinicalAttributeMetadata.getStudyId())) {
@@ -58,7 +58,7 @@ public class MskVocabularyRepository extends TopBraidRepository<MskVocabularyRes
     public ArrayList<MskVocabularyField> getClinicalAttributeMetadata() {
         logger.info("Fetching clinical attribute metadata from MskVocabulary...");
         try {
-            MskVocabularyResponse mskVocabularyResponse =  super.getApiResponse(getRequestParameters(), mskVocabularyResponseType);
+            MskVocabularyResponse mskVocabularyResponse =  super.getApiResponse("mskVocabulary", getRequestParameters(), mskVocabularyResponseType);
             return mskVocabularyResponse.getMskVocabulary();
         } catch (TopBraidException e) {
             logger.error("Problem connecting to TopBraid");
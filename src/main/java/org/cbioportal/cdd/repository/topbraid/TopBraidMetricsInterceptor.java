@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.repository.topbraid;
+
+import com.google.common.io.CountingInputStream;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Records each TopBraid request in the timer cdd.topbraid.requests (tagged with the
+ * query name and the http status, or IO_ERROR if no response was received) and the
+ * size of each response body in cdd.topbraid.response.bytes.  The response is measured
+ * when RestTemplate closes it, so the time includes reading (and parsing) the body and
+ * the byte count does not depend on the server sending a Content-Length header.
+ */
+class TopBraidMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String IO_ERROR_STATUS = "IO_ERROR";
+
+    private final MeterRegistry meterRegistry;
+    private final String queryName;
+
+    TopBraidMetricsInterceptor(MeterRegistry meterRegistry, String queryName) {
+        this.meterRegistry = meterRegistry;
+        this.queryName = queryName;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        long startTime = System.nanoTime();
+        try {
+            return new MeteredClientHttpResponse(execution.execute(request, body), startTime);
+        } catch (IOException e) {
+            record(IO_ERROR_STATUS, startTime, null);
+            throw e;
+        }
+    }
+
+    private void record(String status, long startTime, CountingInputStream responseBody) {
+        Timer.builder("cdd.topbraid.requests")
+            .description("Time taken by requests to TopBraid, including reading the response")
+            .tags("query", queryName, "status", status)
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("cdd.topbraid.response.bytes")
+            .description("Size of TopBraid response bodies")
+            .baseUnit("bytes")
+            .tags("query", queryName)
+            .register(meterRegistry)
+            .record(responseBody == null ? 0 : responseBody.getCount());
+    }
+
+    private class MeteredClientHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse response;
+        private final long startTime;
+        private CountingInputStream body;
+        private boolean recorded = false;
+
+        MeteredClientHttpResponse(ClientHttpResponse response, long startTime) {
+            this.response = response;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return response.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return response.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return response.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return response.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(response.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                response.close();
+            } finally {
+                if (!recorded) {
+                    recorded = true;
+                    record(getStatus(), startTime, body);
+                }
+            }
+        }
+
+        private String getStatus() {
+            try {
+                return Integer.toString(response.getRawStatusCode());
+            } catch (IOException e) {
+                return IO_ERROR_STATUS;
+            }
+        }
+    }
+}
@@ -18,6 +18,8 @@
 
 package org.cbioportal.cdd.repository.topbraid;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import java.net.URI;
 import java.util.*;
 import org.cbioportal.cdd.repository.topbraid.TopBraidException;
@@ -29,6 +31,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestClientException;
@@ -45,6 +48,8 @@ public abstract class TopBraidRepository<T> {
 
     protected TopBraidSessionManager topBraidSessionManager;
 
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
     protected TopBraidSessionManager getTopBraidSessionManager() {
         return topBraidSessionManager;
     }
@@ -53,17 +58,34 @@ public abstract class TopBraidRepository<T> {
         this.topBraidSessionManager = topBraidSessionManager;
     }
 
-    protected List<T> getSparqlResponse(MultiValueMap<String, String> requestParameters, ParameterizedTypeReference<List<T>> parameterizedType)
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    private RestTemplate getRestTemplate(String queryName) {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.setInterceptors(Collections.<ClientHttpRequestInterceptor>singletonList(new TopBraidMetricsInterceptor(meterRegistry, queryName)));
+        return restTemplate;
+    }
+
+    /**
+    *
+    * @param queryName
+    * short name for the query, used to tag the TopBraid request metrics
+    * @param parameterizedType
+    * type of the rows of the response, usually T but e.g. a Map for aggregate queries
+    */
+    protected <R> List<R> getSparqlResponse(String queryName, MultiValueMap<String, String> requestParameters, ParameterizedTypeReference<List<R>> parameterizedType)
             throws TopBraidException {
-        return getSparqlResponse(requestParameters, parameterizedType, true);
+        return getSparqlResponse(queryName, requestParameters, parameterizedType, true);
     }
 
-    private List<T> getSparqlResponse(MultiValueMap<String, String> requestParameters, ParameterizedTypeReference<List<T>> parameterizedType, boolean refreshSessionOnFailure)
+    private <R> List<R> getSparqlResponse(String queryName, MultiValueMap<String, String> requestParameters, ParameterizedTypeReference<List<R>> parameterizedType, boolean refreshSessionOnFailure)
             throws TopBraidException {
         logger.debug("getSparqlResponse() -- query: '" + requestParameters.get("query") + "'");
         String sessionId = topBraidSessionManager.getSessionId();
         logger.debug("getSparqlResponse() -- sessionId: " + sessionId);
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = getRestTemplate(queryName);
 
         // the default supported types for MappingJackson2HttpMessageConverter are:
         //   application/json and application/*+json
@@ -84,7 +106,7 @@ public abstract class TopBraidRepository<T> {
         // See: http://stackoverflow.com/questions/21987295/using-spring-resttemplate-in-generic-method-with-generic-parameter
         try {
             String url = topBraidSessionManager.getConfiguration().getServiceURL();
-            ResponseEntity<List<T>> response = restTemplate.exchange(url,
+            ResponseEntity<List<R>> response = restTemplate.exchange(url,
                 HttpMethod.POST,
                 request,
                 parameterizedType);
@@ -96,23 +118,28 @@ public abstract class TopBraidRepository<T> {
             if (refreshSessionOnFailure) {
                 // force refresh of the session id
                 topBraidSessionManager.getFreshSessionId();
-                return getSparqlResponse(requestParameters, parameterizedType, false); // do not make a second attempt
+                return getSparqlResponse(queryName, requestParameters, parameterizedType, false); // do not make a second attempt
             }
             throw new TopBraidException("Failed to connect to TopBraid", e);
         }
     }
 
-    protected T getApiResponse(MultiValueMap<String, String> requestParameters, ParameterizedTypeReference<T> parameterizedType)
+    /**
+    *
+    * @param queryName
+    * short name for the query, used to tag the TopBraid request metrics
+    */
+    protected T getApiResponse(String queryName, MultiValueMap<String, String> requestParameters, ParameterizedTypeReference<T> parameterizedType)
             throws TopBraidException {
-        return getApiResponse(requestParameters, parameterizedType, true);
+        return getApiResponse(queryName, requestParameters, parameterizedType, true);
     }
 
-    private T getApiResponse(MultiValueMap<String, String> requestParameters, ParameterizedTypeReference<T> parameterizedType, boolean refreshSessionOnFailure)
+    private T getApiResponse(String queryName, MultiValueMap<String, String> requestParameters, ParameterizedTypeReference<T> parameterizedType, boolean refreshSessionOnFailure)
             throws TopBraidException {
         logger.debug("getApiResponse() called");
         String sessionId = topBraidSessionManager.getSessionId();
         logger.debug("getApiResponse() -- sessionId: " + sessionId);
-        RestTemplate restTemplate = new RestTemplate();
+        RestTemplate restTemplate = getRestTemplate(queryName);
 
         // set our JSESSIONID cookie and our params
         HttpHeaders headers = new HttpHeaders();
@@ -136,7 +163,7 @@ public abstract class TopBraidRepository<T> {
             if (refreshSessionOnFailure) {
                 // force refresh of the session id
                 topBraidSessionManager.getFreshSessionId();
-                return getApiResponse(requestParameters, parameterizedType, false); // do not make a second attempt
+                return getApiResponse(queryName, requestParameters, parameterizedType, false); // do not make a second attempt
             }
             throw new TopBraidException("Failed to connect to TopBraid", e);
         }
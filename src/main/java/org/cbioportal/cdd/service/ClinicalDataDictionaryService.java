@@ -18,8 +18,13 @@ package org.cbioportal.cdd.service;
 import java.util.List;
 import java.util.Map;
 
+import org.cbioportal.cdd.model.ClinicalAttributeFacets;
+import org.cbioportal.cdd.model.ClinicalAttributeLookup;
 import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
 import org.cbioportal.cdd.model.CancerStudy;
+import org.cbioportal.cdd.model.CancerStudyOverride;
+import org.cbioportal.cdd.model.ColumnHeaderLookupResult;
 import org.cbioportal.cdd.service.exception.ClinicalAttributeNotFoundException;
 
 /**
@@ -28,8 +33,13 @@ import org.cbioportal.cdd.service.exception.ClinicalAttributeNotFoundException;
 public interface ClinicalDataDictionaryService {
     List<CancerStudy> getCancerStudies();
     List<ClinicalAttributeMetadata> getClinicalAttributeMetadata(String cancerStudy);
+    List<ClinicalAttributeMetadata> getClinicalAttributeMetadata(String cancerStudy, String attributeType, String datatype, Integer minimumPriority, Boolean visible, ClinicalAttributeSort sort);
+    List<ClinicalAttributeMetadata> getClinicalAttributeMetadataOverrides(String cancerStudy, boolean overriddenFieldsOnly);
     List<ClinicalAttributeMetadata> getMetadataByColumnHeaders(String cancerStudy, List<String> columnHeaders) throws ClinicalAttributeNotFoundException;
-    List<ClinicalAttributeMetadata> getMetadataBySearchTerms(List<String> searchTerms, String attributeType, boolean inclusiveSearch) throws ClinicalAttributeNotFoundException;
+    ColumnHeaderLookupResult getMetadataByColumnHeadersPartial(String cancerStudy, List<String> columnHeaders, boolean includeSuggestions);
     ClinicalAttributeMetadata getMetadataByColumnHeader(String cancerStudy, String columnHeader) throws ClinicalAttributeNotFoundException;
+    ClinicalAttributeLookup lookupClinicalAttribute(String cancerStudy, String columnHeader);
+    ClinicalAttributeFacets getFacets(String cancerStudy);
+    List<CancerStudyOverride> getCancerStudyOverrides(String columnHeader) throws ClinicalAttributeNotFoundException;
     Map<String, String> forceResetCache();
 }
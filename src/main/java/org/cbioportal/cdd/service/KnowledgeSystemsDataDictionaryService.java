@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.service;
+
+import java.util.List;
+
+import org.cbioportal.cdd.model.CacheRefreshStatus;
+import org.cbioportal.cdd.model.ClinicalAttributeCompletion;
+import org.cbioportal.cdd.model.ClinicalAttributeExport;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.SearchRanking;
+import org.cbioportal.cdd.service.exception.CacheRefreshJobNotFoundException;
+import org.cbioportal.cdd.service.exception.ClinicalAttributeNotFoundException;
+
+/**
+ * The operations only the knowledge systems source offers, on top of those every source
+ * (including the MSK Standard Vocabulary) offers.  The service router implements them by
+ * calling the knowledge systems service.
+ */
+public interface KnowledgeSystemsDataDictionaryService extends ClinicalDataDictionaryService {
+    List<ClinicalAttributeMetadata> getMetadataBySearchTerms(String cancerStudy, List<String> searchTerms, String attributeType, boolean inclusiveSearch, boolean fuzzy, SearchRanking ranking) throws ClinicalAttributeNotFoundException;
+    List<ClinicalAttributeCompletion> getCompletionsByPrefix(String prefix, int limit);
+    ClinicalAttributeExport getExport();
+    CacheRefreshStatus startCacheRefresh();
+    CacheRefreshStatus getCacheRefreshStatus(String jobId) throws CacheRefreshJobNotFoundException;
+}
@@ -15,16 +15,14 @@
 
 package org.cbioportal.cdd.service.exception;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
+/**
+ * An ordinary miss, mapped to a 404 by the controller, so it is neither logged nor
+ * given a stack trace.
+ */
 public class CancerStudyNotFoundException extends RuntimeException {
 
-    private static final Logger logger = LoggerFactory.getLogger(CancerStudyNotFoundException.class);
-
     public CancerStudyNotFoundException(String cancerStudy) {
-        super("Could not find cancer study '" + cancerStudy + "'.");
-        logger.error("Could not find cancer study '" + cancerStudy + "'.");
+        super("Could not find cancer study '" + cancerStudy + "'.", null, false, false);
     }
 
 }
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.service.exception;
+
+/**
+ * A search scoped to a cancer study which uses the MSK Standard Vocabulary, which can not be
+ * searched.  Mapped to a 400 by the controller.
+ */
+public class CancerStudyNotSearchableException extends RuntimeException {
+
+    public CancerStudyNotSearchableException(String cancerStudy) {
+        super("Cancer study '" + cancerStudy + "' uses the MSK Standard Vocabulary, which can not be searched.", null, false, false);
+    }
+
+}
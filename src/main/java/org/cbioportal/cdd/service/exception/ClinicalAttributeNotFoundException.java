@@ -19,16 +19,14 @@ import com.google.common.base.Joiner;
 
 import java.util.List;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
+/**
+ * An ordinary miss, mapped to a 404 by the controller, so it is neither logged nor
+ * given a stack trace: clients which send unknown column headers get them cheaply.
+ */
 public class ClinicalAttributeNotFoundException extends RuntimeException {
 
-    private static final Logger logger = LoggerFactory.getLogger(ClinicalAttributeNotFoundException.class);
-
     public ClinicalAttributeNotFoundException(String columnHeader) {
-        super("Could not find clinical attribute(s): " + columnHeader);
-        logger.error("Could not find clinical attribute(s): " + columnHeader);
+        super("Could not find clinical attribute(s): " + columnHeader, null, false, false);
     }
 
     public ClinicalAttributeNotFoundException(List<String> columnHeaders) {
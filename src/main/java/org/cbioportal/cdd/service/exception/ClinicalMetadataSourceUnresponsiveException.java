@@ -18,13 +18,18 @@ package org.cbioportal.cdd.service.exception;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Thrown to every request while the cache is empty, mapped to a 503 by the controller.
+ * The failed refresh behind it has already been logged and published as a refresh event,
+ * so this has no stack trace and is only logged at debug level.
+ */
 public class ClinicalMetadataSourceUnresponsiveException extends RuntimeException {
 
     private static final Logger logger = LoggerFactory.getLogger(ClinicalMetadataSourceUnresponsiveException.class);
 
     public ClinicalMetadataSourceUnresponsiveException(String error) {
-        super(error);
-        logger.error(error);
+        super(error, null, false, false);
+        logger.debug(error);
     }
 
 }
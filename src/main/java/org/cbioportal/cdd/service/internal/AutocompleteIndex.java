@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import org.cbioportal.cdd.model.ClinicalAttributeCompletion;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+
+/**
+ * Prefix completion of column headers and display names.
+ *
+ * The keys are the lower case column headers and display names and every word start within
+ * them, so "sta" completes "Disease Stage" as well as "STAGE_AT_DIAGNOSIS".  A key is stored
+ * as a field and an offset into it rather than as a substring, and the keys are sorted, so a
+ * completion is two binary searches for the range of keys starting with the prefix and a pass
+ * over that range.  Each key carries the rank of its clinical attribute (highest priority
+ * first, then by column header), so the best completions of the range are its lowest ranks,
+ * which the pass keeps in a buffer of at most limit ranks instead of sorting the whole range.
+ *
+ * Like ColumnHeaderIndex, an index is built once per snapshot and never modified.
+ */
+public class AutocompleteIndex {
+
+    public static final int MAXIMUM_LIMIT = 100;
+
+    // sorted by the key, the suffix of keyFields[i] starting at keyOffsets[i]
+    private final String[] keyFields;
+    private final int[] keyOffsets;
+    private final int[] keyRanks;
+    // by rank
+    private final ClinicalAttributeCompletion[] completions;
+
+    public AutocompleteIndex(Collection<ClinicalAttributeMetadata> clinicalAttributes) {
+        List<ClinicalAttributeMetadata> rankedClinicalAttributes = new ArrayList<ClinicalAttributeMetadata>(clinicalAttributes);
+        Collections.sort(rankedClinicalAttributes, (a, b) -> {
+            int comparison = Integer.compare(b.getPriorityValue(), a.getPriorityValue());
+            return comparison != 0 ? comparison : String.valueOf(a.getColumnHeader()).compareTo(String.valueOf(b.getColumnHeader()));
+        });
+        completions = new ClinicalAttributeCompletion[rankedClinicalAttributes.size()];
+        List<Key> keys = new ArrayList<Key>();
+        for (int rank = 0; rank < completions.length; rank++) {
+            ClinicalAttributeMetadata clinicalAttributeMetadata = rankedClinicalAttributes.get(rank);
+            completions[rank] = new ClinicalAttributeCompletion(clinicalAttributeMetadata.getColumnHeader(), clinicalAttributeMetadata.getDisplayName());
+            addKeys(keys, clinicalAttributeMetadata.getColumnHeader(), rank);
+            addKeys(keys, clinicalAttributeMetadata.getDisplayName(), rank);
+        }
+        Collections.sort(keys, (a, b) -> compareSuffixes(a.field, a.offset, b.field, b.offset));
+        keyFields = new String[keys.size()];
+        keyOffsets = new int[keys.size()];
+        keyRanks = new int[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            keyFields[i] = keys.get(i).field;
+            keyOffsets[i] = keys.get(i).offset;
+            keyRanks[i] = keys.get(i).rank;
+        }
+    }
+
+    /**
+    *
+    * @param prefix
+    * the start of a column header, display name or one of their words, in any case
+    * @param limit
+    * the maximum number of completions, at most MAXIMUM_LIMIT are returned
+    * @return
+    * the clinical attributes with a key starting with the prefix, highest priority first,
+    * empty if the prefix is blank
+    */
+    public List<ClinicalAttributeCompletion> complete(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String lowerCasePrefix = prefix.trim().toLowerCase();
+        if (lowerCasePrefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int start = findFirstKey(lowerCasePrefix, false);
+        int end = findFirstKey(lowerCasePrefix, true);
+        int maximumCompletions = Math.min(limit, MAXIMUM_LIMIT);
+        // the lowest distinct ranks seen so far, in order
+        int[] bestRanks = new int[maximumCompletions];
+        int bestRankCount = 0;
+        for (int i = start; i < end; i++) {
+            int rank = keyRanks[i];
+            if (bestRankCount == maximumCompletions && rank >= bestRanks[bestRankCount - 1]) {
+                continue;
+            }
+            int position = Arrays.binarySearch(bestRanks, 0, bestRankCount, rank);
+            if (position >= 0) {
+                // an attribute has several keys starting with the same prefix when words repeat
+                continue;
+            }
+            position = -position - 1;
+            // when the buffer is full its last rank drops out
+            System.arraycopy(bestRanks, position, bestRanks, position + 1, Math.min(bestRankCount, maximumCompletions - 1) - position);
+            bestRanks[position] = rank;
+            if (bestRankCount < maximumCompletions) {
+                bestRankCount++;
+            }
+        }
+        List<ClinicalAttributeCompletion> matchingCompletions = new ArrayList<ClinicalAttributeCompletion>(bestRankCount);
+        for (int i = 0; i < bestRankCount; i++) {
+            matchingCompletions.add(completions[bestRanks[i]]);
+        }
+        return matchingCompletions;
+    }
+
+    public int size() {
+        return keyFields.length;
+    }
+
+    /**
+    *
+    * @param afterPrefix
+    * false for the first key which is not before the prefix, true for the first key which
+    * is after all keys starting with the prefix
+    */
+    private int findFirstKey(String prefix, boolean afterPrefix) {
+        int low = 0;
+        int high = keyFields.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareToPrefix(keyFields[middle], keyOffsets[middle], prefix);
+            if (comparison < 0 || (afterPrefix && comparison == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+    *
+    * @return
+    * less than 0 if the key is before the prefix, 0 if it starts with it, more than 0 if it is after it
+    */
+    private static int compareToPrefix(String field, int offset, String prefix) {
+        int length = Math.min(field.length() - offset, prefix.length());
+        for (int i = 0; i < length; i++) {
+            int comparison = field.charAt(offset + i) - prefix.charAt(i);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length == prefix.length() ? 0 : -1;
+    }
+
+    private static int compareSuffixes(String a, int aOffset, String b, int bOffset) {
+        int length = Math.min(a.length() - aOffset, b.length() - bOffset);
+        for (int i = 0; i < length; i++) {
+            int comparison = a.charAt(aOffset + i) - b.charAt(bOffset + i);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return (a.length() - aOffset) - (b.length() - bOffset);
+    }
+
+    private static void addKeys(List<Key> keys, String field, int rank) {
+        if (field == null || field.isEmpty()) {
+            return;
+        }
+        String lowerCaseField = field.toLowerCase();
+        for (int offset = 0; offset < lowerCaseField.length(); offset++) {
+            boolean wordStart = Character.isLetterOrDigit(lowerCaseField.charAt(offset))
+                && (offset == 0 || !Character.isLetterOrDigit(lowerCaseField.charAt(offset - 1)));
+            if (offset == 0 || wordStart) {
+                keys.add(new Key(lowerCaseField, offset, rank));
+            }
+        }
+    }
+
+    private static class Key {
+
+        private final String field;
+        private final int offset;
+        private final int rank;
+
+        Key(String field, int offset, int rank) {
+            this.field = field;
+            this.offset = offset;
+            this.rank = rank;
+        }
+    }
+}
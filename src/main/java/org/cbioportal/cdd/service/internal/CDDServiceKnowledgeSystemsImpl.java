@@ -15,18 +15,48 @@
 
 package org.cbioportal.cdd.service.internal;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.commons.lang3.StringUtils;
+import org.cbioportal.cdd.model.AttributeType;
+import org.cbioportal.cdd.model.CacheRefreshStatus;
 import org.cbioportal.cdd.model.CancerStudy;
+import org.cbioportal.cdd.model.CancerStudyOverride;
+import org.cbioportal.cdd.model.ClinicalAttributeCompletion;
+import org.cbioportal.cdd.model.ClinicalAttributeExport;
+import org.cbioportal.cdd.model.ClinicalAttributeFacets;
+import org.cbioportal.cdd.model.ClinicalAttributeLookup;
 import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
-import org.cbioportal.cdd.service.ClinicalDataDictionaryService;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
+import org.cbioportal.cdd.model.ColumnHeaderLookupResult;
+import org.cbioportal.cdd.model.Datatype;
+import org.cbioportal.cdd.model.SearchRanking;
+import org.cbioportal.cdd.service.KnowledgeSystemsDataDictionaryService;
+import org.cbioportal.cdd.service.exception.CacheRefreshJobNotFoundException;
 import org.cbioportal.cdd.service.exception.CancerStudyNotFoundException;
 import org.cbioportal.cdd.service.exception.ClinicalAttributeNotFoundException;
 import org.cbioportal.cdd.service.exception.ClinicalMetadataSourceUnresponsiveException;
 import org.cbioportal.cdd.service.exception.FailedCacheRefreshException;
+import org.cbioportal.cdd.service.internal.refresh.CacheRefreshCoordinator;
+import org.cbioportal.cdd.service.internal.refresh.CacheRefreshJob;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 
 /**
@@ -34,11 +64,22 @@ import org.springframework.stereotype.Service;
  * new cache of clinical attributes.  Each method in this class should only get the cache once
  * and should not attempt to make any modifications to the cache.
  *
+ * Recent lookups and searches are recorded and replayed against each new snapshot before it
+ * is published (see SnapshotWarmer), so the levenshtein distances they need are cached and the
+ * lookup and search code is compiled before the new snapshot gets any traffic.  Before any
+ * request has been recorded, at startup, a synthetic sample made from the snapshot is replayed.
+ *
+ * Single column header lookups (GET /api/{columnHeader}) are memoized for the current snapshot,
+ * including the lookups which found nothing, and so are search results, including empty ones,
+ * since each search costs a pass over all clinical attributes.  The replayed searches prefill
+ * the search results for the new snapshot.
+ *
  * @author Robert Sheridan, Avery Wang, Manda Wilson
  */
 @Service
 @Qualifier("knowledgesystems")
-public class CDDServiceKnowledgeSystemsImpl implements ClinicalDataDictionaryService {
+@Order(SnapshotWarmer.ORDER_REQUEST_REPLAY)
+public class CDDServiceKnowledgeSystemsImpl implements KnowledgeSystemsDataDictionaryService, SnapshotWarmer {
 
     @Autowired
     private ClinicalAttributeMetadataCache clinicalAttributesCache;
@@ -46,9 +87,51 @@ public class CDDServiceKnowledgeSystemsImpl implements ClinicalDataDictionarySer
     @Autowired
     private LevenshteinDistanceCache levenshteinDistanceCache;
 
+    @Autowired
+    private CacheRefreshCoordinator cacheRefreshCoordinator;
+
+    @Autowired
+    private ClinicalAttributeExporter clinicalAttributeExporter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // POSTs with at least this many column headers are resolved on columnHeaderResolutionPool, 0 disables parallel resolution
+    @Value("${cdd.columnHeaders.parallelThreshold:5000}")
+    private int parallelResolutionThreshold;
+
+    // the number of recent lookups, and of recent searches, replayed against each new snapshot, 0 disables replay
+    @Value("${cdd.cache.warmup.replaySize:200}")
+    private int replaySampleSize;
+
+    // the number of distinct searches whose results are memoized for the current snapshot, 0 disables memoization
+    @Value("${cdd.search.cache.maximumSize:10000}")
+    private int maximumMemoizedSearches;
+
+    private RecentRequestSample<LookupRequest> recentLookups;
+    private RecentRequestSample<SearchRequest> recentSearches;
+    private RecentRequestSample<LookupRequest> recentSingleLookups;
+
+    private Counter searchCacheHitCounter;
+    private Counter searchCacheMissCounter;
+
+    // installed by warm() just before its snapshot is published
+    private volatile SnapshotMemo snapshotMemo = new SnapshotMemo(null, 0);
+
+    // separate from the common pool so large requests do not compete with other users of parallel streams
+    private final ForkJoinPool columnHeaderResolutionPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private static final int MAXIMUM_SUGGESTIONS_PER_COLUMN_HEADER = 3;
+    private static final int MAXIMUM_MISSING_COLUMN_HEADERS_WITH_SUGGESTIONS = 100;
+    // only the start of very large lookups is recorded, the rest adds replay time but no warm-up
+    private static final int MAXIMUM_REPLAYED_COLUMN_HEADERS = 1000;
+    // bound the memo when clients look up or search for many distinct (e.g. made up) things
+    private static final int MAXIMUM_MEMOIZED_LOOKUPS = 100000;
+
     private static final Logger logger = LoggerFactory.getLogger(CDDServiceKnowledgeSystemsImpl.class);
 
-    private static final Set<String> CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA;
+    // package-private for ClinicalAttributeExporter.warm(), which lists them in the export manifest
+    static final Set<String> CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA;
     static {
         Set<String> cancerStudySet = new HashSet<>();
         cancerStudySet.add("mskimpact");
@@ -63,100 +146,519 @@ public class CDDServiceKnowledgeSystemsImpl implements ClinicalDataDictionarySer
     @Override
     public List<ClinicalAttributeMetadata> getClinicalAttributeMetadata(String cancerStudy)
         throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
-        assertCacheIsValid();
-        assertCancerStudyIsValid(cancerStudy);
-        List<String> columnHeaders = new ArrayList<>(clinicalAttributesCache.getClinicalAttributeMetadata().keySet());
-        List<ClinicalAttributeMetadata> clinicalAttributes = getMetadataByColumnHeaders(cancerStudy, columnHeaders);
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        assertCancerStudyIsValid(snapshot, cancerStudy);
+        recentLookups.record(new LookupRequest(cancerStudy, null));
+        List<String> columnHeaders = new ArrayList<>(snapshot.getClinicalAttributeMetadata().keySet());
+        List<ClinicalAttributeMetadata> clinicalAttributes = getMetadataByColumnHeaders(snapshot, cancerStudy, columnHeaders);
+        return clinicalAttributes;
+    }
+
+    /**
+    * Filtered and sorted listings come from the snapshot's ListingIndex and the cancer study's
+    * overlay of it, an unfiltered and unsorted listing is the same as getClinicalAttributeMetadata(cancerStudy).
+    */
+    @Override
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadata(String cancerStudy, String attributeType, String datatype, Integer minimumPriority, Boolean visible, ClinicalAttributeSort sort)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (attributeType == null && datatype == null && minimumPriority == null && visible == null && sort == null) {
+            return getClinicalAttributeMetadata(cancerStudy);
+        }
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        assertCancerStudyIsValid(snapshot, cancerStudy);
+        AttributeType requestedAttributeType = AttributeType.fromValueIgnoreCase(attributeType);
+        Datatype requestedDatatype = Datatype.fromValueIgnoreCase(datatype);
+        if ((attributeType != null && requestedAttributeType == null) || (datatype != null && requestedDatatype == null)) {
+            // no attribute can match an unknown attribute type or datatype
+            return new ArrayList<ClinicalAttributeMetadata>();
+        }
+        ListingIndex.Overlay overlay = cancerStudy == null ? null : snapshot.getOverridesListingIndex(cancerStudy);
+        boolean useAlteredDefaultMetadata = cancerStudy != null && CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA.contains(cancerStudy);
+        List<ClinicalAttributeMetadata> clinicalAttributes = snapshot.getListingIndex().list(overlay, useAlteredDefaultMetadata,
+            new ListingIndex.Filter(requestedAttributeType, requestedDatatype, minimumPriority, visible), sort);
+        if (useAlteredDefaultMetadata) {
+            alterDefaultMetadata(clinicalAttributes, snapshot.getClinicalAttributeMetadataOverrides().get(cancerStudy));
+        }
         return clinicalAttributes;
     }
 
     @Override
     public List<ClinicalAttributeMetadata> getMetadataByColumnHeaders(String cancerStudy, List<String> columnHeaders)
         throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
-        assertCacheIsValid();
-        assertCancerStudyIsValid(cancerStudy);
-        List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>();
-        Map<String, ClinicalAttributeMetadata> defaultClinicalAttributeCache = clinicalAttributesCache.getClinicalAttributeMetadata();
-        Map<String, Map<String, ClinicalAttributeMetadata>> overridesCache = clinicalAttributesCache.getClinicalAttributeMetadataOverrides();
-        Map<String, ClinicalAttributeMetadata> overrideClinicalAttributeCache = null;
-        if (cancerStudy != null) { // cancer study has already been validated
-            overrideClinicalAttributeCache = overridesCache.get(cancerStudy);
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        assertCancerStudyIsValid(snapshot, cancerStudy);
+        recentLookups.record(new LookupRequest(cancerStudy, columnHeaders));
+        return getMetadataByColumnHeaders(snapshot, cancerStudy, columnHeaders);
+    }
+
+    @Override
+    public ColumnHeaderLookupResult getMetadataByColumnHeadersPartial(String cancerStudy, List<String> columnHeaders, boolean includeSuggestions)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        assertCancerStudyIsValid(snapshot, cancerStudy);
+        recentLookups.record(new LookupRequest(cancerStudy, columnHeaders));
+        ColumnHeaderLookupResult result = lookupColumnHeaders(snapshot, cancerStudy, columnHeaders);
+        if (includeSuggestions) {
+            result.setSuggestions(getSuggestionsForMissingColumnHeaders(snapshot, result.getMissing()));
         }
+        return result;
+    }
+
+    private List<ClinicalAttributeMetadata> getMetadataByColumnHeaders(ClinicalAttributeMetadataSnapshot snapshot, String cancerStudy, List<String> columnHeaders)
+        throws ClinicalAttributeNotFoundException {
+        ColumnHeaderLookupResult result = lookupColumnHeaders(snapshot, cancerStudy, columnHeaders);
+        if (result.hasMissing()) {
+            throw new ClinicalAttributeNotFoundException(result.getMissing());
+        }
+        return result.getAttributes();
+    }
+
+    private ColumnHeaderLookupResult lookupColumnHeaders(ClinicalAttributeMetadataSnapshot snapshot, String cancerStudy, List<String> columnHeaders) {
+        ColumnHeaderResolver resolver = new ColumnHeaderResolver(snapshot, cancerStudy);
+        if (parallelResolutionThreshold > 0 && columnHeaders.size() >= parallelResolutionThreshold) {
+            return lookupColumnHeadersInParallel(resolver, columnHeaders);
+        }
+        List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>(columnHeaders.size());
         List<String> invalidClinicalAttributes = new ArrayList<String>();
         for (String columnHeader : columnHeaders) {
-            try {
-                ClinicalAttributeMetadata defaultClinicalAttributeMetadataForColumnHeader = getMetadataByColumnHeader(defaultClinicalAttributeCache, columnHeader);
-                // if there is no cancerStudyArgument, simply add the default metaData for each columnHeader
-                if (cancerStudy == null) {
-                    clinicalAttributes.add(defaultClinicalAttributeMetadataForColumnHeader);
-                    continue;
+            ClinicalAttributeMetadata clinicalAttributeMetadataForColumnHeader = resolver.resolve(columnHeader);
+            if (clinicalAttributeMetadataForColumnHeader == null) {
+                invalidClinicalAttributes.add(columnHeader);
+            } else {
+                clinicalAttributes.add(clinicalAttributeMetadataForColumnHeader);
+            }
+        }
+        return new ColumnHeaderLookupResult(clinicalAttributes, invalidClinicalAttributes);
+    }
+
+    /**
+     * Resolves the column headers in slices on the column header resolution pool.  Each slice
+     * writes into its own range of a shared array, the results and the invalid column headers are
+     * then collected in request order, so the response (and the exception message) is the same as
+     * for the sequential path.
+     */
+    private ColumnHeaderLookupResult lookupColumnHeadersInParallel(ColumnHeaderResolver resolver, List<String> columnHeaders) {
+        String[] columnHeaderArray = columnHeaders.toArray(new String[columnHeaders.size()]);
+        ClinicalAttributeMetadata[] resolvedClinicalAttributes = new ClinicalAttributeMetadata[columnHeaderArray.length];
+        columnHeaderResolutionPool.invoke(new ResolveColumnHeadersAction(resolver, columnHeaderArray, resolvedClinicalAttributes, 0, columnHeaderArray.length));
+        List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>(columnHeaderArray.length);
+        List<String> invalidClinicalAttributes = new ArrayList<String>();
+        for (int i = 0; i < columnHeaderArray.length; i++) {
+            if (resolvedClinicalAttributes[i] == null) {
+                invalidClinicalAttributes.add(columnHeaderArray[i]);
+            } else {
+                clinicalAttributes.add(resolvedClinicalAttributes[i]);
+            }
+        }
+        return new ColumnHeaderLookupResult(clinicalAttributes, invalidClinicalAttributes);
+    }
+
+    /**
+     * Suggestions for a missing column header are the best ranked results of a (non inclusive)
+     * search for the words of the column header, e.g. "TUMOR_SITES" is searched as "TUMOR" and "SITES".
+     * Only the first MAXIMUM_MISSING_COLUMN_HEADERS_WITH_SUGGESTIONS distinct missing column headers
+     * get suggestions, since each one costs a pass over all clinical attributes.
+     */
+    private Map<String, List<String>> getSuggestionsForMissingColumnHeaders(ClinicalAttributeMetadataSnapshot snapshot, List<String> missingColumnHeaders) {
+        Map<String, List<String>> suggestions = new LinkedHashMap<String, List<String>>();
+        for (String missingColumnHeader : missingColumnHeaders) {
+            if (suggestions.size() >= MAXIMUM_MISSING_COLUMN_HEADERS_WITH_SUGGESTIONS) {
+                break;
+            }
+            if (suggestions.containsKey(missingColumnHeader)) {
+                continue;
+            }
+            List<String> searchTerms = new ArrayList<String>();
+            for (String searchTerm : missingColumnHeader.split("[_\\s]+")) {
+                if (!searchTerm.isEmpty()) {
+                    searchTerms.add(searchTerm);
+                }
+            }
+            List<String> suggestedColumnHeaders = new ArrayList<String>();
+            if (!searchTerms.isEmpty()) {
+                for (ClinicalAttributeMetadata clinicalAttributeMetadata : searchClinicalAttributes(snapshot, null, searchTerms, null, false, false, SearchRanking.LEVENSHTEIN)) {
+                    if (suggestedColumnHeaders.size() >= MAXIMUM_SUGGESTIONS_PER_COLUMN_HEADER) {
+                        break;
+                    }
+                    suggestedColumnHeaders.add(clinicalAttributeMetadata.getColumnHeader());
                 }
-                // if there is an explicit override for a columnHeader in this study, add the explicit override
-                if (overrideClinicalAttributeCache.containsKey(columnHeader.toUpperCase())) {
-                    clinicalAttributes.add(getMetadataByColumnHeader(overrideClinicalAttributeCache, columnHeader));
-                    continue;
+            }
+            suggestions.put(missingColumnHeader, suggestedColumnHeaders);
+        }
+        return suggestions;
+    }
+
+    /**
+     * Resolves single column headers against one snapshot for one (possibly null) cancer study.
+     * Holds no mutable state so it can be shared by the slices of a parallel resolution.
+     */
+    private static class ColumnHeaderResolver {
+
+        private final ColumnHeaderIndex<ClinicalAttributeMetadata> defaultClinicalAttributeIndex;
+        private final ColumnHeaderIndex<ClinicalAttributeMetadata> overrideClinicalAttributeIndex;
+        private final boolean useAlteredDefaultMetadata;
+
+        ColumnHeaderResolver(ClinicalAttributeMetadataSnapshot snapshot, String cancerStudy) {
+            // the indexes match column headers case-insensitively without upper-casing them first
+            this.defaultClinicalAttributeIndex = snapshot.getClinicalAttributeMetadataIndex();
+            if (cancerStudy != null) { // cancer study has already been validated
+                this.overrideClinicalAttributeIndex = snapshot.getClinicalAttributeMetadataOverridesIndex(cancerStudy);
+                this.useAlteredDefaultMetadata = CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA.contains(cancerStudy);
+            } else {
+                this.overrideClinicalAttributeIndex = null;
+                this.useAlteredDefaultMetadata = false;
+            }
+        }
+
+        /**
+        *
+        * @return
+        * the metadata to return for the column header, null if the column header is not a known clinical attribute
+        */
+        ClinicalAttributeMetadata resolve(String columnHeader) {
+            ClinicalAttributeMetadata defaultClinicalAttributeMetadataForColumnHeader = defaultClinicalAttributeIndex.get(columnHeader);
+            if (defaultClinicalAttributeMetadataForColumnHeader == null) {
+                return null;
+            }
+            // if there is no cancerStudyArgument, simply return the default metaData for the columnHeader
+            if (overrideClinicalAttributeIndex == null) {
+                return defaultClinicalAttributeMetadataForColumnHeader;
+            }
+            // if there is an explicit override for a columnHeader in this study, return the explicit override
+            ClinicalAttributeMetadata overrideClinicalAttributeMetadataForColumnHeader = overrideClinicalAttributeIndex.get(columnHeader);
+            if (overrideClinicalAttributeMetadataForColumnHeader != null) {
+                return overrideClinicalAttributeMetadataForColumnHeader;
+            }
+            // without an explicit override for the study, use the default metadata or a modified version for certain special studies
+            if (useAlteredDefaultMetadata) {
+                return getAlteredDefaultMetadata(defaultClinicalAttributeMetadataForColumnHeader);
+            }
+            return defaultClinicalAttributeMetadataForColumnHeader;
+        }
+    }
+
+    private static class ResolveColumnHeadersAction extends RecursiveAction {
+
+        private static final int SLICE_SIZE = 1024;
+
+        private final ColumnHeaderResolver resolver;
+        private final String[] columnHeaders;
+        private final ClinicalAttributeMetadata[] resolvedClinicalAttributes;
+        private final int start;
+        private final int end;
+
+        ResolveColumnHeadersAction(ColumnHeaderResolver resolver, String[] columnHeaders, ClinicalAttributeMetadata[] resolvedClinicalAttributes, int start, int end) {
+            this.resolver = resolver;
+            this.columnHeaders = columnHeaders;
+            this.resolvedClinicalAttributes = resolvedClinicalAttributes;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= SLICE_SIZE) {
+                for (int i = start; i < end; i++) {
+                    resolvedClinicalAttributes[i] = resolver.resolve(columnHeaders[i]);
                 }
-                // without an explicit override for the study, use the default metadata or a modified version for certain special studies
-                ClinicalAttributeMetadata clinicalAttributeMetadataForColumnHeader = defaultClinicalAttributeMetadataForColumnHeader;
-                if (CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA.contains(cancerStudy)) {
-                    clinicalAttributeMetadataForColumnHeader = getAlteredDefaultMetadataByColumnHeader(defaultClinicalAttributeCache, columnHeader);
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new ResolveColumnHeadersAction(resolver, columnHeaders, resolvedClinicalAttributes, start, middle),
+                new ResolveColumnHeadersAction(resolver, columnHeaders, resolvedClinicalAttributes, middle, end));
+        }
+    }
+
+    @Override
+    public List<ClinicalAttributeMetadata> getMetadataBySearchTerms(String cancerStudy, List<String> searchTerms, String attributeType, boolean inclusiveSearch, boolean fuzzy, SearchRanking ranking)
+        throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        assertCancerStudyIsValid(snapshot, cancerStudy);
+        AttributeType requestedAttributeType = AttributeType.fromValueIgnoreCase(attributeType);
+        if (attributeType != null && requestedAttributeType == null) {
+            // no attribute can match an unknown attribute type
+            throw new ClinicalAttributeNotFoundException(String.join(", ", searchTerms));
+        }
+        SearchRequest search = new SearchRequest(cancerStudy, searchTerms, requestedAttributeType, inclusiveSearch, fuzzy, ranking == null ? SearchRanking.LEVENSHTEIN : ranking);
+        recentSearches.record(search);
+        List<ClinicalAttributeMetadata> clinicalAttributes = getSearchResults(snapshot, search);
+        if (clinicalAttributes.size() == 0) {
+            throw new ClinicalAttributeNotFoundException(String.join(", ", searchTerms));
+        }
+        return clinicalAttributes;
+    }
+
+    /**
+    * Search results, including empty ones, are memoized for the current snapshot, and concurrent
+    * identical searches wait for the one which got there first instead of searching too.
+    *
+    * @return
+    * an unmodifiable list of the clinical attributes matching the search, closest match first
+    */
+    private List<ClinicalAttributeMetadata> getSearchResults(ClinicalAttributeMetadataSnapshot snapshot, SearchRequest search) {
+        SnapshotMemo memo = snapshotMemo;
+        if (memo.snapshot != snapshot) {
+            // the snapshot is about to be replaced, or was published without being warmed up
+            searchCacheMissCounter.increment();
+            return searchClinicalAttributes(snapshot, search);
+        }
+        List<ClinicalAttributeMetadata> clinicalAttributes = memo.searchResults.getIfPresent(search);
+        if (clinicalAttributes != null) {
+            searchCacheHitCounter.increment();
+            return clinicalAttributes;
+        }
+        searchCacheMissCounter.increment();
+        try {
+            return memo.searchResults.get(search, () -> searchClinicalAttributes(snapshot, search));
+        } catch (UncheckedExecutionException e) {
+            // the cache wraps what the search threw, which is always unchecked
+            throw (RuntimeException) e.getCause();
+        } catch (ExecutionError e) {
+            throw (Error) e.getCause();
+        } catch (ExecutionException e) {
+            // the search throws no checked exceptions
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private List<ClinicalAttributeMetadata> searchClinicalAttributes(ClinicalAttributeMetadataSnapshot snapshot, SearchRequest search) {
+        return Collections.unmodifiableList(searchClinicalAttributes(snapshot, search.cancerStudy, search.searchTerms, search.attributeType, search.inclusiveSearch, search.fuzzy, search.ranking));
+    }
+
+    /**
+    * A search term matches a clinical attribute if it is part of its column header, display name
+    * or description, or for a fuzzy search, if each of its words nearly matches (see
+    * VocabularyIndex) a word of the column header or display name.
+    *
+    * With a cancer study the attributes it overrides are searched (and returned) as overridden,
+    * using the study's overlays of the vocabulary and relevance indexes, and the other attributes
+    * are returned as the study would get them from a lookup.
+    *
+    * @param cancerStudy
+    * a valid cancer study, or null to search the default attributes
+    * @return
+    * the clinical attributes matching the search terms, closest match (or most relevant) first, empty if nothing matches
+    */
+    private List<ClinicalAttributeMetadata> searchClinicalAttributes(ClinicalAttributeMetadataSnapshot snapshot, String cancerStudy, List<String> searchTerms, AttributeType requestedAttributeType, boolean inclusiveSearch, boolean fuzzy, SearchRanking ranking) {
+        Map<String, ClinicalAttributeMetadata> overrides = cancerStudy == null ? null : snapshot.getClinicalAttributeMetadataOverrides().get(cancerStudy);
+        VocabularyIndex overridesVocabularyIndex = cancerStudy == null ? null : snapshot.getOverridesVocabularyIndex(cancerStudy);
+        Collection<ClinicalAttributeMetadata> searchedClinicalAttributes = getSearchedClinicalAttributes(snapshot, overrides);
+        Map<String, Set<ClinicalAttributeMetadata>> nearMatches = new HashMap<String, Set<ClinicalAttributeMetadata>>();
+        if (fuzzy) {
+            for (String searchTerm : searchTerms) {
+                Set<ClinicalAttributeMetadata> nearMatchesForSearchTerm = snapshot.getVocabularyIndex().findNearMatches(searchTerm);
+                if (overridesVocabularyIndex != null) {
+                    nearMatchesForSearchTerm = new HashSet<ClinicalAttributeMetadata>(nearMatchesForSearchTerm);
+                    nearMatchesForSearchTerm.addAll(overridesVocabularyIndex.findNearMatches(searchTerm));
                 }
-                clinicalAttributes.add(clinicalAttributeMetadataForColumnHeader);
-            } catch (ClinicalAttributeNotFoundException e) {
-                invalidClinicalAttributes.add(columnHeader);
+                nearMatches.put(searchTerm, nearMatchesForSearchTerm);
             }
         }
-        if (invalidClinicalAttributes.size() > 0) {
-            throw new ClinicalAttributeNotFoundException(invalidClinicalAttributes);
+        List<ClinicalAttributeMetadata> clinicalAttributes;
+        if (ranking == SearchRanking.BM25) {
+            RelevanceIndex relevanceIndex = cancerStudy == null ? snapshot.getRelevanceIndex() : snapshot.getOverridesRelevanceIndex(cancerStudy);
+            clinicalAttributes = searchClinicalAttributesByRelevance(snapshot, searchedClinicalAttributes, overrides, searchTerms, requestedAttributeType, inclusiveSearch, fuzzy, nearMatches, overridesVocabularyIndex, relevanceIndex);
+        } else {
+            clinicalAttributes = searchClinicalAttributesByLevenshteinDistance(snapshot, searchedClinicalAttributes, searchTerms, requestedAttributeType, inclusiveSearch, nearMatches);
+        }
+        if (cancerStudy != null && CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA.contains(cancerStudy)) {
+            alterDefaultMetadata(clinicalAttributes, overrides);
         }
         return clinicalAttributes;
     }
 
-    @Override
-    public List<ClinicalAttributeMetadata> getMetadataBySearchTerms(List<String> searchTerms, String attributeType, boolean inclusiveSearch)
-        throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException {
-        assertCacheIsValid();
-        Map<ClinicalAttributeMetadata, Integer> clinicalAttributesToLevenshteinDistance = new HashMap<ClinicalAttributeMetadata, Integer>();
-        List<ClinicalAttributeMetadata> defaultClinicalAttributeCache = new ArrayList<ClinicalAttributeMetadata>(clinicalAttributesCache.getClinicalAttributeMetadata().values());
+    /**
+    * Replaces the default clinical attributes in the list, the ones which are not in overrides,
+    * by their altered version (see getAlteredDefaultMetadata()).
+    */
+    private static void alterDefaultMetadata(List<ClinicalAttributeMetadata> clinicalAttributes, Map<String, ClinicalAttributeMetadata> overrides) {
+        for (int i = 0; i < clinicalAttributes.size(); i++) {
+            ClinicalAttributeMetadata clinicalAttributeMetadata = clinicalAttributes.get(i);
+            if (overrides.get(clinicalAttributeMetadata.getColumnHeader()) != clinicalAttributeMetadata) {
+                clinicalAttributes.set(i, getAlteredDefaultMetadata(clinicalAttributeMetadata));
+            }
+        }
+    }
+
+    /**
+    *
+    * @return
+    * the default clinical attributes, with the ones in overrides (if not null) replaced by their override
+    */
+    private static Collection<ClinicalAttributeMetadata> getSearchedClinicalAttributes(ClinicalAttributeMetadataSnapshot snapshot, Map<String, ClinicalAttributeMetadata> overrides) {
+        Collection<ClinicalAttributeMetadata> defaultClinicalAttributes = snapshot.getClinicalAttributeMetadata().values();
+        if (overrides == null || overrides.isEmpty()) {
+            return defaultClinicalAttributes;
+        }
+        List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>(defaultClinicalAttributes.size());
+        for (ClinicalAttributeMetadata defaultClinicalAttributeMetadata : defaultClinicalAttributes) {
+            ClinicalAttributeMetadata overrideClinicalAttributeMetadata = overrides.get(defaultClinicalAttributeMetadata.getColumnHeader());
+            clinicalAttributes.add(overrideClinicalAttributeMetadata == null ? defaultClinicalAttributeMetadata : overrideClinicalAttributeMetadata);
+        }
+        return clinicalAttributes;
+    }
 
+    private List<ClinicalAttributeMetadata> searchClinicalAttributesByLevenshteinDistance(ClinicalAttributeMetadataSnapshot snapshot, Collection<ClinicalAttributeMetadata> searchedClinicalAttributes, List<String> searchTerms, AttributeType requestedAttributeType, boolean inclusiveSearch, Map<String, Set<ClinicalAttributeMetadata>> nearMatches) {
+        Map<ClinicalAttributeMetadata, Integer> clinicalAttributesToLevenshteinDistance = new HashMap<ClinicalAttributeMetadata, Integer>();
         // check each attribute for match - skip if doesn't match specified attribute type OR inclusive search that doesn't have all search terms present
-        for (ClinicalAttributeMetadata clinicalAttributeMetadata : defaultClinicalAttributeCache) {
-            if (!clinicalAttributeMetadata.matchesAttributeType(attributeType)) {
+        for (ClinicalAttributeMetadata clinicalAttributeMetadata : searchedClinicalAttributes) {
+            if (!clinicalAttributeMetadata.matchesAttributeType(requestedAttributeType)) {
                 continue;
             }
-            if (inclusiveSearch && !clinicalAttributeMetadata.containsAllSearchTerms(searchTerms)) {
+            if (inclusiveSearch && !matchesAllSearchTerms(clinicalAttributeMetadata, searchTerms, nearMatches)) {
                 continue;
             }
-            mapMinimumLevenshteinDistanceFromClinicalAttributeMetadataToSearchTerms(clinicalAttributesToLevenshteinDistance, searchTerms, clinicalAttributeMetadata);
+            mapMinimumLevenshteinDistanceFromClinicalAttributeMetadataToSearchTerms(snapshot, clinicalAttributesToLevenshteinDistance, searchTerms, nearMatches, clinicalAttributeMetadata);
         }
         List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>(clinicalAttributesToLevenshteinDistance.keySet());
         Collections.sort(clinicalAttributes, (a, b) -> {
             return clinicalAttributesToLevenshteinDistance.get(a).compareTo(clinicalAttributesToLevenshteinDistance.get(b));
         });
-        if (clinicalAttributes.size() == 0) {
-            throw new ClinicalAttributeNotFoundException(String.join(", ", searchTerms));
+        return clinicalAttributes;
+    }
+
+    /**
+    * The same clinical attributes as the levenshtein ranking, ranked by their BM25F relevance
+    * (see RelevanceIndex) for the words of the search terms, and for a fuzzy search the words
+    * they nearly match, so no levenshtein distances are calculated.
+    *
+    * The ranked candidates are the attributes in the relevance index's posting lists for those
+    * words and the near matches, so the attributes which share no word with the search are not
+    * looked at.  A search term can also match inside a word (e.g. "tag" in "stage"), which scores
+    * 0: these substring only matches are returned after the ranked ones, by column header.  They
+    * are found through the words of the vocabulary which contain the longest word of each search
+    * term (see findSubstringMatchCandidates()).
+    */
+    private List<ClinicalAttributeMetadata> searchClinicalAttributesByRelevance(ClinicalAttributeMetadataSnapshot snapshot, Collection<ClinicalAttributeMetadata> searchedClinicalAttributes, Map<String, ClinicalAttributeMetadata> overrides,
+        List<String> searchTerms, AttributeType requestedAttributeType, boolean inclusiveSearch, boolean fuzzy, Map<String, Set<ClinicalAttributeMetadata>> nearMatches,
+        VocabularyIndex overridesVocabularyIndex, RelevanceIndex relevanceIndex) {
+        Set<String> words = new LinkedHashSet<String>();
+        for (String searchTerm : searchTerms) {
+            for (String word : VocabularyIndex.tokenize(searchTerm)) {
+                words.add(word);
+                if (fuzzy) {
+                    words.addAll(snapshot.getVocabularyIndex().findWords(word, VocabularyIndex.getMaximumEditDistance(word)));
+                    if (overridesVocabularyIndex != null) {
+                        words.addAll(overridesVocabularyIndex.findWords(word, VocabularyIndex.getMaximumEditDistance(word)));
+                    }
+                }
+            }
+        }
+        Set<ClinicalAttributeMetadata> candidates = relevanceIndex.findClinicalAttributes(words);
+        for (Set<ClinicalAttributeMetadata> nearMatchesForSearchTerm : nearMatches.values()) {
+            candidates.addAll(nearMatchesForSearchTerm);
+        }
+        List<ClinicalAttributeMetadata> clinicalAttributes = relevanceIndex.rank(
+            getSearchMatches(snapshot, overrides, candidates, searchTerms, requestedAttributeType, inclusiveSearch, nearMatches), words);
+        List<ClinicalAttributeMetadata> substringMatches = getSearchMatches(snapshot, overrides,
+            findSubstringMatchCandidates(searchedClinicalAttributes, searchTerms, relevanceIndex), searchTerms, requestedAttributeType, inclusiveSearch, nearMatches);
+        substringMatches.removeIf(candidates::contains);
+        Collections.sort(substringMatches, (a, b) -> String.valueOf(a.getColumnHeader()).compareTo(String.valueOf(b.getColumnHeader())));
+        clinicalAttributes.addAll(substringMatches);
+        return clinicalAttributes;
+    }
+
+    /**
+    * An attribute which contains a search term has a word containing each word of the search term
+    * (the first and last words of the term may be the end and the start of longer words), so the
+    * attributes with a word containing the longest word of each search term are all the substring
+    * matches, and usually far fewer than all the attributes.
+    *
+    * @return
+    * the candidates for substring matches, all the searched attributes if a search term has no
+    * letters or digits, or a word String.toLowerCase() may not fold the way containsSearchTerm() does
+    */
+    private static Collection<ClinicalAttributeMetadata> findSubstringMatchCandidates(Collection<ClinicalAttributeMetadata> searchedClinicalAttributes, List<String> searchTerms, RelevanceIndex relevanceIndex) {
+        Set<ClinicalAttributeMetadata> candidates = Collections.newSetFromMap(new IdentityHashMap<ClinicalAttributeMetadata, Boolean>());
+        for (String searchTerm : searchTerms) {
+            String longestWord = "";
+            for (String word : VocabularyIndex.tokenize(searchTerm)) {
+                if (word.length() > longestWord.length()) {
+                    longestWord = word;
+                }
+            }
+            if (longestWord.isEmpty() || !StringUtils.isAsciiPrintable(longestWord)) {
+                return searchedClinicalAttributes;
+            }
+            candidates.addAll(relevanceIndex.findClinicalAttributes(relevanceIndex.findWordsContaining(longestWord)));
+        }
+        return candidates;
+    }
+
+    /**
+    *
+    * @return
+    * the candidates which are searched (see isSearched()), of the requested attribute type and match the search terms
+    */
+    private List<ClinicalAttributeMetadata> getSearchMatches(ClinicalAttributeMetadataSnapshot snapshot, Map<String, ClinicalAttributeMetadata> overrides, Collection<ClinicalAttributeMetadata> candidates,
+        List<String> searchTerms, AttributeType requestedAttributeType, boolean inclusiveSearch, Map<String, Set<ClinicalAttributeMetadata>> nearMatches) {
+        List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>();
+        for (ClinicalAttributeMetadata clinicalAttributeMetadata : candidates) {
+            if (!isSearched(snapshot, overrides, clinicalAttributeMetadata) || !clinicalAttributeMetadata.matchesAttributeType(requestedAttributeType)) {
+                continue;
+            }
+            if (inclusiveSearch ? matchesAllSearchTerms(clinicalAttributeMetadata, searchTerms, nearMatches) : matchesAnySearchTerm(clinicalAttributeMetadata, searchTerms, nearMatches)) {
+                clinicalAttributes.add(clinicalAttributeMetadata);
+            }
         }
         return clinicalAttributes;
     }
 
-    private void mapMinimumLevenshteinDistanceFromClinicalAttributeMetadataToSearchTerms(Map<ClinicalAttributeMetadata, Integer> clinicalAttributesToLevenshteinDistance, List<String> searchTerms, ClinicalAttributeMetadata clinicalAttributeMetadata) {
+    /**
+    * The indexes also hold attributes which are not searched: the default versions of the
+    * attributes a cancer study overrides, and the overrides of column headers without a default.
+    *
+    * @return
+    * whether the clinical attribute is one of those getSearchedClinicalAttributes() returns
+    */
+    private static boolean isSearched(ClinicalAttributeMetadataSnapshot snapshot, Map<String, ClinicalAttributeMetadata> overrides, ClinicalAttributeMetadata clinicalAttributeMetadata) {
+        ClinicalAttributeMetadata defaultClinicalAttributeMetadata = snapshot.getClinicalAttributeMetadata().get(clinicalAttributeMetadata.getColumnHeader());
+        if (defaultClinicalAttributeMetadata == null) {
+            return false;
+        }
+        ClinicalAttributeMetadata overrideClinicalAttributeMetadata = overrides == null ? null : overrides.get(clinicalAttributeMetadata.getColumnHeader());
+        return clinicalAttributeMetadata == (overrideClinicalAttributeMetadata == null ? defaultClinicalAttributeMetadata : overrideClinicalAttributeMetadata);
+    }
+
+    private boolean matchesAnySearchTerm(ClinicalAttributeMetadata clinicalAttributeMetadata, List<String> searchTerms, Map<String, Set<ClinicalAttributeMetadata>> nearMatches) {
+        for (String searchTerm : searchTerms) {
+            if (clinicalAttributeMetadata.containsSearchTerm(searchTerm) || isNearMatch(clinicalAttributeMetadata, searchTerm, nearMatches)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesAllSearchTerms(ClinicalAttributeMetadata clinicalAttributeMetadata, List<String> searchTerms, Map<String, Set<ClinicalAttributeMetadata>> nearMatches) {
+        for (String searchTerm : searchTerms) {
+            if (!clinicalAttributeMetadata.containsSearchTerm(searchTerm) && !isNearMatch(clinicalAttributeMetadata, searchTerm, nearMatches)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isNearMatch(ClinicalAttributeMetadata clinicalAttributeMetadata, String searchTerm, Map<String, Set<ClinicalAttributeMetadata>> nearMatches) {
+        Set<ClinicalAttributeMetadata> nearMatchesForSearchTerm = nearMatches.get(searchTerm);
+        return nearMatchesForSearchTerm != null && nearMatchesForSearchTerm.contains(clinicalAttributeMetadata);
+    }
+
+    private void mapMinimumLevenshteinDistanceFromClinicalAttributeMetadataToSearchTerms(ClinicalAttributeMetadataSnapshot snapshot, Map<ClinicalAttributeMetadata, Integer> clinicalAttributesToLevenshteinDistance, List<String> searchTerms, Map<String, Set<ClinicalAttributeMetadata>> nearMatches, ClinicalAttributeMetadata clinicalAttributeMetadata) {
         Integer levenshteinDistance;
         // matching clinical attributes added to map with shortest levenshtein distance
         for (String searchTerm : searchTerms) {
             if (clinicalAttributeMetadata.containsSearchTerm(searchTerm)) {
-                // attempt to get levenshtein distance from cache - if not present, add to cache
-                if (!levenshteinDistanceCache.containsClinicalAttribute(clinicalAttributeMetadata)) {
-                    levenshteinDistanceCache.addClinicalAttribute(clinicalAttributeMetadata);
-                }
-                if (!levenshteinDistanceCache.containsClinicalAttributeToSearchTermMapping(clinicalAttributeMetadata, searchTerm)) {
-                    levenshteinDistanceCache.addClinicalAttributeToSearchTermMapping(clinicalAttributeMetadata, searchTerm);
-                }
-                levenshteinDistance = levenshteinDistanceCache.getLevenshteinDistanceForMapping(clinicalAttributeMetadata, searchTerm);
-                if (!clinicalAttributesToLevenshteinDistance.containsKey(clinicalAttributeMetadata)) {
-                    clinicalAttributesToLevenshteinDistance.put(clinicalAttributeMetadata, levenshteinDistance);
-                } else {
-                    clinicalAttributesToLevenshteinDistance.put(clinicalAttributeMetadata, Math.min(clinicalAttributesToLevenshteinDistance.get(clinicalAttributeMetadata), levenshteinDistance));
-                }
+                // get levenshtein distance from cache - if not present, it is calculated and added to cache
+                levenshteinDistance = levenshteinDistanceCache.getLevenshteinDistance(snapshot, clinicalAttributeMetadata, searchTerm);
+            } else if (isNearMatch(clinicalAttributeMetadata, searchTerm, nearMatches)) {
+                levenshteinDistance = clinicalAttributeMetadata.levenshteinDistanceFromNearMatch(searchTerm);
+            } else {
+                continue;
+            }
+            if (!clinicalAttributesToLevenshteinDistance.containsKey(clinicalAttributeMetadata)) {
+                clinicalAttributesToLevenshteinDistance.put(clinicalAttributeMetadata, levenshteinDistance);
+            } else {
+                clinicalAttributesToLevenshteinDistance.put(clinicalAttributeMetadata, Math.min(clinicalAttributesToLevenshteinDistance.get(clinicalAttributeMetadata), levenshteinDistance));
             }
         }
         if (clinicalAttributeMetadata.containsAllSearchTerms(searchTerms)) {
@@ -173,27 +675,178 @@ public class CDDServiceKnowledgeSystemsImpl implements ClinicalDataDictionarySer
         return clinicalAttributeMetadataList.get(0);
     }
 
-    private ClinicalAttributeMetadata getMetadataByColumnHeader(Map<String, ClinicalAttributeMetadata> clinicalAttributeCache, String columnHeader)
-        throws ClinicalAttributeNotFoundException {
-        if (clinicalAttributeCache.containsKey(columnHeader.toUpperCase())) {
-            return clinicalAttributeCache.get(columnHeader.toUpperCase());
+    @Override
+    public ClinicalAttributeLookup lookupClinicalAttribute(String cancerStudy, String columnHeader)
+        throws ClinicalMetadataSourceUnresponsiveException {
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        SnapshotMemo memo = snapshotMemo;
+        if (memo.snapshot != snapshot) {
+            // the snapshot is about to be replaced, or was published without being warmed up
+            return resolveClinicalAttribute(snapshot, cancerStudy, ColumnHeaderIndex.fold(columnHeader));
         }
-        throw new ClinicalAttributeNotFoundException(columnHeader);
+        return lookupClinicalAttribute(memo, cancerStudy, columnHeader, true);
     }
 
-    private ClinicalAttributeMetadata getAlteredDefaultMetadataByColumnHeader(Map<String, ClinicalAttributeMetadata> clinicalAttributeCache, String columnHeader)
-        throws ClinicalAttributeNotFoundException {
-            ClinicalAttributeMetadata defaultClinicalAttribute = getMetadataByColumnHeader(clinicalAttributeCache, columnHeader);
-            ClinicalAttributeMetadata alteredClinicalAttribute = new ClinicalAttributeMetadata(defaultClinicalAttribute);
-            alteredClinicalAttribute.setPriority("0");
-            return alteredClinicalAttribute;
+    private ClinicalAttributeLookup lookupClinicalAttribute(SnapshotMemo memo, String cancerStudy, String columnHeader, boolean recordLookup) {
+        if (cancerStudy != null && !memo.snapshot.containsCancerStudy(cancerStudy)) {
+            return ClinicalAttributeLookup.CANCER_STUDY_NOT_FOUND_LOOKUP;
+        }
+        // "age" and "AGE" resolve to the same attribute, so they share a memo entry
+        String foldedColumnHeader = ColumnHeaderIndex.fold(columnHeader);
+        Map<String, ClinicalAttributeLookup> lookups = memo.getLookups(cancerStudy);
+        ClinicalAttributeLookup lookup = lookups.get(foldedColumnHeader);
+        if (lookup == null) {
+            lookup = resolveClinicalAttribute(memo.snapshot, cancerStudy, foldedColumnHeader);
+            if (memo.reserveEntry()) {
+                lookups.put(foldedColumnHeader, lookup);
+            }
+            if (recordLookup) {
+                recentSingleLookups.record(new LookupRequest(cancerStudy, Collections.singletonList(columnHeader)));
+            }
+        }
+        return lookup;
+    }
+
+    private static ClinicalAttributeLookup resolveClinicalAttribute(ClinicalAttributeMetadataSnapshot snapshot, String cancerStudy, String columnHeader) {
+        if (cancerStudy != null && !snapshot.containsCancerStudy(cancerStudy)) {
+            return ClinicalAttributeLookup.CANCER_STUDY_NOT_FOUND_LOOKUP;
+        }
+        ClinicalAttributeMetadata clinicalAttributeMetadata = new ColumnHeaderResolver(snapshot, cancerStudy).resolve(columnHeader);
+        if (clinicalAttributeMetadata == null) {
+            return ClinicalAttributeLookup.clinicalAttributeNotFound(columnHeader);
+        }
+        return ClinicalAttributeLookup.found(clinicalAttributeMetadata);
+    }
+
+    /**
+    * Results memoized for one snapshot: the single column header lookups, by cancer study (null
+    * for none) and case-folded column header, the facets (only valid cancer studies get an entry)
+    * and the search results.  Lookups for unknown cancer studies all share one result, so they
+    * are not memoized.
+    * The search results are kept in a size bounded (least recently used first out) cache, since
+    * unlike the lookups they are lists of clinical attributes.
+    */
+    private static class SnapshotMemo {
+
+        private final ClinicalAttributeMetadataSnapshot snapshot;
+        private final Map<String, ClinicalAttributeLookup> defaultLookups = new ConcurrentHashMap<String, ClinicalAttributeLookup>();
+        // only valid cancer studies get a map
+        private final Map<String, Map<String, ClinicalAttributeLookup>> overrideLookups = new ConcurrentHashMap<String, Map<String, ClinicalAttributeLookup>>();
+        private final AtomicInteger entryCount = new AtomicInteger();
+        private final Cache<SearchRequest, List<ClinicalAttributeMetadata>> searchResults;
+        private final Map<String, ClinicalAttributeFacets> cancerStudyFacets = new ConcurrentHashMap<String, ClinicalAttributeFacets>();
+        // counting the facets twice is harmless, they are the same
+        private volatile ClinicalAttributeFacets defaultFacets;
+
+        SnapshotMemo(ClinicalAttributeMetadataSnapshot snapshot, int maximumMemoizedSearches) {
+            this.snapshot = snapshot;
+            // with a maximum size of 0 nothing is kept, but identical concurrent searches are still coalesced
+            this.searchResults = CacheBuilder.newBuilder()
+                .maximumSize(maximumMemoizedSearches)
+                .build();
+        }
+
+        Map<String, ClinicalAttributeLookup> getLookups(String cancerStudy) {
+            if (cancerStudy == null) {
+                return defaultLookups;
+            }
+            return overrideLookups.computeIfAbsent(cancerStudy, key -> new ConcurrentHashMap<String, ClinicalAttributeLookup>());
+        }
+
+        /**
+        *
+        * @return false if the memo is full
+        */
+        boolean reserveEntry() {
+            // concurrent reservations can not take the count past the maximum
+            return entryCount.getAndUpdate(count -> count < MAXIMUM_MEMOIZED_LOOKUPS ? count + 1 : count) < MAXIMUM_MEMOIZED_LOOKUPS;
+        }
+    }
+
+    private static ClinicalAttributeMetadata getAlteredDefaultMetadata(ClinicalAttributeMetadata defaultClinicalAttribute) {
+        ClinicalAttributeMetadata alteredClinicalAttribute = new ClinicalAttributeMetadata(defaultClinicalAttribute);
+        alteredClinicalAttribute.setPriority("0");
+        return alteredClinicalAttribute;
+    }
+
+    @Override
+    public List<ClinicalAttributeCompletion> getCompletionsByPrefix(String prefix, int limit)
+        throws ClinicalMetadataSourceUnresponsiveException {
+        return getValidSnapshot().getAutocompleteIndex().complete(prefix, limit);
+    }
+
+    /**
+    * Facets are counted once per snapshot and cancer study, from the bitsets of the snapshot's ListingIndex.
+    */
+    @Override
+    public ClinicalAttributeFacets getFacets(String cancerStudy)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        assertCancerStudyIsValid(snapshot, cancerStudy);
+        SnapshotMemo memo = snapshotMemo;
+        if (memo.snapshot != snapshot) {
+            // the snapshot is about to be replaced, or was published without being warmed up
+            return countFacets(snapshot, cancerStudy);
+        }
+        if (cancerStudy == null) {
+            ClinicalAttributeFacets defaultFacets = memo.defaultFacets;
+            if (defaultFacets == null) {
+                defaultFacets = countFacets(snapshot, null);
+                memo.defaultFacets = defaultFacets;
+            }
+            return defaultFacets;
+        }
+        return memo.cancerStudyFacets.computeIfAbsent(cancerStudy, key -> countFacets(snapshot, key));
+    }
+
+    private static ClinicalAttributeFacets countFacets(ClinicalAttributeMetadataSnapshot snapshot, String cancerStudy) {
+        ListingIndex.Overlay overlay = cancerStudy == null ? null : snapshot.getOverridesListingIndex(cancerStudy);
+        boolean useAlteredDefaultMetadata = cancerStudy != null && CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA.contains(cancerStudy);
+        return snapshot.getListingIndex().countFacets(cancerStudy, overlay, useAlteredDefaultMetadata);
+    }
+
+    /**
+    * Only the cancer study's own overrides, without the defaults they are merged with in getClinicalAttributeMetadata,
+    * as kept in the snapshot.
+    */
+    @Override
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadataOverrides(String cancerStudy, boolean overriddenFieldsOnly)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        if (!snapshot.containsCancerStudy(cancerStudy)) {
+            throw new CancerStudyNotFoundException(cancerStudy);
+        }
+        return snapshot.getClinicalAttributeMetadataOverridesList(cancerStudy, overriddenFieldsOnly);
+    }
+
+    /**
+    * The studies overriding each attribute are collected when the snapshot is built, so this
+    * is a lookup rather than a pass over the overrides of every study.
+    */
+    @Override
+    public List<CancerStudyOverride> getCancerStudyOverrides(String columnHeader)
+        throws ClinicalMetadataSourceUnresponsiveException, ClinicalAttributeNotFoundException {
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
+        if (!snapshot.getClinicalAttributeMetadataIndex().containsKey(columnHeader)) {
+            throw new ClinicalAttributeNotFoundException(columnHeader);
+        }
+        List<CancerStudyOverride> cancerStudyOverrides = snapshot.getCancerStudyOverrides(columnHeader);
+        return cancerStudyOverrides == null ? Collections.<CancerStudyOverride>emptyList() : cancerStudyOverrides;
+    }
+
+    /**
+    * The export is written to disk once per snapshot, when the snapshot is warmed.
+    */
+    @Override
+    public ClinicalAttributeExport getExport() throws ClinicalMetadataSourceUnresponsiveException {
+        return clinicalAttributeExporter.getExport(getValidSnapshot(), CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA);
     }
 
     @Override
     public List<CancerStudy> getCancerStudies() throws ClinicalMetadataSourceUnresponsiveException {
-        assertCacheIsValid();
+        ClinicalAttributeMetadataSnapshot snapshot = getValidSnapshot();
         List<CancerStudy> cancerStudies = new ArrayList<CancerStudy>();
-        Map<String, Map<String, ClinicalAttributeMetadata>> overridesCache = clinicalAttributesCache.getClinicalAttributeMetadataOverrides();
+        Map<String, Map<String, ClinicalAttributeMetadata>> overridesCache = snapshot.getClinicalAttributeMetadataOverrides();
         for (String cancerStudyName : overridesCache.keySet()) {
             cancerStudies.add(new CancerStudy(cancerStudyName));
         }
@@ -202,26 +855,189 @@ public class CDDServiceKnowledgeSystemsImpl implements ClinicalDataDictionarySer
 
     @Override
     public Map<String, String> forceResetCache() throws FailedCacheRefreshException {
-        clinicalAttributesCache.resetCache();
-        levenshteinDistanceCache.resetCache();
+        cacheRefreshCoordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL).await();
         return Collections.singletonMap("response", "Success!");
     }
 
-    private void assertCacheIsValid() throws ClinicalMetadataSourceUnresponsiveException {
-        if (clinicalAttributesCache.getClinicalAttributeMetadata() == null || clinicalAttributesCache.getClinicalAttributeMetadataOverrides() == null) {
-            logger.debug("assertCacheIsValid() -- cache is invalid");
+    @Override
+    public CacheRefreshStatus startCacheRefresh() {
+        return cacheRefreshCoordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL).getStatus();
+    }
+
+    @Override
+    public CacheRefreshStatus getCacheRefreshStatus(String jobId) throws CacheRefreshJobNotFoundException {
+        CacheRefreshJob job = cacheRefreshCoordinator.getJob(jobId);
+        if (job == null) {
+            throw new CacheRefreshJobNotFoundException(jobId);
+        }
+        return job.getStatus();
+    }
+
+    @PostConstruct
+    private void initialize() {
+        searchCacheHitCounter = Counter.builder("cdd.search.cache.requests")
+            .description("Searches, by whether the results were already memoized for the current snapshot")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        searchCacheMissCounter = Counter.builder("cdd.search.cache.requests")
+            .description("Searches, by whether the results were already memoized for the current snapshot")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        recentLookups = new RecentRequestSample<LookupRequest>(replaySampleSize);
+        recentSearches = new RecentRequestSample<SearchRequest>(replaySampleSize);
+        recentSingleLookups = new RecentRequestSample<LookupRequest>(replaySampleSize);
+    }
+
+    /**
+    * Replays the recent lookups and searches against the new snapshot, or a synthetic sample
+    * if nothing has been recorded yet, then installs the single lookup memo for the new
+    * snapshot, prefilled with the recent single lookups.  Only the side effects, memoized
+    * lookups, cached distances and compiled code, are kept.
+    */
+    @Override
+    public void warm(ClinicalAttributeMetadataSnapshot snapshot) {
+        SnapshotMemo memo = new SnapshotMemo(snapshot, maximumMemoizedSearches);
+        if (replaySampleSize > 0) {
+            replayRecentRequests(snapshot, memo);
+        }
+        snapshotMemo = memo;
+    }
+
+    private void replayRecentRequests(ClinicalAttributeMetadataSnapshot snapshot, SnapshotMemo memo) {
+        List<LookupRequest> singleLookups = recentSingleLookups.getRequests();
+        for (LookupRequest singleLookup : singleLookups) {
+            lookupClinicalAttribute(memo, singleLookup.cancerStudy, singleLookup.columnHeaders.get(0), false);
+        }
+        List<LookupRequest> lookups = recentLookups.getRequests();
+        List<SearchRequest> searches = recentSearches.getRequests();
+        if (lookups.isEmpty() && searches.isEmpty()) {
+            lookups = makeSyntheticLookups(snapshot);
+            searches = makeSyntheticSearches(snapshot);
+        }
+        logger.info("warm(): replaying " + singleLookups.size() + " single lookups, " + lookups.size() + " lookups and " + searches.size() + " searches");
+        for (LookupRequest lookup : lookups) {
+            // the cancer study may have been removed by this refresh
+            if (lookup.cancerStudy != null && !snapshot.containsCancerStudy(lookup.cancerStudy)) {
+                continue;
+            }
+            List<String> columnHeaders = lookup.columnHeaders;
+            if (columnHeaders == null) {
+                columnHeaders = new ArrayList<>(snapshot.getClinicalAttributeMetadata().keySet());
+            }
+            lookupColumnHeaders(snapshot, lookup.cancerStudy, columnHeaders);
+        }
+        for (SearchRequest search : searches) {
+            // the cancer study may have been removed by this refresh
+            if (search.cancerStudy != null && !snapshot.containsCancerStudy(search.cancerStudy)) {
+                continue;
+            }
+            memo.searchResults.put(search, searchClinicalAttributes(snapshot, search));
+        }
+    }
+
+    /**
+    * A listing of all clinical attributes, and one for each of the first cancer studies.
+    */
+    private List<LookupRequest> makeSyntheticLookups(ClinicalAttributeMetadataSnapshot snapshot) {
+        List<LookupRequest> lookups = new ArrayList<LookupRequest>();
+        lookups.add(new LookupRequest(null, null));
+        for (String cancerStudy : snapshot.getClinicalAttributeMetadataOverrides().keySet()) {
+            if (lookups.size() >= replaySampleSize) {
+                break;
+            }
+            lookups.add(new LookupRequest(cancerStudy, null));
+        }
+        return lookups;
+    }
+
+    /**
+    * A search for the first word of the display name of each of the first clinical attributes.
+    */
+    private List<SearchRequest> makeSyntheticSearches(ClinicalAttributeMetadataSnapshot snapshot) {
+        List<SearchRequest> searches = new ArrayList<SearchRequest>();
+        for (ClinicalAttributeMetadata clinicalAttributeMetadata : snapshot.getClinicalAttributeMetadata().values()) {
+            if (searches.size() >= replaySampleSize) {
+                break;
+            }
+            String displayName = clinicalAttributeMetadata.getDisplayName();
+            if (displayName == null || displayName.trim().isEmpty()) {
+                continue;
+            }
+            searches.add(new SearchRequest(null, Collections.singletonList(displayName.trim().split("\\s+")[0]), null, false, false, SearchRanking.LEVENSHTEIN));
+        }
+        return searches;
+    }
+
+    private static class LookupRequest {
+
+        private final String cancerStudy;
+        // null for all column headers
+        private final List<String> columnHeaders;
+
+        LookupRequest(String cancerStudy, List<String> columnHeaders) {
+            this.cancerStudy = cancerStudy;
+            if (columnHeaders != null && columnHeaders.size() > MAXIMUM_REPLAYED_COLUMN_HEADERS) {
+                columnHeaders = columnHeaders.subList(0, MAXIMUM_REPLAYED_COLUMN_HEADERS);
+            }
+            // copied so the sample does not keep the request's list alive
+            this.columnHeaders = columnHeaders == null ? null : new ArrayList<String>(columnHeaders);
+        }
+    }
+
+    private static class SearchRequest {
+
+        private final String cancerStudy;
+        private final List<String> searchTerms;
+        private final AttributeType attributeType;
+        private final boolean inclusiveSearch;
+        private final boolean fuzzy;
+        private final SearchRanking ranking;
+
+        SearchRequest(String cancerStudy, List<String> searchTerms, AttributeType attributeType, boolean inclusiveSearch, boolean fuzzy, SearchRanking ranking) {
+            this.cancerStudy = cancerStudy;
+            this.searchTerms = new ArrayList<String>(searchTerms);
+            this.attributeType = attributeType;
+            this.inclusiveSearch = inclusiveSearch;
+            this.fuzzy = fuzzy;
+            this.ranking = ranking;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof SearchRequest)) {
+                return false;
+            }
+            SearchRequest otherSearch = (SearchRequest) other;
+            return Objects.equals(cancerStudy, otherSearch.cancerStudy) && searchTerms.equals(otherSearch.searchTerms) && attributeType == otherSearch.attributeType && inclusiveSearch == otherSearch.inclusiveSearch
+                && fuzzy == otherSearch.fuzzy && ranking == otherSearch.ranking;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cancerStudy, searchTerms, attributeType, inclusiveSearch, fuzzy, ranking);
+        }
+    }
+
+    @PreDestroy
+    private void shutdownColumnHeaderResolutionPool() {
+        columnHeaderResolutionPool.shutdown();
+    }
+
+    private ClinicalAttributeMetadataSnapshot getValidSnapshot() throws ClinicalMetadataSourceUnresponsiveException {
+        ClinicalAttributeMetadataSnapshot snapshot = clinicalAttributesCache.getSnapshot();
+        if (snapshot == null) {
+            logger.debug("getValidSnapshot() -- cache is invalid");
             throw new ClinicalMetadataSourceUnresponsiveException("Attempted to access cache while ClinicalAttributeMetadata cache or ClinicalAttributeMetadataOverrides cache was invalid");
         }
-        logger.debug("assertCacheIsValid() -- cache is valid");
+        return snapshot;
     }
 
-    private void assertCancerStudyIsValid(String cancerStudy) throws CancerStudyNotFoundException {
-        if (cancerStudy != null && !clinicalAttributesCache.getClinicalAttributeMetadataOverrides().containsKey(cancerStudy)) {
-            logger.debug("assertCancerStudyIsValid() -- cancer study '" + cancerStudy + "' is invalid");
+    private void assertCancerStudyIsValid(ClinicalAttributeMetadataSnapshot snapshot, String cancerStudy) throws CancerStudyNotFoundException {
+        if (cancerStudy != null && !snapshot.containsCancerStudy(cancerStudy)) {
+            logger.debug("assertCancerStudyIsValid() -- cancer study '{}' is invalid", cancerStudy);
             throw new CancerStudyNotFoundException(cancerStudy);
         }
         // null is valid
-        logger.debug("assertCancerStudyIsValid() -- cancer study '" + cancerStudy + "' is valid");
     }
 
 }
@@ -16,8 +16,15 @@
 package org.cbioportal.cdd.service.internal;
 
 import java.util.*;
+import org.cbioportal.cdd.model.AttributeType;
 import org.cbioportal.cdd.model.CancerStudy;
+import org.cbioportal.cdd.model.CancerStudyOverride;
+import org.cbioportal.cdd.model.ClinicalAttributeFacets;
+import org.cbioportal.cdd.model.ClinicalAttributeLookup;
 import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
+import org.cbioportal.cdd.model.ColumnHeaderLookupResult;
+import org.cbioportal.cdd.model.Datatype;
 import org.cbioportal.cdd.model.MskVocabularyField;
 import org.cbioportal.cdd.repository.topbraid.MskVocabularyRepository;
 import org.cbioportal.cdd.service.ClinicalDataDictionaryService;
@@ -48,17 +55,29 @@ public class CDDServiceMskVocabularyImpl implements ClinicalDataDictionaryServic
 
     private static final Logger logger = LoggerFactory.getLogger(CDDServiceMskVocabularyImpl.class);
 
+    // the same bounds as the knowledge systems suggestions
+    private static final int MAXIMUM_SUGGESTIONS_PER_COLUMN_HEADER = 3;
+    private static final int MAXIMUM_MISSING_COLUMN_HEADERS_WITH_SUGGESTIONS = 100;
+
     private Map<String, ClinicalAttributeMetadata> clinicalAttributeMetadataCache = new HashMap<String, ClinicalAttributeMetadata>();
+    // rebuilt from clinicalAttributeMetadataCache after every fill, used for case-insensitive column header lookups
+    private volatile ColumnHeaderIndex<ClinicalAttributeMetadata> clinicalAttributeMetadataIndex = new ColumnHeaderIndex<ClinicalAttributeMetadata>(Collections.<String, ClinicalAttributeMetadata>emptyMap());
+    // rebuilt with clinicalAttributeMetadataIndex, used for filtered and sorted listings (the vocabulary has no overrides)
+    private volatile ListingIndex listingIndex = new ListingIndex(Collections.<ClinicalAttributeMetadata>emptyList(), Collections.<String, Map<String, ClinicalAttributeMetadata>>emptyMap());
 
     private void fillClinicalAttributeMetadataCache() {
         List<MskVocabularyField> mskVocabularyList = mskVocabularyRepository.getClinicalAttributeMetadata();
         if (mskVocabularyList.size() < clinicalAttributeMetadataCache.keySet().size() || mskVocabularyList == null) {
+            // the exception is only logged at debug level
+            logger.error("fillClinicalAttributeMetadataCache(): MskVocabulary system did not return valid set of terms");
             throw new ClinicalMetadataSourceUnresponsiveException("MskVocabulary system did not return valid set of terms");
         }
         for (MskVocabularyField mskVocabularyField : mskVocabularyList) {
             ClinicalAttributeMetadata clinicalAttributeMetadata = mskVocabularyConverter.convertToClinicalAttributeMetadata(mskVocabularyField);
             clinicalAttributeMetadataCache.put(clinicalAttributeMetadata.getColumnHeader(), clinicalAttributeMetadata);
         }
+        clinicalAttributeMetadataIndex = new ColumnHeaderIndex<ClinicalAttributeMetadata>(clinicalAttributeMetadataCache);
+        listingIndex = new ListingIndex(clinicalAttributeMetadataCache.values(), Collections.<String, Map<String, ClinicalAttributeMetadata>>emptyMap());
     }
 
     @Override
@@ -70,40 +89,159 @@ public class CDDServiceMskVocabularyImpl implements ClinicalDataDictionaryServic
         return new ArrayList<ClinicalAttributeMetadata>(clinicalAttributeMetadataCache.values());
     }
 
+    @Override
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadata(String cancerStudy, String attributeType, String datatype, Integer minimumPriority, Boolean visible, ClinicalAttributeSort sort)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (attributeType == null && datatype == null && minimumPriority == null && visible == null && sort == null) {
+            return getClinicalAttributeMetadata(cancerStudy);
+        }
+        if (clinicalAttributeMetadataCache.isEmpty()) {
+            fillClinicalAttributeMetadataCache();
+        }
+        AttributeType requestedAttributeType = AttributeType.fromValueIgnoreCase(attributeType);
+        Datatype requestedDatatype = Datatype.fromValueIgnoreCase(datatype);
+        if ((attributeType != null && requestedAttributeType == null) || (datatype != null && requestedDatatype == null)) {
+            // no attribute can match an unknown attribute type or datatype
+            return new ArrayList<ClinicalAttributeMetadata>();
+        }
+        return listingIndex.list(null, false, new ListingIndex.Filter(requestedAttributeType, requestedDatatype, minimumPriority, visible), sort);
+    }
+
     @Override
     public List<ClinicalAttributeMetadata> getMetadataByColumnHeaders(String cancerStudy, List<String> columnHeaders)
         throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        ColumnHeaderLookupResult result = lookupColumnHeaders(columnHeaders);
+        if (result.hasMissing()) {
+            throw new ClinicalAttributeNotFoundException(result.getMissing());
+        }
+        return result.getAttributes();
+    }
+
+    @Override
+    public ColumnHeaderLookupResult getMetadataByColumnHeadersPartial(String cancerStudy, List<String> columnHeaders, boolean includeSuggestions)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        ColumnHeaderLookupResult result = lookupColumnHeaders(columnHeaders);
+        if (includeSuggestions) {
+            result.setSuggestions(getSuggestionsForMissingColumnHeaders(result.getMissing()));
+        }
+        return result;
+    }
+
+    /**
+    * Suggestions for a missing column header are the terms containing one of its words (e.g. "TUMOR"
+    * or "SITES" for "TUMOR_SITES"), closest by levenshtein distance first, like the knowledge systems
+    * suggestions.  The vocabulary is small, so it is scanned for each missing column header.
+    */
+    private Map<String, List<String>> getSuggestionsForMissingColumnHeaders(List<String> missingColumnHeaders) {
+        Collection<ClinicalAttributeMetadata> clinicalAttributes = clinicalAttributeMetadataCache.values();
+        Map<String, List<String>> suggestions = new LinkedHashMap<String, List<String>>();
+        for (String missingColumnHeader : missingColumnHeaders) {
+            if (suggestions.size() >= MAXIMUM_MISSING_COLUMN_HEADERS_WITH_SUGGESTIONS) {
+                break;
+            }
+            if (suggestions.containsKey(missingColumnHeader)) {
+                continue;
+            }
+            Map<ClinicalAttributeMetadata, Integer> clinicalAttributesToLevenshteinDistance = new HashMap<ClinicalAttributeMetadata, Integer>();
+            for (String searchTerm : missingColumnHeader.split("[_\\s]+")) {
+                if (searchTerm.isEmpty()) {
+                    continue;
+                }
+                for (ClinicalAttributeMetadata clinicalAttributeMetadata : clinicalAttributes) {
+                    if (clinicalAttributeMetadata.containsSearchTerm(searchTerm)) {
+                        clinicalAttributesToLevenshteinDistance.merge(clinicalAttributeMetadata, clinicalAttributeMetadata.levenshteinDistanceFromSearchTerm(searchTerm), Math::min);
+                    }
+                }
+            }
+            List<ClinicalAttributeMetadata> suggestedClinicalAttributes = new ArrayList<ClinicalAttributeMetadata>(clinicalAttributesToLevenshteinDistance.keySet());
+            Collections.sort(suggestedClinicalAttributes, (a, b) -> {
+                int comparison = clinicalAttributesToLevenshteinDistance.get(a).compareTo(clinicalAttributesToLevenshteinDistance.get(b));
+                return comparison != 0 ? comparison : String.valueOf(a.getColumnHeader()).compareTo(String.valueOf(b.getColumnHeader()));
+            });
+            List<String> suggestedColumnHeaders = new ArrayList<String>();
+            for (ClinicalAttributeMetadata clinicalAttributeMetadata : suggestedClinicalAttributes) {
+                if (suggestedColumnHeaders.size() >= MAXIMUM_SUGGESTIONS_PER_COLUMN_HEADER) {
+                    break;
+                }
+                suggestedColumnHeaders.add(clinicalAttributeMetadata.getColumnHeader());
+            }
+            suggestions.put(missingColumnHeader, suggestedColumnHeaders);
+        }
+        return suggestions;
+    }
+
+    private ColumnHeaderLookupResult lookupColumnHeaders(List<String> columnHeaders) {
         ArrayList<ClinicalAttributeMetadata> clinicalAttributeMetadata = new ArrayList<ClinicalAttributeMetadata>();
         ArrayList<String> invalidColumnHeaders = new ArrayList<String>();
         if (clinicalAttributeMetadataCache.isEmpty()) {
             fillClinicalAttributeMetadataCache();
         }
+        ColumnHeaderIndex<ClinicalAttributeMetadata> index = clinicalAttributeMetadataIndex;
         for (String columnHeader : columnHeaders) {
-            try {
-                clinicalAttributeMetadata.add(getMetadataByColumnHeader(columnHeader));
-            } catch (ClinicalAttributeNotFoundException e) {
+            ClinicalAttributeMetadata clinicalAttributeMetadataForColumnHeader = index.get(columnHeader);
+            if (clinicalAttributeMetadataForColumnHeader == null) {
                 invalidColumnHeaders.add(columnHeader);
+            } else {
+                clinicalAttributeMetadata.add(clinicalAttributeMetadataForColumnHeader);
             }
         }
-        if (invalidColumnHeaders.size() > 0) {
-            throw new ClinicalAttributeNotFoundException(invalidColumnHeaders);
+        return new ColumnHeaderLookupResult(clinicalAttributeMetadata, invalidColumnHeaders);
+    }
+
+    @Override
+    public ClinicalAttributeMetadata getMetadataByColumnHeader(String cancerStudy, String columnHeader)
+        throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (clinicalAttributeMetadataCache.isEmpty()) {
+            fillClinicalAttributeMetadataCache();
+        }
+        return getMetadataByColumnHeader(columnHeader);
+    }
+
+    @Override
+    public ClinicalAttributeLookup lookupClinicalAttribute(String cancerStudy, String columnHeader)
+        throws ClinicalMetadataSourceUnresponsiveException {
+        if (clinicalAttributeMetadataCache.isEmpty()) {
+            fillClinicalAttributeMetadataCache();
+        }
+        ClinicalAttributeMetadata clinicalAttributeMetadata = clinicalAttributeMetadataIndex.get(columnHeader);
+        if (clinicalAttributeMetadata != null) {
+            return ClinicalAttributeLookup.found(clinicalAttributeMetadata);
         }
-        return clinicalAttributeMetadata;
+        return ClinicalAttributeLookup.clinicalAttributeNotFound(columnHeader);
     }
 
     @Override
-    public List<ClinicalAttributeMetadata> getMetadataBySearchTerms(List<String> searchTerms, String attributeType, boolean inclusiveSearch)
-        throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException {
-        throw new UnsupportedOperationException("search for similar terms within the MSK Standard Vocabulary is not yet implemented");
+    public ClinicalAttributeFacets getFacets(String cancerStudy)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (clinicalAttributeMetadataCache.isEmpty()) {
+            fillClinicalAttributeMetadataCache();
+        }
+        return listingIndex.countFacets(cancerStudy, null, false);
     }
 
+    /**
+    * The MSK Standard Vocabulary has no cancer study overrides, so a study which uses it overrides nothing.
+    */
     @Override
-    public ClinicalAttributeMetadata getMetadataByColumnHeader(String cancerStudy, String columnHeader)
-        throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadataOverrides(String cancerStudy, boolean overriddenFieldsOnly)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (!mskVocabStudyUtil.useMskVocabularyForStudy(cancerStudy)) {
+            throw new CancerStudyNotFoundException(cancerStudy);
+        }
+        return new ArrayList<ClinicalAttributeMetadata>();
+    }
+
+    /**
+    * The MSK Standard Vocabulary has no cancer study overrides, so no study overrides a term.
+    */
+    @Override
+    public List<CancerStudyOverride> getCancerStudyOverrides(String columnHeader)
+        throws ClinicalMetadataSourceUnresponsiveException, ClinicalAttributeNotFoundException {
         if (clinicalAttributeMetadataCache.isEmpty()) {
             fillClinicalAttributeMetadataCache();
         }
-        return getMetadataByColumnHeader(columnHeader);
+        getMetadataByColumnHeader(columnHeader);
+        return new ArrayList<CancerStudyOverride>();
     }
 
     @Override
@@ -123,8 +261,9 @@ public class CDDServiceMskVocabularyImpl implements ClinicalDataDictionaryServic
 
     private ClinicalAttributeMetadata getMetadataByColumnHeader(String columnHeader)
         throws ClinicalAttributeNotFoundException {
-        if (clinicalAttributeMetadataCache.containsKey(columnHeader.toUpperCase())) {
-            return clinicalAttributeMetadataCache.get(columnHeader.toUpperCase());
+        ClinicalAttributeMetadata clinicalAttributeMetadata = clinicalAttributeMetadataIndex.get(columnHeader);
+        if (clinicalAttributeMetadata != null) {
+            return clinicalAttributeMetadata;
         }
         throw new ClinicalAttributeNotFoundException(columnHeader);
     }
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.service.internal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import javax.annotation.PreDestroy;
+import org.cbioportal.cdd.model.ClinicalAttributeExport;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the bulk export of a snapshot: one zip file with
+ *
+ *   manifest.json             format version, checksum, counts and the SHA-256 of each entry
+ *   defaults.json             the default clinical attributes, by column header
+ *   overrides/{study}.json    each cancer study's overrides, with only the fields the study sets
+ *
+ * The export is written at most once per snapshot, to a file named after the checksum of its
+ * contents, so a snapshot with the same contents as an earlier one (the next refresh, or the
+ * first one after a restart with a configured directory) reuses the file on disk.  It is written
+ * by warm() on the refresh thread, before the snapshot is published, so no request waits for it
+ * unless warming failed.  Without cdd.export.directory the exports go to a private temporary
+ * directory of this process, deleted on shutdown.
+ *
+ * The exports of the current and previous snapshots are kept, older ones are deleted once they
+ * have not been served for cdd.export.retention, so downloads which started before a refresh can
+ * finish.
+ */
+@Component
+@Order(SnapshotWarmer.ORDER_DERIVED_STRUCTURES)
+public class ClinicalAttributeExporter implements SnapshotWarmer {
+
+    public static final int FORMAT_VERSION = 1;
+    public static final String MANIFEST_ENTRY = "manifest.json";
+    public static final String DEFAULTS_ENTRY = "defaults.json";
+    public static final String OVERRIDES_ENTRY_PREFIX = "overrides/";
+
+    private static final String EXPORT_FILE_PREFIX = "cdd-export-";
+    private static final String EXPORT_FILE_SUFFIX = ".zip";
+    private static final Logger logger = LoggerFactory.getLogger(ClinicalAttributeExporter.class);
+
+    // defaults to a temporary directory created for this process
+    @Value("${cdd.export.directory:}")
+    private String exportDirectory;
+
+    private Duration retention = Duration.ofHours(1);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // the temporary directory created when no export directory is configured, deleted on shutdown
+    private Path temporaryExportDirectory;
+
+    private volatile Generation generation;
+    // still served to requests which got the previous snapshot, e.g. while the next one is warmed
+    private volatile Generation previousGeneration;
+
+    /**
+    * Exports which are neither the current nor the previous one are deleted once they have not
+    * been served for this long, so it should be longer than the slowest download.
+    *
+    * @param retention
+    * ISO-8601 duration, e.g. PT1H
+    */
+    @Value("${cdd.export.retention:PT1H}")
+    public void setRetention(String retention) {
+        this.retention = Duration.parse(retention);
+    }
+
+    /**
+    * Writes the export of the new snapshot before it is published.
+    */
+    @Override
+    public void warm(ClinicalAttributeMetadataSnapshot snapshot) {
+        getExport(snapshot, CDDServiceKnowledgeSystemsImpl.CANCER_STUDIES_WITH_ALTERED_DEFAULT_METADATA);
+    }
+
+    /**
+    *
+    * @param cancerStudiesWithHiddenDefaults
+    * the cancer studies which see the attributes they do not override with priority 0, listed in the manifest
+    * @return
+    * the export of the snapshot, written first if it was not written when the snapshot was warmed
+    */
+    public ClinicalAttributeExport getExport(ClinicalAttributeMetadataSnapshot snapshot, Set<String> cancerStudiesWithHiddenDefaults) {
+        ClinicalAttributeExport export = findExport(snapshot);
+        if (export != null) {
+            return export;
+        }
+        synchronized (this) {
+            export = findExport(snapshot);
+            if (export != null) {
+                return export;
+            }
+            try {
+                export = writeExport(snapshot, cancerStudiesWithHiddenDefaults);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the export of the clinical attribute cache", e);
+            }
+            Generation retiredGeneration = previousGeneration;
+            previousGeneration = generation;
+            generation = new Generation(snapshot, export);
+            deleteOldExports(retiredGeneration);
+            return export;
+        }
+    }
+
+    private ClinicalAttributeExport findExport(ClinicalAttributeMetadataSnapshot snapshot) {
+        Generation currentGeneration = generation;
+        if (currentGeneration != null && currentGeneration.snapshot == snapshot) {
+            return currentGeneration.export;
+        }
+        Generation lastGeneration = previousGeneration;
+        if (lastGeneration != null && lastGeneration.snapshot == snapshot) {
+            return lastGeneration.export;
+        }
+        return null;
+    }
+
+    private ClinicalAttributeExport writeExport(ClinicalAttributeMetadataSnapshot snapshot, Set<String> cancerStudiesWithHiddenDefaults) throws IOException {
+        long startTime = System.nanoTime();
+        Map<String, byte[]> entries = new LinkedHashMap<String, byte[]>();
+        entries.put(DEFAULTS_ENTRY, objectMapper.writeValueAsBytes(
+            new ArrayList<ClinicalAttributeMetadata>(new TreeMap<String, ClinicalAttributeMetadata>(snapshot.getClinicalAttributeMetadata()).values())));
+        Set<String> cancerStudies = new TreeSet<String>(snapshot.getClinicalAttributeMetadataOverrides().keySet());
+        for (String cancerStudy : cancerStudies) {
+            entries.put(OVERRIDES_ENTRY_PREFIX + cancerStudy + ".json",
+                objectMapper.writeValueAsBytes(snapshot.getClinicalAttributeMetadataOverridesList(cancerStudy, true)));
+        }
+        List<String> cancerStudiesHidingDefaults = new ArrayList<String>();
+        for (String cancerStudy : cancerStudies) {
+            if (cancerStudiesWithHiddenDefaults.contains(cancerStudy)) {
+                cancerStudiesHidingDefaults.add(cancerStudy);
+            }
+        }
+
+        // the export checksum covers everything in the manifest except itself
+        Map<String, String> entryChecksums = new LinkedHashMap<String, String>();
+        StringBuilder checksumInput = new StringBuilder().append(FORMAT_VERSION).append('\n').append(cancerStudiesHidingDefaults).append('\n');
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            String entryChecksum = sha256(entry.getValue());
+            entryChecksums.put(entry.getKey(), entryChecksum);
+            checksumInput.append(entry.getKey()).append(' ').append(entryChecksum).append('\n');
+        }
+        String checksum = sha256(checksumInput.toString().getBytes(StandardCharsets.UTF_8));
+
+        Path directory = getExportDirectory();
+        Path file = directory.resolve(EXPORT_FILE_PREFIX + checksum + EXPORT_FILE_SUFFIX);
+        if (Files.exists(file)) {
+            logger.info("writeExport(): reusing " + file + ", the contents of the cache have not changed");
+            return new ClinicalAttributeExport(file, checksum, Files.size(file));
+        }
+        Map<String, Object> manifest = new LinkedHashMap<String, Object>();
+        manifest.put("format_version", FORMAT_VERSION);
+        manifest.put("checksum", checksum);
+        manifest.put("attribute_count", snapshot.getClinicalAttributeMetadata().size());
+        manifest.put("cancer_study_count", cancerStudies.size());
+        manifest.put("cancer_studies_with_hidden_defaults", cancerStudiesHidingDefaults);
+        manifest.put("entries", entryChecksums);
+        // write next to the final file and move it into place, so a partly written export is never served
+        Path temporaryFile = Files.createTempFile(directory, EXPORT_FILE_PREFIX, ".tmp");
+        try {
+            try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                writeEntry(zip, MANIFEST_ENTRY, objectMapper.writeValueAsBytes(manifest));
+                for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                    writeEntry(zip, entry.getKey(), entry.getValue());
+                }
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        logger.info("writeExport(): wrote " + file + " (" + Files.size(file) + " bytes) in "
+            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " ms");
+        return new ClinicalAttributeExport(file, checksum, Files.size(file));
+    }
+
+    private static void writeEntry(ZipOutputStream zip, String name, byte[] contents) throws IOException {
+        ZipEntry zipEntry = new ZipEntry(name);
+        // a fixed time keeps the zip file the same for the same contents
+        zipEntry.setTime(0L);
+        zip.putNextEntry(zipEntry);
+        zip.write(contents);
+        zip.closeEntry();
+    }
+
+    /**
+    * Deletes the exports which are neither current nor previous and have not been served for the
+    * retention period.  The export which just stopped being the previous one is stamped with the
+    * time it stopped being served, so downloads which are still streaming it have the whole
+    * retention period to finish.
+    */
+    private void deleteOldExports(Generation retiredGeneration) {
+        Set<Path> keptFiles = new HashSet<Path>();
+        keptFiles.add(generation.export.getFile());
+        if (previousGeneration != null) {
+            keptFiles.add(previousGeneration.export.getFile());
+        }
+        try {
+            if (retiredGeneration != null && !keptFiles.contains(retiredGeneration.export.getFile())) {
+                Files.setLastModifiedTime(retiredGeneration.export.getFile(), FileTime.from(Instant.now()));
+            }
+            Instant oldestKept = Instant.now().minus(retention);
+            try (DirectoryStream<Path> exports = Files.newDirectoryStream(generation.export.getFile().getParent(), EXPORT_FILE_PREFIX + "*" + EXPORT_FILE_SUFFIX)) {
+                for (Path export : exports) {
+                    if (!keptFiles.contains(export) && Files.getLastModifiedTime(export).toInstant().isBefore(oldestKept)) {
+                        Files.deleteIfExists(export);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("deleteOldExports(): unable to delete old exports: " + e.getMessage());
+        }
+    }
+
+    private Path getExportDirectory() throws IOException {
+        if (!Strings.isNullOrEmpty(exportDirectory)) {
+            return Files.createDirectories(Paths.get(exportDirectory));
+        }
+        if (temporaryExportDirectory == null) {
+            // readable only by this user, unlike a fixed path in java.io.tmpdir which anyone could create first
+            temporaryExportDirectory = Files.createTempDirectory("cdd-export-");
+            logger.info("getExportDirectory(): cdd.export.directory is not set, writing exports to " + temporaryExportDirectory);
+        }
+        return temporaryExportDirectory;
+    }
+
+    @PreDestroy
+    public synchronized void deleteTemporaryExportDirectory() {
+        if (temporaryExportDirectory == null) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(temporaryExportDirectory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(temporaryExportDirectory);
+        } catch (IOException e) {
+            logger.warn("deleteTemporaryExportDirectory(): unable to delete " + temporaryExportDirectory + ": " + e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest(bytes)) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static class Generation {
+
+        private final ClinicalAttributeMetadataSnapshot snapshot;
+        private final ClinicalAttributeExport export;
+
+        private Generation(ClinicalAttributeMetadataSnapshot snapshot, ClinicalAttributeExport export) {
+            this.snapshot = snapshot;
+            this.export = export;
+        }
+    }
+}
@@ -16,52 +16,95 @@
 package org.cbioportal.cdd.service.internal;
 
 import com.google.common.base.Strings;
-import java.time.ZonedDateTime;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.http.*;
-import org.apache.http.client.*;
-import org.apache.http.client.methods.*;
-import org.apache.http.entity.*;
-import org.apache.http.impl.client.*;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
 import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
 import org.cbioportal.cdd.service.exception.FailedCacheRefreshException;
+import org.cbioportal.cdd.service.internal.refresh.RefreshEvent;
+import org.cbioportal.cdd.service.internal.refresh.RefreshEventBus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.context.event.ApplicationReadyEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 /**
  * @author Robert Sheridan, Avery Wang, Manda Wilson
  */
 @Component
-@EnableScheduling
 public class ClinicalAttributeMetadataCache {
 
-    @Value("${slack.url}")
-    private String slackURL;
-
-    // if clinicalAttributeCache is null it means we could not populate it, there was an error
-    private static HashMap<String, ClinicalAttributeMetadata> clinicalAttributeCache;
-    // if overridesCache is null it means we could not populate it, there was an error
-    private static HashMap<String, Map<String, ClinicalAttributeMetadata>> overridesCache;
+    // if snapshot is null it means we could not populate it, there was an error
+    private static volatile ClinicalAttributeMetadataSnapshot snapshot;
     private static Date dateOfLastCacheRefresh = new Date();
 
+    // default for cdd.cache.maxAge
     public static final Integer MAXIMUM_CACHE_AGE_IN_DAYS = 3;
+    private static final String REFRESH_OUTCOME_SUCCESS = "success";
+    private static final String REFRESH_OUTCOME_FALLBACK = "fallback";
+    private static final String REFRESH_OUTCOME_FAILURE = "failure";
     private static final Logger logger = LoggerFactory.getLogger(ClinicalAttributeMetadataCache.class);
 
     @Autowired
     private ClinicalAttributeMetadataPersistentCache clinicalAttributeMetadataPersistentCache;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RefreshEventBus refreshEventBus;
+
+    // lazy because some warmers depend on this cache
+    @Autowired
+    @Lazy
+    private List<SnapshotWarmer> snapshotWarmers;
+
+    private Duration maximumCacheAge = Duration.ofDays(MAXIMUM_CACHE_AGE_IN_DAYS);
+
+    @PostConstruct
+    private void registerSnapshotMetrics() {
+        Gauge.builder("cdd.cache.attributes", this, cache -> {
+                ClinicalAttributeMetadataSnapshot currentSnapshot = cache.getSnapshot();
+                return currentSnapshot == null ? 0 : currentSnapshot.getClinicalAttributeMetadata().size();
+            })
+            .description("Number of clinical attributes in the current cache snapshot")
+            .register(meterRegistry);
+        Gauge.builder("cdd.cache.override.studies", this, cache -> {
+                ClinicalAttributeMetadataSnapshot currentSnapshot = cache.getSnapshot();
+                return currentSnapshot == null ? 0 : currentSnapshot.getClinicalAttributeMetadataOverrides().size();
+            })
+            .description("Number of cancer studies with overrides in the current cache snapshot")
+            .register(meterRegistry);
+        Gauge.builder("cdd.cache.overrides", this, cache -> {
+                ClinicalAttributeMetadataSnapshot currentSnapshot = cache.getSnapshot();
+                if (currentSnapshot == null) {
+                    return 0;
+                }
+                int overrideCount = 0;
+                for (Map<String, ClinicalAttributeMetadata> overrides : currentSnapshot.getClinicalAttributeMetadataOverrides().values()) {
+                    overrideCount += overrides.size();
+                }
+                return overrideCount;
+            })
+            .description("Number of overridden clinical attributes, over all cancer studies, in the current cache snapshot")
+            .register(meterRegistry);
+        TimeGauge.builder("cdd.cache.age", this, TimeUnit.MILLISECONDS, cache -> System.currentTimeMillis() - cache.getDateOfLastCacheRefresh().getTime())
+            .description("Time since the cache was last refreshed from TopBraid")
+            .register(meterRegistry);
+    }
+
     public Date getDateOfLastCacheRefresh() {
         return dateOfLastCacheRefresh;
     }
@@ -70,51 +113,96 @@ public class ClinicalAttributeMetadataCache {
         this.dateOfLastCacheRefresh = date;
     }
 
+    /**
+    * The cache is stale, and is refreshed even if TopBraid reports no changes, once it is
+    * older than this.
+    *
+    * @param maximumCacheAge
+    * ISO-8601 duration, e.g. P3D
+    */
+    @Value("${cdd.cache.maxAge:P3D}")
+    public void setMaximumCacheAge(String maximumCacheAge) {
+        this.maximumCacheAge = Duration.parse(maximumCacheAge);
+    }
+
+    /**
+    * Callers which need more than one of the maps or indexes should get the snapshot
+    * once and read everything from it, so they do not mix data from two refreshes.
+    *
+    * @return
+    * the current snapshot, null if the cache could not be populated
+    */
+    public ClinicalAttributeMetadataSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     public Map<String, ClinicalAttributeMetadata> getClinicalAttributeMetadata() {
-        if (clinicalAttributeCache != null) {
-            return Collections.unmodifiableMap(clinicalAttributeCache);
+        ClinicalAttributeMetadataSnapshot currentSnapshot = snapshot;
+        if (currentSnapshot != null) {
+            return currentSnapshot.getClinicalAttributeMetadata();
         }
         return null;
     }
 
     public Map<String, Map<String, ClinicalAttributeMetadata>> getClinicalAttributeMetadataOverrides() {
-        if (overridesCache != null) {
-            return Collections.unmodifiableMap(overridesCache);
+        ClinicalAttributeMetadataSnapshot currentSnapshot = snapshot;
+        if (currentSnapshot != null) {
+            return currentSnapshot.getClinicalAttributeMetadataOverrides();
         }
         return null;
     }
 
-    private void sendStaleCacheSlackNotification() {
-        String payload = "payload={\"channel\": \"#msk-pipeline-logs\", \"username\": \"cbioportal_importer\", \"text\": \"*URGENT: CDD Error* - an attempt to refresh an outdated or null cache failed.\", \"icon_emoji\": \":rotating_light:\"}";
-        StringEntity entity = new StringEntity(payload, ContentType.APPLICATION_FORM_URLENCODED);
-        HttpClient httpClient = HttpClientBuilder.create().build();
-        HttpPost request = new HttpPost(slackURL);
-        request.setEntity(entity);
-        HttpResponse response = null;
+    /**
+    * This method should not be called directly, it is called by CacheRefreshCoordinator,
+    * which makes sure only one refresh runs at a time.
+    * It is a public method so that it can be easily tested.
+    */
+    public void resetCache() {
+        refreshEventBus.publish(RefreshEvent.started());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
         try {
-            response = httpClient.execute(request);
-        } catch (Exception e) {
-            logger.error("failed to send slack notification -- cache is outdated and failed to refresh");
+            outcome = refillCache();
+        } catch (RuntimeException e) {
+            Duration duration = Duration.ofNanos(sample.stop(refreshTimer(REFRESH_OUTCOME_FAILURE)));
+            ClinicalAttributeMetadataSnapshot currentSnapshot = snapshot;
+            refreshEventBus.publish(RefreshEvent.failed(duration, getAttributeCount(currentSnapshot), getOverrideStudyCount(currentSnapshot), e.getMessage()));
+            throw e;
         }
+        Duration duration = Duration.ofNanos(sample.stop(refreshTimer(outcome)));
+        ClinicalAttributeMetadataSnapshot currentSnapshot = snapshot;
+        if (REFRESH_OUTCOME_FALLBACK.equals(outcome)) {
+            refreshEventBus.publish(RefreshEvent.fellBackToBackup(duration, getAttributeCount(currentSnapshot), getOverrideStudyCount(currentSnapshot)));
+            logger.info("Unable to update cache with latest data from TopBraid... falling back on EHCache store.");
+            throw new FailedCacheRefreshException("Failed to refresh cache", new Exception());
+        }
+        refreshEventBus.publish(RefreshEvent.succeeded(duration, getAttributeCount(currentSnapshot), getOverrideStudyCount(currentSnapshot)));
     }
 
-    @EventListener(ApplicationReadyEvent.class)
-    @Scheduled(cron="0 */10 * * * *") // call every 10 minutes
-    private void validateAndResetCache() {
-        if (cacheIsStale() || clinicalAttributeCache == null || overridesCache == null) {
-            try {
-                resetCache();
-            } catch (FailedCacheRefreshException e) {
-                sendStaleCacheSlackNotification();
-            }
-        }
+    private Timer refreshTimer(String outcome) {
+        return Timer.builder("cdd.cache.refresh")
+            .description("Time taken to refresh the clinical attribute cache")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    private static int getAttributeCount(ClinicalAttributeMetadataSnapshot snapshot) {
+        return snapshot == null ? 0 : snapshot.getClinicalAttributeMetadata().size();
+    }
+
+    private static int getOverrideStudyCount(ClinicalAttributeMetadataSnapshot snapshot) {
+        return snapshot == null ? 0 : snapshot.getClinicalAttributeMetadataOverrides().size();
     }
 
     /**
-    * This method does not need to be called, it will automatically be called by validateAndResetCache().
-    * It is a public method so that it can be easily tested.
+    * Does the work of resetCache().
+    *
+    * @return
+    * REFRESH_OUTCOME_SUCCESS if the cache was refilled with the latest data from TopBraid,
+    * REFRESH_OUTCOME_FALLBACK if it was refilled from EHCache because TopBraid could not be reached.
+    * Throws FailedCacheRefreshException if the cache could not be refilled at all.
     */
-    public void resetCache() {
+    private String refillCache() {
         logger.info("resetCache(): refilling clinical attribute cache");
 
         Date dateOfCurrentCacheRefresh = new Date();
@@ -142,16 +230,20 @@ public class ClinicalAttributeMetadataCache {
         // regardless of whether ehcache was updated with new data - use that data to populate modeled object caches
         // ensures app starts up (between tomcat restarts) if TopBraid is down
         logger.info("Loading modeled object cache from EHCache");
+        Timer.Sample persistentCacheLoadSample = Timer.start(meterRegistry);
         try {
             // this will throw an exception if we cannot connect to TopBraid AND cache is corrupt
             latestClinicalAttributeMetadata = clinicalAttributeMetadataPersistentCache.getClinicalAttributeMetadataFromPersistentCache();
             latestOverrides = clinicalAttributeMetadataPersistentCache.getClinicalAttributeMetadataOverridesFromPersistentCache();
+            persistentCacheLoadSample.stop(persistentCacheLoadTimer("default"));
         } catch (Exception e) {
+            persistentCacheLoadSample = Timer.start(meterRegistry);
             try {
                 // this will throw an exception if backup is unavailable
                 logger.error("Unable to load modeled object cache from default EHCache... attempting to read from backup");
                 latestClinicalAttributeMetadata = clinicalAttributeMetadataPersistentCache.getClinicalAttributeMetadataFromPersistentCacheBackup();
                 latestOverrides = clinicalAttributeMetadataPersistentCache.getClinicalAttributeMetadataOverridesFromPersistentCacheBackup();
+                persistentCacheLoadSample.stop(persistentCacheLoadTimer("backup"));
                 if (latestClinicalAttributeMetadata == null || latestOverrides == null) {
                     throw new FailedCacheRefreshException("No data found in specified backup cache location...", new Exception());
                 }
@@ -180,39 +272,90 @@ public class ClinicalAttributeMetadataCache {
 
         // latestOverridesCache is a map of study-id to map of clinical attribute name to overridden ClinicalAttributeMetadata object
         HashMap<String, Map<String,ClinicalAttributeMetadata>> latestOverridesCache = new HashMap<String, Map<String, ClinicalAttributeMetadata>>();
+        // latestExplicitOverridesCache has the same shape, but holds only the fields each study sets itself
+        HashMap<String, Map<String,ClinicalAttributeMetadata>> latestExplicitOverridesCache = new HashMap<String, Map<String, ClinicalAttributeMetadata>>();
         for (Map.Entry<String, ArrayList<ClinicalAttributeMetadata>> entry : latestOverrides.entrySet()) {
             HashMap<String, ClinicalAttributeMetadata> clinicalAttributesMetadataMapping = new HashMap<String, ClinicalAttributeMetadata>();
+            HashMap<String, ClinicalAttributeMetadata> explicitClinicalAttributesMetadataMapping = new HashMap<String, ClinicalAttributeMetadata>();
             for (ClinicalAttributeMetadata clinicalAttributeMetadata : entry.getValue()) {
+                // record what the study sets itself before the rest is filled in from the default
+                explicitClinicalAttributesMetadataMapping.put(clinicalAttributeMetadata.getColumnHeader(), getExplicitOverride(clinicalAttributeMetadata));
                 fillOverrideAttributeWithDefaultValues(clinicalAttributeMetadata, latestClinicalAttributeMetadataCache.get(clinicalAttributeMetadata.getColumnHeader()));
                 clinicalAttributesMetadataMapping.put(clinicalAttributeMetadata.getColumnHeader(), clinicalAttributeMetadata);
             }
             latestOverridesCache.put(entry.getKey(), clinicalAttributesMetadataMapping);
+            latestExplicitOverridesCache.put(entry.getKey(), explicitClinicalAttributesMetadataMapping);
         }
 
-        clinicalAttributeCache = latestClinicalAttributeMetadataCache;
+        ClinicalAttributeMetadataSnapshot latestSnapshot = new ClinicalAttributeMetadataSnapshot(latestClinicalAttributeMetadataCache, latestOverridesCache, latestExplicitOverridesCache);
+        warmUp(latestSnapshot);
+        snapshot = latestSnapshot;
         logger.info("resetCache(): refilled cache with " + latestClinicalAttributeMetadata.size() + " clinical attributes");
-        overridesCache = latestOverridesCache;
         logger.info("resetCache(): refilled overrides cache with " + latestOverrides.size() + " overrides");
 
         if (failedClinicalAttributeMetadataCacheRefresh || failedOverridesCacheRefresh) {
-            logger.info("Unable to update cache with latest data from TopBraid... falling back on EHCache store.");
-            throw new FailedCacheRefreshException("Failed to refresh cache", new Exception());
-        } else {
-            dateOfLastCacheRefresh = dateOfCurrentCacheRefresh;
-            logger.info("resetCache(): cache last refreshed on: " + dateOfLastCacheRefresh.toString());
+            return REFRESH_OUTCOME_FALLBACK;
         }
+        dateOfLastCacheRefresh = dateOfCurrentCacheRefresh;
+        logger.info("resetCache(): cache last refreshed on: " + dateOfLastCacheRefresh.toString());
+        return REFRESH_OUTCOME_SUCCESS;
+    }
+
+    /**
+    * Runs the snapshot warmers on the new snapshot before it is published, so requests
+    * after a refresh (or after startup) do not pay for building caches or cold code paths.
+    */
+    private void warmUp(ClinicalAttributeMetadataSnapshot latestSnapshot) {
+        if (snapshotWarmers == null) {
+            return;
+        }
+        for (SnapshotWarmer snapshotWarmer : snapshotWarmers) {
+            String warmerName = snapshotWarmer.getClass().getSimpleName();
+            Timer.Sample warmUpSample = Timer.start(meterRegistry);
+            try {
+                snapshotWarmer.warm(latestSnapshot);
+            } catch (RuntimeException e) {
+                logger.error("warmUp(): " + warmerName + " failed, publishing the snapshot without it: " + e.getMessage());
+            }
+            warmUpSample.stop(Timer.builder("cdd.cache.warmup")
+                .description("Time taken to warm up a new cache snapshot before it is published")
+                .tag("warmer", warmerName)
+                .register(meterRegistry));
+        }
+    }
+
+    private Timer persistentCacheLoadTimer(String location) {
+        return Timer.builder("cdd.cache.persistent.load")
+            .description("Time taken to load the clinical attributes and overrides from EHCache")
+            .tag("location", location)
+            .register(meterRegistry);
     }
 
     public boolean cacheIsStale() {
-        ZonedDateTime currentDate = ZonedDateTime.now();
-        ZonedDateTime dateOfCacheExpiration = currentDate.plusDays(- MAXIMUM_CACHE_AGE_IN_DAYS);
-        if (dateOfLastCacheRefresh.toInstant().isBefore(dateOfCacheExpiration.toInstant())) {
+        Instant dateOfCacheExpiration = Instant.now().minus(maximumCacheAge);
+        if (dateOfLastCacheRefresh.toInstant().isBefore(dateOfCacheExpiration)) {
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+    *
+    * @return
+    * a copy of the override with only the fields it sets itself, the others are null
+    */
+    private static ClinicalAttributeMetadata getExplicitOverride(ClinicalAttributeMetadata overrideClinicalAttribute) {
+        ClinicalAttributeMetadata explicitOverride = new ClinicalAttributeMetadata(overrideClinicalAttribute.getColumnHeader(),
+            Strings.emptyToNull(overrideClinicalAttribute.getDisplayName()),
+            Strings.emptyToNull(overrideClinicalAttribute.getDescription()),
+            Strings.emptyToNull(overrideClinicalAttribute.getDatatype()),
+            Strings.emptyToNull(overrideClinicalAttribute.getAttributeType()),
+            Strings.emptyToNull(overrideClinicalAttribute.getPriority()));
+        explicitOverride.setStudyId(overrideClinicalAttribute.getStudyId());
+        return explicitOverride;
+    }
+
     private void fillOverrideAttributeWithDefaultValues(ClinicalAttributeMetadata overrideClinicalAttribute, ClinicalAttributeMetadata defaultClinicalAttribute) {
         logger.debug("fillOverrideAttributeWithDefaultValues()");
         if (Strings.isNullOrEmpty(overrideClinicalAttribute.getDisplayName())) {
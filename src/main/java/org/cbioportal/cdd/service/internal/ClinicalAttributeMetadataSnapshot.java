@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.cbioportal.cdd.model.CancerStudyOverride;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+
+/**
+ * One generation of the clinical attribute cache: the default attributes, the
+ * per-study overrides and the lookup structures derived from them.
+ *
+ * ClinicalAttributeMetadataCache.resetCache() builds a new snapshot and then publishes
+ * it with a single reference assignment, so a caller which gets the snapshot once
+ * sees maps and indexes which belong together.  Nothing in a snapshot is modified
+ * after it has been published.
+ */
+public class ClinicalAttributeMetadataSnapshot {
+
+    private final Map<String, ClinicalAttributeMetadata> clinicalAttributeMetadata;
+    private final Map<String, Map<String, ClinicalAttributeMetadata>> overrides;
+    private final ColumnHeaderIndex<ClinicalAttributeMetadata> clinicalAttributeMetadataIndex;
+    private final Map<String, ColumnHeaderIndex<ClinicalAttributeMetadata>> overridesIndex;
+    private final VocabularyIndex vocabularyIndex;
+    private final RelevanceIndex relevanceIndex;
+    private final AutocompleteIndex autocompleteIndex;
+    private final ListingIndex listingIndex;
+    private final Map<String, VocabularyIndex> overridesVocabularyIndex;
+    private final Map<String, RelevanceIndex> overridesRelevanceIndex;
+    private final Map<String, List<ClinicalAttributeMetadata>> overridesLists;
+    private final Map<String, List<ClinicalAttributeMetadata>> explicitOverridesLists;
+    private final ColumnHeaderIndex<List<CancerStudyOverride>> cancerStudyOverridesIndex;
+
+    /**
+    * Every field of the overrides is taken to be overridden.
+    *
+    * @param clinicalAttributeMetadata
+    * map of column header to default ClinicalAttributeMetadata
+    * @param overrides
+    * map of study id to map of column header to overridden ClinicalAttributeMetadata
+    */
+    public ClinicalAttributeMetadataSnapshot(Map<String, ClinicalAttributeMetadata> clinicalAttributeMetadata, Map<String, Map<String, ClinicalAttributeMetadata>> overrides) {
+        this(clinicalAttributeMetadata, overrides, overrides);
+    }
+
+    /**
+    *
+    * @param clinicalAttributeMetadata
+    * map of column header to default ClinicalAttributeMetadata
+    * @param overrides
+    * map of study id to map of column header to overridden ClinicalAttributeMetadata
+    * @param explicitOverrides
+    * the overrides as the studies define them, before they were filled in with the default values:
+    * map of study id to map of column header to ClinicalAttributeMetadata with only the overridden fields set
+    */
+    public ClinicalAttributeMetadataSnapshot(Map<String, ClinicalAttributeMetadata> clinicalAttributeMetadata, Map<String, Map<String, ClinicalAttributeMetadata>> overrides,
+        Map<String, Map<String, ClinicalAttributeMetadata>> explicitOverrides) {
+        this.clinicalAttributeMetadata = Collections.unmodifiableMap(clinicalAttributeMetadata);
+        this.clinicalAttributeMetadataIndex = new ColumnHeaderIndex<ClinicalAttributeMetadata>(clinicalAttributeMetadata);
+        this.vocabularyIndex = new VocabularyIndex(clinicalAttributeMetadata.values());
+        this.relevanceIndex = new RelevanceIndex(clinicalAttributeMetadata.values());
+        this.autocompleteIndex = new AutocompleteIndex(clinicalAttributeMetadata.values());
+        Map<String, Map<String, ClinicalAttributeMetadata>> unmodifiableOverrides = new HashMap<String, Map<String, ClinicalAttributeMetadata>>();
+        Map<String, ColumnHeaderIndex<ClinicalAttributeMetadata>> overridesIndex = new HashMap<String, ColumnHeaderIndex<ClinicalAttributeMetadata>>();
+        Map<String, VocabularyIndex> overridesVocabularyIndex = new HashMap<String, VocabularyIndex>();
+        Map<String, RelevanceIndex> overridesRelevanceIndex = new HashMap<String, RelevanceIndex>();
+        for (Map.Entry<String, Map<String, ClinicalAttributeMetadata>> entry : overrides.entrySet()) {
+            unmodifiableOverrides.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+            overridesIndex.put(entry.getKey(), new ColumnHeaderIndex<ClinicalAttributeMetadata>(entry.getValue()));
+            // search overlays hold only the overridden attributes, not a copy of the defaults per study
+            overridesVocabularyIndex.put(entry.getKey(), new VocabularyIndex(entry.getValue().values()));
+            overridesRelevanceIndex.put(entry.getKey(), new RelevanceIndex(entry.getValue().values(), relevanceIndex));
+        }
+        this.overrides = Collections.unmodifiableMap(unmodifiableOverrides);
+        this.overridesIndex = overridesIndex;
+        this.overridesVocabularyIndex = overridesVocabularyIndex;
+        this.overridesRelevanceIndex = overridesRelevanceIndex;
+        this.listingIndex = new ListingIndex(clinicalAttributeMetadata.values(), overrides);
+        Map<String, List<ClinicalAttributeMetadata>> overridesLists = new HashMap<String, List<ClinicalAttributeMetadata>>();
+        Map<String, List<ClinicalAttributeMetadata>> explicitOverridesLists = new HashMap<String, List<ClinicalAttributeMetadata>>();
+        for (Map.Entry<String, Map<String, ClinicalAttributeMetadata>> entry : overrides.entrySet()) {
+            overridesLists.put(entry.getKey(), sortByColumnHeader(entry.getValue()));
+        }
+        // the reverse of explicitOverrides: column header to the studies overriding it, in study order
+        Map<String, List<CancerStudyOverride>> cancerStudyOverrides = new HashMap<String, List<CancerStudyOverride>>();
+        for (String cancerStudy : new TreeSet<String>(explicitOverrides.keySet())) {
+            Map<String, ClinicalAttributeMetadata> studyExplicitOverrides = explicitOverrides.get(cancerStudy);
+            explicitOverridesLists.put(cancerStudy, sortByColumnHeader(studyExplicitOverrides));
+            for (ClinicalAttributeMetadata explicitOverride : studyExplicitOverrides.values()) {
+                List<CancerStudyOverride> columnHeaderOverrides = cancerStudyOverrides.get(explicitOverride.getColumnHeader());
+                if (columnHeaderOverrides == null) {
+                    columnHeaderOverrides = new ArrayList<CancerStudyOverride>();
+                    cancerStudyOverrides.put(explicitOverride.getColumnHeader(), columnHeaderOverrides);
+                }
+                columnHeaderOverrides.add(new CancerStudyOverride(cancerStudy, getOverriddenFields(explicitOverride)));
+            }
+        }
+        for (Map.Entry<String, List<CancerStudyOverride>> entry : cancerStudyOverrides.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        this.overridesLists = overridesLists;
+        this.explicitOverridesLists = explicitOverridesLists;
+        this.cancerStudyOverridesIndex = new ColumnHeaderIndex<List<CancerStudyOverride>>(cancerStudyOverrides);
+    }
+
+    public Map<String, ClinicalAttributeMetadata> getClinicalAttributeMetadata() {
+        return clinicalAttributeMetadata;
+    }
+
+    public Map<String, Map<String, ClinicalAttributeMetadata>> getClinicalAttributeMetadataOverrides() {
+        return overrides;
+    }
+
+    public ColumnHeaderIndex<ClinicalAttributeMetadata> getClinicalAttributeMetadataIndex() {
+        return clinicalAttributeMetadataIndex;
+    }
+
+    /**
+    *
+    * @return
+    * the typo tolerant index over the words of the default column headers and display names
+    */
+    public VocabularyIndex getVocabularyIndex() {
+        return vocabularyIndex;
+    }
+
+    /**
+    *
+    * @return
+    * the BM25F relevance index over the words of the default clinical attributes
+    */
+    public RelevanceIndex getRelevanceIndex() {
+        return relevanceIndex;
+    }
+
+    /**
+    *
+    * @return
+    * the prefix completion index over the default column headers and display names
+    */
+    public AutocompleteIndex getAutocompleteIndex() {
+        return autocompleteIndex;
+    }
+
+    /**
+    *
+    * @return
+    * the bitsets and presorted orders for filtered and sorted listings of the default clinical attributes
+    */
+    public ListingIndex getListingIndex() {
+        return listingIndex;
+    }
+
+    /**
+    *
+    * @return
+    * the override index for the cancer study, null if the cancer study has no overrides
+    */
+    public ColumnHeaderIndex<ClinicalAttributeMetadata> getClinicalAttributeMetadataOverridesIndex(String cancerStudy) {
+        return overridesIndex.get(cancerStudy);
+    }
+
+    /**
+    *
+    * @return
+    * the typo tolerant index over the attributes the cancer study overrides, null if the cancer study has no overrides
+    */
+    public VocabularyIndex getOverridesVocabularyIndex(String cancerStudy) {
+        return overridesVocabularyIndex.get(cancerStudy);
+    }
+
+    /**
+    *
+    * @return
+    * the relevance index over the attributes the cancer study overrides, overlaying the default one,
+    * null if the cancer study has no overrides
+    */
+    public RelevanceIndex getOverridesRelevanceIndex(String cancerStudy) {
+        return overridesRelevanceIndex.get(cancerStudy);
+    }
+
+    /**
+    *
+    * @return
+    * the listing overlay of the attributes the cancer study overrides, null if the cancer study has no overrides
+    */
+    public ListingIndex.Overlay getOverridesListingIndex(String cancerStudy) {
+        return listingIndex.getOverlay(cancerStudy);
+    }
+
+    /**
+    *
+    * @return
+    * the studies overriding the clinical attribute, ordered by study id, null if no study overrides it
+    */
+    public List<CancerStudyOverride> getCancerStudyOverrides(String columnHeader) {
+        return cancerStudyOverridesIndex.get(columnHeader);
+    }
+
+    /**
+    *
+    * @return
+    * the cancer study's overrides ordered by column header, filled in with the default values or with only the
+    * overridden fields set, null if the cancer study has no overrides
+    */
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadataOverridesList(String cancerStudy, boolean overriddenFieldsOnly) {
+        return overriddenFieldsOnly ? explicitOverridesLists.get(cancerStudy) : overridesLists.get(cancerStudy);
+    }
+
+    public boolean containsCancerStudy(String cancerStudy) {
+        return overrides.containsKey(cancerStudy);
+    }
+
+    private static List<ClinicalAttributeMetadata> sortByColumnHeader(Map<String, ClinicalAttributeMetadata> clinicalAttributeMetadata) {
+        List<ClinicalAttributeMetadata> sorted = new ArrayList<ClinicalAttributeMetadata>(new TreeMap<String, ClinicalAttributeMetadata>(clinicalAttributeMetadata).values());
+        return Collections.unmodifiableList(sorted);
+    }
+
+    /**
+    *
+    * @return
+    * the fields the override sets, by JSON name, in the order they are serialized
+    */
+    private static Map<String, String> getOverriddenFields(ClinicalAttributeMetadata explicitOverride) {
+        Map<String, String> overriddenFields = new LinkedHashMap<String, String>();
+        putIfNotNull(overriddenFields, "display_name", explicitOverride.getDisplayName());
+        putIfNotNull(overriddenFields, "description", explicitOverride.getDescription());
+        putIfNotNull(overriddenFields, "datatype", explicitOverride.getDatatype());
+        putIfNotNull(overriddenFields, "attribute_type", explicitOverride.getAttributeType());
+        putIfNotNull(overriddenFields, "priority", explicitOverride.getPriority());
+        return Collections.unmodifiableMap(overriddenFields);
+    }
+
+    private static void putIfNotNull(Map<String, String> fields, String field, String value) {
+        if (value != null) {
+            fields.put(field, value);
+        }
+    }
+}
@@ -15,12 +15,28 @@
 
 package org.cbioportal.cdd.service.internal;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.util.*;
+import java.util.function.Supplier;
+import org.cbioportal.cdd.model.CacheRefreshStatus;
 import org.cbioportal.cdd.model.CancerStudy;
+import org.cbioportal.cdd.model.CancerStudyOverride;
+import org.cbioportal.cdd.model.ClinicalAttributeCompletion;
+import org.cbioportal.cdd.model.ClinicalAttributeExport;
+import org.cbioportal.cdd.model.ClinicalAttributeFacets;
+import org.cbioportal.cdd.model.ClinicalAttributeLookup;
 import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
+import org.cbioportal.cdd.model.ColumnHeaderLookupResult;
+import org.cbioportal.cdd.model.SearchRanking;
 import org.cbioportal.cdd.service.ClinicalDataDictionaryService;
+import org.cbioportal.cdd.service.KnowledgeSystemsDataDictionaryService;
 import org.cbioportal.cdd.service.util.MSKVocabStudyUtil;
+import org.cbioportal.cdd.service.exception.CacheRefreshJobNotFoundException;
 import org.cbioportal.cdd.service.exception.CancerStudyNotFoundException;
+import org.cbioportal.cdd.service.exception.CancerStudyNotSearchableException;
 import org.cbioportal.cdd.service.exception.ClinicalAttributeNotFoundException;
 import org.cbioportal.cdd.service.exception.ClinicalMetadataSourceUnresponsiveException;
 import org.cbioportal.cdd.service.exception.FailedCacheRefreshException;
@@ -32,7 +48,7 @@ import org.springframework.stereotype.Service;
 
 @Service
 @Qualifier("servicerouter")
-public class ClinicalDataDictionaryServiceImpl implements ClinicalDataDictionaryService {
+public class ClinicalDataDictionaryServiceImpl implements KnowledgeSystemsDataDictionaryService {
 
     @Autowired
     private MSKVocabStudyUtil mskVocabStudyUtil;
@@ -43,7 +59,13 @@ public class ClinicalDataDictionaryServiceImpl implements ClinicalDataDictionary
 
     @Autowired
     @Qualifier("knowledgesystems")
-    private ClinicalDataDictionaryService cddServiceTopBraidImpl;
+    private KnowledgeSystemsDataDictionaryService cddServiceTopBraidImpl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final String MSK_VOCABULARY_SOURCE = "mskvocabulary";
+    private static final String KNOWLEDGE_SYSTEMS_SOURCE = "knowledgesystems";
 
     private static final Logger logger = LoggerFactory.getLogger(ClinicalDataDictionaryServiceImpl.class);
 
@@ -57,20 +79,52 @@ public class ClinicalDataDictionaryServiceImpl implements ClinicalDataDictionary
         }
     }
 
+    @Override
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadata(String cancerStudy, String attributeType, String datatype, Integer minimumPriority, Boolean visible, ClinicalAttributeSort sort)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (mskVocabStudyUtil.useMskVocabularyForStudy(cancerStudy)) {
+            return cddServiceMskVocabularyImpl.getClinicalAttributeMetadata(cancerStudy, attributeType, datatype, minimumPriority, visible, sort);
+        } else {
+            return cddServiceTopBraidImpl.getClinicalAttributeMetadata(cancerStudy, attributeType, datatype, minimumPriority, visible, sort);
+        }
+    }
+
     @Override
     public List<ClinicalAttributeMetadata> getMetadataByColumnHeaders(String cancerStudy, List<String> columnHeaders)
         throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
         if (mskVocabStudyUtil.useMskVocabularyForStudy(cancerStudy)) {
-            return cddServiceMskVocabularyImpl.getMetadataByColumnHeaders(cancerStudy, columnHeaders);
+            recordColumnHeaderCount("getMetadataByColumnHeaders", MSK_VOCABULARY_SOURCE, columnHeaders);
+            return timeServiceMethod("getMetadataByColumnHeaders", MSK_VOCABULARY_SOURCE,
+                () -> cddServiceMskVocabularyImpl.getMetadataByColumnHeaders(cancerStudy, columnHeaders));
+        } else {
+            recordColumnHeaderCount("getMetadataByColumnHeaders", KNOWLEDGE_SYSTEMS_SOURCE, columnHeaders);
+            return timeServiceMethod("getMetadataByColumnHeaders", KNOWLEDGE_SYSTEMS_SOURCE,
+                () -> cddServiceTopBraidImpl.getMetadataByColumnHeaders(cancerStudy, columnHeaders));
+        }
+    }
+
+    @Override
+    public ColumnHeaderLookupResult getMetadataByColumnHeadersPartial(String cancerStudy, List<String> columnHeaders, boolean includeSuggestions)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (mskVocabStudyUtil.useMskVocabularyForStudy(cancerStudy)) {
+            recordColumnHeaderCount("getMetadataByColumnHeadersPartial", MSK_VOCABULARY_SOURCE, columnHeaders);
+            return timeServiceMethod("getMetadataByColumnHeadersPartial", MSK_VOCABULARY_SOURCE,
+                () -> cddServiceMskVocabularyImpl.getMetadataByColumnHeadersPartial(cancerStudy, columnHeaders, includeSuggestions));
         } else {
-            return cddServiceTopBraidImpl.getMetadataByColumnHeaders(cancerStudy, columnHeaders);
+            recordColumnHeaderCount("getMetadataByColumnHeadersPartial", KNOWLEDGE_SYSTEMS_SOURCE, columnHeaders);
+            return timeServiceMethod("getMetadataByColumnHeadersPartial", KNOWLEDGE_SYSTEMS_SOURCE,
+                () -> cddServiceTopBraidImpl.getMetadataByColumnHeadersPartial(cancerStudy, columnHeaders, includeSuggestions));
         }
     }
 
     @Override
-    public List<ClinicalAttributeMetadata> getMetadataBySearchTerms(List<String> searchTerms, String attributeType, boolean inclusiveSearch)
-        throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException {
-        return cddServiceTopBraidImpl.getMetadataBySearchTerms(searchTerms, attributeType, inclusiveSearch);
+    public List<ClinicalAttributeMetadata> getMetadataBySearchTerms(String cancerStudy, List<String> searchTerms, String attributeType, boolean inclusiveSearch, boolean fuzzy, SearchRanking ranking)
+        throws ClinicalAttributeNotFoundException, ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException, CancerStudyNotSearchableException {
+        if (mskVocabStudyUtil.useMskVocabularyForStudy(cancerStudy)) {
+            throw new CancerStudyNotSearchableException(cancerStudy);
+        }
+        return timeServiceMethod("getMetadataBySearchTerms", KNOWLEDGE_SYSTEMS_SOURCE,
+            () -> cddServiceTopBraidImpl.getMetadataBySearchTerms(cancerStudy, searchTerms, attributeType, inclusiveSearch, fuzzy, ranking));
     }
 
     @Override
@@ -83,6 +137,62 @@ public class ClinicalDataDictionaryServiceImpl implements ClinicalDataDictionary
         }
     }
 
+    @Override
+    public ClinicalAttributeLookup lookupClinicalAttribute(String cancerStudy, String columnHeader)
+        throws ClinicalMetadataSourceUnresponsiveException {
+        if (mskVocabStudyUtil.useMskVocabularyForStudy(cancerStudy)) {
+            return timeServiceMethod("lookupClinicalAttribute", MSK_VOCABULARY_SOURCE,
+                () -> cddServiceMskVocabularyImpl.lookupClinicalAttribute(cancerStudy, columnHeader));
+        } else {
+            return timeServiceMethod("lookupClinicalAttribute", KNOWLEDGE_SYSTEMS_SOURCE,
+                () -> cddServiceTopBraidImpl.lookupClinicalAttribute(cancerStudy, columnHeader));
+        }
+    }
+
+    @Override
+    public List<ClinicalAttributeCompletion> getCompletionsByPrefix(String prefix, int limit)
+        throws ClinicalMetadataSourceUnresponsiveException {
+        return timeServiceMethod("getCompletionsByPrefix", KNOWLEDGE_SYSTEMS_SOURCE,
+            () -> cddServiceTopBraidImpl.getCompletionsByPrefix(prefix, limit));
+    }
+
+    @Override
+    public ClinicalAttributeFacets getFacets(String cancerStudy)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (mskVocabStudyUtil.useMskVocabularyForStudy(cancerStudy)) {
+            return timeServiceMethod("getFacets", MSK_VOCABULARY_SOURCE,
+                () -> cddServiceMskVocabularyImpl.getFacets(cancerStudy));
+        } else {
+            return timeServiceMethod("getFacets", KNOWLEDGE_SYSTEMS_SOURCE,
+                () -> cddServiceTopBraidImpl.getFacets(cancerStudy));
+        }
+    }
+
+    @Override
+    public List<ClinicalAttributeMetadata> getClinicalAttributeMetadataOverrides(String cancerStudy, boolean overriddenFieldsOnly)
+        throws ClinicalMetadataSourceUnresponsiveException, CancerStudyNotFoundException {
+        if (mskVocabStudyUtil.useMskVocabularyForStudy(cancerStudy)) {
+            return timeServiceMethod("getClinicalAttributeMetadataOverrides", MSK_VOCABULARY_SOURCE,
+                () -> cddServiceMskVocabularyImpl.getClinicalAttributeMetadataOverrides(cancerStudy, overriddenFieldsOnly));
+        } else {
+            return timeServiceMethod("getClinicalAttributeMetadataOverrides", KNOWLEDGE_SYSTEMS_SOURCE,
+                () -> cddServiceTopBraidImpl.getClinicalAttributeMetadataOverrides(cancerStudy, overriddenFieldsOnly));
+        }
+    }
+
+    @Override
+    public List<CancerStudyOverride> getCancerStudyOverrides(String columnHeader)
+        throws ClinicalMetadataSourceUnresponsiveException, ClinicalAttributeNotFoundException {
+        return timeServiceMethod("getCancerStudyOverrides", KNOWLEDGE_SYSTEMS_SOURCE,
+            () -> cddServiceTopBraidImpl.getCancerStudyOverrides(columnHeader));
+    }
+
+    @Override
+    public ClinicalAttributeExport getExport() throws ClinicalMetadataSourceUnresponsiveException {
+        return timeServiceMethod("getExport", KNOWLEDGE_SYSTEMS_SOURCE,
+            () -> cddServiceTopBraidImpl.getExport());
+    }
+
     @Override
     public List<CancerStudy> getCancerStudies() throws ClinicalMetadataSourceUnresponsiveException {
         return cddServiceTopBraidImpl.getCancerStudies();
@@ -96,4 +206,45 @@ public class ClinicalDataDictionaryServiceImpl implements ClinicalDataDictionary
         return Collections.singletonMap("response", "Success!");
     }
 
+    @Override
+    public CacheRefreshStatus startCacheRefresh() {
+        return cddServiceTopBraidImpl.startCacheRefresh();
+    }
+
+    @Override
+    public CacheRefreshStatus getCacheRefreshStatus(String jobId) throws CacheRefreshJobNotFoundException {
+        return cddServiceTopBraidImpl.getCacheRefreshStatus(jobId);
+    }
+
+    /**
+     * Times a call in cdd.service.requests, tagged with the service method, the service
+     * which handled it and the exception class if it failed (None if it did not).
+     */
+    private <T> T timeServiceMethod(String method, String source, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "None";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("cdd.service.requests")
+                .description("Time taken by clinical data dictionary service methods")
+                .tags("method", method, "source", source, "exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+
+    private void recordColumnHeaderCount(String method, String source, List<String> columnHeaders) {
+        DistributionSummary.builder("cdd.service.column.headers")
+            .description("Number of column headers per request")
+            .tags("method", method, "source", source)
+            .publishPercentileHistogram()
+            .maximumExpectedValue(100000L)
+            .register(meterRegistry)
+            .record(columnHeaders.size());
+    }
+
 }
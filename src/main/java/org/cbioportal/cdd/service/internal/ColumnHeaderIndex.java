@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only open addressing hash map from column header to value.
+ *
+ * get(columnHeader) returns what map.get(columnHeader.toUpperCase(Locale.ROOT)) would
+ * return for the map the index was built from.  An ASCII probe (every real column header)
+ * is upper-cased character by character while hashing and comparing, so the lookup
+ * allocates nothing and probes the table once.  A probe with other characters is
+ * upper-cased with String.toUpperCase(Locale.ROOT) first, since some characters do not
+ * upper-case one to one (e.g. the German sharp s to SS).  Keys are stored exactly as given, so a key that
+ * is not upper case can not be found (just like with the toUpperCase() lookup).
+ */
+public class ColumnHeaderIndex<V> {
+
+    // outside the range of the int hashes
+    private static final long NOT_ASCII = Long.MIN_VALUE;
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+    private final int size;
+
+    public ColumnHeaderIndex(Map<String, V> map) {
+        // keep the load factor at or below 0.5 so probe sequences stay short
+        int capacity = 2;
+        while (capacity < map.size() * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        for (Map.Entry<String, V> entry : map.entrySet()) {
+            insert(entry.getKey(), entry.getValue());
+        }
+        this.size = map.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(String columnHeader) {
+        if (columnHeader == null) {
+            return null;
+        }
+        long hash = foldedHash(columnHeader);
+        if (hash == NOT_ASCII) {
+            return getExactly(columnHeader.toUpperCase(Locale.ROOT));
+        }
+        int slot = spread((int) hash) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (matches(key, columnHeader)) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V getExactly(String key) {
+        int slot = spread(hash(key)) & mask;
+        String storedKey;
+        while ((storedKey = keys[slot]) != null) {
+            if (storedKey.equals(key)) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+    * The key get(columnHeader) looks up, for keying other maps the same way.  Already upper case
+    * column headers are returned as they are, without allocating.
+    */
+    public static String fold(String columnHeader) {
+        return columnHeader == null ? null : columnHeader.toUpperCase(Locale.ROOT);
+    }
+
+    public boolean containsKey(String columnHeader) {
+        return get(columnHeader) != null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void insert(String key, V value) {
+        int slot = spread(hash(key)) & mask;
+        while (keys[slot] != null) {
+            if (keys[slot].equals(key)) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+    }
+
+    private static boolean matches(String key, String columnHeader) {
+        int length = key.length();
+        if (length != columnHeader.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != toUpperCase(columnHeader.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(String key) {
+        int hash = 0;
+        for (int i = 0; i < key.length(); i++) {
+            hash = 31 * hash + key.charAt(i);
+        }
+        return hash;
+    }
+
+    /**
+    *
+    * @return
+    * the hash of the upper-cased column header, or NOT_ASCII if it has a character which is not ASCII
+    */
+    private static long foldedHash(String columnHeader) {
+        int hash = 0;
+        for (int i = 0; i < columnHeader.length(); i++) {
+            char c = columnHeader.charAt(i);
+            if (c >= 128) {
+                return NOT_ASCII;
+            }
+            hash = 31 * hash + toUpperCase(c);
+        }
+        return hash;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // ASCII only, foldedHash() sends other probes through String.toUpperCase(Locale.ROOT)
+    private static char toUpperCase(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        }
+        return c;
+    }
+}
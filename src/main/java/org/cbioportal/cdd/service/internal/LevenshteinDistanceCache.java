@@ -15,91 +15,120 @@
 
 package org.cbioportal.cdd.service.internal;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Map;
-import org.apache.http.*;
-import org.apache.http.client.*;
-import org.apache.http.client.methods.*;
-import org.apache.http.entity.*;
-import org.apache.http.impl.client.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
-import org.cbioportal.cdd.service.exception.FailedCacheRefreshException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 /**
+ * Levenshtein distances between clinical attributes and search terms, cached for one
+ * snapshot at a time.
+ *
+ * warm() is called before a new snapshot is published: it recalculates the distances for
+ * the search terms cached for the previous snapshot against the new attributes, so the
+ * first searches after a refresh find them cached.  Distances are only cached for the
+ * snapshot the cache was last warmed for, a search still running on an older snapshot
+ * calculates its distances without caching them.
+ *
  * @author Avery Wang
  */
 @Component
-public class LevenshteinDistanceCache {
+@Order(SnapshotWarmer.ORDER_DERIVED_STRUCTURES)
+public class LevenshteinDistanceCache implements SnapshotWarmer {
 
-    @Autowired
-    private ClinicalAttributeMetadataCache clinicalAttributesCache;
+    private volatile Generation generation = new Generation(null);
 
-    private Map<ClinicalAttributeMetadata, Map<String, Integer>> levenshteinDistanceCache = new HashMap<ClinicalAttributeMetadata, Map<String, Integer>>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
 
     private static final Logger logger = LoggerFactory.getLogger(LevenshteinDistanceCache.class);
 
-    public boolean containsClinicalAttribute(ClinicalAttributeMetadata clinicalAttributeMetadata) {
-        return levenshteinDistanceCache.containsKey(clinicalAttributeMetadata);
-    }
-
-    public void addClinicalAttribute(ClinicalAttributeMetadata clinicalAttributeMetadata) {
-        this.levenshteinDistanceCache.put(clinicalAttributeMetadata, new HashMap<String, Integer>());
-    }
-
-    public boolean containsClinicalAttributeToSearchTermMapping(ClinicalAttributeMetadata clinicalAttributeMetadata, String searchTerm) {
-        return levenshteinDistanceCache.get(clinicalAttributeMetadata).containsKey(searchTerm);
-    }
-
-    public void addClinicalAttributeToSearchTermMapping(ClinicalAttributeMetadata clinicalAttributeMetadata, String searchTerm) {
-        this.levenshteinDistanceCache.get(clinicalAttributeMetadata).put(searchTerm, clinicalAttributeMetadata.levenshteinDistanceFromSearchTerm(searchTerm));
+    @Autowired
+    public LevenshteinDistanceCache(MeterRegistry meterRegistry) {
+        hitCounter = Counter.builder("cdd.levenshtein.cache.requests")
+            .description("Levenshtein distance lookups, by whether the distance was already cached")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        missCounter = Counter.builder("cdd.levenshtein.cache.requests")
+            .description("Levenshtein distance lookups, by whether the distance was already cached")
+            .tag("result", "miss")
+            .register(meterRegistry);
     }
 
-    public Integer getLevenshteinDistanceForMapping(ClinicalAttributeMetadata clinicalAttributeMetadata, String searchTerm) {
-        return levenshteinDistanceCache.get(clinicalAttributeMetadata).get(searchTerm);
+    /**
+    * Returns the cached levenshtein distance between the clinical attribute and the search term,
+    * calculating and caching it first if necessary.
+    *
+    * @param snapshot
+    * the snapshot the clinical attribute was read from
+    */
+    public Integer getLevenshteinDistance(ClinicalAttributeMetadataSnapshot snapshot, ClinicalAttributeMetadata clinicalAttributeMetadata, String searchTerm) {
+        Generation currentGeneration = generation;
+        if (currentGeneration.snapshot != snapshot) {
+            missCounter.increment();
+            return clinicalAttributeMetadata.levenshteinDistanceFromSearchTerm(searchTerm);
+        }
+        Map<String, Integer> levenshteinDistances = currentGeneration.levenshteinDistances
+            .computeIfAbsent(clinicalAttributeMetadata, key -> new ConcurrentHashMap<String, Integer>());
+        Integer levenshteinDistance = levenshteinDistances.get(searchTerm);
+        if (levenshteinDistance != null) {
+            hitCounter.increment();
+            return levenshteinDistance;
+        }
+        missCounter.increment();
+        levenshteinDistance = clinicalAttributeMetadata.levenshteinDistanceFromSearchTerm(searchTerm);
+        levenshteinDistances.put(searchTerm, levenshteinDistance);
+        return levenshteinDistance;
     }
 
-    public void resetCache() {
-        logger.info("resetCache(): recalculating Levenshtein Distances with refreshed CDD attributes");
-        Map<String, ClinicalAttributeMetadata> defaultClinicalAttributeCache = clinicalAttributesCache.getClinicalAttributeMetadata();
-        Map<ClinicalAttributeMetadata, List<String>> searchTermMappingsToRemove = new HashMap<ClinicalAttributeMetadata, List<String>>();
-        List<ClinicalAttributeMetadata> clinicalAttributeMetadataToRemove = new ArrayList<ClinicalAttributeMetadata>();
-
-        for (ClinicalAttributeMetadata cachedClinicalAttributeMetadata : levenshteinDistanceCache.keySet()) {
-            ClinicalAttributeMetadata currentClinicalAttributeMetadata;
-            // during cache refresh - remove levenshtein distance mappings if the clinical attribute has been removed from CDD
-            if (!defaultClinicalAttributeCache.containsKey(cachedClinicalAttributeMetadata.getColumnHeader())) {
-                clinicalAttributeMetadataToRemove.add(cachedClinicalAttributeMetadata);
+    /**
+    * Recalculates the cached distances against the attributes of the new snapshot (from updated
+    * displays, descriptions, etc...), dropping attributes which have been removed from CDD and
+    * search terms which are no longer contained in the attribute, then caches for the new snapshot.
+    */
+    @Override
+    public void warm(ClinicalAttributeMetadataSnapshot snapshot) {
+        logger.info("warm(): recalculating Levenshtein Distances with refreshed CDD attributes");
+        Map<String, ClinicalAttributeMetadata> defaultClinicalAttributeCache = snapshot.getClinicalAttributeMetadata();
+        Generation nextGeneration = new Generation(snapshot);
+        int searchTermMappingCount = 0;
+        for (Map.Entry<ClinicalAttributeMetadata, ConcurrentHashMap<String, Integer>> entry : generation.levenshteinDistances.entrySet()) {
+            ClinicalAttributeMetadata currentClinicalAttributeMetadata = defaultClinicalAttributeCache.get(entry.getKey().getColumnHeader());
+            if (currentClinicalAttributeMetadata == null) {
                 continue;
-            } else {
-                currentClinicalAttributeMetadata = defaultClinicalAttributeCache.get(cachedClinicalAttributeMetadata.getColumnHeader());
             }
-            // recalculate and set levenshtein distances to new values (calculated from updated displays, descriptions, etc...)
-            // remove search term mappings which are no longer contained in the display, description, etc...
-            for (String searchTerm : levenshteinDistanceCache.get(cachedClinicalAttributeMetadata).keySet()) {
-                if (!currentClinicalAttributeMetadata.containsSearchTerm(searchTerm)) {
-                    if(!searchTermMappingsToRemove.containsKey(cachedClinicalAttributeMetadata)) {
-                        searchTermMappingsToRemove.put(cachedClinicalAttributeMetadata, new ArrayList<String>());
-                    }
-                    searchTermMappingsToRemove.get(cachedClinicalAttributeMetadata).add(searchTerm);
-                    continue;
+            ConcurrentHashMap<String, Integer> levenshteinDistances = new ConcurrentHashMap<String, Integer>();
+            for (String searchTerm : entry.getValue().keySet()) {
+                if (currentClinicalAttributeMetadata.containsSearchTerm(searchTerm)) {
+                    levenshteinDistances.put(searchTerm, currentClinicalAttributeMetadata.levenshteinDistanceFromSearchTerm(searchTerm));
                 }
-                Integer levenshteinDistance = currentClinicalAttributeMetadata.levenshteinDistanceFromSearchTerm(searchTerm);
-                levenshteinDistanceCache.get(cachedClinicalAttributeMetadata).put(searchTerm, levenshteinDistance);
             }
-        }
-        for (ClinicalAttributeMetadata clinicalAttributeMetadata : clinicalAttributeMetadataToRemove) {
-            levenshteinDistanceCache.remove(clinicalAttributeMetadata);
-        }
-        for (ClinicalAttributeMetadata clinicalAttributeMetadata : searchTermMappingsToRemove.keySet()) {
-            for (String searchTerm : searchTermMappingsToRemove.get(clinicalAttributeMetadata)) {
-                levenshteinDistanceCache.get(clinicalAttributeMetadata).remove(searchTerm);
+            if (!levenshteinDistances.isEmpty()) {
+                nextGeneration.levenshteinDistances.put(currentClinicalAttributeMetadata, levenshteinDistances);
+                searchTermMappingCount += levenshteinDistances.size();
             }
         }
+        generation = nextGeneration;
+        logger.info("warm(): recalculated " + searchTermMappingCount + " Levenshtein Distances");
+    }
+
+    /**
+    * The distances cached for one snapshot, keyed by the (identity of the) clinical attributes of that snapshot.
+    */
+    private static class Generation {
+
+        private final ClinicalAttributeMetadataSnapshot snapshot;
+        private final ConcurrentHashMap<ClinicalAttributeMetadata, ConcurrentHashMap<String, Integer>> levenshteinDistances =
+            new ConcurrentHashMap<ClinicalAttributeMetadata, ConcurrentHashMap<String, Integer>>();
+
+        private Generation(ClinicalAttributeMetadataSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
     }
 }
@@ -0,0 +1,454 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.cbioportal.cdd.model.AttributeType;
+import org.cbioportal.cdd.model.ClinicalAttributeFacets;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
+import org.cbioportal.cdd.model.Datatype;
+
+/**
+ * Filtered and sorted listings of the clinical attributes.
+ *
+ * Each clinical attribute gets an id, its position in the default listing order, and the
+ * index keeps a bitset of the ids for each attribute type, each datatype and for the visible
+ * (priority above 0) attributes, and the ids presorted by priority, column header and display
+ * name.  A filtered listing is the AND of the bitsets for the filter followed by a walk over
+ * the ids in the requested order, so nothing is scanned or sorted per request.
+ *
+ * A cancer study's overrides get an Overlay with the same bitsets and orders over only the
+ * overridden attributes (with the ids of the attributes they override).  A listing for the
+ * study replaces the overridden ids of the default bitset with the overlay's and merges the
+ * two presorted orders.  Facet counts (see countFacets()) are cardinalities of the same bitsets.
+ *
+ * Like ColumnHeaderIndex, an index is built once per snapshot and never modified.
+ */
+public class ListingIndex {
+
+    private static final Comparator<ClinicalAttributeMetadata> PRIORITY_ORDER = (a, b) -> {
+        int comparison = Integer.compare(b.getPriorityValue(), a.getPriorityValue());
+        return comparison != 0 ? comparison : compareColumnHeaders(a, b);
+    };
+
+    private static final Comparator<ClinicalAttributeMetadata> COLUMN_HEADER_ORDER = ListingIndex::compareColumnHeaders;
+
+    // attributes without a display name last
+    private static final Comparator<ClinicalAttributeMetadata> DISPLAY_NAME_ORDER = (a, b) -> {
+        int comparison = Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER).compare(a.getDisplayName(), b.getDisplayName());
+        return comparison != 0 ? comparison : compareColumnHeaders(a, b);
+    };
+
+    // lower bounds of the priority and overriding study count buckets of the facets
+    private static final int[] PRIORITY_BUCKETS = {Integer.MIN_VALUE, 1, 2, 10, 100};
+    private static final String[] PRIORITY_BUCKET_NAMES = {"0", "1", "2-9", "10-99", "100+"};
+    private static final int[] OVERRIDING_STUDY_BUCKETS = {0, 1, 2, 10};
+    private static final String[] OVERRIDING_STUDY_BUCKET_NAMES = {"0", "1", "2-9", "10+"};
+
+    private final Segment defaults;
+    private final Map<String, Overlay> overlays = new HashMap<String, Overlay>();
+    // by id, the number of cancer studies overriding the attribute
+    private final int[] overridingStudyCounts;
+    private final Map<String, Integer> overridingStudyCountFacet;
+    private final int overriddenAttributeCount;
+
+    /**
+    *
+    * @param overrides
+    * map of study id to map of column header to overridden ClinicalAttributeMetadata
+    */
+    public ListingIndex(Collection<ClinicalAttributeMetadata> clinicalAttributes, Map<String, Map<String, ClinicalAttributeMetadata>> overrides) {
+        ClinicalAttributeMetadata[] clinicalAttributeArray = clinicalAttributes.toArray(new ClinicalAttributeMetadata[clinicalAttributes.size()]);
+        int[] ids = new int[clinicalAttributeArray.length];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = id;
+        }
+        this.defaults = new Segment(clinicalAttributeArray, ids);
+        this.overridingStudyCounts = new int[clinicalAttributeArray.length];
+        for (Map.Entry<String, Map<String, ClinicalAttributeMetadata>> entry : overrides.entrySet()) {
+            Overlay overlay = makeOverlay(entry.getValue());
+            overlays.put(entry.getKey(), overlay);
+            for (int id : overlay.overrides.ids) {
+                overridingStudyCounts[id]++;
+            }
+        }
+        int[] overridingStudyCountBuckets = new int[OVERRIDING_STUDY_BUCKETS.length];
+        int overriddenAttributeCount = 0;
+        for (int overridingStudyCount : overridingStudyCounts) {
+            overridingStudyCountBuckets[getBucket(OVERRIDING_STUDY_BUCKETS, overridingStudyCount)]++;
+            if (overridingStudyCount > 0) {
+                overriddenAttributeCount++;
+            }
+        }
+        this.overridingStudyCountFacet = makeFacet(OVERRIDING_STUDY_BUCKET_NAMES, overridingStudyCountBuckets);
+        this.overriddenAttributeCount = overriddenAttributeCount;
+    }
+
+    /**
+    *
+    * @return
+    * the overlay of the cancer study's overrides, null if the cancer study has no overrides
+    */
+    public Overlay getOverlay(String cancerStudy) {
+        return overlays.get(cancerStudy);
+    }
+
+    /**
+    *
+    * @param overrides
+    * a cancer study's overrides by column header, overrides of unknown column headers are left out
+    */
+    private Overlay makeOverlay(Map<String, ClinicalAttributeMetadata> overrides) {
+        List<ClinicalAttributeMetadata> overriddenClinicalAttributes = new ArrayList<ClinicalAttributeMetadata>();
+        List<Integer> overriddenIds = new ArrayList<Integer>();
+        // in id order, so an override is found by a binary search for its id
+        for (int id = 0; id < defaults.clinicalAttributes.length; id++) {
+            ClinicalAttributeMetadata overrideClinicalAttributeMetadata = overrides.get(defaults.clinicalAttributes[id].getColumnHeader());
+            if (overrideClinicalAttributeMetadata != null) {
+                overriddenClinicalAttributes.add(overrideClinicalAttributeMetadata);
+                overriddenIds.add(id);
+            }
+        }
+        int[] ids = new int[overriddenIds.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = overriddenIds.get(i);
+        }
+        return new Overlay(new Segment(overriddenClinicalAttributes.toArray(new ClinicalAttributeMetadata[ids.length]), ids));
+    }
+
+    /**
+    *
+    * @param overlay
+    * the cancer study's overrides, null for the default attributes
+    * @param hiddenDefaults
+    * true if the attributes which are not overridden have priority 0 for the cancer study
+    * @param sort
+    * null for the default listing order
+    * @return
+    * the default clinical attributes, or their overrides, which match the filter
+    */
+    public List<ClinicalAttributeMetadata> list(Overlay overlay, boolean hiddenDefaults, Filter filter, ClinicalAttributeSort sort) {
+        BitSet matches = defaults.select(filter, hiddenDefaults);
+        Segment overrides = overlay == null ? null : overlay.overrides;
+        if (overrides != null) {
+            matches.andNot(overrides.allIds);
+            matches.or(overrides.select(filter, false));
+        }
+        List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>(matches.cardinality());
+        if (sort == null) {
+            for (int id = matches.nextSetBit(0); id >= 0; id = matches.nextSetBit(id + 1)) {
+                clinicalAttributes.add(getClinicalAttributeMetadata(overrides, id));
+            }
+            return clinicalAttributes;
+        }
+        if (sort == ClinicalAttributeSort.COLUMN_HEADER) {
+            // an override has the column header of the attribute it overrides
+            for (int id : defaults.columnHeaderOrder) {
+                if (matches.get(id)) {
+                    clinicalAttributes.add(getClinicalAttributeMetadata(overrides, id));
+                }
+            }
+            return clinicalAttributes;
+        }
+        // with all defaults at priority 0, their priority order is the column header order
+        int[] defaultOrder = sort == ClinicalAttributeSort.PRIORITY ? (hiddenDefaults ? defaults.columnHeaderOrder : defaults.priorityOrder) : defaults.displayNameOrder;
+        if (overrides == null) {
+            for (int id : defaultOrder) {
+                if (matches.get(id)) {
+                    clinicalAttributes.add(defaults.clinicalAttributes[id]);
+                }
+            }
+            return clinicalAttributes;
+        }
+        int[] overrideOrder = sort == ClinicalAttributeSort.PRIORITY ? overrides.priorityOrder : overrides.displayNameOrder;
+        int defaultPosition = nextDefault(defaultOrder, 0, matches, overrides);
+        int overridePosition = nextOverride(overrideOrder, 0, matches, overrides);
+        while (defaultPosition < defaultOrder.length || overridePosition < overrideOrder.length) {
+            if (overridePosition >= overrideOrder.length || (defaultPosition < defaultOrder.length
+                && compare(sort, defaults.clinicalAttributes[defaultOrder[defaultPosition]], hiddenDefaults, overrides.clinicalAttributes[overrideOrder[overridePosition]]) <= 0)) {
+                clinicalAttributes.add(defaults.clinicalAttributes[defaultOrder[defaultPosition]]);
+                defaultPosition = nextDefault(defaultOrder, defaultPosition + 1, matches, overrides);
+            } else {
+                clinicalAttributes.add(overrides.clinicalAttributes[overrideOrder[overridePosition]]);
+                overridePosition = nextOverride(overrideOrder, overridePosition + 1, matches, overrides);
+            }
+        }
+        return clinicalAttributes;
+    }
+
+    /**
+    *
+    * @param cancerStudy
+    * the cancer study the overlay belongs to, null for the default attributes
+    * @param hiddenDefaults
+    * true if the attributes which are not overridden have priority 0 for the cancer study
+    */
+    public ClinicalAttributeFacets countFacets(String cancerStudy, Overlay overlay, boolean hiddenDefaults) {
+        Segment overrides = overlay == null ? null : overlay.overrides;
+        BitSet defaultIds = (BitSet) defaults.allIds.clone();
+        if (overrides != null) {
+            defaultIds.andNot(overrides.allIds);
+        }
+        Map<String, Integer> attributeTypeFacet = new LinkedHashMap<String, Integer>();
+        for (AttributeType attributeType : AttributeType.values()) {
+            attributeTypeFacet.put(attributeType.name(), countIds(defaults.attributeTypeIds.get(attributeType), defaultIds)
+                + (overrides == null ? 0 : overrides.attributeTypeIds.get(attributeType).cardinality()));
+        }
+        Map<String, Integer> datatypeFacet = new LinkedHashMap<String, Integer>();
+        for (Datatype datatype : Datatype.values()) {
+            datatypeFacet.put(datatype.name(), countIds(defaults.datatypeIds.get(datatype), defaultIds)
+                + (overrides == null ? 0 : overrides.datatypeIds.get(datatype).cardinality()));
+        }
+        int[] priorityBuckets = new int[PRIORITY_BUCKETS.length];
+        if (hiddenDefaults) {
+            priorityBuckets[0] = defaultIds.cardinality();
+        } else {
+            countPriorityBuckets(defaults, defaultIds, priorityBuckets);
+        }
+        if (overrides != null) {
+            countPriorityBuckets(overrides, overrides.allIds, priorityBuckets);
+        }
+        return new ClinicalAttributeFacets(cancerStudy, defaults.ids.length, overrides == null ? overriddenAttributeCount : overrides.ids.length,
+            attributeTypeFacet, datatypeFacet, makeFacet(PRIORITY_BUCKET_NAMES, priorityBuckets), overridingStudyCountFacet);
+    }
+
+    /**
+    * Adds the number of the ids with a priority in each bucket, from the number of them with at least
+    * the lower bound of each bucket.
+    */
+    private static void countPriorityBuckets(Segment segment, BitSet ids, int[] priorityBuckets) {
+        int previousCount = ids.cardinality();
+        for (int bucket = 1; bucket <= PRIORITY_BUCKETS.length; bucket++) {
+            int count = bucket < PRIORITY_BUCKETS.length ? countIds(segment.selectMinimumPriority(PRIORITY_BUCKETS[bucket]), ids) : 0;
+            priorityBuckets[bucket - 1] += previousCount - count;
+            previousCount = count;
+        }
+    }
+
+    private static int countIds(BitSet a, BitSet b) {
+        BitSet intersection = (BitSet) a.clone();
+        intersection.and(b);
+        return intersection.cardinality();
+    }
+
+    private static int getBucket(int[] lowerBounds, int value) {
+        int bucket = 0;
+        while (bucket + 1 < lowerBounds.length && value >= lowerBounds[bucket + 1]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    private static Map<String, Integer> makeFacet(String[] bucketNames, int[] counts) {
+        Map<String, Integer> facet = new LinkedHashMap<String, Integer>();
+        for (int bucket = 0; bucket < bucketNames.length; bucket++) {
+            facet.put(bucketNames[bucket], counts[bucket]);
+        }
+        return facet;
+    }
+
+    private ClinicalAttributeMetadata getClinicalAttributeMetadata(Segment overrides, int id) {
+        if (overrides != null && overrides.allIds.get(id)) {
+            return overrides.clinicalAttributes[Arrays.binarySearch(overrides.ids, id)];
+        }
+        return defaults.clinicalAttributes[id];
+    }
+
+    private static int nextDefault(int[] defaultOrder, int position, BitSet matches, Segment overrides) {
+        while (position < defaultOrder.length && (!matches.get(defaultOrder[position]) || overrides.allIds.get(defaultOrder[position]))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int nextOverride(int[] overrideOrder, int position, BitSet matches, Segment overrides) {
+        while (position < overrideOrder.length && !matches.get(overrides.ids[overrideOrder[position]])) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int compare(ClinicalAttributeSort sort, ClinicalAttributeMetadata defaultClinicalAttributeMetadata, boolean hiddenDefaults, ClinicalAttributeMetadata overrideClinicalAttributeMetadata) {
+        if (sort == ClinicalAttributeSort.PRIORITY) {
+            int defaultPriority = hiddenDefaults ? 0 : defaultClinicalAttributeMetadata.getPriorityValue();
+            int comparison = Integer.compare(overrideClinicalAttributeMetadata.getPriorityValue(), defaultPriority);
+            return comparison != 0 ? comparison : compareColumnHeaders(defaultClinicalAttributeMetadata, overrideClinicalAttributeMetadata);
+        }
+        return DISPLAY_NAME_ORDER.compare(defaultClinicalAttributeMetadata, overrideClinicalAttributeMetadata);
+    }
+
+    private static int compareColumnHeaders(ClinicalAttributeMetadata a, ClinicalAttributeMetadata b) {
+        return String.valueOf(a.getColumnHeader()).compareTo(String.valueOf(b.getColumnHeader()));
+    }
+
+    /**
+    * The filters of a listing, null for no filter.
+    */
+    public static class Filter {
+
+        private final AttributeType attributeType;
+        private final Datatype datatype;
+        private final Integer minimumPriority;
+        // true for priority above 0, false for priority 0 (or below)
+        private final Boolean visible;
+
+        public Filter(AttributeType attributeType, Datatype datatype, Integer minimumPriority, Boolean visible) {
+            this.attributeType = attributeType;
+            this.datatype = datatype;
+            this.minimumPriority = minimumPriority;
+            this.visible = visible;
+        }
+    }
+
+    /**
+    * The bitsets and orders over a cancer study's overrides.
+    */
+    public static class Overlay {
+
+        private final Segment overrides;
+
+        private Overlay(Segment overrides) {
+            this.overrides = overrides;
+        }
+    }
+
+    /**
+    * Bitsets (by id) and orders (of positions in clinicalAttributes) over some of the clinical attributes.
+    */
+    private static class Segment {
+
+        private final ClinicalAttributeMetadata[] clinicalAttributes;
+        // by position in clinicalAttributes, ascending
+        private final int[] ids;
+        private final BitSet allIds = new BitSet();
+        private final Map<AttributeType, BitSet> attributeTypeIds = new EnumMap<AttributeType, BitSet>(AttributeType.class);
+        private final Map<Datatype, BitSet> datatypeIds = new EnumMap<Datatype, BitSet>(Datatype.class);
+        private final BitSet visibleIds = new BitSet();
+        private final int[] priorityOrder;
+        private final int[] columnHeaderOrder;
+        private final int[] displayNameOrder;
+
+        Segment(ClinicalAttributeMetadata[] clinicalAttributes, int[] ids) {
+            this.clinicalAttributes = clinicalAttributes;
+            this.ids = ids;
+            for (AttributeType attributeType : AttributeType.values()) {
+                attributeTypeIds.put(attributeType, new BitSet());
+            }
+            for (Datatype datatype : Datatype.values()) {
+                datatypeIds.put(datatype, new BitSet());
+            }
+            for (int position = 0; position < clinicalAttributes.length; position++) {
+                ClinicalAttributeMetadata clinicalAttributeMetadata = clinicalAttributes[position];
+                int id = ids[position];
+                allIds.set(id);
+                if (clinicalAttributeMetadata.getAttributeTypeValue() != null) {
+                    attributeTypeIds.get(clinicalAttributeMetadata.getAttributeTypeValue()).set(id);
+                }
+                if (clinicalAttributeMetadata.getDatatypeValue() != null) {
+                    datatypeIds.get(clinicalAttributeMetadata.getDatatypeValue()).set(id);
+                }
+                if (clinicalAttributeMetadata.getPriorityValue() > 0) {
+                    visibleIds.set(id);
+                }
+            }
+            priorityOrder = sortPositions(PRIORITY_ORDER);
+            columnHeaderOrder = sortPositions(COLUMN_HEADER_ORDER);
+            displayNameOrder = sortPositions(DISPLAY_NAME_ORDER);
+        }
+
+        private int[] sortPositions(Comparator<ClinicalAttributeMetadata> order) {
+            Integer[] positions = new Integer[clinicalAttributes.length];
+            for (int position = 0; position < positions.length; position++) {
+                positions[position] = position;
+            }
+            Arrays.sort(positions, (a, b) -> order.compare(clinicalAttributes[a], clinicalAttributes[b]));
+            int[] sortedPositions = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                sortedPositions[i] = positions[i];
+            }
+            return sortedPositions;
+        }
+
+        /**
+        *
+        * @param hidden
+        * true to treat the priority of every attribute as 0
+        * @return
+        * a new bitset of the ids matching the filter
+        */
+        BitSet select(Filter filter, boolean hidden) {
+            BitSet selectedIds = (BitSet) allIds.clone();
+            if (filter.attributeType != null) {
+                selectedIds.and(attributeTypeIds.get(filter.attributeType));
+            }
+            if (filter.datatype != null) {
+                selectedIds.and(datatypeIds.get(filter.datatype));
+            }
+            if (filter.visible != null) {
+                if (hidden) {
+                    if (filter.visible) {
+                        selectedIds.clear();
+                    }
+                } else if (filter.visible) {
+                    selectedIds.and(visibleIds);
+                } else {
+                    selectedIds.andNot(visibleIds);
+                }
+            }
+            if (filter.minimumPriority != null) {
+                if (hidden) {
+                    if (filter.minimumPriority > 0) {
+                        selectedIds.clear();
+                    }
+                } else {
+                    selectedIds.and(selectMinimumPriority(filter.minimumPriority));
+                }
+            }
+            return selectedIds;
+        }
+
+        /**
+        * The attributes with at least the priority are a prefix of the priority order, found by a binary search.
+        */
+        private BitSet selectMinimumPriority(int minimumPriority) {
+            int low = 0;
+            int high = priorityOrder.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (clinicalAttributes[priorityOrder[middle]].getPriorityValue() >= minimumPriority) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            BitSet selectedIds = new BitSet();
+            for (int i = 0; i < low; i++) {
+                selectedIds.set(ids[priorityOrder[i]]);
+            }
+            return selectedIds;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The most recent requests of one kind, kept so they can be replayed against a new
+ * snapshot before it is published.
+ *
+ * Recording is an atomic increment and an array write, cheap enough to do on every
+ * request.  Once the sample is full each request replaces the oldest one.
+ */
+public class RecentRequestSample<T> {
+
+    private final AtomicReferenceArray<T> requests;
+    private final AtomicLong recordedCount = new AtomicLong();
+
+    /**
+    *
+    * @param capacity
+    * the number of requests kept, 0 keeps none
+    */
+    public RecentRequestSample(int capacity) {
+        this.requests = new AtomicReferenceArray<T>(capacity);
+    }
+
+    public void record(T request) {
+        int capacity = requests.length();
+        if (capacity == 0) {
+            return;
+        }
+        requests.set((int) (recordedCount.getAndIncrement() % capacity), request);
+    }
+
+    /**
+    *
+    * @return
+    * the requests in the sample, in no particular order
+    */
+    public List<T> getRequests() {
+        List<T> sample = new ArrayList<T>(requests.length());
+        for (int i = 0; i < requests.length(); i++) {
+            T request = requests.get(i);
+            if (request != null) {
+                sample.add(request);
+            }
+        }
+        return sample;
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+
+/**
+ * Field weighted BM25 (BM25F) relevance of clinical attributes for a set of words.
+ *
+ * The column header, display name and description of each attribute are split into words
+ * (see VocabularyIndex.tokenize()) when the index is built, and each word gets a posting list
+ * of the attributes containing it with its frequency in each field.  The frequencies are
+ * normalized by the length of the field relative to the average length of that field and
+ * weighted (column header 3, display name 2, description 1) before BM25 saturation, so a
+ * word in a long description counts for less than the same word in a short one, but a long
+ * description does not push an attribute down the way a whole field levenshtein distance does.
+ * Scoring is a sum over the posting lists of the words, and the posting lists are also how a
+ * search finds its candidates (see findClinicalAttributes()) without scanning every attribute.
+ *
+ * An overlay index holds only the attributes a cancer study overrides and scores them with the
+ * average field lengths and inverse document frequencies of the default index it overlays, so
+ * its scores can be compared with the default ones; attributes which are not in the overlay are
+ * scored by the default index.
+ *
+ * Like ColumnHeaderIndex, an index is built once per snapshot and never modified.
+ */
+public class RelevanceIndex {
+
+    private static final int FIELD_COUNT = 3;
+    private static final float[] FIELD_WEIGHTS = {3.0f, 2.0f, 1.0f};
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final Map<ClinicalAttributeMetadata, Integer> documentIds = new IdentityHashMap<ClinicalAttributeMetadata, Integer>();
+    // by document id
+    private final ClinicalAttributeMetadata[] documents;
+    // by field then document: 1 - B + B * length / average length
+    private final float[][] lengthNormalization;
+    private final Map<String, Postings> postingsByWord = new HashMap<String, Postings>();
+    private final float[] averageLengths = new float[FIELD_COUNT];
+    // the number of documents the inverse document frequencies are calculated for
+    private final int corpusSize;
+    // null unless this is an overlay
+    private final RelevanceIndex base;
+
+    public RelevanceIndex(Collection<ClinicalAttributeMetadata> clinicalAttributes) {
+        this(clinicalAttributes, null);
+    }
+
+    /**
+    *
+    * @param base
+    * the index to overlay, null for an index over the whole corpus
+    */
+    public RelevanceIndex(Collection<ClinicalAttributeMetadata> clinicalAttributes, RelevanceIndex base) {
+        this.base = base;
+        int documentCount = clinicalAttributes.size();
+        this.documents = new ClinicalAttributeMetadata[documentCount];
+        int[][] fieldLengths = new int[FIELD_COUNT][documentCount];
+        Map<String, Map<Integer, int[]>> frequenciesByWord = new HashMap<String, Map<Integer, int[]>>();
+        int documentId = 0;
+        for (ClinicalAttributeMetadata clinicalAttributeMetadata : clinicalAttributes) {
+            documentIds.put(clinicalAttributeMetadata, documentId);
+            documents[documentId] = clinicalAttributeMetadata;
+            String[] fields = {clinicalAttributeMetadata.getColumnHeader(), clinicalAttributeMetadata.getDisplayName(), clinicalAttributeMetadata.getDescription()};
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                List<String> words = VocabularyIndex.tokenize(fields[field]);
+                fieldLengths[field][documentId] = words.size();
+                for (String word : words) {
+                    Map<Integer, int[]> frequencies = frequenciesByWord.get(word);
+                    if (frequencies == null) {
+                        frequencies = new LinkedHashMap<Integer, int[]>();
+                        frequenciesByWord.put(word, frequencies);
+                    }
+                    int[] fieldFrequencies = frequencies.get(documentId);
+                    if (fieldFrequencies == null) {
+                        fieldFrequencies = new int[FIELD_COUNT];
+                        frequencies.put(documentId, fieldFrequencies);
+                    }
+                    fieldFrequencies[field]++;
+                }
+            }
+            documentId++;
+        }
+        corpusSize = base == null ? documentCount : base.corpusSize;
+        lengthNormalization = new float[FIELD_COUNT][documentCount];
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            if (base == null) {
+                long totalLength = 0;
+                for (int length : fieldLengths[field]) {
+                    totalLength += length;
+                }
+                averageLengths[field] = documentCount == 0 ? 0 : (float) totalLength / documentCount;
+            } else {
+                averageLengths[field] = base.averageLengths[field];
+            }
+            float averageLength = averageLengths[field];
+            for (int document = 0; document < documentCount; document++) {
+                lengthNormalization[field][document] = averageLength == 0 ? 1.0f : 1 - B + B * fieldLengths[field][document] / averageLength;
+            }
+        }
+        for (Map.Entry<String, Map<Integer, int[]>> entry : frequenciesByWord.entrySet()) {
+            Postings basePostings = base == null ? null : base.postingsByWord.get(entry.getKey());
+            // a word only an override has is as rare in the corpus as it is in the overlay
+            float inverseDocumentFrequency = basePostings != null ? basePostings.inverseDocumentFrequency : getInverseDocumentFrequency(corpusSize, entry.getValue().size());
+            postingsByWord.put(entry.getKey(), new Postings(entry.getValue(), inverseDocumentFrequency));
+        }
+    }
+
+    private static float getInverseDocumentFrequency(int documentCount, int documentFrequency) {
+        return (float) Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    /**
+    *
+    * @param words
+    * lower case words, e.g. from VocabularyIndex.tokenize()
+    * @return
+    * the clinical attributes, most relevant for the words first, ties by column header
+    */
+    public List<ClinicalAttributeMetadata> rank(Collection<ClinicalAttributeMetadata> clinicalAttributes, Collection<String> words) {
+        float[] scores = score(words);
+        float[] baseScores = base == null ? null : base.score(words);
+        Map<ClinicalAttributeMetadata, Float> clinicalAttributesToScore = new IdentityHashMap<ClinicalAttributeMetadata, Float>();
+        for (ClinicalAttributeMetadata clinicalAttributeMetadata : clinicalAttributes) {
+            Integer documentId = documentIds.get(clinicalAttributeMetadata);
+            float score = 0.0f;
+            if (documentId != null) {
+                score = scores[documentId];
+            } else if (base != null) {
+                Integer baseDocumentId = base.documentIds.get(clinicalAttributeMetadata);
+                score = baseDocumentId == null ? 0.0f : baseScores[baseDocumentId];
+            }
+            clinicalAttributesToScore.put(clinicalAttributeMetadata, score);
+        }
+        List<ClinicalAttributeMetadata> rankedClinicalAttributes = new ArrayList<ClinicalAttributeMetadata>(clinicalAttributes);
+        Collections.sort(rankedClinicalAttributes, (a, b) -> {
+            int comparison = clinicalAttributesToScore.get(b).compareTo(clinicalAttributesToScore.get(a));
+            return comparison != 0 ? comparison : String.valueOf(a.getColumnHeader()).compareTo(String.valueOf(b.getColumnHeader()));
+        });
+        return rankedClinicalAttributes;
+    }
+
+    /**
+    *
+    * @param words
+    * lower case words, e.g. from VocabularyIndex.tokenize()
+    * @return
+    * the clinical attributes which have at least one of the words, in this index or the one it
+    * overlays (which includes the default versions of the attributes the overlay overrides)
+    */
+    public Set<ClinicalAttributeMetadata> findClinicalAttributes(Collection<String> words) {
+        Set<ClinicalAttributeMetadata> clinicalAttributes = base == null ? Collections.newSetFromMap(new IdentityHashMap<ClinicalAttributeMetadata, Boolean>()) : base.findClinicalAttributes(words);
+        for (String word : words) {
+            Postings postings = postingsByWord.get(word);
+            if (postings == null) {
+                continue;
+            }
+            for (int documentId : postings.documentIds) {
+                clinicalAttributes.add(documents[documentId]);
+            }
+        }
+        return clinicalAttributes;
+    }
+
+    /**
+    *
+    * @param fragment
+    * lower case letters and digits
+    * @return
+    * the words of this index and the one it overlays which contain the fragment, e.g. "stage"
+    * for "tag"; a scan of the vocabulary, which is much smaller than the attributes' text
+    */
+    public Set<String> findWordsContaining(String fragment) {
+        Set<String> words = base == null ? new HashSet<String>() : base.findWordsContaining(fragment);
+        for (String word : postingsByWord.keySet()) {
+            if (word.contains(fragment)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+    *
+    * @return
+    * the score of each document (by document id) for the words, 0 for documents without any of them
+    */
+    float[] score(Collection<String> words) {
+        float[] scores = new float[documentIds.size()];
+        for (String word : words) {
+            Postings postings = postingsByWord.get(word);
+            if (postings == null) {
+                continue;
+            }
+            for (int i = 0; i < postings.documentIds.length; i++) {
+                int documentId = postings.documentIds[i];
+                float frequency = 0;
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    frequency += FIELD_WEIGHTS[field] * postings.fieldFrequencies[field][i] / lengthNormalization[field][documentId];
+                }
+                scores[documentId] += postings.inverseDocumentFrequency * frequency / (K1 + frequency);
+            }
+        }
+        return scores;
+    }
+
+    private static class Postings {
+
+        private final float inverseDocumentFrequency;
+        private final int[] documentIds;
+        // by field then position in documentIds
+        private final int[][] fieldFrequencies;
+
+        Postings(Map<Integer, int[]> frequencies, float inverseDocumentFrequency) {
+            int documentFrequency = frequencies.size();
+            this.inverseDocumentFrequency = inverseDocumentFrequency;
+            documentIds = new int[documentFrequency];
+            fieldFrequencies = new int[FIELD_COUNT][documentFrequency];
+            int i = 0;
+            for (Map.Entry<Integer, int[]> entry : frequencies.entrySet()) {
+                documentIds[i] = entry.getKey();
+                for (int field = 0; field < FIELD_COUNT; field++) {
+                    fieldFrequencies[field][i] = entry.getValue()[field];
+                }
+                i++;
+            }
+        }
+    }
+}
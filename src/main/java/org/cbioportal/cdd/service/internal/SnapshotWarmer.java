@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+/**
+ * Prepares the structures derived from a new snapshot before it is published.
+ *
+ * ClinicalAttributeMetadataCache calls every SnapshotWarmer, in @Order order, after it
+ * has built a new snapshot and before requests can see it, so whatever would otherwise
+ * be built by the first requests after a refresh is built on the refresh thread instead.
+ * Warmers must not modify the snapshot.  A warmer which fails is logged and skipped,
+ * the snapshot is published anyway.
+ */
+public interface SnapshotWarmer {
+
+    // caches and indexes derived from the snapshot are built first
+    int ORDER_DERIVED_STRUCTURES = 0;
+    // so replayed requests find them built, and fill them further
+    int ORDER_REQUEST_REPLAY = 100;
+
+    void warm(ClinicalAttributeMetadataSnapshot snapshot);
+}
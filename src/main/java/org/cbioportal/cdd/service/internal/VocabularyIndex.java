@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+
+/**
+ * Typo tolerant index over the words of the column headers and display names.
+ *
+ * The words (lower case runs of letters and digits, e.g. "mutation" and "count" for
+ * MUTATION_COUNT) are kept in a BK-tree, a tree in which each child is at a known edit
+ * distance from its parent, so by the triangle inequality a lookup only descends into the
+ * children which can hold words within the allowed distance instead of comparing every word.
+ * The number of edits allowed grows with the length of the word looked up: none up to 3
+ * characters, 1 up to 7 and 2 beyond, so short words do not match half of the vocabulary.
+ *
+ * Like ColumnHeaderIndex, an index is built once per snapshot and never modified.
+ */
+public class VocabularyIndex {
+
+    public static final int MAXIMUM_EDIT_DISTANCE = 2;
+
+    private final Map<String, List<ClinicalAttributeMetadata>> clinicalAttributesByWord = new HashMap<String, List<ClinicalAttributeMetadata>>();
+    private Node root;
+
+    public VocabularyIndex(Collection<ClinicalAttributeMetadata> clinicalAttributes) {
+        Map<String, Set<ClinicalAttributeMetadata>> clinicalAttributeSetsByWord = new HashMap<String, Set<ClinicalAttributeMetadata>>();
+        for (ClinicalAttributeMetadata clinicalAttributeMetadata : clinicalAttributes) {
+            List<String> words = tokenize(clinicalAttributeMetadata.getColumnHeader());
+            words.addAll(tokenize(clinicalAttributeMetadata.getDisplayName()));
+            for (String word : words) {
+                Set<ClinicalAttributeMetadata> clinicalAttributeSet = clinicalAttributeSetsByWord.get(word);
+                if (clinicalAttributeSet == null) {
+                    clinicalAttributeSet = new LinkedHashSet<ClinicalAttributeMetadata>();
+                    clinicalAttributeSetsByWord.put(word, clinicalAttributeSet);
+                    insert(word);
+                }
+                clinicalAttributeSet.add(clinicalAttributeMetadata);
+            }
+        }
+        for (Map.Entry<String, Set<ClinicalAttributeMetadata>> entry : clinicalAttributeSetsByWord.entrySet()) {
+            clinicalAttributesByWord.put(entry.getKey(), new ArrayList<ClinicalAttributeMetadata>(entry.getValue()));
+        }
+    }
+
+    /**
+    *
+    * @return
+    * the clinical attributes which have a word within the allowed edit distance of every word
+    * of the search term, empty if the search term has no words
+    */
+    public Set<ClinicalAttributeMetadata> findNearMatches(String searchTerm) {
+        List<String> searchWords = tokenize(searchTerm);
+        if (searchWords.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<ClinicalAttributeMetadata> nearMatches = null;
+        for (String searchWord : searchWords) {
+            Set<ClinicalAttributeMetadata> nearMatchesForWord = new LinkedHashSet<ClinicalAttributeMetadata>();
+            for (String word : findWords(searchWord, getMaximumEditDistance(searchWord))) {
+                nearMatchesForWord.addAll(clinicalAttributesByWord.get(word));
+            }
+            if (nearMatches == null) {
+                nearMatches = nearMatchesForWord;
+            } else {
+                nearMatches.retainAll(nearMatchesForWord);
+            }
+            if (nearMatches.isEmpty()) {
+                break;
+            }
+        }
+        return nearMatches;
+    }
+
+    /**
+    *
+    * @return
+    * the words of the vocabulary within maximumEditDistance of the given word
+    */
+    List<String> findWords(String word, int maximumEditDistance) {
+        List<String> words = new ArrayList<String>();
+        if (maximumEditDistance == 0) {
+            if (clinicalAttributesByWord.containsKey(word)) {
+                words.add(word);
+            }
+            return words;
+        }
+        if (root == null) {
+            return words;
+        }
+        Deque<Node> nodes = new ArrayDeque<Node>();
+        nodes.push(root);
+        while (!nodes.isEmpty()) {
+            Node node = nodes.pop();
+            int distance = getEditDistance(word, node.word);
+            if (distance <= maximumEditDistance) {
+                words.add(node.word);
+            }
+            // only children at distance - max .. distance + max from this node can be close enough
+            int lowest = Math.max(1, distance - maximumEditDistance);
+            int highest = Math.min(node.children.length - 1, distance + maximumEditDistance);
+            for (int childDistance = lowest; childDistance <= highest; childDistance++) {
+                if (node.children[childDistance] != null) {
+                    nodes.push(node.children[childDistance]);
+                }
+            }
+        }
+        return words;
+    }
+
+    public int size() {
+        return clinicalAttributesByWord.size();
+    }
+
+    static int getMaximumEditDistance(String word) {
+        if (word.length() <= 3) {
+            return 0;
+        }
+        if (word.length() <= 7) {
+            return 1;
+        }
+        return MAXIMUM_EDIT_DISTANCE;
+    }
+
+    /**
+    *
+    * @return
+    * the lower case runs of letters and digits in the text
+    */
+    static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<String>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private void insert(String word) {
+        if (root == null) {
+            root = new Node(word);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = getEditDistance(word, node.word);
+            if (distance == 0) {
+                return;
+            }
+            if (distance >= node.children.length) {
+                Node[] children = new Node[distance + 1];
+                System.arraycopy(node.children, 0, children, 0, node.children.length);
+                node.children = children;
+            }
+            if (node.children[distance] == null) {
+                node.children[distance] = new Node(word);
+                return;
+            }
+            node = node.children[distance];
+        }
+    }
+
+    static int getEditDistance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static class Node {
+
+        private final String word;
+        // indexed by edit distance from this node's word, 0 is never used
+        private Node[] children = new Node[0];
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs cache refreshes one at a time, on a thread of its own.
+ *
+ * A refresh requested while another is queued or running does not start a new one,
+ * the caller is given the job in flight (single flight).  This covers manual refreshes
+ * through /api/refreshCache and those started by the CacheRefreshScheduler, so no
+ * number of callers can make more than one refresh hit TopBraid at a time.  Recently
+ * finished jobs are kept so their status can still be polled.
+ *
+ * Every job finishes, whatever the refresh throws, so a failed job never keeps the
+ * in-flight slot.  Callers wait for a job at most cdd.cache.refresh.timeout.
+ */
+@Component
+public class CacheRefreshCoordinator {
+
+    public static final String TRIGGER_MANUAL = "manual";
+    public static final String TRIGGER_SCHEDULED = "scheduled";
+    public static final String TRIGGER_STARTUP = "startup";
+
+    private static final int MAXIMUM_JOBS_KEPT = 20;
+    private static final Logger logger = LoggerFactory.getLogger(CacheRefreshCoordinator.class);
+
+    private final ClinicalAttributeMetadataCache clinicalAttributesCache;
+    private final Duration refreshTimeout;
+    private final Counter startedCounter;
+    private final Counter attachedCounter;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "cdd-cache-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // guarded by this
+    private CacheRefreshJob currentJob;
+    private final Map<String, CacheRefreshJob> jobs = new LinkedHashMap<String, CacheRefreshJob>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheRefreshJob> eldest) {
+            return size() > MAXIMUM_JOBS_KEPT;
+        }
+    };
+
+    @Autowired
+    public CacheRefreshCoordinator(ClinicalAttributeMetadataCache clinicalAttributesCache, MeterRegistry meterRegistry,
+        @Value("${cdd.cache.refresh.timeout:PT30M}") String refreshTimeout) {
+        this.clinicalAttributesCache = clinicalAttributesCache;
+        this.refreshTimeout = Duration.parse(refreshTimeout);
+        this.startedCounter = Counter.builder("cdd.cache.refresh.requests")
+            .description("Cache refresh requests, by whether they started a refresh or were attached to the one in flight")
+            .tag("result", "started")
+            .register(meterRegistry);
+        this.attachedCounter = Counter.builder("cdd.cache.refresh.requests")
+            .description("Cache refresh requests, by whether they started a refresh or were attached to the one in flight")
+            .tag("result", "attached")
+            .register(meterRegistry);
+    }
+
+    /**
+    * Starts a refresh, unless one is already queued or running.  Does not wait.
+    *
+    * @param trigger
+    * TRIGGER_MANUAL, TRIGGER_SCHEDULED or TRIGGER_STARTUP, reported in the job status
+    * @return
+    * the new job, or the one in flight
+    */
+    public synchronized CacheRefreshJob refresh(String trigger) {
+        if (currentJob != null && !currentJob.isDone()) {
+            currentJob.attach();
+            attachedCounter.increment();
+            logger.info("refresh(): " + trigger + " refresh attached to job " + currentJob.getId());
+            return currentJob;
+        }
+        CacheRefreshJob job = new CacheRefreshJob(trigger, refreshTimeout);
+        currentJob = job;
+        jobs.put(job.getId(), job);
+        startedCounter.increment();
+        executor.execute(() -> run(job));
+        return job;
+    }
+
+    /**
+    *
+    * @return
+    * the job, null if there is no such job or it finished too long ago
+    */
+    public synchronized CacheRefreshJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    private void run(CacheRefreshJob job) {
+        logger.info("run(): starting " + job.getTrigger() + " cache refresh job " + job.getId());
+        job.start();
+        try {
+            // also warms up the derived caches, e.g. the levenshtein distances, for the new snapshot
+            clinicalAttributesCache.resetCache();
+            job.succeed();
+        } catch (RuntimeException e) {
+            job.fail(e);
+        } catch (Throwable t) {
+            // e.g. OutOfMemoryError: the job must still finish, or every later refresh would attach to it
+            logger.error("run(): cache refresh job " + job.getId() + " failed", t);
+            job.fail(t);
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
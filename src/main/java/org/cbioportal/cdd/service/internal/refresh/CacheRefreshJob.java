@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cbioportal.cdd.model.CacheRefreshStatus;
+import org.cbioportal.cdd.service.exception.FailedCacheRefreshException;
+
+/**
+ * One run of the cache refresh, shared by every caller which asked for a refresh
+ * while it was queued or running.
+ */
+public class CacheRefreshJob {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String trigger;
+    private final Duration timeout;
+    private final Instant requested = Instant.now();
+    private final AtomicInteger attachedRequests = new AtomicInteger();
+    private final CompletableFuture<Void> completion = new CompletableFuture<Void>();
+
+    private volatile Instant started;
+    private volatile Instant finished;
+    private volatile String message;
+
+    CacheRefreshJob(String trigger, Duration timeout) {
+        this.trigger = trigger;
+        this.timeout = timeout;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTrigger() {
+        return trigger;
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    /**
+    * Waits for the job to finish, at most for the refresh timeout.  If the refresh failed
+    * with a RuntimeException (e.g. FailedCacheRefreshException) it is rethrown, anything
+    * else it failed with (e.g. an Error), a timeout or an interrupt is thrown as a
+    * FailedCacheRefreshException.  A timeout does not stop the job.
+    */
+    public void await() {
+        try {
+            completion.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new FailedCacheRefreshException("Cache refresh job " + id + " failed: " + message, e.getCause());
+        } catch (TimeoutException e) {
+            throw new FailedCacheRefreshException("Cache refresh job " + id + " did not finish within " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FailedCacheRefreshException("Interrupted while waiting for cache refresh job " + id, e);
+        }
+    }
+
+    public CacheRefreshStatus getStatus() {
+        Instant currentStarted = started;
+        Instant currentFinished = finished;
+        String state;
+        if (currentStarted == null) {
+            state = CacheRefreshStatus.STATE_QUEUED;
+        } else if (currentFinished == null) {
+            state = CacheRefreshStatus.STATE_RUNNING;
+        } else if (message == null) {
+            state = CacheRefreshStatus.STATE_SUCCEEDED;
+        } else {
+            state = CacheRefreshStatus.STATE_FAILED;
+        }
+        Long durationMillis = null;
+        if (currentStarted != null) {
+            durationMillis = Duration.between(currentStarted, currentFinished != null ? currentFinished : Instant.now()).toMillis();
+        }
+        return new CacheRefreshStatus(id, state, trigger, requested.toString(),
+            currentStarted == null ? null : currentStarted.toString(),
+            currentFinished == null ? null : currentFinished.toString(),
+            durationMillis, attachedRequests.get(), message);
+    }
+
+    void attach() {
+        attachedRequests.incrementAndGet();
+    }
+
+    void start() {
+        started = Instant.now();
+    }
+
+    void succeed() {
+        finished = Instant.now();
+        completion.complete(null);
+    }
+
+    void fail(Throwable e) {
+        message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        finished = Instant.now();
+        completion.completeExceptionally(e);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.cbioportal.cdd.repository.topbraid.KnowledgeSystemsRepository;
+import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides when the cache is refreshed, at startup and every cdd.cache.refresh.interval.
+ *
+ * The cache is refreshed when it is empty, when it is older than cdd.cache.maxAge, or,
+ * if cdd.cache.refresh.changeDetection is on, when the fingerprint of the TopBraid data
+ * has changed since the last refresh.  The fingerprint is a single row SPARQL query, so
+ * curator edits show up within one interval without fetching everything each time.  It is
+ * only cheap when topbraid.knowledgeSystems.modifiedProperty is set (see
+ * KnowledgeSystemsRepository.getFingerprint()), which is why change detection is off by default.
+ *
+ * After a failed refresh (or fingerprint query) the next attempt is put off for twice
+ * as long each time, up to cdd.cache.refresh.maxBackoff, so an unavailable TopBraid is
+ * not hit every interval.  Manual refreshes are not affected by the backoff.
+ */
+@Component
+@EnableScheduling
+public class CacheRefreshScheduler {
+
+    private static final String CHECK_REFRESHED = "refreshed";
+    private static final String CHECK_UNCHANGED = "unchanged";
+    private static final String CHECK_BACKING_OFF = "backing_off";
+    private static final String CHECK_FAILED = "failed";
+    // doubling more often than this would overflow, and is far beyond any sensible maxBackoff
+    private static final int MAXIMUM_BACKOFF_DOUBLINGS = 16;
+    private static final Logger logger = LoggerFactory.getLogger(CacheRefreshScheduler.class);
+
+    private final CacheRefreshCoordinator cacheRefreshCoordinator;
+    private final ClinicalAttributeMetadataCache clinicalAttributesCache;
+    private final KnowledgeSystemsRepository knowledgeSystemsRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration interval;
+    private final Duration maximumBackoff;
+    private final boolean changeDetection;
+
+    // guarded by this
+    private String lastFingerprint;
+    private int consecutiveFailures = 0;
+    private Instant nextAttempt;
+
+    /**
+    *
+    * @param interval
+    * time between checks, ISO-8601 duration, e.g. PT10M
+    * @param maximumBackoff
+    * longest time between checks after repeated failures, ISO-8601 duration
+    * @param changeDetection
+    * refresh a fresh cache if the TopBraid fingerprint changed, otherwise only empty or stale caches are refreshed
+    */
+    @Autowired
+    public CacheRefreshScheduler(CacheRefreshCoordinator cacheRefreshCoordinator, ClinicalAttributeMetadataCache clinicalAttributesCache,
+        KnowledgeSystemsRepository knowledgeSystemsRepository, MeterRegistry meterRegistry,
+        @Value("${cdd.cache.refresh.interval:PT10M}") String interval,
+        @Value("${cdd.cache.refresh.maxBackoff:PT2H}") String maximumBackoff,
+        @Value("${cdd.cache.refresh.changeDetection:false}") boolean changeDetection) {
+        this.cacheRefreshCoordinator = cacheRefreshCoordinator;
+        this.clinicalAttributesCache = clinicalAttributesCache;
+        this.knowledgeSystemsRepository = knowledgeSystemsRepository;
+        this.meterRegistry = meterRegistry;
+        this.interval = Duration.parse(interval);
+        this.maximumBackoff = Duration.parse(maximumBackoff);
+        this.changeDetection = changeDetection;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkAtStartup() {
+        check(CacheRefreshCoordinator.TRIGGER_STARTUP, Instant.now());
+    }
+
+    @Scheduled(fixedDelayString = "${cdd.cache.refresh.interval:PT10M}", initialDelayString = "${cdd.cache.refresh.interval:PT10M}")
+    public void scheduledCheck() {
+        check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, Instant.now());
+    }
+
+    /**
+    * Refreshes the cache if it needs it, and waits for the refresh.
+    */
+    synchronized void check(String trigger, Instant now) {
+        if (nextAttempt != null && now.isBefore(nextAttempt)) {
+            logger.debug("check(): backing off until " + nextAttempt + " after " + consecutiveFailures + " failures");
+            countCheck(CHECK_BACKING_OFF);
+            return;
+        }
+        String reason = null;
+        if (clinicalAttributesCache.getSnapshot() == null) {
+            reason = "cache is empty";
+        } else if (clinicalAttributesCache.cacheIsStale()) {
+            reason = "cache is stale";
+        }
+        String fingerprint = null;
+        if (changeDetection) {
+            try {
+                fingerprint = knowledgeSystemsRepository.getFingerprint();
+            } catch (RuntimeException e) {
+                logger.error("check(): failed to get the fingerprint from TopBraid: " + e.getMessage());
+                // a refresh which is due anyway may still fall back to EHCache
+                if (reason == null) {
+                    recordFailure(now);
+                    return;
+                }
+            }
+            if (reason == null && (fingerprint == null || !fingerprint.equals(lastFingerprint))) {
+                reason = "TopBraid data changed";
+            }
+        }
+        if (reason == null) {
+            countCheck(CHECK_UNCHANGED);
+            return;
+        }
+        logger.info("check(): refreshing cache, " + reason);
+        try {
+            cacheRefreshCoordinator.refresh(trigger).await();
+        } catch (RuntimeException e) {
+            // already published on the refreshEventBus, which alerts through its sinks
+            recordFailure(now);
+            return;
+        }
+        lastFingerprint = fingerprint;
+        consecutiveFailures = 0;
+        nextAttempt = null;
+        countCheck(CHECK_REFRESHED);
+    }
+
+    private void recordFailure(Instant now) {
+        consecutiveFailures++;
+        Duration backoff = interval.multipliedBy(1L << Math.min(consecutiveFailures, MAXIMUM_BACKOFF_DOUBLINGS));
+        if (backoff.compareTo(maximumBackoff) > 0) {
+            backoff = maximumBackoff;
+        }
+        nextAttempt = now.plus(backoff);
+        logger.info("check(): " + consecutiveFailures + " consecutive failures, next attempt at " + nextAttempt);
+        countCheck(CHECK_FAILED);
+    }
+
+    private void countCheck(String result) {
+        Counter.builder("cdd.cache.refresh.checks")
+            .description("Scheduled cache refresh checks, by result")
+            .tag("result", result)
+            .register(meterRegistry)
+            .increment();
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs every RefreshEvent, at ERROR for FAILED and WARN for FELL_BACK_TO_BACKUP.
+ */
+@Component
+public class LoggingRefreshEventSink implements RefreshEventSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoggingRefreshEventSink.class);
+
+    @Override
+    public String getName() {
+        return "log";
+    }
+
+    @Override
+    public void accept(RefreshEvent event) {
+        switch (event.getType()) {
+            case FAILED:
+                logger.error(event.toString());
+                break;
+            case FELL_BACK_TO_BACKUP:
+                logger.warn(event.toString());
+                break;
+            default:
+                logger.info(event.toString());
+        }
+    }
+}
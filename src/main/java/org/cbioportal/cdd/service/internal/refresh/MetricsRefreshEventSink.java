@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the time of the last refresh of each kind, so an alert can fire on
+ * e.g. "no successful refresh for a day" without parsing logs.  The refresh duration
+ * itself is timed synchronously by ClinicalAttributeMetadataCache (cdd.cache.refresh).
+ */
+@Component
+public class MetricsRefreshEventSink implements RefreshEventSink {
+
+    private final AtomicLong lastSucceeded = new AtomicLong();
+    private final AtomicLong lastFellBackToBackup = new AtomicLong();
+    private final AtomicLong lastFailed = new AtomicLong();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    private void registerGauges() {
+        registerGauge(RefreshEvent.Type.SUCCEEDED, lastSucceeded);
+        registerGauge(RefreshEvent.Type.FELL_BACK_TO_BACKUP, lastFellBackToBackup);
+        registerGauge(RefreshEvent.Type.FAILED, lastFailed);
+    }
+
+    private void registerGauge(RefreshEvent.Type type, AtomicLong epochMillis) {
+        TimeGauge.builder("cdd.cache.refresh.last", epochMillis, TimeUnit.MILLISECONDS, AtomicLong::doubleValue)
+            .description("Time (since the epoch) of the last cache refresh which ended with this event type, 0 if there has been none")
+            .tag("type", type.name())
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return "metrics";
+    }
+
+    @Override
+    public void accept(RefreshEvent event) {
+        long epochMillis = event.getTimestamp().toEpochMilli();
+        switch (event.getType()) {
+            case SUCCEEDED:
+                lastSucceeded.set(epochMillis);
+                break;
+            case FELL_BACK_TO_BACKUP:
+                lastFellBackToBackup.set(epochMillis);
+                break;
+            case FAILED:
+                lastFailed.set(epochMillis);
+                break;
+            default:
+                break;
+        }
+    }
+}
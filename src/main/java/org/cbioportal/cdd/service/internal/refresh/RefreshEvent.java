@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Something which happened during a refresh of the clinical attribute cache.
+ * Published by ClinicalAttributeMetadataCache.resetCache() on the RefreshEventBus.
+ *
+ * Duration and counts are only set on the events which end a refresh:
+ * SUCCEEDED and FELL_BACK_TO_BACKUP carry the counts of the snapshot which was
+ * published, FAILED carries the counts of the snapshot which is still being served
+ * (zero if there is none).
+ */
+public class RefreshEvent {
+
+    public enum Type {
+        STARTED,
+        SUCCEEDED,
+        /** TopBraid could not be reached, the cache was refilled from EHCache */
+        FELL_BACK_TO_BACKUP,
+        FAILED
+    }
+
+    private final Type type;
+    private final Instant timestamp;
+    private final Duration duration;
+    private final int attributeCount;
+    private final int overrideStudyCount;
+    private final String message;
+
+    private RefreshEvent(Type type, Duration duration, int attributeCount, int overrideStudyCount, String message) {
+        this.type = type;
+        this.timestamp = Instant.now();
+        this.duration = duration;
+        this.attributeCount = attributeCount;
+        this.overrideStudyCount = overrideStudyCount;
+        this.message = message;
+    }
+
+    public static RefreshEvent started() {
+        return new RefreshEvent(Type.STARTED, null, 0, 0, null);
+    }
+
+    public static RefreshEvent succeeded(Duration duration, int attributeCount, int overrideStudyCount) {
+        return new RefreshEvent(Type.SUCCEEDED, duration, attributeCount, overrideStudyCount, null);
+    }
+
+    public static RefreshEvent fellBackToBackup(Duration duration, int attributeCount, int overrideStudyCount) {
+        return new RefreshEvent(Type.FELL_BACK_TO_BACKUP, duration, attributeCount, overrideStudyCount,
+            "Unable to update cache with latest data from TopBraid, cache was refilled from EHCache");
+    }
+
+    public static RefreshEvent failed(Duration duration, int attributeCount, int overrideStudyCount, String message) {
+        return new RefreshEvent(Type.FAILED, duration, attributeCount, overrideStudyCount, message);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+    *
+    * @return
+    * how long the refresh took, null for STARTED
+    */
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public int getAttributeCount() {
+        return attributeCount;
+    }
+
+    public int getOverrideStudyCount() {
+        return overrideStudyCount;
+    }
+
+    /**
+    *
+    * @return
+    * why the refresh did not succeed, null for STARTED and SUCCEEDED
+    */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("RefreshEvent[").append(type).append(" at ").append(timestamp);
+        if (duration != null) {
+            builder.append(", took ").append(duration.toMillis()).append(" ms, ")
+                .append(attributeCount).append(" clinical attributes, ")
+                .append(overrideStudyCount).append(" studies with overrides");
+        }
+        if (message != null) {
+            builder.append(", ").append(message);
+        }
+        return builder.append("]").toString();
+    }
+}
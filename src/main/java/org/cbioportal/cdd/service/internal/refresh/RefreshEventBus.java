@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers RefreshEvents to the RefreshEventSinks without blocking the publisher.
+ *
+ * Each sink has a single delivery thread and a bounded queue, so a slow or failing
+ * sink (e.g. an unreachable webhook) delays only its own events.  publish() never
+ * waits: when a sink's queue is full the event is dropped for that sink and counted
+ * in cdd.refresh.events{outcome="dropped"}.
+ */
+@Component
+public class RefreshEventBus {
+
+    private static final String OUTCOME_DELIVERED = "delivered";
+    private static final String OUTCOME_FAILED = "failed";
+    private static final String OUTCOME_DROPPED = "dropped";
+    private static final Logger logger = LoggerFactory.getLogger(RefreshEventBus.class);
+
+    private final List<SinkDelivery> sinkDeliveries = new ArrayList<SinkDelivery>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+    *
+    * @param sinks
+    * all candidate sinks, those which are not enabled are ignored
+    * @param queueCapacity
+    * maximum number of events waiting for each sink
+    */
+    @Autowired
+    public RefreshEventBus(List<RefreshEventSink> sinks, @Value("${refresh.events.queueCapacity:100}") int queueCapacity, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (RefreshEventSink sink : sinks) {
+            if (sink.isEnabled()) {
+                sinkDeliveries.add(new SinkDelivery(sink, queueCapacity));
+                logger.info("RefreshEventBus(): registered refresh event sink '" + sink.getName() + "'");
+            }
+        }
+    }
+
+    public void publish(RefreshEvent event) {
+        for (SinkDelivery sinkDelivery : sinkDeliveries) {
+            sinkDelivery.offer(event);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (SinkDelivery sinkDelivery : sinkDeliveries) {
+            sinkDelivery.executor.shutdown();
+        }
+    }
+
+    private void count(RefreshEventSink sink, RefreshEvent event, String outcome) {
+        meterRegistry.counter("cdd.refresh.events", "sink", sink.getName(), "type", event.getType().name(), "outcome", outcome).increment();
+    }
+
+    private class SinkDelivery {
+
+        private final RefreshEventSink sink;
+        private final ThreadPoolExecutor executor;
+
+        SinkDelivery(RefreshEventSink sink, int queueCapacity) {
+            this.sink = sink;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "refresh-event-sink-" + sink.getName());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        }
+
+        void offer(RefreshEvent event) {
+            try {
+                executor.execute(() -> deliver(event));
+            } catch (RejectedExecutionException e) {
+                logger.warn("publish(): dropped " + event + " for refresh event sink '" + sink.getName() + "', its queue is full or it has been shut down");
+                count(sink, event, OUTCOME_DROPPED);
+            }
+        }
+
+        private void deliver(RefreshEvent event) {
+            try {
+                sink.accept(event);
+                count(sink, event, OUTCOME_DELIVERED);
+            } catch (Exception e) {
+                logger.error("deliver(): refresh event sink '" + sink.getName() + "' failed to handle " + event + ": " + e.getMessage());
+                count(sink, event, OUTCOME_FAILED);
+            }
+        }
+    }
+}
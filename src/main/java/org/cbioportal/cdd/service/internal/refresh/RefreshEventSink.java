@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+/**
+ * Consumer of RefreshEvents.  Every Spring bean implementing this interface is
+ * registered with the RefreshEventBus.
+ *
+ * A sink is called on its own delivery thread, one event at a time and in the order
+ * the events were published, so it does not need to be thread safe and it may block.
+ * It should still bound how long it blocks (e.g. with connect and read timeouts),
+ * because events published while it is blocked queue up behind it and are dropped
+ * once its queue is full.
+ */
+public interface RefreshEventSink {
+
+    /**
+    *
+    * @return
+    * short name for logging and metric tags
+    */
+    String getName();
+
+    /**
+    * Sinks which are not enabled (e.g. a webhook without a url) are not registered.
+    */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+    * Exceptions thrown here are logged and counted by the RefreshEventBus.
+    */
+    void accept(RefreshEvent event) throws Exception;
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Strings;
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.PreDestroy;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Posts selected RefreshEvents (by default FAILED and FELL_BACK_TO_BACKUP) as JSON
+ * to a webhook.  The payload is a Slack incoming webhook message; the event itself
+ * is also included as structured fields for other consumers.
+ *
+ * Disabled when refresh.events.webhook.url (or the older slack.url) is not set.
+ */
+@Component
+public class WebhookRefreshEventSink implements RefreshEventSink {
+
+    private static final String ALERT_TEXT = "*URGENT: CDD Error* - an attempt to refresh an outdated or null cache failed.";
+
+    private final String webhookURL;
+    private final Set<RefreshEvent.Type> eventTypes;
+    private final String channel;
+    private final String username;
+    private final String iconEmoji;
+    private final CloseableHttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+    *
+    * @param webhookURL
+    * url to post events to, empty to disable this sink
+    * @param eventTypes
+    * the event types which are posted
+    * @param timeoutMillis
+    * connect and read timeout for each post
+    */
+    @Autowired
+    public WebhookRefreshEventSink(@Value("${refresh.events.webhook.url:${slack.url:}}") String webhookURL,
+            @Value("${refresh.events.webhook.types:FAILED,FELL_BACK_TO_BACKUP}") RefreshEvent.Type[] eventTypes,
+            @Value("${refresh.events.webhook.channel:#msk-pipeline-logs}") String channel,
+            @Value("${refresh.events.webhook.username:cbioportal_importer}") String username,
+            @Value("${refresh.events.webhook.iconEmoji::rotating_light:}") String iconEmoji,
+            @Value("${refresh.events.webhook.timeoutMillis:5000}") int timeoutMillis) {
+        this.webhookURL = webhookURL;
+        this.eventTypes = EnumSet.noneOf(RefreshEvent.Type.class);
+        for (RefreshEvent.Type eventType : eventTypes) {
+            this.eventTypes.add(eventType);
+        }
+        this.channel = channel;
+        this.username = username;
+        this.iconEmoji = iconEmoji;
+        RequestConfig requestConfig = RequestConfig.custom()
+            .setConnectTimeout(timeoutMillis)
+            .setConnectionRequestTimeout(timeoutMillis)
+            .setSocketTimeout(timeoutMillis)
+            .build();
+        this.httpClient = HttpClientBuilder.create().setDefaultRequestConfig(requestConfig).build();
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !Strings.isNullOrEmpty(webhookURL);
+    }
+
+    @Override
+    public void accept(RefreshEvent event) throws IOException {
+        if (!eventTypes.contains(event.getType())) {
+            return;
+        }
+        HttpPost request = new HttpPost(webhookURL);
+        request.setEntity(new StringEntity(objectMapper.writeValueAsString(makePayload(event)), ContentType.APPLICATION_JSON));
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new IOException("webhook returned HTTP status " + statusCode);
+            }
+        }
+    }
+
+    private Map<String, Object> makePayload(RefreshEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<String, Object>();
+        if (!Strings.isNullOrEmpty(channel)) {
+            payload.put("channel", channel);
+        }
+        if (!Strings.isNullOrEmpty(username)) {
+            payload.put("username", username);
+        }
+        if (!Strings.isNullOrEmpty(iconEmoji)) {
+            payload.put("icon_emoji", iconEmoji);
+        }
+        if (event.getType() == RefreshEvent.Type.FAILED || event.getType() == RefreshEvent.Type.FELL_BACK_TO_BACKUP) {
+            payload.put("text", ALERT_TEXT + " " + event.toString());
+        } else {
+            payload.put("text", event.toString());
+        }
+        payload.put("type", event.getType().name());
+        payload.put("timestamp", event.getTimestamp().toString());
+        if (event.getDuration() != null) {
+            payload.put("durationMillis", event.getDuration().toMillis());
+        }
+        payload.put("attributeCount", event.getAttributeCount());
+        payload.put("overrideStudyCount", event.getOverrideStudyCount());
+        if (event.getMessage() != null) {
+            payload.put("message", event.getMessage());
+        }
+        return payload;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
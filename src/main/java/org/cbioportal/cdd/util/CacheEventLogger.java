@@ -18,11 +18,17 @@
 
 package org.cbioportal.cdd.util;
 
+import io.micrometer.core.instrument.Metrics;
+import java.util.Collection;
+import java.util.Map;
 import org.ehcache.event.CacheEvent;
 import org.ehcache.event.CacheEventListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 /**
+ * Logs ehcache events and counts them in cdd.ehcache.events.  The cached values are
+ * the complete TopBraid responses, so only their size is logged at INFO, the values
+ * themselves are only logged at DEBUG.
  *
  * @author ochoaa
  */
@@ -32,13 +38,27 @@ public class CacheEventLogger implements CacheEventListener<Object, Object> {
 
     @Override
     public void onEvent(CacheEvent cacheEvent) {
-        if (logger.isInfoEnabled()) {
-            logger.info("CACHE_EVENT:\n" +
+        // ehcache creates this listener, it is not a spring bean, so use the global registry (see MetricsConfig)
+        Metrics.counter("cdd.ehcache.events", "type", String.valueOf(cacheEvent.getType())).increment();
+        if (logger.isDebugEnabled()) {
+            logger.debug("CACHE_EVENT:\n" +
                      "\tTYPE: " + cacheEvent.getType() + "\n" +
                      "\tKEY: " + cacheEvent.getKey() + "\n" +
                      "\tVALUE: " + cacheEvent.getNewValue() + "\n" +
                      "CACHE_EVENT<>\n");
+        } else if (logger.isInfoEnabled()) {
+            logger.info("CACHE_EVENT: TYPE: " + cacheEvent.getType() + ", KEY: " + cacheEvent.getKey() + ", VALUE SIZE: " + getSize(cacheEvent.getNewValue()));
         }
     }
 
+    private String getSize(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).size() + " entries";
+        }
+        if (value instanceof Map) {
+            return ((Map<?, ?>) value).size() + " entries";
+        }
+        return value == null ? "null" : "1 entry";
+    }
+
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.web;
+
+import java.util.Arrays;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
+import org.springframework.core.convert.converter.Converter;
+
+/**
+ * Converts the sort request parameter in any case, e.g. sort=display_name.  An unknown
+ * sort is a type mismatch, so the request gets a 400.
+ */
+public class ClinicalAttributeSortConverter implements Converter<String, ClinicalAttributeSort> {
+
+    @Override
+    public ClinicalAttributeSort convert(String value) {
+        ClinicalAttributeSort clinicalAttributeSort = ClinicalAttributeSort.fromValueIgnoreCase(value.trim());
+        if (clinicalAttributeSort == null) {
+            throw new IllegalArgumentException("Unknown sort '" + value + "', expected one of " + Arrays.toString(ClinicalAttributeSort.values()));
+        }
+        return clinicalAttributeSort;
+    }
+}
@@ -15,6 +15,8 @@
 
 package org.cbioportal.cdd.web;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -25,22 +27,39 @@ import springfox.documentation.annotations.ApiIgnore;
 import javax.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Map;
 
+import org.cbioportal.cdd.model.CacheRefreshStatus;
+import org.cbioportal.cdd.model.ClinicalAttributeCompletion;
+import org.cbioportal.cdd.model.ClinicalAttributeExport;
+import org.cbioportal.cdd.model.ClinicalAttributeFacets;
+import org.cbioportal.cdd.model.ClinicalAttributeLookup;
 import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
 import org.cbioportal.cdd.model.CancerStudy;
-import org.cbioportal.cdd.service.ClinicalDataDictionaryService;
+import org.cbioportal.cdd.model.CancerStudyOverride;
+import org.cbioportal.cdd.model.ColumnHeaderLookupResult;
+import org.cbioportal.cdd.model.SearchRanking;
+import org.cbioportal.cdd.service.KnowledgeSystemsDataDictionaryService;
+import org.cbioportal.cdd.service.exception.CacheRefreshJobNotFoundException;
 import org.cbioportal.cdd.service.exception.ClinicalAttributeNotFoundException;
 import org.cbioportal.cdd.service.exception.ClinicalMetadataSourceUnresponsiveException;
 import org.cbioportal.cdd.service.exception.CancerStudyNotFoundException;
+import org.cbioportal.cdd.service.exception.CancerStudyNotSearchableException;
 import org.cbioportal.cdd.service.exception.FailedCacheRefreshException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 /**
  * @author Avery Wang, Manda Wilson
@@ -53,20 +72,45 @@ public class ClinicalDataDictionaryController {
 
     @Autowired
     @Qualifier("servicerouter")
-    private ClinicalDataDictionaryService clinicalAttributesService;
+    private KnowledgeSystemsDataDictionaryService clinicalAttributesService;
+
+    // the mapper of the JSON message converter, so GET /{columnHeader} writes the same JSON as the other endpoints
+    @Autowired
+    private ObjectMapper jsonObjectMapper;
+
+    // configured like the JSON mapper, as in SmileHttpMessageConverter
+    private ObjectMapper smileObjectMapper;
+
+    private static final String EXPORT_MEDIA_TYPE = "application/zip";
+
+    @Autowired
+    public void setObjectMapperBuilder(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.smileObjectMapper = SmileHttpMessageConverter.createObjectMapper(objectMapperBuilder);
+    }
 
     @ApiOperation(value = "Get metadata for all clinical attributes", response = ClinicalAttributeMetadata.class, responseContainer = "List")
     @ApiResponses(value = {
         @ApiResponse(code = 200, message = "Successfully retrieved list of clinical attributes"),
+        @ApiResponse(code = 400, message = "Bad request"),
         @ApiResponse(code = 404, message = "Could not find cancer study"),
         @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
         }
     )
-    @RequestMapping(method = RequestMethod.GET, value="/", produces = MediaType.APPLICATION_JSON_VALUE)
+    @RequestMapping(method = RequestMethod.GET, value="/", produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public Iterable<ClinicalAttributeMetadata> getClinicalAttributeMetadata(
         @ApiParam(value = "Cancer study name e.g. mskimpact")
-        @RequestParam(value = "cancerStudy", required = false) String cancerStudyName) {
-        return clinicalAttributesService.getClinicalAttributeMetadata(cancerStudyName);
+        @RequestParam(value = "cancerStudy", required = false) String cancerStudyName,
+        @ApiParam(value = "Only clinical attributes of this attribute type e.g. PATIENT or SAMPLE")
+        @RequestParam(value = "attributeType", required = false) String attributeType,
+        @ApiParam(value = "Only clinical attributes of this datatype e.g. STRING, NUMBER or BOOLEAN")
+        @RequestParam(value = "datatype", required = false) String datatype,
+        @ApiParam(value = "Only clinical attributes with at least this priority")
+        @RequestParam(value = "minPriority", required = false) Integer minimumPriority,
+        @ApiParam(value = "Only visible (priority above 0) clinical attributes if true, only hidden (priority 0) ones if false")
+        @RequestParam(value = "visible", required = false) Boolean visible,
+        @ApiParam(value = "Order of the clinical attributes: priority (highest first), column_header or display_name", allowableValues = "priority, column_header, display_name")
+        @RequestParam(value = "sort", required = false) ClinicalAttributeSort sort) {
+        return clinicalAttributesService.getClinicalAttributeMetadata(cancerStudyName, attributeType, datatype, minimumPriority, visible, sort);
     }
 
     @ApiOperation(value = "Get metadata for a list of clinical attributes", response = ClinicalAttributeMetadata.class, responseContainer = "List")
@@ -77,7 +121,7 @@ public class ClinicalDataDictionaryController {
         @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
         }
     )
-    @RequestMapping(method = RequestMethod.POST, value="/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @RequestMapping(method = RequestMethod.POST, value="/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public Iterable<ClinicalAttributeMetadata> getClinicalAttributeMetadata(
         @ApiParam(value = "Cancer study name e.g. mskimpact")
         @RequestParam(value = "cancerStudy", required = false) String cancerStudyName,
@@ -86,23 +130,50 @@ public class ClinicalDataDictionaryController {
         return clinicalAttributesService.getMetadataByColumnHeaders(cancerStudyName, columnHeaders);
     }
 
+    @ApiOperation(value = "Get metadata for a list of clinical attributes, listing the column headers which were not found instead of failing", response = ColumnHeaderLookupResult.class)
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Successfully retrieved clinical attributes, some column headers may be missing"),
+        @ApiResponse(code = 400, message = "Bad request"),
+        @ApiResponse(code = 404, message = "Could not find cancer study"),
+        @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
+        }
+    )
+    @RequestMapping(method = RequestMethod.POST, value="/", params = "partial=true", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
+    public ColumnHeaderLookupResult getClinicalAttributeMetadataPartial(
+        @ApiParam(value = "Cancer study name e.g. mskimpact")
+        @RequestParam(value = "cancerStudy", required = false) String cancerStudyName,
+        @ApiParam(value = "Return the clinical attributes which were found and the column headers which were not, instead of a 404 when any column header is not found", required = true)
+        @RequestParam(value = "partial", required = true) boolean partial,
+        @ApiParam(value = "Include up to three suggested column headers for each missing column header")
+        @RequestParam(value = "suggestions", defaultValue = "false", required = false) boolean includeSuggestions,
+        @ApiParam(value = "List of column headers to retrieve clinical attribute metadata for. For example: [\"PATIENT_ID\", \"SAMPLE_ID\", \"CANCER_TYPE\"]")
+        @RequestBody(required = true) List<String> columnHeaders) {
+        return clinicalAttributesService.getMetadataByColumnHeadersPartial(cancerStudyName, columnHeaders, includeSuggestions);
+    }
+
     @ApiOperation(value = "Get metadata for a search term", response = ClinicalAttributeMetadata.class, responseContainer = "List")
     @ApiResponses(value = {
         @ApiResponse(code = 200, message = "Successfully retrieved list of clinical attributes matching search term"),
-        @ApiResponse(code = 400, message = "Bad request"),
-        @ApiResponse(code = 404, message = "Could not find any clinical attributes matching search term"),
+        @ApiResponse(code = 400, message = "Bad request, or a cancer study which uses the MSK Standard Vocabulary"),
+        @ApiResponse(code = 404, message = "Could not find cancer study or any clinical attributes matching search term"),
         @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
         }
     )
-    @RequestMapping(method = RequestMethod.POST, value="/search", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @RequestMapping(method = RequestMethod.POST, value="/search", consumes = MediaType.APPLICATION_JSON_VALUE, produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public Iterable<ClinicalAttributeMetadata> getClinicalAttributeMetadataBySearchTerms(
+        @ApiParam(value = "Cancer study name e.g. mskimpact, to search the clinical attributes as overridden for the study")
+        @RequestParam(value = "cancerStudy", required = false) String cancerStudyName,
         @ApiParam(value = "Attribute type e.g. PATIENT or SAMPLE")
         @RequestParam(value = "attributeType", required = false) String attributeType,
         @ApiParam(value = "Inclusive search - all search terms must be present when searching")
         @RequestParam(value = "inclusiveSearch", defaultValue = "false", required = true) boolean inclusiveSearch,
+        @ApiParam(value = "Fuzzy search - also match column header and display name words with typos, e.g. \"mutaton burden\"")
+        @RequestParam(value = "fuzzy", defaultValue = "false", required = false) boolean fuzzy,
+        @ApiParam(value = "Ranking of the results: levenshtein (closest to a whole column header, display name or description first) or bm25 (most relevant first)", allowableValues = "levenshtein, bm25")
+        @RequestParam(value = "ranking", defaultValue = "levenshtein", required = false) SearchRanking ranking,
         @ApiParam(value = "List of search terms that may be present in the description, display name, or column header. For example: [\"TMB\", \"mutation burden\"]")
         @RequestBody(required = true) List<String> searchTerms) {
-        return clinicalAttributesService.getMetadataBySearchTerms(searchTerms, attributeType, inclusiveSearch);
+        return clinicalAttributesService.getMetadataBySearchTerms(cancerStudyName, searchTerms, attributeType, inclusiveSearch, fuzzy, ranking);
     }
 
     @ApiOperation(value = "Get metadata for one clinical attribute", response = ClinicalAttributeMetadata.class)
@@ -112,13 +183,109 @@ public class ClinicalDataDictionaryController {
         @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
         }
     )
-    @RequestMapping(value = "/{columnHeader}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
-    public ClinicalAttributeMetadata getClinicalAttribute(
+    @RequestMapping(value = "/{columnHeader}", method = RequestMethod.GET, produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
+    public void getClinicalAttribute(
         @ApiParam(value = "Cancer study name e.g. mskimpact")
         @RequestParam(value = "cancerStudy", required = false) String cancerStudyName,
         @ApiParam(value = "Column header to retrieve clinical attribute metadata for")
+        @PathVariable(required = true) String columnHeader,
+        @ApiIgnore
+        @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+        HttpServletResponse response) throws IOException {
+        ClinicalAttributeLookup lookup = clinicalAttributesService.lookupClinicalAttribute(cancerStudyName, columnHeader);
+        if (prefersSmile(accept)) {
+            writeClinicalAttributeLookup(lookup, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE, smileObjectMapper, response);
+        } else {
+            writeClinicalAttributeLookup(lookup, MediaType.APPLICATION_JSON_UTF8_VALUE, jsonObjectMapper, response);
+        }
+    }
+
+    /**
+    * One handler serves both media types, since two handlers for the same path which only
+    * differ in what they produce are ambiguous to Spring when the Accept header is a wildcard.
+    * JSON wins unless smile is asked for more specifically (or with a higher quality) than JSON.
+    */
+    private static boolean prefersSmile(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> acceptedMediaTypes = MediaType.parseMediaTypes(accept);
+        MediaType.sortBySpecificityAndQuality(acceptedMediaTypes);
+        for (MediaType acceptedMediaType : acceptedMediaTypes) {
+            if (acceptedMediaType.includes(MediaType.APPLICATION_JSON)) {
+                return false;
+            }
+            if (acceptedMediaType.includes(SmileHttpMessageConverter.APPLICATION_SMILE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+    * Writes the lookup's serialized metadata, which is kept with the memoized lookup so it is
+    * only serialized once per cache refresh, or sends a 404 if nothing was found.
+    */
+    private void writeClinicalAttributeLookup(ClinicalAttributeLookup lookup, String contentType, ObjectMapper objectMapper, HttpServletResponse response)
+        throws IOException {
+        if (!lookup.isFound()) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), lookup.getMessage());
+            return;
+        }
+        byte[] body = lookup.getSerialized(contentType, clinicalAttributeMetadata -> {
+            try {
+                return objectMapper.writeValueAsBytes(clinicalAttributeMetadata);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        response.setContentType(contentType);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    @ApiOperation(value = "Get the cancer studies which override a clinical attribute and the fields they override", response = CancerStudyOverride.class, responseContainer = "List")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Successfully retrieved list of overriding cancer studies (possibly empty)"),
+        @ApiResponse(code = 404, message = "Could not find column header"),
+        @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
+        }
+    )
+    @RequestMapping(method = RequestMethod.GET, value = "/{columnHeader}/overrides", produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
+    public Iterable<CancerStudyOverride> getCancerStudyOverrides(
+        @ApiParam(value = "Column header to retrieve the overriding cancer studies for")
         @PathVariable(required = true) String columnHeader) {
-        return clinicalAttributesService.getMetadataByColumnHeader(cancerStudyName, columnHeader);
+        return clinicalAttributesService.getCancerStudyOverrides(columnHeader);
+    }
+
+    @ApiOperation(value = "Complete a column header or display name", response = ClinicalAttributeCompletion.class, responseContainer = "List")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Successfully retrieved list of completions, highest priority first (possibly empty)"),
+        @ApiResponse(code = 400, message = "Bad request"),
+        @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
+        }
+    )
+    @RequestMapping(method = RequestMethod.GET, value = "/autocomplete", produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
+    public Iterable<ClinicalAttributeCompletion> getCompletionsByPrefix(
+        @ApiParam(value = "The start of a column header or display name, or of one of their words, in any case e.g. \"tumor st\"")
+        @RequestParam(value = "prefix", required = true) String prefix,
+        @ApiParam(value = "The maximum number of completions, at most 100")
+        @RequestParam(value = "limit", defaultValue = "10", required = false) int limit) {
+        return clinicalAttributesService.getCompletionsByPrefix(prefix, limit);
+    }
+
+    @ApiOperation(value = "Count the clinical attributes by attribute type, datatype, priority and number of overriding cancer studies", response = ClinicalAttributeFacets.class)
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Successfully counted the clinical attributes"),
+        @ApiResponse(code = 404, message = "Could not find cancer study"),
+        @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
+        }
+    )
+    @RequestMapping(method = RequestMethod.GET, value = "/facets", produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
+    public ClinicalAttributeFacets getFacets(
+        @ApiParam(value = "Cancer study name e.g. mskimpact, to count the clinical attributes as overridden for the study")
+        @RequestParam(value = "cancerStudy", required = false) String cancerStudyName) {
+        return clinicalAttributesService.getFacets(cancerStudyName);
     }
 
     @ApiOperation(value = "Get all cancer studies", response = CancerStudy.class, responseContainer = "List")
@@ -127,29 +294,121 @@ public class ClinicalDataDictionaryController {
         @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
         }
     )
-    @RequestMapping(method = RequestMethod.GET, value = "/cancerStudies", produces = MediaType.APPLICATION_JSON_VALUE)
+    @RequestMapping(method = RequestMethod.GET, value = "/cancerStudies", produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
     public Iterable<CancerStudy> getCancerStudies() {
         return clinicalAttributesService.getCancerStudies();
     }
 
-    @ApiOperation(value = "Refresh clinical attribute cache")
+    @ApiOperation(value = "Get only the clinical attributes a cancer study overrides, without the defaults", response = ClinicalAttributeMetadata.class, responseContainer = "List")
     @ApiResponses(value = {
-        @ApiResponse(code = 200, message = "Successfully refreshed cache"),
+        @ApiResponse(code = 200, message = "Successfully retrieved list of overridden clinical attributes"),
+        @ApiResponse(code = 404, message = "Could not find cancer study"),
         @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
         }
     )
+    @RequestMapping(method = RequestMethod.GET, value = "/cancerStudies/{cancerStudy}/overrides", produces = {MediaType.APPLICATION_JSON_VALUE, SmileHttpMessageConverter.APPLICATION_SMILE_VALUE})
+    public Iterable<ClinicalAttributeMetadata> getClinicalAttributeMetadataOverrides(
+        @ApiParam(value = "Cancer study name e.g. mskimpact")
+        @PathVariable(required = true) String cancerStudy,
+        @ApiParam(value = "Only return the column header and the fields the cancer study overrides, not the values filled in from the defaults")
+        @RequestParam(value = "overriddenFieldsOnly", defaultValue = "false", required = false) boolean overriddenFieldsOnly) {
+        return clinicalAttributesService.getClinicalAttributeMetadataOverrides(cancerStudy, overriddenFieldsOnly);
+    }
+
+    @ApiOperation(value = "Download the default clinical attributes and the overrides of every cancer study as one zip file")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Successfully retrieved the export, its ETag is the checksum in its manifest"),
+        @ApiResponse(code = 304, message = "The export has the ETag sent in If-None-Match"),
+        @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
+        }
+    )
+    @RequestMapping(method = RequestMethod.GET, value = "/export", produces = EXPORT_MEDIA_TYPE)
+    public void getExport(
+        @ApiParam(value = "The ETag of the export the client already has")
+        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+        HttpServletResponse response) throws IOException {
+        ClinicalAttributeExport export = clinicalAttributesService.getExport();
+        String etag = "\"" + export.getChecksum() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etagMatches(ifNoneMatch, etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(EXPORT_MEDIA_TYPE);
+        response.setContentLengthLong(export.getSize());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cdd-export.zip\"");
+        // streamed from disk, the export is not read into memory
+        Files.copy(export.getFile(), response.getOutputStream());
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String requestedEtag : ifNoneMatch.split(",")) {
+            requestedEtag = requestedEtag.trim();
+            if (requestedEtag.startsWith("W/")) {
+                requestedEtag = requestedEtag.substring(2);
+            }
+            if (requestedEtag.equals("*") || requestedEtag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @ApiOperation(value = "Start refreshing the clinical attribute cache, or join the refresh in progress", response = CacheRefreshStatus.class)
+    @ApiResponses(value = {
+        @ApiResponse(code = 202, message = "Refresh started or in progress, poll the Location header for its status")
+        }
+    )
     @ApiIgnore
     @RequestMapping(method = RequestMethod.GET, value = "/refreshCache", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<CacheRefreshStatus> startCacheRefresh() {
+        CacheRefreshStatus status = clinicalAttributesService.startCacheRefresh();
+        return ResponseEntity.accepted()
+            .location(ServletUriComponentsBuilder.fromCurrentRequestUri().path("/{jobId}").buildAndExpand(status.getJobId()).toUri())
+            .body(status);
+    }
+
+    @ApiOperation(value = "Refresh clinical attribute cache and wait for the refresh to finish")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Successfully refreshed cache"),
+        @ApiResponse(code = 503, message = "Clinical attribute metadata source unavailable")
+        }
+    )
+    @ApiIgnore
+    @RequestMapping(method = RequestMethod.GET, value = "/refreshCache", params = "wait=true", produces = MediaType.APPLICATION_JSON_VALUE)
     public Map<String, String> forceResetCache() {
         return clinicalAttributesService.forceResetCache();
     }
 
+    @ApiOperation(value = "Get the status of a cache refresh", response = CacheRefreshStatus.class)
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Successfully retrieved the status of the refresh"),
+        @ApiResponse(code = 404, message = "Could not find the refresh, or it finished too long ago")
+        }
+    )
+    @ApiIgnore
+    @RequestMapping(method = RequestMethod.GET, value = "/refreshCache/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CacheRefreshStatus getCacheRefreshStatus(
+        @ApiParam(value = "Job id returned by GET /api/refreshCache")
+        @PathVariable(required = true) String jobId) {
+        return clinicalAttributesService.getCacheRefreshStatus(jobId);
+    }
+
     @ExceptionHandler
     public void handleClinicalAttributeNotFound(ClinicalAttributeNotFoundException e, HttpServletResponse response)
         throws IOException {
         response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
     }
 
+    @ExceptionHandler
+    public void handleCancerStudyNotSearchable(CancerStudyNotSearchableException e, HttpServletResponse response)
+        throws IOException {
+        response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+    }
+
     @ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE, reason = "Failed to refresh metadata cache")
     @ExceptionHandler(FailedCacheRefreshException.class)
     public void handleFailedCacheRefreshException() {}
@@ -161,4 +420,8 @@ public class ClinicalDataDictionaryController {
     @ResponseStatus(code = HttpStatus.NOT_FOUND, reason = "Cancer study not found")
     @ExceptionHandler(CancerStudyNotFoundException.class)
     public void handleCancerStudyNotFound() {}
+
+    @ResponseStatus(code = HttpStatus.NOT_FOUND, reason = "Cache refresh job not found")
+    @ExceptionHandler(CacheRefreshJobNotFoundException.class)
+    public void handleCacheRefreshJobNotFound() {}
 }
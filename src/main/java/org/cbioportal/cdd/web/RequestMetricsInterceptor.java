@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Records the time taken by every request to the /api/ endpoints in the timer
+ * cdd.http.server.requests, tagged with the http method, the request mapping
+ * pattern (e.g. /api/{columnHeader}, so column headers do not each create a new
+ * time series), the response status and the exception class if one was thrown.
+ */
+public class RequestMetricsInterceptor extends HandlerInterceptorAdapter {
+
+    private static final String START_TIME_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".startTime";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+        if (startTime == null) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Timer.builder("cdd.http.server.requests")
+            .description("Time taken to handle requests to the clinical data dictionary api")
+            .tags("method", request.getMethod(),
+                "uri", pattern != null ? pattern.toString() : "UNKNOWN",
+                "status", Integer.toString(response.getStatus()),
+                "exception", ex != null ? ex.getClass().getSimpleName() : "None")
+            .publishPercentileHistogram()
+            .register(meterRegistry)
+            .record(System.nanoTime() - (Long) startTime, TimeUnit.NANOSECONDS);
+    }
+}
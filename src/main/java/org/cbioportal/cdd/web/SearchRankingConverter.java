@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+
+package org.cbioportal.cdd.web;
+
+import java.util.Arrays;
+import org.cbioportal.cdd.model.SearchRanking;
+import org.springframework.core.convert.converter.Converter;
+
+/**
+ * Converts the ranking request parameter in any case, e.g. ranking=bm25.  An unknown
+ * ranking is a type mismatch, so the request gets a 400.
+ */
+public class SearchRankingConverter implements Converter<String, SearchRanking> {
+
+    @Override
+    public SearchRanking convert(String value) {
+        SearchRanking searchRanking = SearchRanking.fromValueIgnoreCase(value.trim());
+        if (searchRanking == null) {
+            throw new IllegalArgumentException("Unknown ranking '" + value + "', expected one of " + Arrays.toString(SearchRanking.values()));
+        }
+        return searchRanking;
+    }
+}
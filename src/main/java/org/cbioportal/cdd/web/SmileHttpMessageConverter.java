@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Writes responses in the binary Jackson Smile format for clients which send
+ * "Accept: application/x-jackson-smile". Smile uses the same object model
+ * (and therefore the same field names) as our JSON responses, and the mapper is
+ * configured by the application's Jackson2ObjectMapperBuilder like the JSON one, so
+ * inclusion, naming and modules do not drift apart.
+ */
+public class SmileHttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    public SmileHttpMessageConverter(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        super(createObjectMapper(objectMapperBuilder), APPLICATION_SMILE);
+    }
+
+    /**
+    * Configures a new Smile mapper with the builder, without changing the builder's own factory.
+    */
+    public static ObjectMapper createObjectMapper(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        ObjectMapper objectMapper = new ObjectMapper(new SmileFactory());
+        objectMapperBuilder.configure(objectMapper);
+        return objectMapper;
+    }
+}
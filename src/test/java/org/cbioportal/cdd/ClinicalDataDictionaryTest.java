@@ -16,31 +16,51 @@
 package org.cbioportal.cdd;
 
 import org.cbioportal.cdd.repository.topbraid.KnowledgeSystemsRepository;
+import org.cbioportal.cdd.service.ClinicalDataDictionaryService;
 import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataCache;
 import org.cbioportal.cdd.service.exception.*;
 import org.cbioportal.cdd.config.CDDAppConfig;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.core.IsNot.not;
 import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.assertThat;
 import org.junit.runner.RunWith;
 import org.junit.Test;
 import org.junit.Before;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Import;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.context.embedded.LocalServerPort;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * @author Manda Wilson, Avery Wang
@@ -53,18 +73,25 @@ public class ClinicalDataDictionaryTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @LocalServerPort
+    private int port;
+
     @Autowired
     private KnowledgeSystemsRepository mockClinicalAttributesRepository;
 
     @Autowired
     private ClinicalAttributeMetadataCache clinicalAttributesCache;
 
+    @Autowired
+    @Qualifier("knowledgesystems")
+    private ClinicalDataDictionaryService knowledgeSystemsService;
+
     @Before
     // make sure repository is working version before each test
     public void resetToWorkingRepository() {
         ClinicalDataDictionaryTestConfig config = new ClinicalDataDictionaryTestConfig();
         config.resetWorkingClinicalAttributesRepository(mockClinicalAttributesRepository);
-        ResponseEntity<String> response = restTemplate.getForEntity("/api/refreshCache", String.class);
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/refreshCache?wait=true", String.class);
     }
 
     @Test
@@ -80,6 +107,30 @@ public class ClinicalDataDictionaryTest {
         assertThat(response.getBody(), containsString("{\"column_header\":\"LAST_STATUS\",\"display_name\":\"Last Status\",\"description\":\"Last Status.\",\"datatype\":\"STRING\",\"attribute_type\":\"PATIENT\",\"priority\":\"1\"}"));
     }
 
+    @Test
+    public void getClinicalAttributeMetadataSmileTest() throws Exception {
+        // test all clinical attributes are returned by GET /api/ in smile format when requested
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Accept", "application/x-jackson-smile");
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/", HttpMethod.GET, new HttpEntity<String>(headers), byte[].class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType().toString(), containsString("application/x-jackson-smile"));
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        List<ClinicalAttributeMetadata> clinicalAttributes = smileMapper.readValue(response.getBody(), new TypeReference<List<ClinicalAttributeMetadata>>(){});
+        assertThat(clinicalAttributes.size(), equalTo(5));
+        for (ClinicalAttributeMetadata clinicalAttribute : clinicalAttributes) {
+            if (clinicalAttribute.getColumnHeader().equals("AGE")) {
+                assertThat(clinicalAttribute.getDatatype(), equalTo("NUMBER"));
+                assertThat(clinicalAttribute.getPriority(), equalTo("1"));
+            }
+        }
+
+        // JSON is still the default
+        ResponseEntity<String> jsonResponse = restTemplate.getForEntity("/api/", String.class);
+        assertThat(jsonResponse.getHeaders().getContentType().toString(), containsString("application/json"));
+    }
+
     @Test
     public void getClinicalAttributeMetadataBySearchTermsTest() throws Exception {
         //test we can get a list of clinical attributes by search term
@@ -123,6 +174,113 @@ public class ClinicalDataDictionaryTest {
             + "\"Extent of the distant metastasis for the cancer based on evidence obtained from clinical assessment parameters determined prior to treatment.\",\"datatype\":\"STRING\",\"attribute_type\":\"PATIENT\",\"priority\":\"1\"}"));
     }
 
+    @Test
+    public void getClinicalAttributeMetadataByFuzzySearchTermsTest() throws Exception {
+        // test misspelled search terms only match with fuzzy=true
+        List<String> searchTerms = Arrays.asList("bone marow histolgy");
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/search", searchTerms, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+
+        response = restTemplate.postForEntity("/api/search?fuzzy=true", searchTerms, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(1));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("BONE_MARROW_SAMPLE_HISTOLOGY"));
+
+        // exact and fuzzy matches of different search terms are combined
+        response = restTemplate.postForEntity("/api/search?fuzzy=true&inclusiveSearch=true", Arrays.asList("Disease", "stge"), String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(1));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("DISEASE_STAGE"));
+    }
+
+    @Test
+    public void getClinicalAttributeMetadataBySearchTermsRankedByRelevanceTest() throws Exception {
+        // test ranking=bm25 finds the same attributes, DISEASE_STAGE has "stage" in all of its (short) fields
+        List<String> searchTerms = Arrays.asList("Stage");
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/search?ranking=bm25", searchTerms, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(2));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("DISEASE_STAGE"));
+        assertThat(responseJSON.get(1).get("column_header").asText(), equalTo("CLIN_M_STAGE"));
+
+        // "age" is a word of AGE, but only part of a word of the two stages, which come last by column header
+        response = restTemplate.postForEntity("/api/search?ranking=bm25", Arrays.asList("age"), String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(3));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("AGE"));
+        assertThat(responseJSON.get(1).get("column_header").asText(), equalTo("CLIN_M_STAGE"));
+        assertThat(responseJSON.get(2).get("column_header").asText(), equalTo("DISEASE_STAGE"));
+
+        response = restTemplate.postForEntity("/api/search?ranking=alphabetical", searchTerms, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    public void getClinicalAttributeMetadataBySearchTermsNotFoundTest() throws Exception {
+        // test a search which finds nothing returns 404, also when it is answered from the memoized negative result
+        List<String> searchTerms = Arrays.asList("no such search term");
+        for (int i = 0; i < 2; i++) {
+            ResponseEntity<String> response = restTemplate.postForEntity("/api/search", searchTerms, String.class);
+            assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+            assertThat(response.getBody(), containsString("no such search term"));
+        }
+        // a different attribute type is a different search
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/search?attributeType=PATIENT", Arrays.asList("Stage"), String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+    }
+
+    @Test
+    public void getClinicalAttributeMetadataBySearchTermsWithOverrideTest() throws Exception {
+        // test_override_study overrides DISEASE_STAGE as a PATIENT attribute with priority 10
+        List<String> searchTerms = Arrays.asList("Stage");
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/search?attributeType=PATIENT&cancerStudy=test_override_study", searchTerms, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(2));
+        assertThat(getPriority(responseJSON, "DISEASE_STAGE"), equalTo("10"));
+        assertThat(getPriority(responseJSON, "CLIN_M_STAGE"), equalTo("1"));
+
+        response = restTemplate.postForEntity("/api/search?attributeType=PATIENT&cancerStudy=test_override_study&ranking=bm25", searchTerms, String.class);
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("DISEASE_STAGE"));
+
+        // for mskimpact the attributes it does not override have priority 0
+        response = restTemplate.postForEntity("/api/search?cancerStudy=mskimpact", searchTerms, String.class);
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(getPriority(responseJSON, "DISEASE_STAGE"), equalTo("0"));
+
+        response = restTemplate.postForEntity("/api/search?cancerStudy=INVALID_STUDY", searchTerms, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        assertThat(response.getBody(), containsString("org.cbioportal.cdd.service.exception.CancerStudyNotFoundException"));
+    }
+
+    @Test
+    public void getClinicalAttributeMetadataBySearchTermsAfterCacheRefreshTest() throws Exception {
+        // test memoized search results are not used after the cache is refreshed
+        List<String> searchTerms = Arrays.asList("Necrosis");
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/search", searchTerms, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        response = restTemplate.postForEntity("/api/search", Arrays.asList("Age"), String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        String ageSearchBody = response.getBody();
+        assertThat(restTemplate.postForEntity("/api/search", Arrays.asList("Age"), String.class).getBody(), equalTo(ageSearchBody));
+
+        // change repository to version with NECROSIS
+        ClinicalDataDictionaryTestConfig config = new ClinicalDataDictionaryTestConfig();
+        config.resetUpdatedClinicalAttributesRepository(mockClinicalAttributesRepository);
+        restTemplate.getForEntity("/api/refreshCache?wait=true", String.class);
+        response = restTemplate.postForEntity("/api/search", searchTerms, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), containsString("\"column_header\":\"NECROSIS\""));
+    }
+
     @Test
     public void getClinicalAttributeMetadataFilteredTest() throws Exception {
         // test we can get a list of clinical attributes returned by POST /api/
@@ -198,12 +356,105 @@ public class ClinicalDataDictionaryTest {
         assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
     }
 
+    @Test
+    public void getClinicalAttributeMetadataFilteredInParallelTest() throws Exception {
+        // test large POST /api/ requests resolved in parallel keep request order, including for invalid clinical attributes
+        Integer parallelResolutionThreshold = (Integer) ReflectionTestUtils.getField(knowledgeSystemsService, "parallelResolutionThreshold");
+        ReflectionTestUtils.setField(knowledgeSystemsService, "parallelResolutionThreshold", 10);
+        try {
+            List<String> validColumnHeaders = Arrays.asList("AGE", "last_status", "Disease_Stage", "CLIN_M_STAGE", "BONE_MARROW_SAMPLE_HISTOLOGY");
+            List<String> columnHeaders = new ArrayList<String>();
+            for (int i = 0; i < 3000; i++) {
+                columnHeaders.add(validColumnHeaders.get(i % validColumnHeaders.size()));
+            }
+            ResponseEntity<String> response = restTemplate.postForEntity("/api/", columnHeaders, String.class);
+            assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode responseJSON = mapper.readTree(response.getBody());
+            assertThat(responseJSON.size(), equalTo(3000));
+            for (int i = 0; i < 3000; i++) {
+                assertThat(responseJSON.get(i).get("column_header").asText(), equalTo(columnHeaders.get(i).toUpperCase()));
+            }
+
+            columnHeaders.set(2500, "INVALID_ATTRIBUTE_B");
+            columnHeaders.set(10, "INVALID_ATTRIBUTE_A");
+            response = restTemplate.postForEntity("/api/", columnHeaders, String.class);
+            assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+            assertThat(response.getBody(), containsString("Could not find clinical attribute(s): INVALID_ATTRIBUTE_A, INVALID_ATTRIBUTE_B"));
+        } finally {
+            ReflectionTestUtils.setField(knowledgeSystemsService, "parallelResolutionThreshold", parallelResolutionThreshold);
+        }
+    }
+
+    @Test
+    public void getClinicalAttributeMetadataPartialTest() throws Exception {
+        // test POST /api/?partial=true returns the clinical attributes which were found and lists the invalid ones
+        List<String> columnHeaders = Arrays.asList("AGE", "INVALID_ATTRIBUTE", "LAST_status", "DISEASE_STAGES");
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/?partial=true&suggestions=true", columnHeaders, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.get("attributes").size(), equalTo(2));
+        assertThat(responseJSON.get("attributes").get(0).get("column_header").asText(), equalTo("AGE"));
+        assertThat(responseJSON.get("attributes").get(1).get("column_header").asText(), equalTo("LAST_STATUS"));
+        assertThat(responseJSON.get("missing").toString(), equalTo("[\"INVALID_ATTRIBUTE\",\"DISEASE_STAGES\"]"));
+        assertThat(responseJSON.get("suggestions").get("DISEASE_STAGES").get(0).asText(), equalTo("DISEASE_STAGE"));
+
+        // suggestions are only included when requested
+        response = restTemplate.postForEntity("/api/?partial=true", columnHeaders, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), not(containsString("suggestions")));
+
+        // an invalid cancer study is still an error
+        response = restTemplate.postForEntity("/api/?partial=true&cancerStudy=INVALID_STUDY", columnHeaders, String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
     @Test
     public void getClinicalAttributeTest() throws Exception {
         // test we can get one clinical attribute returned by GET /api/AGE/
         ResponseEntity<String> response = restTemplate.getForEntity("/api/AGE/", String.class);
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(response.getBody(), equalTo("{\"column_header\":\"AGE\",\"display_name\":\"Diagnosis Age\",\"description\":\"Age at which a condition or disease was first diagnosed.\",\"datatype\":\"NUMBER\",\"attribute_type\":\"PATIENT\",\"priority\":\"1\"}"));
+        // column headers are case insensitive, and share the memoized lookup
+        ResponseEntity<String> lowerCaseResponse = restTemplate.getForEntity("/api/age/", String.class);
+        assertThat(lowerCaseResponse.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(lowerCaseResponse.getBody(), equalTo(response.getBody()));
+    }
+
+    @Test
+    public void getClinicalAttributeDefaultsToJsonTest() throws Exception {
+        // GET /api/AGE serves JSON and smile, JSON must win for Accept: */*
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Accept", "*/*");
+        ResponseEntity<String> response = restTemplate.exchange("/api/AGE", HttpMethod.GET, new HttpEntity<String>(headers), String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType().toString(), containsString("application/json"));
+        assertThat(response.getBody(), containsString("\"display_name\":\"Diagnosis Age\""));
+
+        // so must a request without an Accept header, which HttpURLConnection would add, so it is sent by hand
+        String rawResponse = getWithoutAcceptHeader("/api/AGE");
+        assertThat(rawResponse, startsWith("HTTP/1.1 200"));
+        assertThat(rawResponse.toLowerCase(), containsString("content-type: application/json"));
+        assertThat(rawResponse, containsString("\"display_name\":\"Diagnosis Age\""));
+    }
+
+    private String getWithoutAcceptHeader(String path) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: localhost:" + port + "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            ByteArrayOutputStream contents = new ByteArrayOutputStream();
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                contents.write(buffer, 0, length);
+            }
+            return new String(contents.toByteArray(), StandardCharsets.UTF_8);
+        }
     }
 
     @Test
@@ -221,19 +472,49 @@ public class ClinicalDataDictionaryTest {
 
     @Test
     public void getClinicalAttributeInvalidClinicalAttributeTest() throws Exception {
-        // test invalid clinical attribute throws an exception in GET /api/INVALID_ATTRIBUTE
+        // test invalid clinical attribute returns a 404 in GET /api/INVALID_ATTRIBUTE, without an exception
         ResponseEntity<String> response = restTemplate.getForEntity("/api/INVALID_ATTRIBUTE", String.class);
-        assertThat(response.getBody(), containsString("org.cbioportal.cdd.service.exception.ClinicalAttributeNotFoundException"));
+        assertThat(response.getBody(), containsString("Could not find clinical attribute(s): INVALID_ATTRIBUTE"));
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+        // and again, when the lookup is memoized
+        response = restTemplate.getForEntity("/api/INVALID_ATTRIBUTE", String.class);
+        assertThat(response.getBody(), containsString("Could not find clinical attribute(s): INVALID_ATTRIBUTE"));
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    public void getClinicalAttributeInvalidCancerStudyTest() throws Exception {
+        // test an invalid cancer study in GET /api/AGE?cancerStudy=INVALID_POLICY
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/AGE?cancerStudy=INVALID_POLICY", String.class);
+        assertThat(response.getBody(), containsString("Cancer study not found"));
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+
+        // the unknown cancer study is now memoized
+        response = restTemplate.getForEntity("/api/AGE?cancerStudy=INVALID_POLICY", String.class);
+        assertThat(response.getBody(), containsString("Cancer study not found"));
         assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
     }
 
+    @Test
+    public void getClinicalAttributeSmileTest() throws Exception {
+        // test one clinical attribute is returned by GET /api/AGE in smile format when requested
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Accept", "application/x-jackson-smile");
+        ResponseEntity<byte[]> response = restTemplate.exchange("/api/AGE", HttpMethod.GET, new HttpEntity<String>(headers), byte[].class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType().toString(), containsString("application/x-jackson-smile"));
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        ClinicalAttributeMetadata clinicalAttribute = smileMapper.readValue(response.getBody(), ClinicalAttributeMetadata.class);
+        assertThat(clinicalAttribute.getDisplayName(), equalTo("Diagnosis Age"));
+    }
+
     @Test
     public void forceResetCacheTest() throws Exception {
-        // test that cache is updated after GET /api/refreshCache
+        // test that cache is updated after GET /api/refreshCache?wait=true
         ClinicalDataDictionaryTestConfig config = new ClinicalDataDictionaryTestConfig();
         // change repository to version with 2 attributes/1 override
         config.resetUpdatedClinicalAttributesRepository(mockClinicalAttributesRepository);
-        ResponseEntity<String> response = restTemplate.getForEntity("/api/refreshCache", String.class);
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/refreshCache?wait=true", String.class);
         assertThat(response.getBody(), equalTo("{\"response\":\"Success!\"}"));
         assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
         assertThat(mockClinicalAttributesRepository.getClinicalAttributeMetadata().size(), equalTo(2));
@@ -241,17 +522,74 @@ public class ClinicalDataDictionaryTest {
         assertThat(mockClinicalAttributesRepository.getClinicalAttributeMetadataOverrides().size(), equalTo(1));
         // change repository to non-working version
         config.resetNotWorkingClinicalAttributesRepository(mockClinicalAttributesRepository);
-        response = restTemplate.getForEntity("/api/refreshCache", String.class);
+        response = restTemplate.getForEntity("/api/refreshCache?wait=true", String.class);
         assertThat(response.getBody(), containsString("org.cbioportal.cdd.service.exception.FailedCacheRefreshException"));
         assertThat(response.getStatusCode(), equalTo(HttpStatus.SERVICE_UNAVAILABLE));
         // change repository to version with 5 attributes/2 overrides
         config.resetWorkingClinicalAttributesRepository(mockClinicalAttributesRepository);
-        restTemplate.getForEntity("/api/refreshCache", String.class);
+        restTemplate.getForEntity("/api/refreshCache?wait=true", String.class);
         assertThat(mockClinicalAttributesRepository.getClinicalAttributeMetadata().size(), equalTo(5));
         assertThat(mockClinicalAttributesRepository.getClinicalAttributeMetadataOverrides().size(), equalTo(2));
         assertThat(mockClinicalAttributesRepository.getClinicalAttributeMetadataOverrides(), not(hasKey("updated_override_study")));
     }
 
+    @Test
+    public void startCacheRefreshTest() throws Exception {
+        // test that GET /api/refreshCache returns 202 and the refresh can be polled until it finishes
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/refreshCache", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.ACCEPTED));
+        ObjectMapper mapper = new ObjectMapper();
+        String jobId = mapper.readTree(response.getBody()).get("job_id").asText();
+        assertThat(response.getHeaders().getLocation().getPath(), containsString("/api/refreshCache/" + jobId));
+        String state = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            response = restTemplate.getForEntity("/api/refreshCache/" + jobId, String.class);
+            assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+            state = mapper.readTree(response.getBody()).get("state").asText();
+            if (state.equals("SUCCEEDED") || state.equals("FAILED")) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(state, equalTo("SUCCEEDED"));
+        // an unknown job is not found
+        response = restTemplate.getForEntity("/api/refreshCache/UNKNOWN_JOB", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    public void prometheusScrapeTest() throws Exception {
+        // test request, service, and cache metrics are exposed to prometheus by GET /prometheus
+        restTemplate.getForEntity("/api/AGE", String.class);
+        restTemplate.postForEntity("/api/", Arrays.asList("AGE"), String.class);
+        ResponseEntity<String> response = restTemplate.getForEntity("/prometheus", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), containsString("cdd_http_server_requests_seconds_count{exception=\"None\",method=\"GET\",status=\"200\",uri=\"/api/{columnHeader}\",}"));
+        assertThat(response.getBody(), containsString("cdd_service_requests_seconds_count{exception=\"None\",method=\"getMetadataByColumnHeaders\",source=\"knowledgesystems\",}"));
+        assertThat(response.getBody(), containsString("cdd_cache_refresh_seconds_count{outcome=\"success\",}"));
+        assertThat(response.getBody(), containsString("cdd_cache_attributes 5.0"));
+    }
+
+    @Test
+    public void getCompletionsByPrefixTest() throws Exception {
+        // test GET /api/autocomplete completes word starts of column headers and display names
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/autocomplete?prefix=stag", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), equalTo("[{\"column_header\":\"CLIN_M_STAGE\",\"display_name\":\"Neoplasm American Joint Committee on Cancer Clinical Distant Metastasis M Stage\"},"
+            + "{\"column_header\":\"DISEASE_STAGE\",\"display_name\":\"Disease Stage\"}]"));
+
+        response = restTemplate.getForEntity("/api/autocomplete?prefix=stag&limit=1", String.class);
+        assertThat(response.getBody(), containsString("CLIN_M_STAGE"));
+        assertThat(response.getBody(), not(containsString("DISEASE_STAGE")));
+
+        response = restTemplate.getForEntity("/api/autocomplete?prefix=xyz", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getBody(), equalTo("[]"));
+
+        response = restTemplate.getForEntity("/api/autocomplete", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+    }
+
     @Test
     public void getCancerStudiesTest() throws Exception {
         // test all cancer studies are returned by GET /api/cancerStudies
@@ -308,6 +646,159 @@ public class ClinicalDataDictionaryTest {
         assertThat(getPriority(responseJSON, "DISEASE_STAGE"), equalTo("0"));
     }
 
+    @Test
+    public void getClinicalAttributeMetadataFilteredAndSortedTest() throws Exception {
+        // test GET /api/ filters by attribute type and datatype and sorts by column header
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/?attributeType=patient&datatype=STRING&sort=column_header", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(2));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("CLIN_M_STAGE"));
+        assertThat(responseJSON.get(1).get("column_header").asText(), equalTo("LAST_STATUS"));
+
+        // test_override_study overrides AGE with priority 100 and DISEASE_STAGE with priority 10
+        response = restTemplate.getForEntity("/api/?cancerStudy=test_override_study&minPriority=10&sort=priority", String.class);
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(2));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("AGE"));
+        assertThat(responseJSON.get(1).get("column_header").asText(), equalTo("DISEASE_STAGE"));
+
+        // for mskimpact only the overridden LAST_STATUS is visible
+        response = restTemplate.getForEntity("/api/?cancerStudy=mskimpact&visible=true", String.class);
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(1));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("LAST_STATUS"));
+
+        response = restTemplate.getForEntity("/api/?datatype=DATE", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(mapper.readTree(response.getBody()).size(), equalTo(0));
+
+        response = restTemplate.getForEntity("/api/?sort=random", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    public void getFacetsTest() throws Exception {
+        // test GET /api/facets counts the default attributes, and the attributes as overridden for a study
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/facets", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.get("attribute_count").asInt(), equalTo(5));
+        assertThat(responseJSON.get("overridden_attribute_count").asInt(), equalTo(3));
+        assertThat(responseJSON.get("attribute_type").get("SAMPLE").asInt(), equalTo(2));
+        assertThat(responseJSON.get("priority").get("1").asInt(), equalTo(5));
+
+        // test_override_study overrides DISEASE_STAGE as a PATIENT attribute
+        response = restTemplate.getForEntity("/api/facets?cancerStudy=test_override_study", String.class);
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.get("cancer_study").asText(), equalTo("test_override_study"));
+        assertThat(responseJSON.get("overridden_attribute_count").asInt(), equalTo(2));
+        assertThat(responseJSON.get("attribute_type").get("SAMPLE").asInt(), equalTo(1));
+        assertThat(responseJSON.get("priority").get("100+").asInt(), equalTo(1));
+
+        // for mskimpact only the overridden LAST_STATUS is not hidden
+        response = restTemplate.getForEntity("/api/facets?cancerStudy=mskimpact", String.class);
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.get("priority").get("0").asInt(), equalTo(4));
+
+        response = restTemplate.getForEntity("/api/facets?cancerStudy=INVALID_STUDY", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    public void getCancerStudyOverridesTest() throws Exception {
+        // test GET /api/{columnHeader}/overrides lists the studies overriding the attribute
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/age/overrides", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(1));
+        assertThat(responseJSON.get(0).get("cancer_study").asText(), equalTo("test_override_study"));
+        assertThat(responseJSON.get(0).get("overridden_fields").get("priority").asText(), equalTo("100"));
+        assertThat(responseJSON.get(0).get("overridden_fields").get("attribute_type").asText(), equalTo("PATIENT"));
+
+        // no study overrides CLIN_M_STAGE
+        response = restTemplate.getForEntity("/api/CLIN_M_STAGE/overrides", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(mapper.readTree(response.getBody()).size(), equalTo(0));
+
+        response = restTemplate.getForEntity("/api/INVALID_ATTRIBUTE/overrides", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    public void getClinicalAttributeMetadataOverridesTest() throws Exception {
+        // test GET /api/cancerStudies/{cancerStudy}/overrides returns only the study's overrides, by column header
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/cancerStudies/test_override_study/overrides", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(2));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("AGE"));
+        assertThat(responseJSON.get(0).get("priority").asText(), equalTo("100"));
+        assertThat(responseJSON.get(1).get("column_header").asText(), equalTo("DISEASE_STAGE"));
+        assertThat(responseJSON.get(1).get("attribute_type").asText(), equalTo("PATIENT"));
+
+        // the mock overrides set every field, so the overridden fields are all of them
+        response = restTemplate.getForEntity("/api/cancerStudies/mskimpact/overrides?overriddenFieldsOnly=true", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        responseJSON = mapper.readTree(response.getBody());
+        assertThat(responseJSON.size(), equalTo(1));
+        assertThat(responseJSON.get(0).get("column_header").asText(), equalTo("LAST_STATUS"));
+        assertThat(responseJSON.get(0).get("display_name").asText(), equalTo("Last Status"));
+
+        response = restTemplate.getForEntity("/api/cancerStudies/INVALID_STUDY/overrides", String.class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    public void getExportTest() throws Exception {
+        // test GET /api/export returns a zip with the manifest, the defaults and the overrides of each study
+        ResponseEntity<byte[]> response = restTemplate.getForEntity("/api/export", byte[].class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
+        assertThat(response.getHeaders().getContentType().toString(), containsString("application/zip"));
+        Map<String, byte[]> entries = readZipEntries(response.getBody());
+        assertThat(entries.keySet(), equalTo((Set<String>) new HashSet<String>(Arrays.asList(
+            "manifest.json", "defaults.json", "overrides/mskimpact.json", "overrides/test_override_study.json"))));
+
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode manifest = mapper.readTree(entries.get("manifest.json"));
+        assertThat(manifest.get("attribute_count").asInt(), equalTo(5));
+        assertThat(manifest.get("cancer_study_count").asInt(), equalTo(2));
+        assertThat(manifest.get("cancer_studies_with_hidden_defaults").get(0).asText(), equalTo("mskimpact"));
+        String etag = response.getHeaders().getETag();
+        assertThat(etag, equalTo("\"" + manifest.get("checksum").asText() + "\""));
+        assertThat(mapper.readTree(entries.get("defaults.json")).get(0).get("column_header").asText(), equalTo("AGE"));
+        JsonNode overrides = mapper.readTree(entries.get("overrides/test_override_study.json"));
+        assertThat(overrides.size(), equalTo(2));
+        assertThat(overrides.get(0).get("priority").asText(), equalTo("100"));
+
+        // the export has not changed, so a client which has it gets a 304
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        response = restTemplate.exchange("/api/export", HttpMethod.GET, new HttpEntity<String>(headers), byte[].class);
+        assertThat(response.getStatusCode(), equalTo(HttpStatus.NOT_MODIFIED));
+    }
+
+    private static Map<String, byte[]> readZipEntries(byte[] zip) throws IOException {
+        Map<String, byte[]> entries = new HashMap<String, byte[]>();
+        try (ZipInputStream zipInputStream = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            byte[] buffer = new byte[8192];
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                ByteArrayOutputStream contents = new ByteArrayOutputStream();
+                int length;
+                while ((length = zipInputStream.read(buffer)) > 0) {
+                    contents.write(buffer, 0, length);
+                }
+                entries.put(entry.getName(), contents.toByteArray());
+            }
+        }
+        return entries;
+    }
+
     @Test
     public void getClinicalAttributeMetadataInvalidCancerStudyTest() throws Exception {
         // test an invalid cancer study in GET /api/?cancerStudy=INVALID_POLICY
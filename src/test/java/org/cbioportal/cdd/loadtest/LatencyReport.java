@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency histograms and error counts per endpoint, for the whole measured run
+ * and for the requests which were sent while a cache refresh was in progress.
+ *
+ * Latencies are recorded in microseconds and reported in milliseconds.
+ */
+public class LatencyReport {
+
+    public static final String ALL_REQUESTS = "all";
+    public static final String DURING_REFRESH = "during refresh";
+
+    // an hour, anything slower is recorded as an hour
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<String, EndpointStats>();
+    private final List<String> endpoints = new ArrayList<String>();
+
+    /**
+    * The endpoints are reported in the order they are given here.
+    */
+    public LatencyReport(List<String> endpoints) {
+        this.endpoints.addAll(endpoints);
+        for (String endpoint : endpoints) {
+            stats.put(key(endpoint, ALL_REQUESTS), new EndpointStats());
+            stats.put(key(endpoint, DURING_REFRESH), new EndpointStats());
+        }
+    }
+
+    public void record(String endpoint, long latencyNanos, boolean error, boolean duringRefresh) {
+        stats.get(key(endpoint, ALL_REQUESTS)).record(latencyNanos, error);
+        if (duringRefresh) {
+            stats.get(key(endpoint, DURING_REFRESH)).record(latencyNanos, error);
+        }
+    }
+
+    /**
+    * Prints one line per endpoint and phase, skipping phases without requests.
+    *
+    * @param measuredSeconds the length of the measured run, for the throughput of the whole run
+    * @param refreshSeconds the time spent refreshing the cache, for the throughput during refreshes
+    */
+    public void print(PrintStream out, double measuredSeconds, double refreshSeconds) {
+        out.println(String.format("%-22s %-15s %9s %7s %9s %9s %9s %9s %9s",
+            "endpoint", "phase", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Map<String, Object> row : getRows(measuredSeconds, refreshSeconds)) {
+            out.println(String.format("%-22s %-15s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f",
+                row.get("endpoint"), row.get("phase"), row.get("requests"), row.get("errors"), row.get("throughput"),
+                row.get("p50"), row.get("p99"), row.get("p999"), row.get("max")));
+        }
+    }
+
+    /**
+    *
+    * @return
+    * one row per endpoint and phase with requests, as printed by print()
+    */
+    public List<Map<String, Object>> getRows(double measuredSeconds, double refreshSeconds) {
+        List<Map<String, Object>> rows = new ArrayList<Map<String, Object>>();
+        for (String endpoint : endpoints) {
+            addRow(rows, endpoint, ALL_REQUESTS, measuredSeconds);
+            addRow(rows, endpoint, DURING_REFRESH, refreshSeconds);
+        }
+        return rows;
+    }
+
+    private void addRow(List<Map<String, Object>> rows, String endpoint, String phase, double seconds) {
+        EndpointStats endpointStats = stats.get(key(endpoint, phase));
+        Histogram histogram = endpointStats.histogram.copy();
+        long requests = histogram.getTotalCount();
+        if (requests == 0) {
+            return;
+        }
+        Map<String, Object> row = new LinkedHashMap<String, Object>();
+        row.put("endpoint", endpoint);
+        row.put("phase", phase);
+        row.put("requests", requests);
+        row.put("errors", endpointStats.errors.get());
+        row.put("throughput", seconds > 0 ? requests / seconds : 0.0);
+        row.put("p50", toMillis(histogram.getValueAtPercentile(50.0)));
+        row.put("p99", toMillis(histogram.getValueAtPercentile(99.0)));
+        row.put("p999", toMillis(histogram.getValueAtPercentile(99.9)));
+        row.put("max", toMillis(histogram.getMaxValue()));
+        rows.add(row);
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static String key(String endpoint, String phase) {
+        return endpoint + " " + phase;
+    }
+
+    private static class EndpointStats {
+
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final AtomicLong errors = new AtomicLong();
+
+        private void record(long latencyNanos, boolean error) {
+            histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+            if (error) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.cbioportal.cdd.ClinicalDataDictionaryApplication;
+import org.cbioportal.cdd.repository.topbraid.TopBraidSimulator;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * HTTP load test for the web service.
+ *
+ * By default the application is started on a free port with the knowledge systems
+ * repository pointing at a TopBraidSimulator, so a run needs no TopBraid server.
+ * Set cdd.loadtest.url to run against a deployed service instead.
+ *
+ * A fixed number of clients send requests back to back (a closed loop), each time
+ * picking one of:
+ *   a full listing, GET /api/ with or without a cancer study
+ *   a column header lookup, POST /api/?cancerStudy=.. with hundreds of column headers
+ *   search-as-you-type, POST /api/search once for each prefix of a word
+ * The column headers, words and cancer studies are taken from the service itself
+ * before the run starts.  Once during the run the cache is refreshed with
+ * GET /api/refreshCache?wait=true, and the requests sent while the refresh is in progress are
+ * also reported separately.
+ *
+ * The latency percentiles and throughput of each endpoint are printed and written
+ * to target/loadtest-result.json.  The same seed gives the same request mix.
+ *
+ * Settings (system properties, defaults in brackets):
+ *   cdd.loadtest.url                   service to test, e.g. http://localhost:8080 [embedded]
+ *   cdd.loadtest.clients               concurrent clients [16]
+ *   cdd.loadtest.warmupSeconds         unmeasured warm up [10]
+ *   cdd.loadtest.durationSeconds       measured run [60]
+ *   cdd.loadtest.refreshAtSeconds      refresh the cache this far into the measured run, -1 for never [durationSeconds / 2]
+ *   cdd.loadtest.minColumnHeaders      smallest column header lookup [100]
+ *   cdd.loadtest.maxColumnHeaders      largest column header lookup [800]
+ *   cdd.loadtest.keystrokeMillis       pause between search-as-you-type requests [100]
+ *   cdd.loadtest.seed                  [2026]
+ *   cdd.loadtest.resultFile            [target/loadtest-result.json]
+ * and for the embedded service only:
+ *   cdd.loadtest.attributeCount        attributes served by the simulator [5000]
+ *   cdd.loadtest.overrideStudyCount    studies with overrides [200]
+ *   cdd.loadtest.overridesPerStudy     [25]
+ *   cdd.loadtest.topbraidLatencyMillis latency of each simulated TopBraid query [500]
+ */
+public class LoadTestRunner {
+
+    public static final String LISTING = "GET /api/";
+    public static final String LOOKUP = "POST /api/";
+    public static final String SEARCH = "POST /api/search";
+    public static final String REFRESH = "GET /api/refreshCache";
+
+    private static final String PROPERTY_PREFIX = "cdd.loadtest.";
+    private static final int LISTING_WEIGHT = 10;
+    private static final int LOOKUP_WEIGHT = 30;
+    private static final int SEARCH_WEIGHT = 60;
+    private static final int MIN_SEARCH_PREFIX_LENGTH = 2;
+    private static final int TIMEOUT_MILLIS = 60000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseURL;
+    private final int clients = getIntSetting("clients", 16);
+    private final int warmupSeconds = getIntSetting("warmupSeconds", 10);
+    private final int durationSeconds = getIntSetting("durationSeconds", 60);
+    private final int refreshAtSeconds = getIntSetting("refreshAtSeconds", durationSeconds / 2);
+    private final int minColumnHeaders = getIntSetting("minColumnHeaders", 100);
+    private final int maxColumnHeaders = getIntSetting("maxColumnHeaders", 800);
+    private final int keystrokeMillis = getIntSetting("keystrokeMillis", 100);
+    private final long seed = getIntSetting("seed", 2026);
+
+    private final LatencyReport report = new LatencyReport(Arrays.asList(LISTING, LOOKUP, SEARCH, REFRESH));
+    private final AtomicInteger refreshesInProgress = new AtomicInteger();
+    private final AtomicLong refreshNanos = new AtomicLong();
+    private final List<String> columnHeaders = new ArrayList<String>();
+    private final List<String> searchWords = new ArrayList<String>();
+    private final List<String> cancerStudies = new ArrayList<String>();
+
+    private volatile long measureStartNanos;
+    private volatile long measureEndNanos;
+
+    public LoadTestRunner(String baseURL) {
+        this.baseURL = baseURL.endsWith("/") ? baseURL.substring(0, baseURL.length() - 1) : baseURL;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty(PROPERTY_PREFIX + "url");
+        if (url != null && !url.isEmpty()) {
+            new LoadTestRunner(url).run();
+            return;
+        }
+        TopBraidSimulator simulator = new TopBraidSimulator();
+        ConfigurableApplicationContext context = null;
+        try {
+            simulator.setAttributeCount(getIntSetting("attributeCount", 5000));
+            simulator.setOverrides(getIntSetting("overrideStudyCount", 200), getIntSetting("overridesPerStudy", 25));
+            simulator.setLatencyMillis(getIntSetting("topbraidLatencyMillis", 500));
+            simulator.start();
+            context = startApplication(simulator);
+            new LoadTestRunner("http://localhost:" + context.getEnvironment().getProperty("local.server.port")).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            simulator.stop();
+        }
+    }
+
+    /**
+    * Starts the application on a free port, using the simulator for the knowledge systems
+    * repository.  These are command line arguments so they take precedence over
+    * application.properties.  The refresh event webhook is disabled.
+    */
+    private static ConfigurableApplicationContext startApplication(TopBraidSimulator simulator) {
+        return new SpringApplicationBuilder(ClinicalDataDictionaryApplication.class).run(
+            "--server.port=0",
+            "--topbraid.knowledgeSystems.serviceUrl=" + simulator.getServiceURL(),
+            "--topbraid.knowledgeSystems.loginUrl=" + simulator.getLoginURL(),
+            "--topbraid.knowledgeSystems.username=" + TopBraidSimulator.USERNAME,
+            "--topbraid.knowledgeSystems.password=" + TopBraidSimulator.PASSWORD,
+            "--topbraid.knowledgeSystems.cddNamespacePrefix=http://cdd.example.org/",
+            "--topbraid.knowledgeSystems.cddGraphId=urn:x-evn-master:cdd",
+            "--mskVocabulary.studyIdList=",
+            "--refresh.events.webhook.url=");
+    }
+
+    public void run() throws Exception {
+        loadRequestData();
+        System.out.println(String.format("%s: %d clients, %d s warm up, %d s measured, %d column headers, %d search words, %d cancer studies",
+            baseURL, clients, warmupSeconds, durationSeconds, columnHeaders.size(), searchWords.size(), cancerStudies.size()));
+        long startNanos = System.nanoTime();
+        measureStartNanos = startNanos + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        measureEndNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+        ExecutorService executor = Executors.newFixedThreadPool(clients + 1);
+        for (int i = 0; i < clients; i++) {
+            final Random random = new Random(seed + i);
+            executor.submit(() -> runClient(random));
+        }
+        if (refreshAtSeconds >= 0 && refreshAtSeconds < durationSeconds) {
+            executor.submit(this::runRefresh);
+        }
+        executor.shutdown();
+        executor.awaitTermination(warmupSeconds + durationSeconds + TimeUnit.MILLISECONDS.toSeconds(TIMEOUT_MILLIS) + 60, TimeUnit.SECONDS);
+        executor.shutdownNow();
+
+        double refreshSeconds = refreshNanos.get() / 1e9;
+        report.print(System.out, durationSeconds, refreshSeconds);
+        writeResult(durationSeconds, refreshSeconds);
+    }
+
+    /**
+    * Fetches the column headers, the words of the display names and the cancer studies
+    * the requests are made from.
+    */
+    private void loadRequestData() throws IOException {
+        for (JsonNode clinicalAttribute : mapper.readTree(get("/api/"))) {
+            columnHeaders.add(clinicalAttribute.get("column_header").asText());
+            if (clinicalAttribute.has("display_name")) {
+                for (String word : clinicalAttribute.get("display_name").asText().split("[^A-Za-z]+")) {
+                    if (word.length() > MIN_SEARCH_PREFIX_LENGTH) {
+                        searchWords.add(word.toLowerCase());
+                    }
+                }
+            }
+        }
+        for (JsonNode cancerStudy : mapper.readTree(get("/api/cancerStudies"))) {
+            cancerStudies.add(cancerStudy.get("name").asText());
+        }
+        if (columnHeaders.isEmpty() || searchWords.isEmpty()) {
+            throw new IllegalStateException("No clinical attributes returned by " + baseURL + "/api/");
+        }
+    }
+
+    private void runClient(Random random) {
+        while (System.nanoTime() < measureEndNanos && !Thread.currentThread().isInterrupted()) {
+            int scenario = random.nextInt(LISTING_WEIGHT + LOOKUP_WEIGHT + SEARCH_WEIGHT);
+            if (scenario < LISTING_WEIGHT) {
+                String cancerStudy = random.nextBoolean() ? pickCancerStudy(random) : null;
+                send(LISTING, "GET", "/api/" + cancerStudyParameter(cancerStudy), null);
+            } else if (scenario < LISTING_WEIGHT + LOOKUP_WEIGHT) {
+                int count = minColumnHeaders + random.nextInt(Math.max(1, maxColumnHeaders - minColumnHeaders + 1));
+                List<String> requestColumnHeaders = new ArrayList<String>(count);
+                for (int i = 0; i < count; i++) {
+                    requestColumnHeaders.add(columnHeaders.get(random.nextInt(columnHeaders.size())));
+                }
+                send(LOOKUP, "POST", "/api/" + cancerStudyParameter(pickCancerStudy(random)), requestColumnHeaders);
+            } else {
+                String word = searchWords.get(random.nextInt(searchWords.size()));
+                for (int length = MIN_SEARCH_PREFIX_LENGTH; length <= word.length() && System.nanoTime() < measureEndNanos; length++) {
+                    send(SEARCH, "POST", "/api/search", Arrays.asList(word.substring(0, length)));
+                    pause(keystrokeMillis);
+                }
+            }
+        }
+    }
+
+    private void runRefresh() {
+        pause(TimeUnit.NANOSECONDS.toMillis(measureStartNanos - System.nanoTime()) + TimeUnit.SECONDS.toMillis(refreshAtSeconds));
+        refreshesInProgress.incrementAndGet();
+        long startNanos = System.nanoTime();
+        try {
+            send(REFRESH, "GET", "/api/refreshCache?wait=true", null);
+        } finally {
+            refreshNanos.addAndGet(System.nanoTime() - startNanos);
+            refreshesInProgress.decrementAndGet();
+        }
+    }
+
+    /**
+    * Sends one request and records its latency, up to the last byte of the response,
+    * unless it was sent during the warm up.  A 404 from a search is not an error, it
+    * only means nothing matched the prefix.
+    */
+    private void send(String endpoint, String method, String path, List<String> body) {
+        boolean duringRefresh = refreshesInProgress.get() > 0;
+        long startNanos = System.nanoTime();
+        boolean error;
+        try {
+            int status = request(method, path, body == null ? null : mapper.writeValueAsBytes(body), null);
+            error = status >= 400 && !(SEARCH.equals(endpoint) && status == HttpURLConnection.HTTP_NOT_FOUND);
+        } catch (IOException e) {
+            error = true;
+        }
+        if (startNanos >= measureStartNanos) {
+            report.record(endpoint, System.nanoTime() - startNanos, error, duringRefresh);
+        }
+    }
+
+    private byte[] get(String path) throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        int status = request("GET", path, null, response);
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new IOException("GET " + baseURL + path + " returned " + status);
+        }
+        return response.toByteArray();
+    }
+
+    /**
+    * The response is always read to the end, so the connection can be kept alive
+    * and reused by the next request.
+    *
+    * @return
+    * the status code of the response
+    */
+    private int request(String method, String path, byte[] body, OutputStream response) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseURL + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+        connection.setRequestProperty("Accept", "application/json");
+        if (body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        if (in != null) {
+            try {
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = in.read(buffer)) != -1) {
+                    if (response != null) {
+                        response.write(buffer, 0, count);
+                    }
+                }
+            } finally {
+                in.close();
+            }
+        }
+        return status;
+    }
+
+    private void writeResult(double measuredSeconds, double refreshSeconds) throws IOException {
+        Map<String, Object> settings = new LinkedHashMap<String, Object>();
+        settings.put("url", baseURL);
+        settings.put("clients", clients);
+        settings.put("warmupSeconds", warmupSeconds);
+        settings.put("durationSeconds", durationSeconds);
+        settings.put("refreshAtSeconds", refreshAtSeconds);
+        settings.put("minColumnHeaders", minColumnHeaders);
+        settings.put("maxColumnHeaders", maxColumnHeaders);
+        settings.put("keystrokeMillis", keystrokeMillis);
+        settings.put("seed", seed);
+        Map<String, Object> result = new LinkedHashMap<String, Object>();
+        result.put("settings", settings);
+        result.put("refreshSeconds", refreshSeconds);
+        result.put("endpoints", report.getRows(measuredSeconds, refreshSeconds));
+        File resultFile = new File(System.getProperty(PROPERTY_PREFIX + "resultFile", "target/loadtest-result.json"));
+        if (resultFile.getAbsoluteFile().getParentFile() != null) {
+            resultFile.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        try (OutputStream out = new FileOutputStream(resultFile)) {
+            mapper.writerWithDefaultPrettyPrinter().writeValue(out, result);
+        }
+        System.out.println("Results written to " + resultFile);
+    }
+
+    private String pickCancerStudy(Random random) {
+        return cancerStudies.isEmpty() ? null : cancerStudies.get(random.nextInt(cancerStudies.size()));
+    }
+
+    private static String cancerStudyParameter(String cancerStudy) {
+        if (cancerStudy == null) {
+            return "";
+        }
+        try {
+            return "?cancerStudy=" + URLEncoder.encode(cancerStudy, StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int getIntSetting(String name, int defaultValue) {
+        return Integer.parseInt(System.getProperty(PROPERTY_PREFIX + name, String.valueOf(defaultValue)));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF
+ * MERCHANTABILITY OR FITNESS FOR A PARTICULAR PURPOSE.  The software and
+ * documentation provided hereunder is on an "as is" basis, and
+ * Memorial Sloan-Kettering Cancer Center
+ * has no obligations to provide maintenance, support,
+ * updates, enhancements or modifications.  In no event shall
+ * Memorial Sloan-Kettering Cancer Center
+ * be liable to any party for direct, indirect, special,
+ * incidental or consequential damages, including lost profits, arising
+ * out of the use of this software and its documentation, even if
+ * Memorial Sloan-Kettering Cancer Center
+ * has been advised of the possibility of such damage.
+*/
+
+package org.cbioportal.cdd.repository.topbraid;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * KnowledgeSystemsRepository, TopBraidRepository and TopBraidSessionManager against
+ * the TopBraidSimulator.
+ */
+public class TopBraidRepositoryTest {
+
+    private TopBraidSimulator simulator;
+    private TopBraidSessionConfiguration sessionConfiguration;
+    private KnowledgeSystemsRepository knowledgeSystemsRepository;
+
+    @Before
+    public void startSimulator() throws Exception {
+        simulator = new TopBraidSimulator();
+        simulator.start();
+        sessionConfiguration = simulator.makeSessionConfiguration();
+        knowledgeSystemsRepository = new KnowledgeSystemsRepository(new TopBraidSessionManager(sessionConfiguration), "http://cdd.example.org/", "urn:x-evn-master:cdd");
+    }
+
+    @After
+    public void stopSimulator() {
+        simulator.stop();
+    }
+
+    @Test
+    public void getClinicalAttributeMetadataTest() {
+        simulator.setAttributeCount(100);
+        ArrayList<ClinicalAttributeMetadata> clinicalAttributes = knowledgeSystemsRepository.getClinicalAttributeMetadata();
+        assertThat(clinicalAttributes.size(), equalTo(100));
+        assertThat(clinicalAttributes.get(0).getColumnHeader(), equalTo("SIM_ATTRIBUTE_00000"));
+        assertThat(clinicalAttributes.get(0).getDisplayName(), equalTo("Simulated Attribute 0"));
+        assertThat(clinicalAttributes.get(0).getDatatype(), equalTo("STRING"));
+        assertThat(clinicalAttributes.get(0).getAttributeType(), equalTo("PATIENT"));
+        assertThat(simulator.getLoginCount(), equalTo(1));
+        assertThat(simulator.getSparqlRequestCount(), equalTo(1));
+    }
+
+    @Test
+    public void getClinicalAttributeMetadataOverridesTest() {
+        simulator.setOverrides(10, 5);
+        HashMap<String, ArrayList<ClinicalAttributeMetadata>> overrides = knowledgeSystemsRepository.getClinicalAttributeMetadataOverrides();
+        assertThat(overrides.size(), equalTo(10));
+        assertThat(overrides.get("sim_study_003").size(), equalTo(5));
+        assertThat(overrides.get("sim_study_003").get(0).getStudyId(), equalTo("sim_study_003"));
+        assertThat(overrides.get("sim_study_003").get(0).getPriority(), equalTo("10"));
+    }
+
+    @Test
+    public void fingerprintTest() {
+        String fingerprint = knowledgeSystemsRepository.getFingerprint();
+        assertThat(knowledgeSystemsRepository.getFingerprint(), equalTo(fingerprint));
+        simulator.setAttributeCount(101);
+        assertThat(knowledgeSystemsRepository.getFingerprint(), not(equalTo(fingerprint)));
+    }
+
+    @Test
+    public void modifiedPropertyFingerprintTest() {
+        knowledgeSystemsRepository.setModifiedProperty("http://purl.org/dc/terms/modified");
+        String fingerprint = knowledgeSystemsRepository.getFingerprint();
+        assertThat(simulator.getLastQuery(), containsString("<http://purl.org/dc/terms/modified>"));
+        assertThat(simulator.getLastQuery(), not(containsString("GROUP_CONCAT")));
+        simulator.setAttributeCount(101);
+        assertThat(knowledgeSystemsRepository.getFingerprint(), not(equalTo(fingerprint)));
+    }
+
+    @Test
+    public void largeResponseTest() {
+        simulator.setAttributeCount(20000);
+        assertThat(knowledgeSystemsRepository.getClinicalAttributeMetadata().size(), equalTo(20000));
+    }
+
+    @Test
+    public void sessionIsReusedTest() {
+        knowledgeSystemsRepository.getClinicalAttributeMetadata();
+        knowledgeSystemsRepository.getClinicalAttributeMetadataOverrides();
+        assertThat(simulator.getLoginCount(), equalTo(1));
+        assertThat(simulator.getRejectedSparqlRequestCount(), equalTo(0));
+    }
+
+    @Test
+    public void expiredSessionIsRenewedTest() {
+        knowledgeSystemsRepository.getClinicalAttributeMetadata();
+        simulator.expireSessions();
+        assertThat(knowledgeSystemsRepository.getClinicalAttributeMetadata().size(), equalTo(100));
+        assertThat(simulator.getLoginCount(), equalTo(2));
+        assertThat(simulator.getRejectedSparqlRequestCount(), equalTo(1));
+        assertThat(simulator.getSparqlRequestCount(), equalTo(3));
+    }
+
+    @Test
+    public void singleErrorIsRetriedTest() {
+        simulator.failNextSparqlRequests(1, 500);
+        assertThat(knowledgeSystemsRepository.getClinicalAttributeMetadata().size(), equalTo(100));
+        assertThat(simulator.getSparqlRequestCount(), equalTo(2));
+    }
+
+    @Test
+    public void repeatedErrorIsNotRetriedAgainTest() {
+        simulator.failNextSparqlRequests(2, 503);
+        try {
+            knowledgeSystemsRepository.getClinicalAttributeMetadata();
+            fail("Expected RuntimeException when TopBraid fails twice");
+        } catch (RuntimeException e) {
+            assertThat(e.getCause() instanceof TopBraidException, equalTo(true));
+        }
+        assertThat(simulator.getSparqlRequestCount(), equalTo(2));
+    }
+
+    @Test
+    public void failedLoginTest() {
+        sessionConfiguration.setPassword("wrong-password");
+        try {
+            knowledgeSystemsRepository.getClinicalAttributeMetadata();
+            fail("Expected RuntimeException when the TopBraid login fails");
+        } catch (RuntimeException e) {
+            assertThat(e.getCause() instanceof TopBraidException, equalTo(true));
+        }
+        assertThat(simulator.getLoginCount(), equalTo(0));
+        assertThat(simulator.getRejectedSparqlRequestCount(), equalTo(2));
+    }
+
+    @Test
+    public void latencyTest() {
+        simulator.setLatencyMillis(300);
+        long start = System.currentTimeMillis();
+        knowledgeSystemsRepository.getClinicalAttributeMetadata();
+        assertThat(System.currentTimeMillis() - start, greaterThan(299L));
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF
+ * MERCHANTABILITY OR FITNESS FOR A PARTICULAR PURPOSE.  The software and
+ * documentation provided hereunder is on an "as is" basis, and
+ * Memorial Sloan-Kettering Cancer Center
+ * has no obligations to provide maintenance, support,
+ * updates, enhancements or modifications.  In no event shall
+ * Memorial Sloan-Kettering Cancer Center
+ * be liable to any party for direct, indirect, special,
+ * incidental or consequential damages, including lost profits, arising
+ * out of the use of this software and its documentation, even if
+ * Memorial Sloan-Kettering Cancer Center
+ * has been advised of the possibility of such damage.
+*/
+
+package org.cbioportal.cdd.repository.topbraid;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded stand-in for a TopBraid server, for testing TopBraidSessionManager,
+ * TopBraidRepository and KnowledgeSystemsRepository offline.
+ *
+ * It serves the same login flow as TopBraid:
+ *   HEAD {loginURL} returns a new (anonymous) JSESSIONID cookie
+ *   HEAD {loginURL}/j_security_check?j_username=..&amp;j_password=.. with that cookie
+ *     returns an authenticated JSESSIONID cookie if the credentials are right
+ * and SPARQL queries:
+ *   POST {serviceURL} with an authenticated JSESSIONID cookie returns
+ *     application/sparql-results+json-simple: the attributes, or the overrides
+ *     if the query selects ?study_id, or the fingerprint if it selects ?fingerprint
+ *
+ * The response size, latency, errors and session expiry can be set while the
+ * simulator is running.  Responses are streamed, so large dictionaries do not have
+ * to fit in the simulator's memory.
+ */
+public class TopBraidSimulator {
+
+    public static final String USERNAME = "simulator-user";
+    public static final String PASSWORD = "simulator-password";
+    public static final String SPARQL_RESULTS_CONTENT_TYPE = "application/sparql-results+json-simple";
+
+    private static final String LOGIN_PATH = "/edg/tbl";
+    private static final String SERVICE_PATH = "/edg/tbl/sparql";
+    private static final String SESSION_COOKIE_NAME = "JSESSIONID";
+    private static final String[] DATATYPES = {"STRING", "NUMBER", "BOOLEAN"};
+    private static final String[] ATTRIBUTE_TYPES = {"PATIENT", "SAMPLE"};
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final Set<String> anonymousSessions = ConcurrentHashMap.newKeySet();
+    private final Set<String> authenticatedSessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger loginCount = new AtomicInteger();
+    private final AtomicInteger sparqlRequestCount = new AtomicInteger();
+    private final AtomicInteger rejectedSparqlRequestCount = new AtomicInteger();
+    private final AtomicInteger failNextSparqlRequestCount = new AtomicInteger();
+
+    private volatile int attributeCount = 100;
+    private volatile int overrideStudyCount = 10;
+    private volatile int overridesPerStudy = 5;
+    private volatile long latencyMillis = 0;
+    private volatile double sparqlErrorRate = 0;
+    private volatile int sparqlErrorStatus = 500;
+    private volatile String lastQuery;
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+    * Starts the simulator on a free port on localhost.
+    */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(LOGIN_PATH, this::handle);
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "topbraid-simulator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public String getLoginURL() {
+        return "http://localhost:" + server.getAddress().getPort() + LOGIN_PATH;
+    }
+
+    public String getServiceURL() {
+        return "http://localhost:" + server.getAddress().getPort() + SERVICE_PATH;
+    }
+
+    /**
+    *
+    * @return
+    * a session configuration for this simulator, with the right credentials
+    */
+    public TopBraidSessionConfiguration makeSessionConfiguration() {
+        TopBraidSessionConfiguration configuration = new TopBraidSessionConfiguration();
+        configuration.setLoginURL(getLoginURL());
+        configuration.setServiceURL(getServiceURL());
+        configuration.setUsername(USERNAME);
+        configuration.setPassword(PASSWORD);
+        return configuration;
+    }
+
+    /**
+    * Sets the number of attributes returned by the attributes query,
+    * named SIM_ATTRIBUTE_00000, SIM_ATTRIBUTE_00001, ...
+    */
+    public void setAttributeCount(int attributeCount) {
+        this.attributeCount = attributeCount;
+    }
+
+    /**
+    * Sets the size of the overrides query response: overrideStudyCount studies
+    * (sim_study_000, sim_study_001, ...) each overriding overridesPerStudy attributes.
+    */
+    public void setOverrides(int overrideStudyCount, int overridesPerStudy) {
+        this.overrideStudyCount = overrideStudyCount;
+        this.overridesPerStudy = overridesPerStudy;
+    }
+
+    /**
+    * Delays every SPARQL response by latencyMillis.
+    */
+    public void setLatencyMillis(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+    * Fails this fraction (0 to 1) of SPARQL requests, at random, with errorStatus.
+    */
+    public void setSparqlErrorRate(double sparqlErrorRate, int errorStatus) {
+        this.sparqlErrorRate = sparqlErrorRate;
+        this.sparqlErrorStatus = errorStatus;
+    }
+
+    /**
+    * Fails the next count SPARQL requests with errorStatus.
+    */
+    public void failNextSparqlRequests(int count, int errorStatus) {
+        this.sparqlErrorStatus = errorStatus;
+        failNextSparqlRequestCount.set(count);
+    }
+
+    /**
+    * Expires all sessions, so the next SPARQL request is rejected with 401 until
+    * the client logs in again.
+    */
+    public void expireSessions() {
+        anonymousSessions.clear();
+        authenticatedSessions.clear();
+    }
+
+    public int getLoginCount() {
+        return loginCount.get();
+    }
+
+    /**
+    *
+    * @return
+    * number of SPARQL requests received, including rejected and failed ones
+    */
+    public int getSparqlRequestCount() {
+        return sparqlRequestCount.get();
+    }
+
+    /**
+    *
+    * @return
+    * number of SPARQL requests rejected because the session was not authenticated
+    */
+    public int getRejectedSparqlRequestCount() {
+        return rejectedSparqlRequestCount.get();
+    }
+
+    /**
+    *
+    * @return
+    * the query of the last SPARQL request received
+    */
+    public String getLastQuery() {
+        return lastQuery;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals(SERVICE_PATH) && "POST".equals(exchange.getRequestMethod())) {
+                handleSparqlRequest(exchange);
+            } else if (path.equals(LOGIN_PATH + "/j_security_check")) {
+                handleLogin(exchange);
+            } else if (path.equals(LOGIN_PATH)) {
+                String sessionId = UUID.randomUUID().toString();
+                anonymousSessions.add(sessionId);
+                setSessionCookie(exchange, sessionId);
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleLogin(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = parseParameters(exchange.getRequestURI().getRawQuery());
+        String sessionId = getSessionId(exchange);
+        if (sessionId == null || !anonymousSessions.remove(sessionId)
+                || !USERNAME.equals(parameters.get("j_username")) || !PASSWORD.equals(parameters.get("j_password"))) {
+            exchange.sendResponseHeaders(403, -1);
+            return;
+        }
+        String authenticatedSessionId = UUID.randomUUID().toString();
+        authenticatedSessions.add(authenticatedSessionId);
+        loginCount.incrementAndGet();
+        setSessionCookie(exchange, authenticatedSessionId);
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void handleSparqlRequest(HttpExchange exchange) throws IOException {
+        sparqlRequestCount.incrementAndGet();
+        Map<String, String> parameters = parseParameters(readBody(exchange));
+        String sessionId = getSessionId(exchange);
+        if (sessionId == null || !authenticatedSessions.contains(sessionId)) {
+            rejectedSparqlRequestCount.incrementAndGet();
+            sendText(exchange, 401, "session expired or not logged in");
+            return;
+        }
+        sleep(latencyMillis);
+        if (failNextSparqlRequestCount.getAndUpdate(count -> Math.max(0, count - 1)) > 0
+                || (sparqlErrorRate > 0 && ThreadLocalRandom.current().nextDouble() < sparqlErrorRate)) {
+            sendText(exchange, sparqlErrorStatus, "simulated error");
+            return;
+        }
+        String query = parameters.get("query");
+        lastQuery = query;
+        exchange.getResponseHeaders().set("Content-Type", SPARQL_RESULTS_CONTENT_TYPE);
+        exchange.sendResponseHeaders(200, 0); // chunked
+        try (OutputStream out = exchange.getResponseBody();
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            if (query != null && query.contains("?fingerprint")) {
+                writeFingerprint(generator);
+            } else if (query != null && query.contains("?study_id")) {
+                writeOverrides(generator);
+            } else {
+                writeAttributes(generator);
+            }
+        }
+    }
+
+    private void writeAttributes(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (int i = 0; i < attributeCount; i++) {
+            generator.writeStartObject();
+            generator.writeStringField("column_header", makeColumnHeader(i));
+            generator.writeStringField("display_name", "Simulated Attribute " + i);
+            generator.writeStringField("attribute_type", ATTRIBUTE_TYPES[i % ATTRIBUTE_TYPES.length]);
+            generator.writeStringField("datatype", DATATYPES[i % DATATYPES.length]);
+            generator.writeStringField("description", "Simulated clinical attribute number " + i + ".");
+            generator.writeStringField("priority", "1");
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private void writeFingerprint(JsonGenerator generator) throws IOException {
+        // the simulated data only depends on these, so they stand in for the triples
+        int tripleCount = attributeCount * 6 + overrideStudyCount * overridesPerStudy * 4;
+        generator.writeStartArray();
+        generator.writeStartObject();
+        generator.writeStringField("triple_count", String.valueOf(tripleCount));
+        generator.writeStringField("fingerprint", Integer.toHexString(Objects.hash(attributeCount, overrideStudyCount, overridesPerStudy)));
+        generator.writeEndObject();
+        generator.writeEndArray();
+    }
+
+    private void writeOverrides(JsonGenerator generator) throws IOException {
+        generator.writeStartArray();
+        for (int i = 0; i < overrideStudyCount; i++) {
+            String studyId = String.format("sim_study_%03d", i);
+            for (int j = 0; j < overridesPerStudy && attributeCount > 0; j++) {
+                generator.writeStartObject();
+                generator.writeStringField("study_id", studyId);
+                generator.writeStringField("column_header", makeColumnHeader((i * overridesPerStudy + j) % attributeCount));
+                // like TopBraid, only the overridden values are returned
+                generator.writeStringField("priority", String.valueOf(10 + j));
+                generator.writeStringField("display_name", "Simulated Override " + j + " for " + studyId);
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private static String makeColumnHeader(int index) {
+        return String.format("SIM_ATTRIBUTE_%05d", index);
+    }
+
+    private static void setSessionCookie(HttpExchange exchange, String sessionId) {
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE_NAME + "=" + sessionId + "; Path=/");
+    }
+
+    private static String getSessionId(HttpExchange exchange) {
+        for (String cookieHeader : exchange.getRequestHeaders().getOrDefault("Cookie", Collections.<String>emptyList())) {
+            for (String cookie : cookieHeader.split(";")) {
+                String[] nameAndValue = cookie.trim().split("=", 2);
+                if (nameAndValue.length == 2 && SESSION_COOKIE_NAME.equals(nameAndValue[0])) {
+                    return nameAndValue[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> parseParameters(String encodedParameters) throws IOException {
+        Map<String, String> parameters = new HashMap<String, String>();
+        if (encodedParameters == null || encodedParameters.isEmpty()) {
+            return parameters;
+        }
+        for (String parameter : encodedParameters.split("&")) {
+            String[] nameAndValue = parameter.split("=", 2);
+            parameters.put(URLDecoder.decode(nameAndValue[0], "UTF-8"), nameAndValue.length == 2 ? URLDecoder.decode(nameAndValue[1], "UTF-8") : "");
+        }
+        return parameters;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] buffer = new byte[4096];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                body.write(buffer, 0, read);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static void sendText(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
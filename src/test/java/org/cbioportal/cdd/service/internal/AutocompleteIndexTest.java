@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.cbioportal.cdd.model.ClinicalAttributeCompletion;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AutocompleteIndexTest {
+
+    private AutocompleteIndex autocompleteIndex;
+
+    @Before
+    public void createIndex() {
+        autocompleteIndex = new AutocompleteIndex(Arrays.asList(
+            new ClinicalAttributeMetadata("DISEASE_STAGE", "Disease Stage", "Disease Stage", "STRING", "SAMPLE", "1"),
+            new ClinicalAttributeMetadata("STAGE_AT_DIAGNOSIS", "Stage At Diagnosis", "Stage at diagnosis.", "STRING", "PATIENT", "5"),
+            new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "10"),
+            new ClinicalAttributeMetadata("SAMPLE_TYPE", "Sample Type", "Sample type.", "STRING", "SAMPLE", "1"),
+            new ClinicalAttributeMetadata("STAGE_STAGE", "Stage (Stage)", "Stage.", "STRING", "SAMPLE", "1")));
+    }
+
+    @Test
+    public void prefixMatchesWordStartsInPriorityOrderTest() {
+        assertThat(getColumnHeaders(autocompleteIndex.complete("sta", 10)), equalTo(Arrays.asList("STAGE_AT_DIAGNOSIS", "DISEASE_STAGE", "STAGE_STAGE")));
+        assertThat(getColumnHeaders(autocompleteIndex.complete("Diag", 10)), equalTo(Arrays.asList("AGE", "STAGE_AT_DIAGNOSIS")));
+        assertThat(getColumnHeaders(autocompleteIndex.complete("disease s", 10)), equalTo(Arrays.asList("DISEASE_STAGE")));
+        assertThat(getColumnHeaders(autocompleteIndex.complete("age", 10)), equalTo(Arrays.asList("AGE")));
+    }
+
+    @Test
+    public void prefixDoesNotMatchWithinWordsTest() {
+        assertThat(autocompleteIndex.complete("tage", 10).isEmpty(), equalTo(true));
+        assertThat(autocompleteIndex.complete("zzz", 10).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void limitTest() {
+        assertThat(getColumnHeaders(autocompleteIndex.complete("s", 2)), equalTo(Arrays.asList("STAGE_AT_DIAGNOSIS", "DISEASE_STAGE")));
+        assertThat(autocompleteIndex.complete("s", 0).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void limitOnWidePrefixTest() {
+        // every attribute matches "s", the limit keeps the highest priorities, ties by column header
+        List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>();
+        for (int i = 0; i < 500; i++) {
+            String columnHeader = String.format("SIM_%03d", (i * 7) % 500);
+            // repeated words give an attribute several keys for the prefix
+            clinicalAttributes.add(new ClinicalAttributeMetadata(columnHeader, "Sim Sample Set " + i, "Simulated.", "STRING", "SAMPLE", String.valueOf(i % 50)));
+        }
+        AutocompleteIndex wideIndex = new AutocompleteIndex(clinicalAttributes);
+        List<String> expectedColumnHeaders = new ArrayList<String>();
+        for (int priority = 49; expectedColumnHeaders.size() < 25; priority--) {
+            List<String> columnHeadersWithPriority = new ArrayList<String>();
+            for (int i = priority; i < 500; i += 50) {
+                columnHeadersWithPriority.add(String.format("SIM_%03d", (i * 7) % 500));
+            }
+            Collections.sort(columnHeadersWithPriority);
+            expectedColumnHeaders.addAll(columnHeadersWithPriority);
+        }
+        expectedColumnHeaders = expectedColumnHeaders.subList(0, 25);
+        assertThat(getColumnHeaders(wideIndex.complete("s", 25)), equalTo(expectedColumnHeaders));
+        assertThat(getColumnHeaders(wideIndex.complete("s", 1000)).size(), equalTo(AutocompleteIndex.MAXIMUM_LIMIT));
+    }
+
+    @Test
+    public void blankPrefixMatchesNothingTest() {
+        assertThat(autocompleteIndex.complete("  ", 10).isEmpty(), equalTo(true));
+        assertThat(autocompleteIndex.complete(null, 10).isEmpty(), equalTo(true));
+    }
+
+    private static List<String> getColumnHeaders(List<ClinicalAttributeCompletion> completions) {
+        List<String> columnHeaders = new ArrayList<String>();
+        for (ClinicalAttributeCompletion completion : completions) {
+            columnHeaders.add(completion.getColumnHeader());
+        }
+        return columnHeaders;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.cbioportal.cdd.model.ClinicalAttributeFacets;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
+import org.cbioportal.cdd.model.ColumnHeaderLookupResult;
+import org.cbioportal.cdd.model.MskVocabularyField;
+import org.cbioportal.cdd.repository.topbraid.MskVocabularyRepository;
+import org.cbioportal.cdd.service.exception.CancerStudyNotFoundException;
+import org.cbioportal.cdd.service.exception.ClinicalAttributeNotFoundException;
+import org.cbioportal.cdd.service.util.MSKVocabStudyUtil;
+import org.cbioportal.cdd.service.util.MskVocabularyConverter;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CDDServiceMskVocabularyImplTest {
+
+    private CDDServiceMskVocabularyImpl mskVocabularyService;
+
+    @Before
+    public void createService() throws Exception {
+        final ArrayList<MskVocabularyField> mskVocabularyFields = new ArrayList<MskVocabularyField>(Arrays.asList(
+            createMskVocabularyField("tumor_site", "Tumor Site", "STRING", "SAMPLE"),
+            createMskVocabularyField("tumor_size", "Tumor Size", "NUMBER", "SAMPLE"),
+            createMskVocabularyField("sex", "Sex", "STRING", "PATIENT"),
+            createMskVocabularyField("age_at_diagnosis", "Age at Diagnosis", "NUMBER", "PATIENT")));
+        MSKVocabStudyUtil mskVocabStudyUtil = new MSKVocabStudyUtil();
+        setField(mskVocabStudyUtil, "studyIdSet", new HashSet<String>(Arrays.asList("msk_vocabulary_study")));
+        mskVocabularyService = new CDDServiceMskVocabularyImpl();
+        setField(mskVocabularyService, "mskVocabStudyUtil", mskVocabStudyUtil);
+        setField(mskVocabularyService, "mskVocabularyConverter", new MskVocabularyConverter());
+        setField(mskVocabularyService, "mskVocabularyRepository", new MskVocabularyRepository(null) {
+            @Override
+            public ArrayList<MskVocabularyField> getClinicalAttributeMetadata() {
+                return mskVocabularyFields;
+            }
+        });
+    }
+
+    @Test
+    public void filteredListingTest() throws Exception {
+        assertThat(getColumnHeaders(mskVocabularyService.getClinicalAttributeMetadata(null, "sample", "number", null, null, null)),
+            equalTo(Arrays.asList("TUMOR_SIZE")));
+        assertThat(getColumnHeaders(mskVocabularyService.getClinicalAttributeMetadata(null, "PATIENT", null, null, null, ClinicalAttributeSort.COLUMN_HEADER)),
+            equalTo(Arrays.asList("AGE_AT_DIAGNOSIS", "SEX")));
+        assertThat(getColumnHeaders(mskVocabularyService.getClinicalAttributeMetadata(null, null, "STRING", 1, true, ClinicalAttributeSort.COLUMN_HEADER)),
+            equalTo(Arrays.asList("SEX", "TUMOR_SITE")));
+        // nothing can match an unknown datatype
+        assertThat(getColumnHeaders(mskVocabularyService.getClinicalAttributeMetadata(null, null, "DATE", null, null, null)),
+            equalTo(new ArrayList<String>()));
+    }
+
+    @Test
+    public void suggestionsForMissingColumnHeadersTest() throws Exception {
+        ColumnHeaderLookupResult result = mskVocabularyService.getMetadataByColumnHeadersPartial(null, Arrays.asList("sex", "TUMOR_SITES", "XYZ"), true);
+        assertThat(getColumnHeaders(result.getAttributes()), equalTo(Arrays.asList("SEX")));
+        assertThat(result.getMissing(), equalTo(Arrays.asList("TUMOR_SITES", "XYZ")));
+        assertThat(result.getSuggestions().get("TUMOR_SITES"), equalTo(Arrays.asList("TUMOR_SITE", "TUMOR_SIZE")));
+        assertThat(result.getSuggestions().get("XYZ"), equalTo(new ArrayList<String>()));
+    }
+
+    @Test
+    public void facetsTest() {
+        ClinicalAttributeFacets facets = mskVocabularyService.getFacets("msk_vocabulary_study");
+        assertThat(facets.getCancerStudy(), equalTo("msk_vocabulary_study"));
+        assertThat(facets.getAttributeCount(), equalTo(4));
+        assertThat(facets.getOverriddenAttributeCount(), equalTo(0));
+        assertThat(facets.getAttributeTypes().get("SAMPLE"), equalTo(2));
+        assertThat(facets.getDatatypes().get("NUMBER"), equalTo(2));
+    }
+
+    @Test
+    public void clinicalAttributeMetadataOverridesTest() {
+        assertThat(mskVocabularyService.getClinicalAttributeMetadataOverrides("msk_vocabulary_study", true).isEmpty(), equalTo(true));
+    }
+
+    @Test(expected = CancerStudyNotFoundException.class)
+    public void clinicalAttributeMetadataOverridesOfUnknownStudyTest() {
+        mskVocabularyService.getClinicalAttributeMetadataOverrides("mskimpact", false);
+    }
+
+    @Test
+    public void cancerStudyOverridesTest() {
+        assertThat(mskVocabularyService.getCancerStudyOverrides("tumor_site").isEmpty(), equalTo(true));
+    }
+
+    @Test(expected = ClinicalAttributeNotFoundException.class)
+    public void cancerStudyOverridesOfUnknownTermTest() {
+        mskVocabularyService.getCancerStudyOverrides("NO_SUCH_TERM");
+    }
+
+    private static MskVocabularyField createMskVocabularyField(String variable, String label, String typeLabel, String formName) {
+        MskVocabularyField mskVocabularyField = new MskVocabularyField();
+        mskVocabularyField.setVariable(variable);
+        mskVocabularyField.setLabel(label);
+        mskVocabularyField.setTypeLabel(typeLabel);
+        mskVocabularyField.setFormName(formName);
+        return mskVocabularyField;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static List<String> getColumnHeaders(List<ClinicalAttributeMetadata> clinicalAttributes) {
+        List<String> columnHeaders = new ArrayList<String>();
+        for (ClinicalAttributeMetadata clinicalAttributeMetadata : clinicalAttributes) {
+            columnHeaders.add(clinicalAttributeMetadata.getColumnHeader());
+        }
+        return columnHeaders;
+    }
+}
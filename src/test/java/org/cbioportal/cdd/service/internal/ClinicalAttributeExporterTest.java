@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.cbioportal.cdd.model.ClinicalAttributeExport;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClinicalAttributeExporterTest {
+
+    private ClinicalAttributeExporter clinicalAttributeExporter;
+
+    @Before
+    public void createExporter() {
+        clinicalAttributeExporter = new ClinicalAttributeExporter();
+        clinicalAttributeExporter.setRetention("PT1H");
+    }
+
+    @After
+    public void deleteExports() {
+        clinicalAttributeExporter.deleteTemporaryExportDirectory();
+    }
+
+    @Test
+    public void warmWritesExportTest() {
+        ClinicalAttributeMetadataSnapshot snapshot = createSnapshot("AGE");
+        clinicalAttributeExporter.warm(snapshot);
+        ClinicalAttributeExport export = clinicalAttributeExporter.getExport(snapshot, Collections.<String>emptySet());
+        assertThat(Files.exists(export.getFile()), equalTo(true));
+        // the export written by warm() is served, not written again
+        assertThat(clinicalAttributeExporter.getExport(snapshot, Collections.<String>emptySet()), sameInstance(export));
+        // the export directory is private to this process
+        assertThat(export.getFile().getParent().getFileName().toString().startsWith("cdd-export-"), equalTo(true));
+    }
+
+    @Test
+    public void previousExportIsServedAndKeptTest() throws Exception {
+        ClinicalAttributeMetadataSnapshot firstSnapshot = createSnapshot("AGE");
+        clinicalAttributeExporter.warm(firstSnapshot);
+        ClinicalAttributeExport firstExport = clinicalAttributeExporter.getExport(firstSnapshot, Collections.<String>emptySet());
+        // a request which got the first snapshot while the second one is warmed still gets the first export
+        clinicalAttributeExporter.warm(createSnapshot("SEX"));
+        assertThat(clinicalAttributeExporter.getExport(firstSnapshot, Collections.<String>emptySet()), sameInstance(firstExport));
+        Files.setLastModifiedTime(firstExport.getFile(), FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        clinicalAttributeExporter.warm(createSnapshot("OS_MONTHS"));
+        // no longer current or previous, but it has just stopped being served so downloads can finish
+        assertThat(Files.exists(firstExport.getFile()), equalTo(true));
+    }
+
+    @Test
+    public void oldExportIsDeletedAfterRetentionTest() throws Exception {
+        ClinicalAttributeMetadataSnapshot firstSnapshot = createSnapshot("AGE");
+        clinicalAttributeExporter.warm(firstSnapshot);
+        Path firstFile = clinicalAttributeExporter.getExport(firstSnapshot, Collections.<String>emptySet()).getFile();
+        clinicalAttributeExporter.warm(createSnapshot("SEX"));
+        clinicalAttributeExporter.warm(createSnapshot("OS_MONTHS"));
+        assertThat(Files.exists(firstFile), equalTo(true));
+        // not served for longer than the retention period
+        Files.setLastModifiedTime(firstFile, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        ClinicalAttributeMetadataSnapshot lastSnapshot = createSnapshot("SAMPLE_TYPE");
+        clinicalAttributeExporter.warm(lastSnapshot);
+        assertThat(Files.exists(firstFile), equalTo(false));
+        assertThat(clinicalAttributeExporter.getExport(lastSnapshot, Collections.<String>emptySet()).getFile(), not(equalTo(firstFile)));
+    }
+
+    private static ClinicalAttributeMetadataSnapshot createSnapshot(String columnHeader) {
+        Map<String, ClinicalAttributeMetadata> defaults = new HashMap<String, ClinicalAttributeMetadata>();
+        defaults.put(columnHeader, new ClinicalAttributeMetadata(columnHeader, columnHeader, columnHeader, "STRING", "PATIENT", "1"));
+        return new ClinicalAttributeMetadataSnapshot(defaults, new HashMap<String, Map<String, ClinicalAttributeMetadata>>());
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cbioportal.cdd.model.CancerStudyOverride;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClinicalAttributeMetadataSnapshotTest {
+
+    private ClinicalAttributeMetadataSnapshot snapshot;
+
+    @Before
+    public void createSnapshot() {
+        Map<String, ClinicalAttributeMetadata> defaults = new HashMap<String, ClinicalAttributeMetadata>();
+        defaults.put("AGE", new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "1"));
+        defaults.put("DISEASE_STAGE", new ClinicalAttributeMetadata("DISEASE_STAGE", "Disease Stage", "Disease Stage", "STRING", "SAMPLE", "1"));
+        defaults.put("SAMPLE_TYPE", new ClinicalAttributeMetadata("SAMPLE_TYPE", "Sample Type", "Sample type.", "STRING", "SAMPLE", "1"));
+        Map<String, Map<String, ClinicalAttributeMetadata>> overrides = new HashMap<String, Map<String, ClinicalAttributeMetadata>>();
+        Map<String, Map<String, ClinicalAttributeMetadata>> explicitOverrides = new HashMap<String, Map<String, ClinicalAttributeMetadata>>();
+        addOverride(overrides, explicitOverrides, "study_b",
+            new ClinicalAttributeMetadata("DISEASE_STAGE", "Disease Stage", "Disease Stage", "STRING", "PATIENT", "1"),
+            new ClinicalAttributeMetadata("DISEASE_STAGE", null, null, null, "PATIENT", null));
+        addOverride(overrides, explicitOverrides, "study_b",
+            new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "100"),
+            new ClinicalAttributeMetadata("AGE", null, null, null, null, "100"));
+        addOverride(overrides, explicitOverrides, "study_a",
+            new ClinicalAttributeMetadata("AGE", "Age", "Age at diagnosis.", "NUMBER", "PATIENT", "1"),
+            new ClinicalAttributeMetadata("AGE", "Age", null, null, null, null));
+        snapshot = new ClinicalAttributeMetadataSnapshot(defaults, overrides, explicitOverrides);
+    }
+
+    @Test
+    public void cancerStudyOverridesTest() {
+        List<CancerStudyOverride> cancerStudyOverrides = snapshot.getCancerStudyOverrides("age");
+        assertThat(cancerStudyOverrides.size(), equalTo(2));
+        assertThat(cancerStudyOverrides.get(0).getCancerStudy(), equalTo("study_a"));
+        assertThat(cancerStudyOverrides.get(0).getOverriddenFields().keySet().toString(), equalTo("[display_name]"));
+        assertThat(cancerStudyOverrides.get(1).getCancerStudy(), equalTo("study_b"));
+        assertThat(cancerStudyOverrides.get(1).getOverriddenFields().get("priority"), equalTo("100"));
+        assertThat(snapshot.getCancerStudyOverrides("SAMPLE_TYPE"), nullValue());
+    }
+
+    @Test
+    public void clinicalAttributeMetadataOverridesListTest() {
+        List<ClinicalAttributeMetadata> studyOverrides = snapshot.getClinicalAttributeMetadataOverridesList("study_b", false);
+        assertThat(studyOverrides.size(), equalTo(2));
+        assertThat(studyOverrides.get(0).getColumnHeader(), equalTo("AGE"));
+        assertThat(studyOverrides.get(1).getColumnHeader(), equalTo("DISEASE_STAGE"));
+        assertThat(studyOverrides.get(1).getDisplayName(), equalTo("Disease Stage"));
+        List<ClinicalAttributeMetadata> explicitStudyOverrides = snapshot.getClinicalAttributeMetadataOverridesList("study_b", true);
+        assertThat(explicitStudyOverrides.get(1).getColumnHeader(), equalTo("DISEASE_STAGE"));
+        assertThat(explicitStudyOverrides.get(1).getDisplayName(), nullValue());
+        assertThat(explicitStudyOverrides.get(1).getAttributeType(), equalTo("PATIENT"));
+        assertThat(snapshot.getClinicalAttributeMetadataOverridesList("unknown_study", true), nullValue());
+    }
+
+    private static void addOverride(Map<String, Map<String, ClinicalAttributeMetadata>> overrides, Map<String, Map<String, ClinicalAttributeMetadata>> explicitOverrides,
+        String cancerStudy, ClinicalAttributeMetadata override, ClinicalAttributeMetadata explicitOverride) {
+        if (!overrides.containsKey(cancerStudy)) {
+            overrides.put(cancerStudy, new HashMap<String, ClinicalAttributeMetadata>());
+            explicitOverrides.put(cancerStudy, new HashMap<String, ClinicalAttributeMetadata>());
+        }
+        overrides.get(cancerStudy).put(override.getColumnHeader(), override);
+        explicitOverrides.get(cancerStudy).put(explicitOverride.getColumnHeader(), explicitOverride);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import org.cbioportal.cdd.service.ClinicalDataDictionaryService;
+import org.cbioportal.cdd.service.KnowledgeSystemsDataDictionaryService;
+import org.cbioportal.cdd.service.exception.CancerStudyNotSearchableException;
+import org.cbioportal.cdd.service.util.MSKVocabStudyUtil;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ClinicalDataDictionaryServiceImplTest {
+
+    private static final String MSK_VOCABULARY_STUDY = "msk_vocabulary_study";
+
+    private List<String> mskVocabularyCalls;
+    private List<String> knowledgeSystemsCalls;
+    private ClinicalDataDictionaryServiceImpl serviceRouter;
+
+    @Before
+    public void createServiceRouter() throws Exception {
+        MSKVocabStudyUtil mskVocabStudyUtil = new MSKVocabStudyUtil();
+        setField(mskVocabStudyUtil, "studyIdSet", new HashSet<String>(Arrays.asList(MSK_VOCABULARY_STUDY)));
+        mskVocabularyCalls = new ArrayList<String>();
+        knowledgeSystemsCalls = new ArrayList<String>();
+        serviceRouter = new ClinicalDataDictionaryServiceImpl();
+        setField(serviceRouter, "mskVocabStudyUtil", mskVocabStudyUtil);
+        setField(serviceRouter, "cddServiceMskVocabularyImpl", createRecordingService(ClinicalDataDictionaryService.class, mskVocabularyCalls));
+        setField(serviceRouter, "cddServiceTopBraidImpl", createRecordingService(KnowledgeSystemsDataDictionaryService.class, knowledgeSystemsCalls));
+        setField(serviceRouter, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void facetsAreRoutedOnCancerStudyTest() {
+        serviceRouter.getFacets(MSK_VOCABULARY_STUDY);
+        serviceRouter.getFacets("mskimpact");
+        serviceRouter.getFacets(null);
+        assertThat(mskVocabularyCalls, equalTo(Arrays.asList("getFacets " + MSK_VOCABULARY_STUDY)));
+        assertThat(knowledgeSystemsCalls, equalTo(Arrays.asList("getFacets mskimpact", "getFacets null")));
+    }
+
+    @Test
+    public void overridesAreRoutedOnCancerStudyTest() {
+        serviceRouter.getClinicalAttributeMetadataOverrides(MSK_VOCABULARY_STUDY, true);
+        serviceRouter.getClinicalAttributeMetadataOverrides("mskimpact", false);
+        assertThat(mskVocabularyCalls, equalTo(Arrays.asList("getClinicalAttributeMetadataOverrides " + MSK_VOCABULARY_STUDY)));
+        assertThat(knowledgeSystemsCalls, equalTo(Arrays.asList("getClinicalAttributeMetadataOverrides mskimpact")));
+    }
+
+    @Test
+    public void searchIsRoutedToKnowledgeSystemsTest() {
+        serviceRouter.getMetadataBySearchTerms("mskimpact", Arrays.asList("age"), null, false, false, null);
+        serviceRouter.getMetadataBySearchTerms(null, Arrays.asList("age"), null, false, false, null);
+        assertThat(knowledgeSystemsCalls, equalTo(Arrays.asList("getMetadataBySearchTerms mskimpact", "getMetadataBySearchTerms null")));
+    }
+
+    @Test(expected = CancerStudyNotSearchableException.class)
+    public void searchOfMskVocabularyStudyIsRejectedTest() {
+        try {
+            serviceRouter.getMetadataBySearchTerms(MSK_VOCABULARY_STUDY, Arrays.asList("age"), null, false, false, null);
+        } finally {
+            assertThat(mskVocabularyCalls.isEmpty(), equalTo(true));
+            assertThat(knowledgeSystemsCalls.isEmpty(), equalTo(true));
+        }
+    }
+
+    // records each call as the method name and its first argument, and returns null
+    private static <T> T createRecordingService(Class<T> serviceInterface, List<String> calls) {
+        return serviceInterface.cast(Proxy.newProxyInstance(serviceInterface.getClassLoader(), new Class<?>[] {serviceInterface},
+            (proxy, method, args) -> {
+                calls.add(method.getName() + " " + (args == null ? "" : args[0]));
+                return null;
+            }));
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+
+public class ColumnHeaderIndexTest {
+
+    @Test
+    public void mixedCaseAsciiHitsTest() {
+        ColumnHeaderIndex<String> index = createIndex("AGE", "DISEASE_STAGE", "OS_MONTHS");
+        assertThat(index.get("AGE"), equalTo("AGE"));
+        assertThat(index.get("age"), equalTo("AGE"));
+        assertThat(index.get("Disease_Stage"), equalTo("DISEASE_STAGE"));
+        assertThat(index.get("os_MONTHS"), equalTo("OS_MONTHS"));
+        assertThat(index.containsKey("disease_stage"), equalTo(true));
+        assertThat(index.size(), equalTo(3));
+    }
+
+    @Test
+    public void missesTest() {
+        ColumnHeaderIndex<String> index = createIndex("AGE", "DISEASE_STAGE");
+        assertThat(index.get("AGES"), nullValue());
+        assertThat(index.get("AG"), nullValue());
+        assertThat(index.get("DISEASE STAGE"), nullValue());
+        assertThat(index.containsKey("OS_MONTHS"), equalTo(false));
+        // keys are stored as given, so a key which is not upper case can not be found
+        assertThat(createIndex("Age").get("Age"), nullValue());
+        assertThat(new ColumnHeaderIndex<String>(new HashMap<String, String>()).get("AGE"), nullValue());
+    }
+
+    @Test
+    public void nullAndEmptyColumnHeadersTest() {
+        ColumnHeaderIndex<String> index = createIndex("AGE");
+        assertThat(index.get(null), nullValue());
+        assertThat(index.containsKey(null), equalTo(false));
+        assertThat(index.get(""), nullValue());
+        assertThat(createIndex("", "AGE").get(""), equalTo(""));
+        assertThat(ColumnHeaderIndex.fold(null), nullValue());
+    }
+
+    @Test
+    public void collidingColumnHeadersTest() {
+        // "AB" and "B#" have the same hash, so the second one is stored in the next slot
+        ColumnHeaderIndex<String> index = createIndex("AB", "B#");
+        assertThat(index.get("ab"), equalTo("AB"));
+        assertThat(index.get("b#"), equalTo("B#"));
+        assertThat(index.get("BA"), nullValue());
+    }
+
+    @Test
+    public void probesWrapAroundFullTableTest() {
+        // two keys in a table of four slots (the load factor limit) which both hash to the last
+        // slot, so one of them wraps around to the first slot
+        List<String> lastSlotKeys = new ArrayList<String>();
+        for (int i = 0; lastSlotKeys.size() < 2; i++) {
+            String key = "K" + i;
+            int hash = key.hashCode();
+            if (((hash ^ (hash >>> 16)) & 3) == 3) {
+                lastSlotKeys.add(key);
+            }
+        }
+        ColumnHeaderIndex<String> index = createIndex(lastSlotKeys.toArray(new String[0]));
+        for (String key : lastSlotKeys) {
+            assertThat(index.get(key), equalTo(key));
+            assertThat(index.get(key.toLowerCase()), equalTo(key));
+        }
+        assertThat(index.get("K"), nullValue());
+        // every table size, including ones at the load factor limit
+        for (int size = 1; size <= 64; size++) {
+            String[] keys = new String[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = "ATTRIBUTE_" + i;
+            }
+            index = createIndex(keys);
+            for (String key : keys) {
+                assertThat(index.get(key.toLowerCase()), equalTo(key));
+            }
+            assertThat(index.get("ATTRIBUTE_" + size), nullValue());
+        }
+    }
+
+    @Test
+    public void nonAsciiColumnHeadersAgreeWithFoldTest() {
+        Map<String, String> map = new HashMap<String, String>();
+        for (String key : Arrays.asList("STRASSE", "STRA\u00dfE", "\u0130D", "ID", "\u00c7A")) {
+            map.put(key, key);
+        }
+        ColumnHeaderIndex<String> index = new ColumnHeaderIndex<String>(map);
+        for (String columnHeader : Arrays.asList("stra\u00dfe", "Stra\u00dfe", "STRASSE", "\u00df", "\u0130d", "id", "\u0131d", "ID", "\u00e7a", "\u00c7a")) {
+            assertThat(columnHeader, index.get(columnHeader), equalTo(map.get(ColumnHeaderIndex.fold(columnHeader))));
+        }
+        // the sharp s upper-cases to SS, and the dotless i to I
+        assertThat(index.get("stra\u00dfe"), equalTo("STRASSE"));
+        assertThat(index.get("\u0131d"), equalTo("ID"));
+        assertThat(index.get("\u0130d"), equalTo("\u0130D"));
+        // the key with the sharp s is stored, but every probe for it folds to STRASSE
+        assertThat(index.get("STRA\u00dfE"), equalTo("STRASSE"));
+    }
+
+    private static ColumnHeaderIndex<String> createIndex(String... keys) {
+        Map<String, String> map = new HashMap<String, String>();
+        for (String key : keys) {
+            map.put(key, key);
+        }
+        return new ColumnHeaderIndex<String>(map);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LevenshteinDistanceCacheTest {
+
+    private LevenshteinDistanceCache levenshteinDistanceCache;
+
+    @Before
+    public void createCache() {
+        levenshteinDistanceCache = new LevenshteinDistanceCache(new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void distancesAreCachedForWarmedSnapshotTest() {
+        CountingClinicalAttributeMetadata age = new CountingClinicalAttributeMetadata("AGE", "Diagnosis Age");
+        ClinicalAttributeMetadataSnapshot snapshot = makeSnapshot(age);
+        levenshteinDistanceCache.warm(snapshot);
+        Integer levenshteinDistance = levenshteinDistanceCache.getLevenshteinDistance(snapshot, age, "Age");
+        assertThat(levenshteinDistanceCache.getLevenshteinDistance(snapshot, age, "Age"), equalTo(levenshteinDistance));
+        assertThat(age.calculationCount, equalTo(1));
+    }
+
+    @Test
+    public void distancesAreRecalculatedForNewSnapshotTest() {
+        CountingClinicalAttributeMetadata age = new CountingClinicalAttributeMetadata("AGE", "Diagnosis Age");
+        CountingClinicalAttributeMetadata lastStatus = new CountingClinicalAttributeMetadata("LAST_STATUS", "Last Status");
+        ClinicalAttributeMetadataSnapshot snapshot = makeSnapshot(age, lastStatus);
+        levenshteinDistanceCache.warm(snapshot);
+        levenshteinDistanceCache.getLevenshteinDistance(snapshot, age, "Diagnosis");
+        levenshteinDistanceCache.getLevenshteinDistance(snapshot, age, "Age");
+        levenshteinDistanceCache.getLevenshteinDistance(snapshot, lastStatus, "Status");
+        // LAST_STATUS is removed, the display name of AGE changes and no longer contains "Diagnosis"
+        CountingClinicalAttributeMetadata updatedAge = new CountingClinicalAttributeMetadata("AGE", "Age In Years");
+        ClinicalAttributeMetadataSnapshot nextSnapshot = makeSnapshot(updatedAge);
+        levenshteinDistanceCache.warm(nextSnapshot);
+        assertThat(updatedAge.calculationCount, equalTo(1));
+        assertThat(levenshteinDistanceCache.getLevenshteinDistance(nextSnapshot, updatedAge, "Age"), equalTo(updatedAge.levenshteinDistanceFromSearchTerm("Age")));
+        assertThat(updatedAge.calculationCount, equalTo(2));
+    }
+
+    @Test
+    public void distancesAreNotCachedForPreviousSnapshotTest() {
+        CountingClinicalAttributeMetadata age = new CountingClinicalAttributeMetadata("AGE", "Diagnosis Age");
+        ClinicalAttributeMetadataSnapshot snapshot = makeSnapshot(age);
+        levenshteinDistanceCache.warm(snapshot);
+        levenshteinDistanceCache.warm(makeSnapshot());
+        levenshteinDistanceCache.getLevenshteinDistance(snapshot, age, "Age");
+        levenshteinDistanceCache.getLevenshteinDistance(snapshot, age, "Age");
+        assertThat(age.calculationCount, equalTo(2));
+    }
+
+    private static ClinicalAttributeMetadataSnapshot makeSnapshot(ClinicalAttributeMetadata... clinicalAttributes) {
+        Map<String, ClinicalAttributeMetadata> clinicalAttributeMetadata = new HashMap<String, ClinicalAttributeMetadata>();
+        for (ClinicalAttributeMetadata clinicalAttribute : clinicalAttributes) {
+            clinicalAttributeMetadata.put(clinicalAttribute.getColumnHeader(), clinicalAttribute);
+        }
+        return new ClinicalAttributeMetadataSnapshot(clinicalAttributeMetadata, Collections.<String, Map<String, ClinicalAttributeMetadata>>emptyMap());
+    }
+
+    /**
+    * Counts how often its levenshtein distances are calculated.
+    */
+    private static class CountingClinicalAttributeMetadata extends ClinicalAttributeMetadata {
+
+        private int calculationCount = 0;
+
+        private CountingClinicalAttributeMetadata(String columnHeader, String displayName) {
+            super(columnHeader, displayName, displayName + ".", "STRING", "PATIENT", "1");
+        }
+
+        @Override
+        public Integer levenshteinDistanceFromSearchTerm(String searchTerm) {
+            calculationCount++;
+            return super.levenshteinDistanceFromSearchTerm(searchTerm);
+        }
+    }
+}
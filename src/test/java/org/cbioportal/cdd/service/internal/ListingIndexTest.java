@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.cbioportal.cdd.model.AttributeType;
+import org.cbioportal.cdd.model.ClinicalAttributeFacets;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import org.cbioportal.cdd.model.ClinicalAttributeSort;
+import org.cbioportal.cdd.model.Datatype;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ListingIndexTest {
+
+    private static final ListingIndex.Filter NO_FILTER = new ListingIndex.Filter(null, null, null, null);
+
+    private ListingIndex listingIndex;
+    private ListingIndex.Overlay overlay;
+
+    @Before
+    public void createIndex() {
+        Map<String, ClinicalAttributeMetadata> overrides = new HashMap<String, ClinicalAttributeMetadata>();
+        overrides.put("DISEASE_STAGE", new ClinicalAttributeMetadata("DISEASE_STAGE", "Clinical Stage", "Disease Stage", "STRING", "PATIENT", "20"));
+        overrides.put("AGE", new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "0"));
+        // not a default attribute, so it is not listed
+        overrides.put("UNKNOWN", new ClinicalAttributeMetadata("UNKNOWN", "Unknown", "Unknown.", "STRING", "PATIENT", "1"));
+        Map<String, Map<String, ClinicalAttributeMetadata>> overridesByStudy = new HashMap<String, Map<String, ClinicalAttributeMetadata>>();
+        overridesByStudy.put("test_study", overrides);
+        listingIndex = new ListingIndex(Arrays.asList(
+            new ClinicalAttributeMetadata("DISEASE_STAGE", "Disease Stage", "Disease Stage", "STRING", "SAMPLE", "1"),
+            new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "10"),
+            new ClinicalAttributeMetadata("OTHER_PATIENT_ID", "Other Patient ID", "Other patient identifier.", "STRING", "PATIENT", "0"),
+            new ClinicalAttributeMetadata("SAMPLE_TYPE", "sample type", "Sample type.", "STRING", "SAMPLE", "5"),
+            new ClinicalAttributeMetadata("OS_MONTHS", "Overall Survival (Months)", "Overall survival in months.", "NUMBER", "PATIENT", "5")),
+            overridesByStudy);
+        overlay = listingIndex.getOverlay("test_study");
+    }
+
+    @Test
+    public void unsortedListingKeepsDefaultOrderTest() {
+        assertThat(getColumnHeaders(listingIndex.list(null, false, NO_FILTER, null)),
+            equalTo(Arrays.asList("DISEASE_STAGE", "AGE", "OTHER_PATIENT_ID", "SAMPLE_TYPE", "OS_MONTHS")));
+        assertThat(getColumnHeaders(listingIndex.list(null, false, new ListingIndex.Filter(AttributeType.PATIENT, Datatype.NUMBER, null, null), null)),
+            equalTo(Arrays.asList("AGE", "OS_MONTHS")));
+    }
+
+    @Test
+    public void sortedListingTest() {
+        assertThat(getColumnHeaders(listingIndex.list(null, false, NO_FILTER, ClinicalAttributeSort.PRIORITY)),
+            equalTo(Arrays.asList("AGE", "OS_MONTHS", "SAMPLE_TYPE", "DISEASE_STAGE", "OTHER_PATIENT_ID")));
+        assertThat(getColumnHeaders(listingIndex.list(null, false, NO_FILTER, ClinicalAttributeSort.COLUMN_HEADER)),
+            equalTo(Arrays.asList("AGE", "DISEASE_STAGE", "OS_MONTHS", "OTHER_PATIENT_ID", "SAMPLE_TYPE")));
+        // display names are compared ignoring case
+        assertThat(getColumnHeaders(listingIndex.list(null, false, NO_FILTER, ClinicalAttributeSort.DISPLAY_NAME)),
+            equalTo(Arrays.asList("AGE", "DISEASE_STAGE", "OTHER_PATIENT_ID", "OS_MONTHS", "SAMPLE_TYPE")));
+    }
+
+    @Test
+    public void priorityFiltersTest() {
+        assertThat(getColumnHeaders(listingIndex.list(null, false, new ListingIndex.Filter(null, null, 5, null), ClinicalAttributeSort.PRIORITY)),
+            equalTo(Arrays.asList("AGE", "OS_MONTHS", "SAMPLE_TYPE")));
+        assertThat(getColumnHeaders(listingIndex.list(null, false, new ListingIndex.Filter(null, null, 100, null), null)).isEmpty(), equalTo(true));
+        assertThat(getColumnHeaders(listingIndex.list(null, false, new ListingIndex.Filter(null, null, null, false), null)),
+            equalTo(Arrays.asList("OTHER_PATIENT_ID")));
+        assertThat(listingIndex.list(null, false, new ListingIndex.Filter(null, null, null, true), null).size(), equalTo(4));
+    }
+
+    @Test
+    public void overlayReplacesOverriddenAttributesTest() {
+        List<ClinicalAttributeMetadata> clinicalAttributes = listingIndex.list(overlay, false, NO_FILTER, null);
+        assertThat(getColumnHeaders(clinicalAttributes), equalTo(Arrays.asList("DISEASE_STAGE", "AGE", "OTHER_PATIENT_ID", "SAMPLE_TYPE", "OS_MONTHS")));
+        assertThat(clinicalAttributes.get(0).getDisplayName(), equalTo("Clinical Stage"));
+        // filtered by the overridden attribute type and priority, sorted by the overridden priority and display name
+        assertThat(getColumnHeaders(listingIndex.list(overlay, false, new ListingIndex.Filter(AttributeType.PATIENT, null, null, true), ClinicalAttributeSort.PRIORITY)),
+            equalTo(Arrays.asList("DISEASE_STAGE", "OS_MONTHS")));
+        assertThat(getColumnHeaders(listingIndex.list(overlay, false, NO_FILTER, ClinicalAttributeSort.PRIORITY)),
+            equalTo(Arrays.asList("DISEASE_STAGE", "OS_MONTHS", "SAMPLE_TYPE", "AGE", "OTHER_PATIENT_ID")));
+        assertThat(getColumnHeaders(listingIndex.list(overlay, false, NO_FILTER, ClinicalAttributeSort.DISPLAY_NAME)),
+            equalTo(Arrays.asList("DISEASE_STAGE", "AGE", "OTHER_PATIENT_ID", "OS_MONTHS", "SAMPLE_TYPE")));
+        assertThat(getColumnHeaders(listingIndex.list(overlay, false, NO_FILTER, ClinicalAttributeSort.COLUMN_HEADER)),
+            equalTo(Arrays.asList("AGE", "DISEASE_STAGE", "OS_MONTHS", "OTHER_PATIENT_ID", "SAMPLE_TYPE")));
+    }
+
+    @Test
+    public void hiddenDefaultsTest() {
+        // only the overridden DISEASE_STAGE has a priority above 0
+        assertThat(getColumnHeaders(listingIndex.list(overlay, true, new ListingIndex.Filter(null, null, 1, null), null)),
+            equalTo(Arrays.asList("DISEASE_STAGE")));
+        assertThat(getColumnHeaders(listingIndex.list(overlay, true, new ListingIndex.Filter(null, null, null, false), null)),
+            equalTo(Arrays.asList("AGE", "OTHER_PATIENT_ID", "SAMPLE_TYPE", "OS_MONTHS")));
+        // ties at priority 0 by column header
+        assertThat(getColumnHeaders(listingIndex.list(overlay, true, NO_FILTER, ClinicalAttributeSort.PRIORITY)),
+            equalTo(Arrays.asList("DISEASE_STAGE", "AGE", "OS_MONTHS", "OTHER_PATIENT_ID", "SAMPLE_TYPE")));
+    }
+
+    @Test
+    public void facetsTest() {
+        ClinicalAttributeFacets facets = listingIndex.countFacets(null, null, false);
+        assertThat(facets.getAttributeCount(), equalTo(5));
+        assertThat(facets.getOverriddenAttributeCount(), equalTo(2));
+        assertThat(facets.getAttributeTypes().get("PATIENT"), equalTo(3));
+        assertThat(facets.getAttributeTypes().get("SAMPLE"), equalTo(2));
+        assertThat(facets.getDatatypes().get("NUMBER"), equalTo(2));
+        assertThat(facets.getDatatypes().get("BOOLEAN"), equalTo(0));
+        assertThat(new ArrayList<Integer>(facets.getPriorities().values()), equalTo(Arrays.asList(1, 1, 2, 1, 0)));
+        assertThat(new ArrayList<Integer>(facets.getOverridingStudies().values()), equalTo(Arrays.asList(3, 2, 0, 0)));
+
+        // DISEASE_STAGE is a PATIENT attribute with priority 20 and AGE has priority 0 for the study
+        facets = listingIndex.countFacets("test_study", overlay, false);
+        assertThat(facets.getCancerStudy(), equalTo("test_study"));
+        assertThat(facets.getOverriddenAttributeCount(), equalTo(2));
+        assertThat(facets.getAttributeTypes().get("PATIENT"), equalTo(4));
+        assertThat(new ArrayList<Integer>(facets.getPriorities().values()), equalTo(Arrays.asList(2, 0, 2, 1, 0)));
+
+        facets = listingIndex.countFacets("test_study", overlay, true);
+        assertThat(new ArrayList<Integer>(facets.getPriorities().values()), equalTo(Arrays.asList(4, 0, 0, 1, 0)));
+    }
+
+    private List<String> getColumnHeaders(List<ClinicalAttributeMetadata> clinicalAttributes) {
+        List<String> columnHeaders = new ArrayList<String>();
+        for (ClinicalAttributeMetadata clinicalAttributeMetadata : clinicalAttributes) {
+            columnHeaders.add(clinicalAttributeMetadata.getColumnHeader());
+        }
+        return columnHeaders;
+    }
+}
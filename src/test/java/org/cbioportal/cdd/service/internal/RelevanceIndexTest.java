@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.junit.Test;
+
+public class RelevanceIndexTest {
+
+    @Test
+    public void shorterFieldRanksFirstTest() {
+        ClinicalAttributeMetadata shortDescription = new ClinicalAttributeMetadata("A_ATTRIBUTE", "A", "Tumor stage.", "STRING", "PATIENT", "1");
+        ClinicalAttributeMetadata longDescription = new ClinicalAttributeMetadata("B_ATTRIBUTE", "B",
+            "The extent of the tumor based on evidence obtained from clinical assessment parameters determined prior to treatment, reported as a stage.",
+            "STRING", "PATIENT", "1");
+        List<ClinicalAttributeMetadata> clinicalAttributes = Arrays.asList(longDescription, shortDescription);
+        RelevanceIndex relevanceIndex = new RelevanceIndex(clinicalAttributes);
+        assertThat(relevanceIndex.rank(clinicalAttributes, Arrays.asList("stage")), equalTo(Arrays.asList(shortDescription, longDescription)));
+    }
+
+    @Test
+    public void columnHeaderOutweighsDescriptionTest() {
+        ClinicalAttributeMetadata inColumnHeader = new ClinicalAttributeMetadata("TUMOR_STAGE", "Tumor Status", "Status.", "STRING", "PATIENT", "1");
+        ClinicalAttributeMetadata inDescription = new ClinicalAttributeMetadata("TUMOR_STATUS", "Tumor Status", "Stage.", "STRING", "PATIENT", "1");
+        List<ClinicalAttributeMetadata> clinicalAttributes = Arrays.asList(inDescription, inColumnHeader);
+        RelevanceIndex relevanceIndex = new RelevanceIndex(clinicalAttributes);
+        assertThat(relevanceIndex.rank(clinicalAttributes, Arrays.asList("stage")), equalTo(Arrays.asList(inColumnHeader, inDescription)));
+    }
+
+    @Test
+    public void rareWordOutweighsCommonWordTest() {
+        ClinicalAttributeMetadata common = new ClinicalAttributeMetadata("SAMPLE_TYPE", "Sample Type", "Sample type.", "STRING", "SAMPLE", "1");
+        ClinicalAttributeMetadata rare = new ClinicalAttributeMetadata("NECROSIS", "Necrosis", "Necrosis.", "STRING", "SAMPLE", "1");
+        ClinicalAttributeMetadata other = new ClinicalAttributeMetadata("SAMPLE_CLASS", "Sample Class", "Sample class.", "STRING", "SAMPLE", "1");
+        List<ClinicalAttributeMetadata> clinicalAttributes = Arrays.asList(common, rare, other);
+        RelevanceIndex relevanceIndex = new RelevanceIndex(clinicalAttributes);
+        List<ClinicalAttributeMetadata> rankedClinicalAttributes = relevanceIndex.rank(clinicalAttributes, Arrays.asList("sample", "necrosis"));
+        assertThat(rankedClinicalAttributes.get(0), equalTo(rare));
+    }
+
+    @Test
+    public void overlayScoresOverriddenAttributesTest() {
+        ClinicalAttributeMetadata age = new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "1");
+        ClinicalAttributeMetadata stage = new ClinicalAttributeMetadata("DISEASE_STAGE", "Disease Stage", "Disease stage.", "STRING", "SAMPLE", "1");
+        ClinicalAttributeMetadata status = new ClinicalAttributeMetadata("LAST_STATUS", "Last Status", "Last status.", "STRING", "PATIENT", "1");
+        RelevanceIndex relevanceIndex = new RelevanceIndex(Arrays.asList(age, stage, status));
+        ClinicalAttributeMetadata overriddenAge = new ClinicalAttributeMetadata("AGE", "Age At Stage", "Age at disease stage.", "NUMBER", "PATIENT", "1");
+        RelevanceIndex overlay = new RelevanceIndex(Collections.singletonList(overriddenAge), relevanceIndex);
+        List<ClinicalAttributeMetadata> clinicalAttributes = Arrays.asList(overriddenAge, stage, status);
+        List<ClinicalAttributeMetadata> rankedClinicalAttributes = overlay.rank(clinicalAttributes, Arrays.asList("stage"));
+        // the attributes which are not overridden are scored by the default index
+        assertThat(rankedClinicalAttributes, equalTo(Arrays.asList(stage, overriddenAge, status)));
+        // the overlay only holds the overridden attribute
+        assertThat(overlay.score(Arrays.asList("stage")).length, equalTo(1));
+    }
+
+    @Test
+    public void findClinicalAttributesTest() {
+        ClinicalAttributeMetadata age = new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "1");
+        ClinicalAttributeMetadata stage = new ClinicalAttributeMetadata("DISEASE_STAGE", "Disease Stage", "Disease stage.", "STRING", "SAMPLE", "1");
+        ClinicalAttributeMetadata status = new ClinicalAttributeMetadata("LAST_STATUS", "Last Status", "Last status.", "STRING", "PATIENT", "1");
+        RelevanceIndex relevanceIndex = new RelevanceIndex(Arrays.asList(age, stage, status));
+        assertThat(relevanceIndex.findClinicalAttributes(Arrays.asList("stage", "status")), containsInAnyOrder(stage, status));
+        assertThat(relevanceIndex.findClinicalAttributes(Collections.singletonList("unknown")), empty());
+        // an overlay finds its own attributes and the ones of the index it overlays
+        ClinicalAttributeMetadata overriddenAge = new ClinicalAttributeMetadata("AGE", "Age At Stage", "Age at disease stage.", "NUMBER", "PATIENT", "1");
+        RelevanceIndex overlay = new RelevanceIndex(Collections.singletonList(overriddenAge), relevanceIndex);
+        assertThat(overlay.findClinicalAttributes(Collections.singletonList("stage")), containsInAnyOrder(stage, overriddenAge));
+    }
+
+    @Test
+    public void findWordsContainingTest() {
+        ClinicalAttributeMetadata stage = new ClinicalAttributeMetadata("DISEASE_STAGE", "Disease Stage", "Disease stage.", "STRING", "SAMPLE", "1");
+        RelevanceIndex relevanceIndex = new RelevanceIndex(Collections.singletonList(stage));
+        ClinicalAttributeMetadata age = new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "1");
+        RelevanceIndex overlay = new RelevanceIndex(Collections.singletonList(age), relevanceIndex);
+        assertThat(relevanceIndex.findWordsContaining("age"), containsInAnyOrder("stage"));
+        assertThat(overlay.findWordsContaining("age"), containsInAnyOrder("stage", "age"));
+    }
+
+    @Test
+    public void tiesAreRankedByColumnHeaderTest() {
+        ClinicalAttributeMetadata b = new ClinicalAttributeMetadata("B", "B", "B.", "STRING", "SAMPLE", "1");
+        ClinicalAttributeMetadata a = new ClinicalAttributeMetadata("A", null, null, "STRING", "SAMPLE", "1");
+        List<ClinicalAttributeMetadata> clinicalAttributes = Arrays.asList(b, a);
+        RelevanceIndex relevanceIndex = new RelevanceIndex(clinicalAttributes);
+        assertThat(relevanceIndex.rank(clinicalAttributes, Collections.singletonList("unknown")), equalTo(Arrays.asList(a, b)));
+        assertThat(relevanceIndex.score(Collections.singletonList("unknown"))[0], equalTo(0.0f));
+    }
+}
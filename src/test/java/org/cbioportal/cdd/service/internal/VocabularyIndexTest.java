@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.cbioportal.cdd.model.ClinicalAttributeMetadata;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VocabularyIndexTest {
+
+    private ClinicalAttributeMetadata tmb;
+    private ClinicalAttributeMetadata mutationCount;
+    private ClinicalAttributeMetadata age;
+    private VocabularyIndex vocabularyIndex;
+
+    @Before
+    public void createIndex() {
+        tmb = new ClinicalAttributeMetadata("TMB_NONSYNONYMOUS", "Tumor Mutation Burden Nonsynonymous", "TMB.", "NUMBER", "SAMPLE", "1");
+        mutationCount = new ClinicalAttributeMetadata("MUTATION_COUNT", "Mutation Count", "Mutation count.", "NUMBER", "SAMPLE", "1");
+        age = new ClinicalAttributeMetadata("AGE", "Diagnosis Age", "Age at diagnosis.", "NUMBER", "PATIENT", "1");
+        vocabularyIndex = new VocabularyIndex(Arrays.asList(tmb, mutationCount, age));
+    }
+
+    @Test
+    public void misspelledWordsMatchTest() {
+        assertThat(vocabularyIndex.findNearMatches("mutaton burden"), containsInAnyOrder(tmb));
+        assertThat(vocabularyIndex.findNearMatches("MUTATON"), containsInAnyOrder(tmb, mutationCount));
+        assertThat(vocabularyIndex.findNearMatches("diagnossi"), containsInAnyOrder(age));
+    }
+
+    @Test
+    public void shortWordsMustMatchExactlyTest() {
+        assertThat(vocabularyIndex.findNearMatches("age"), containsInAnyOrder(age));
+        assertThat(vocabularyIndex.findNearMatches("ago").isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void searchTermWithoutWordsMatchesNothingTest() {
+        assertThat(vocabularyIndex.findNearMatches(" _- ").isEmpty(), equalTo(true));
+        assertThat(new VocabularyIndex(Collections.<ClinicalAttributeMetadata>emptyList()).findNearMatches("mutation").isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void findWordsMatchesLinearScanTest() {
+        List<String> vocabulary = Arrays.asList("mutation", "mutations", "mutant", "count", "burden", "border", "tumor",
+            "tumour", "humor", "nonsynonymous", "synonymous", "diagnosis", "age", "stage", "status", "last");
+        List<ClinicalAttributeMetadata> clinicalAttributes = new ArrayList<ClinicalAttributeMetadata>();
+        for (String word : vocabulary) {
+            clinicalAttributes.add(new ClinicalAttributeMetadata(word.toUpperCase(), null, word, "STRING", "PATIENT", "1"));
+        }
+        VocabularyIndex index = new VocabularyIndex(clinicalAttributes);
+        assertThat(index.size(), equalTo(vocabulary.size()));
+        for (String probe : Arrays.asList("mutation", "mutaton", "tumr", "burdn", "stat", "synonymus", "xyz")) {
+            for (int maximumEditDistance = 0; maximumEditDistance <= VocabularyIndex.MAXIMUM_EDIT_DISTANCE; maximumEditDistance++) {
+                List<String> expected = new ArrayList<String>();
+                for (String word : vocabulary) {
+                    if (VocabularyIndex.getEditDistance(probe, word) <= maximumEditDistance) {
+                        expected.add(word);
+                    }
+                }
+                assertThat(index.findWords(probe, maximumEditDistance), containsInAnyOrder(expected.toArray()));
+            }
+        }
+    }
+
+    @Test
+    public void editDistanceTest() {
+        assertThat(VocabularyIndex.getEditDistance("mutaton", "mutation"), equalTo(1));
+        assertThat(VocabularyIndex.getEditDistance("kitten", "sitting"), equalTo(3));
+        assertThat(VocabularyIndex.getEditDistance("", "age"), equalTo(3));
+    }
+}
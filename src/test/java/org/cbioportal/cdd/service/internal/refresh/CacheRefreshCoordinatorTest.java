@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cbioportal.cdd.model.CacheRefreshStatus;
+import org.cbioportal.cdd.service.exception.FailedCacheRefreshException;
+import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataCache;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CacheRefreshCoordinatorTest {
+
+    private BlockingCache clinicalAttributesCache;
+    private CacheRefreshCoordinator coordinator;
+
+    @Before
+    public void createCoordinator() {
+        clinicalAttributesCache = new BlockingCache();
+        coordinator = new CacheRefreshCoordinator(clinicalAttributesCache, new SimpleMeterRegistry(), "PT5S");
+    }
+
+    @After
+    public void shutdownCoordinator() {
+        clinicalAttributesCache.release.countDown();
+        coordinator.shutdown();
+    }
+
+    @Test
+    public void concurrentRefreshesAttachToJobInFlightTest() throws Exception {
+        CacheRefreshJob job = coordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL);
+        assertThat(clinicalAttributesCache.started.await(5, TimeUnit.SECONDS), equalTo(true));
+        assertThat(job.getStatus().getState(), equalTo(CacheRefreshStatus.STATE_RUNNING));
+        assertThat(coordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL), equalTo(job));
+        assertThat(coordinator.refresh(CacheRefreshCoordinator.TRIGGER_SCHEDULED), equalTo(job));
+        clinicalAttributesCache.release.countDown();
+        job.await();
+        CacheRefreshStatus status = coordinator.getJob(job.getId()).getStatus();
+        assertThat(status.getState(), equalTo(CacheRefreshStatus.STATE_SUCCEEDED));
+        assertThat(status.getAttachedRequests(), equalTo(2));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(1));
+        // once the job has finished a new refresh starts a new job
+        CacheRefreshJob nextJob = coordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL);
+        assertThat(nextJob, not(equalTo(job)));
+        nextJob.await();
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(2));
+    }
+
+    @Test
+    public void failedRefreshTest() throws Exception {
+        clinicalAttributesCache.fail = true;
+        clinicalAttributesCache.release.countDown();
+        CacheRefreshJob job = coordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL);
+        try {
+            job.await();
+            fail("Expected FailedCacheRefreshException when the refresh fails");
+        } catch (FailedCacheRefreshException e) {
+            // expected
+        }
+        assertThat(job.getStatus().getState(), equalTo(CacheRefreshStatus.STATE_FAILED));
+        assertThat(job.getStatus().getMessage(), equalTo("Failed to refresh cache"));
+    }
+
+    @Test
+    public void errorInRefreshFinishesJobTest() throws Exception {
+        clinicalAttributesCache.error = true;
+        clinicalAttributesCache.release.countDown();
+        CacheRefreshJob job = coordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL);
+        try {
+            job.await();
+            fail("Expected FailedCacheRefreshException when the refresh throws an Error");
+        } catch (FailedCacheRefreshException e) {
+            assertThat(e.getCause() instanceof StackOverflowError, equalTo(true));
+        }
+        assertThat(job.getStatus().getState(), equalTo(CacheRefreshStatus.STATE_FAILED));
+        // the failed job does not keep the in-flight slot
+        clinicalAttributesCache.error = false;
+        CacheRefreshJob nextJob = coordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL);
+        assertThat(nextJob, not(equalTo(job)));
+        nextJob.await();
+        assertThat(nextJob.getStatus().getState(), equalTo(CacheRefreshStatus.STATE_SUCCEEDED));
+    }
+
+    @Test
+    public void awaitTimesOutTest() throws Exception {
+        coordinator.shutdown();
+        coordinator = new CacheRefreshCoordinator(clinicalAttributesCache, new SimpleMeterRegistry(), "PT0.2S");
+        CacheRefreshJob job = coordinator.refresh(CacheRefreshCoordinator.TRIGGER_MANUAL);
+        try {
+            job.await();
+            fail("Expected FailedCacheRefreshException when the refresh takes longer than the timeout");
+        } catch (FailedCacheRefreshException e) {
+            assertThat(e.getCause() instanceof TimeoutException, equalTo(true));
+        }
+        // the refresh itself goes on
+        assertThat(job.getStatus().getState(), equalTo(CacheRefreshStatus.STATE_RUNNING));
+    }
+
+    @Test
+    public void unknownJobTest() {
+        assertThat(coordinator.getJob("UNKNOWN_JOB"), equalTo(null));
+    }
+
+    /**
+    * resetCache() waits until released, then fails or throws an Error if asked to.
+    */
+    private static class BlockingCache extends ClinicalAttributeMetadataCache {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger resetCount = new AtomicInteger();
+        private volatile boolean fail = false;
+        private volatile boolean error = false;
+
+        @Override
+        public void resetCache() {
+            resetCount.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (error) {
+                throw new StackOverflowError();
+            }
+            if (fail) {
+                throw new FailedCacheRefreshException("Failed to refresh cache", new Exception());
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.cbioportal.cdd.repository.topbraid.KnowledgeSystemsRepository;
+import org.cbioportal.cdd.service.exception.FailedCacheRefreshException;
+import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataCache;
+import org.cbioportal.cdd.service.internal.ClinicalAttributeMetadataSnapshot;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CacheRefreshSchedulerTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private CountingCache clinicalAttributesCache;
+    private FingerprintRepository knowledgeSystemsRepository;
+    private CacheRefreshCoordinator coordinator;
+    private CacheRefreshScheduler scheduler;
+
+    @Before
+    public void createScheduler() {
+        clinicalAttributesCache = new CountingCache();
+        knowledgeSystemsRepository = new FingerprintRepository();
+        coordinator = new CacheRefreshCoordinator(clinicalAttributesCache, new SimpleMeterRegistry(), "PT5S");
+        scheduler = new CacheRefreshScheduler(coordinator, clinicalAttributesCache, knowledgeSystemsRepository, new SimpleMeterRegistry(), "PT10M", "PT1H", true);
+    }
+
+    @After
+    public void shutdownCoordinator() {
+        coordinator.shutdown();
+    }
+
+    @Test
+    public void emptyCacheIsRefreshedTest() {
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_STARTUP, START);
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(1));
+    }
+
+    @Test
+    public void unchangedFingerprintIsNotRefreshedTest() {
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_STARTUP, START);
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(10)));
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(20)));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(1));
+        assertThat(knowledgeSystemsRepository.probeCount.get(), equalTo(3));
+    }
+
+    @Test
+    public void changedFingerprintIsRefreshedTest() {
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_STARTUP, START);
+        knowledgeSystemsRepository.fingerprint = "101:def";
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(10)));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(2));
+    }
+
+    @Test
+    public void staleCacheIsRefreshedTest() {
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_STARTUP, START);
+        clinicalAttributesCache.stale = true;
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(10)));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(2));
+    }
+
+    @Test
+    public void failedRefreshBacksOffTest() {
+        clinicalAttributesCache.fail = true;
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_STARTUP, START);
+        // 20 minutes after the first failure
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(10)));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(1));
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(20)));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(2));
+        // 40 minutes after the second failure
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(50)));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(2));
+        clinicalAttributesCache.fail = false;
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(60)));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(3));
+        // no backoff after a successful refresh
+        clinicalAttributesCache.stale = true;
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(70)));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(4));
+    }
+
+    @Test
+    public void failedFingerprintBacksOffTest() {
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_STARTUP, START);
+        knowledgeSystemsRepository.fail = true;
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(10)));
+        scheduler.check(CacheRefreshCoordinator.TRIGGER_SCHEDULED, START.plus(Duration.ofMinutes(20)));
+        assertThat(knowledgeSystemsRepository.probeCount.get(), equalTo(2));
+        assertThat(clinicalAttributesCache.resetCount.get(), equalTo(1));
+    }
+
+    /**
+    * resetCache() only counts, the snapshot is empty until the first successful reset.
+    */
+    private static class CountingCache extends ClinicalAttributeMetadataCache {
+
+        private final AtomicInteger resetCount = new AtomicInteger();
+        private volatile ClinicalAttributeMetadataSnapshot snapshot = null;
+        private volatile boolean stale = false;
+        private volatile boolean fail = false;
+
+        @Override
+        public void resetCache() {
+            resetCount.incrementAndGet();
+            if (fail) {
+                throw new FailedCacheRefreshException("Failed to refresh cache", new Exception());
+            }
+            snapshot = new ClinicalAttributeMetadataSnapshot(Collections.emptyMap(), Collections.emptyMap());
+            stale = false;
+        }
+
+        @Override
+        public ClinicalAttributeMetadataSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        @Override
+        public boolean cacheIsStale() {
+            return stale;
+        }
+    }
+
+    private static class FingerprintRepository extends KnowledgeSystemsRepository {
+
+        private final AtomicInteger probeCount = new AtomicInteger();
+        private volatile String fingerprint = "100:abc";
+        private volatile boolean fail = false;
+
+        private FingerprintRepository() {
+            super(null, "", "");
+        }
+
+        @Override
+        public String getFingerprint() {
+            probeCount.incrementAndGet();
+            if (fail) {
+                throw new RuntimeException("TopBraid is unavailable");
+            }
+            return fingerprint;
+        }
+    }
+}
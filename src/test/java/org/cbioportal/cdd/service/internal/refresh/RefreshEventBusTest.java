@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026 Memorial Sloan-Kettering Cancer Center.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY, WITHOUT EVEN THE IMPLIED WARRANTY OF MERCHANTABILITY OR FITNESS
+ * FOR A PARTICULAR PURPOSE. The software and documentation provided hereunder
+ * is on an "as is" basis, and Memorial Sloan-Kettering Cancer Center has no
+ * obligations to provide maintenance, support, updates, enhancements or
+ * modifications. In no event shall Memorial Sloan-Kettering Cancer Center be
+ * liable to any party for direct, indirect, special, incidental or
+ * consequential damages, including lost profits, arising out of the use of this
+ * software and its documentation, even if Memorial Sloan-Kettering Cancer
+ * Center has been advised of the possibility of such damage.
+ */
+
+package org.cbioportal.cdd.service.internal.refresh;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RefreshEventBusTest {
+
+    private HttpServer webhookStub;
+    private BlockingQueue<String> webhookRequestBodies;
+    private MeterRegistry meterRegistry;
+
+    @Before
+    public void startWebhookStub() throws Exception {
+        webhookRequestBodies = new LinkedBlockingQueue<String>();
+        webhookStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        webhookStub.createContext("/hook", exchange -> {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] buffer = new byte[1024];
+                for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                    body.write(buffer, 0, read);
+                }
+            }
+            webhookRequestBodies.add(new String(body.toByteArray(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        webhookStub.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @After
+    public void stopWebhookStub() {
+        webhookStub.stop(0);
+    }
+
+    @Test
+    public void webhookReceivesFailedEventsOnlyTest() throws Exception {
+        WebhookRefreshEventSink webhookSink = makeWebhookSink("http://localhost:" + webhookStub.getAddress().getPort() + "/hook");
+        RefreshEventBus refreshEventBus = new RefreshEventBus(Collections.<RefreshEventSink>singletonList(webhookSink), 10, meterRegistry);
+        try {
+            refreshEventBus.publish(RefreshEvent.started());
+            refreshEventBus.publish(RefreshEvent.succeeded(Duration.ofMillis(10), 5, 2));
+            refreshEventBus.publish(RefreshEvent.failed(Duration.ofMillis(20), 5, 2, "Unable to load data from all backup caches..."));
+            String body = webhookRequestBodies.poll(10, TimeUnit.SECONDS);
+            assertThat(body, notNullValue());
+            assertThat(body, containsString("\"type\":\"FAILED\""));
+            assertThat(body, containsString("\"durationMillis\":20"));
+            assertThat(body, containsString("\"attributeCount\":5"));
+            assertThat(body, containsString("Unable to load data from all backup caches..."));
+            assertThat(webhookRequestBodies.poll(500, TimeUnit.MILLISECONDS), nullValue());
+        } finally {
+            refreshEventBus.shutdown();
+            webhookSink.close();
+        }
+    }
+
+    @Test
+    public void webhookFailureIsCountedTest() throws Exception {
+        WebhookRefreshEventSink webhookSink = makeWebhookSink("http://localhost:" + webhookStub.getAddress().getPort() + "/no-such-hook");
+        RefreshEventBus refreshEventBus = new RefreshEventBus(Collections.<RefreshEventSink>singletonList(webhookSink), 10, meterRegistry);
+        try {
+            refreshEventBus.publish(RefreshEvent.fellBackToBackup(Duration.ofMillis(10), 5, 2));
+            long deadline = System.currentTimeMillis() + 10000;
+            while (countEvents("webhook", "failed") == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(countEvents("webhook", "failed"), equalTo(1.0));
+        } finally {
+            refreshEventBus.shutdown();
+            webhookSink.close();
+        }
+    }
+
+    @Test
+    public void disabledWebhookIsNotRegisteredTest() throws Exception {
+        WebhookRefreshEventSink webhookSink = makeWebhookSink("");
+        RefreshEventBus refreshEventBus = new RefreshEventBus(Collections.<RefreshEventSink>singletonList(webhookSink), 10, meterRegistry);
+        refreshEventBus.publish(RefreshEvent.failed(Duration.ofMillis(20), 0, 0, "faking a failure"));
+        refreshEventBus.shutdown();
+        webhookSink.close();
+        assertThat(meterRegistry.find("cdd.refresh.events").counter(), nullValue());
+    }
+
+    @Test
+    public void blockedSinkDoesNotBlockPublisherTest() throws Exception {
+        CountDownLatch sinkEntered = new CountDownLatch(1);
+        CountDownLatch releaseSink = new CountDownLatch(1);
+        BlockingQueue<RefreshEvent> loggedEvents = new LinkedBlockingQueue<RefreshEvent>();
+        RefreshEventSink blockedSink = new RefreshEventSink() {
+            public String getName() {
+                return "blocked";
+            }
+            public void accept(RefreshEvent event) throws Exception {
+                sinkEntered.countDown();
+                releaseSink.await();
+            }
+        };
+        RefreshEventSink recordingSink = new RefreshEventSink() {
+            public String getName() {
+                return "recording";
+            }
+            public void accept(RefreshEvent event) {
+                loggedEvents.add(event);
+            }
+        };
+        RefreshEventBus refreshEventBus = new RefreshEventBus(Arrays.asList(blockedSink, recordingSink), 1, meterRegistry);
+        try {
+            // each event is delivered to the recording sink before the next one is published, so its
+            // one slot queue is never full and it gets every event
+            refreshEventBus.publish(RefreshEvent.started());
+            assertThat(sinkEntered.await(10, TimeUnit.SECONDS), equalTo(true));
+            assertThat(loggedEvents.poll(10, TimeUnit.SECONDS), notNullValue());
+            // the blocked sink is busy with the first event: the second is queued, the third is dropped
+            long start = System.nanoTime();
+            refreshEventBus.publish(RefreshEvent.succeeded(Duration.ofMillis(10), 5, 2));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(1000L));
+            assertThat(loggedEvents.poll(10, TimeUnit.SECONDS), notNullValue());
+            start = System.nanoTime();
+            refreshEventBus.publish(RefreshEvent.started());
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), lessThan(1000L));
+            assertThat(countEvents("blocked", "dropped"), equalTo(1.0));
+            assertThat(loggedEvents.poll(10, TimeUnit.SECONDS), notNullValue());
+            assertThat(countEvents("recording", "dropped"), equalTo(0.0));
+        } finally {
+            releaseSink.countDown();
+            refreshEventBus.shutdown();
+        }
+    }
+
+    private WebhookRefreshEventSink makeWebhookSink(String url) {
+        return new WebhookRefreshEventSink(url, new RefreshEvent.Type[] {RefreshEvent.Type.FAILED, RefreshEvent.Type.FELL_BACK_TO_BACKUP},
+            "", "", "", 1000);
+    }
+
+    private double countEvents(String sink, String outcome) {
+        double count = 0;
+        for (Counter counter : meterRegistry.find("cdd.refresh.events").tag("sink", sink).tag("outcome", outcome).counters()) {
+            count += counter.count();
+        }
+        return count;
+    }
+}